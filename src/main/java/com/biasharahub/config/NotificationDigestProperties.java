@@ -0,0 +1,76 @@
+package com.biasharahub.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Configuration for seller alert digests (new-order and low-stock alerts).
+ * Alerts on digest channels are buffered per seller and sent as one summary every interval;
+ * urgent alerts (out of stock, high-value orders) and non-digest channels are still sent immediately.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.notifications.digest")
+public class NotificationDigestProperties {
+
+    /**
+     * Whether digest mode is on. When false, every alert is sent immediately on every channel (previous behaviour).
+     */
+    private boolean enabled = true;
+
+    /**
+     * Channels that are coalesced into digests: whatsapp, sms, in_app. Channels not listed are sent immediately.
+     */
+    private Set<String> channels = new LinkedHashSet<>(Set.of("whatsapp", "sms"));
+
+    /**
+     * Orders with a total at or above this amount (KES) bypass the digest and are sent immediately.
+     */
+    private BigDecimal immediateOrderTotal = new BigDecimal("50000");
+
+    /**
+     * Maximum orders / products listed by name in one digest; the rest are summarised as "and N more".
+     */
+    private int maxLines = 5;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Set<String> getChannels() {
+        return channels;
+    }
+
+    public void setChannels(Set<String> channels) {
+        this.channels = channels;
+    }
+
+    public BigDecimal getImmediateOrderTotal() {
+        return immediateOrderTotal;
+    }
+
+    public void setImmediateOrderTotal(BigDecimal immediateOrderTotal) {
+        this.immediateOrderTotal = immediateOrderTotal;
+    }
+
+    public int getMaxLines() {
+        return maxLines;
+    }
+
+    public void setMaxLines(int maxLines) {
+        this.maxLines = maxLines;
+    }
+
+    /** True when alerts for the given channel (whatsapp, sms, in_app) are buffered into digests. */
+    public boolean isDigestChannel(String channel) {
+        if (!enabled || channels == null) return false;
+        return channels.stream().anyMatch(c -> c != null && c.trim().equalsIgnoreCase(channel));
+    }
+}
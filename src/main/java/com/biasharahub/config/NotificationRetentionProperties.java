@@ -0,0 +1,79 @@
+package com.biasharahub.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration for the notification compaction job. Read notifications older than the retention age are
+ * moved to notifications_archive (ARCHIVE) or removed (DELETE) in small batches.
+ * Tenants can override days and mode via public.tenants.notification_retention_days / notification_retention_mode.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.notifications.retention")
+public class NotificationRetentionProperties {
+
+    /**
+     * Whether the compaction job runs. When false, the scheduled run is a no-op.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Default age (days) after which read notifications are compacted, when the tenant has no override.
+     */
+    private int defaultDays = 90;
+
+    /**
+     * Default mode when the tenant has no override: ARCHIVE, DELETE or NONE.
+     */
+    private String defaultMode = "ARCHIVE";
+
+    /**
+     * Rows moved per statement. Each batch is its own short transaction so inbox writes are never blocked for long.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Upper bound on batches per tenant per run so one large tenant cannot monopolise the job.
+     */
+    private int maxBatchesPerTenant = 200;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getDefaultDays() {
+        return defaultDays;
+    }
+
+    public void setDefaultDays(int defaultDays) {
+        this.defaultDays = defaultDays;
+    }
+
+    public String getDefaultMode() {
+        return defaultMode;
+    }
+
+    public void setDefaultMode(String defaultMode) {
+        this.defaultMode = defaultMode;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxBatchesPerTenant() {
+        return maxBatchesPerTenant;
+    }
+
+    public void setMaxBatchesPerTenant(int maxBatchesPerTenant) {
+        this.maxBatchesPerTenant = maxBatchesPerTenant;
+    }
+}
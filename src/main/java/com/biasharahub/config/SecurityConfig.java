@@ -72,6 +72,8 @@ public class SecurityConfig {
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs", "/v3/api-docs/**",
                                 "/api/swagger-ui/**", "/api/v3/api-docs", "/api/v3/api-docs/**").hasAnyRole("SUPER_ADMIN", "ASSISTANT_ADMIN")
                         .requestMatchers("/admin/api-docs-info", "/api/admin/api-docs-info").hasAnyRole("SUPER_ADMIN", "ASSISTANT_ADMIN")
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasAnyRole("SUPER_ADMIN", "ASSISTANT_ADMIN")
                         // Public storefront (home/marketplace): list shops, categories, products and single product — no auth
                         .requestMatchers(HttpMethod.GET, "/products/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/services/**").permitAll()
@@ -106,6 +108,8 @@ public class SecurityConfig {
         config.setAllowedOrigins(origins);
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         config.setAllowedHeaders(List.of("*"));
+        // Paged listings (e.g. GET /shipments) say whether another page follows in this header
+        config.setExposedHeaders(List.of("X-Has-Next"));
         config.setAllowCredentials(true);
         config.setMaxAge(3600L);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -2,19 +2,18 @@ package com.biasharahub.controller;
 
 import com.biasharahub.security.AuthenticatedUser;
 import com.biasharahub.service.AccountingService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.LocalDate;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Micro-accounting endpoints: daily sales/expenses, KRA-ready reports, export.
@@ -39,31 +38,33 @@ public class AccountingController {
         return ResponseEntity.ok(accountingService.getDailySummary(user, from, to));
     }
 
-    @GetMapping(value = "/kra-export", produces = "text/csv")
-    public ResponseEntity<String> getKraExport(
+    /**
+     * KRA export streamed to the response: per-day sales and each expense, then totals. format = csv (default) or xlsx.
+     */
+    @GetMapping("/kra-export")
+    public void getKraExport(
             @AuthenticationPrincipal AuthenticatedUser user,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
-        if (user == null) return ResponseEntity.status(401).build();
-        if (from.isAfter(to)) {
-            return ResponseEntity.badRequest().build();
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false, defaultValue = "csv") String format,
+            HttpServletResponse response) throws IOException {
+        if (user == null) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        AccountingService.ExportFormat exportFormat;
+        try {
+            exportFormat = AccountingService.ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            exportFormat = null;
         }
-        List<Map<String, String>> rows = accountingService.getKraExport(user, from, to);
-        StringBuilder sb = new StringBuilder();
-        sb.append("Item,Value\n");
-        for (Map<String, String> row : rows) {
-            String item = row.get("Item");
-            String value = row.get("Amount");
-            if (item != null || value != null) {
-                sb.append("\"").append(item != null ? item.replace("\"", "\"\"") : "").append("\",");
-                sb.append("\"").append(value != null ? value.replace("\"", "\"\"") : "").append("\"\n");
-            } else {
-                sb.append("\n");
-            }
+        if (from.isAfter(to) || exportFormat == null) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return;
         }
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"biasharahub-income-" + from + "-to-" + to + ".csv\"")
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .body(sb.toString());
+        response.setContentType(exportFormat.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"biasharahub-income-" + from + "-to-" + to + "." + exportFormat.extension() + "\"");
+        accountingService.writeKraExport(user, from, to, exportFormat, response.getOutputStream());
     }
 }
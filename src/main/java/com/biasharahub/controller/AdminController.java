@@ -6,13 +6,16 @@ import com.biasharahub.dto.request.AddOwnerRequest;
 import com.biasharahub.dto.request.AddServiceProviderRequest;
 import com.biasharahub.dto.request.SetAccountStatusRequest;
 import com.biasharahub.dto.response.UserDto;
+import com.biasharahub.service.SalesRollupService;
 import com.biasharahub.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.Map;
 import java.util.UUID;
 
@@ -30,12 +33,14 @@ import java.util.UUID;
 public class AdminController {
 
     private final UserService userService;
+    private final SalesRollupService salesRollupService;
 
     @Value("${app.oauth2.backend-base-url:http://localhost:5050/api}")
     private String apiBaseUrl;
 
-    public AdminController(UserService userService) {
+    public AdminController(UserService userService, SalesRollupService salesRollupService) {
         this.userService = userService;
+        this.salesRollupService = salesRollupService;
     }
 
     /**
@@ -115,4 +120,17 @@ public class AdminController {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
+
+    /**
+     * Rebuild the daily sales and expense rollups behind business insights for every active tenant, for [from, to]
+     * or all history when omitted. Normal writes keep them current; use this after bulk imports or data fixes.
+     * Returns rows written per tenant schema (-1 where a tenant failed).
+     */
+    @PostMapping("/insights/rollups/backfill")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<Map<String, Integer>> backfillInsightsRollups(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(salesRollupService.backfillAllTenants(from, to));
+    }
 }
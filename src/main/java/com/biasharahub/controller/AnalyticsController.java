@@ -1,10 +1,12 @@
 package com.biasharahub.controller;
 
 import com.biasharahub.repository.OrderRepository;
-import com.biasharahub.repository.ProductRepository;
 import com.biasharahub.repository.UserRepository;
 import com.biasharahub.security.AuthenticatedUser;
+import com.biasharahub.service.AnalyticsResultCache;
 import com.biasharahub.service.BusinessInsightsService;
+import com.biasharahub.service.PlatformAnalyticsService;
+import com.biasharahub.service.SalesRollupService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -29,12 +31,26 @@ import java.util.UUID;
 public class AnalyticsController {
 
     private final OrderRepository orderRepository;
-    private final ProductRepository productRepository;
     private final UserRepository userRepository;
     private final BusinessInsightsService businessInsightsService;
+    private final SalesRollupService salesRollupService;
+    private final PlatformAnalyticsService platformAnalyticsService;
+    private final AnalyticsResultCache analyticsResultCache;
 
+    private static final int TOP_PRODUCTS_LIMIT = 5;
+
+    /**
+     * Dashboard summary. Top products (by revenue and by units) cover the period window, default the last month;
+     * the totals are all-time as before. Owners get their business's totals and top products (zero and empty before
+     * they have a business); admins get platform-wide totals across all tenants (see {@link PlatformAnalyticsService})
+     * with this tenant's top products.
+     */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAnalytics(@AuthenticationPrincipal AuthenticatedUser user) {
+    public ResponseEntity<Map<String, Object>> getAnalytics(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(required = false, defaultValue = "MONTH") String period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
         if (user == null) return ResponseEntity.status(401).build();
         String role = user.role() != null ? user.role().toLowerCase() : "";
         if (!"owner".equals(role) && !"super_admin".equals(role) && !"assistant_admin".equals(role)) {
@@ -48,6 +64,31 @@ public class AnalyticsController {
                     .orElse(null);
         }
 
+        LocalDate[] range = businessInsightsService.resolveDateRange(period, from, to);
+        if ("owner".equals(role) && businessId == null) {
+            // Nothing to show yet; a null business would otherwise mean the whole tenant (and the admins' cache entry)
+            Map<String, Object> empty = zeroTotals();
+            putEmptyTopProducts(empty, range[0], range[1]);
+            return ResponseEntity.ok(empty);
+        }
+        UUID scopeId = businessId;
+        Map<String, Object> analytics = analyticsResultCache.get(
+                AnalyticsResultCache.key(AnalyticsResultCache.KIND_SUMMARY, scopeId, period, range[0], range[1], null),
+                () -> computeAnalytics(scopeId, range[0], range[1]));
+        if (scopeId != null) {
+            return ResponseEntity.ok(analytics);
+        }
+        // Admins: totals span every tenant, not just the schema this request runs in. Not cached with the summary:
+        // the platform service caches each tenant's totals and invalidates them per tenant.
+        Map<String, Object> platform = platformAnalyticsService.getPlatformTotals();
+        Map<String, Object> merged = new HashMap<>(analytics);
+        for (String key : List.of("totalOrders", "totalRevenue", "pendingOrders", "averageOrderValue", "tenantCount", "failedTenants")) {
+            merged.put(key, platform.get(key));
+        }
+        return ResponseEntity.ok(merged);
+    }
+
+    private Map<String, Object> computeAnalytics(UUID businessId, LocalDate from, LocalDate to) {
         if (businessId != null) {
             // Seller-scoped: stats for this business only
             BigDecimal totalRevenue = orderRepository.sumRevenueByBusinessId(businessId);
@@ -56,45 +97,66 @@ public class AnalyticsController {
             BigDecimal avgOrderValue = totalOrders > 0
                     ? totalRevenue.divide(BigDecimal.valueOf(totalOrders), 2, java.math.RoundingMode.HALF_UP)
                     : BigDecimal.ZERO;
-            List<Map<String, Object>> topProducts = productRepository.findByBusinessId(businessId).stream()
-                    .limit(5)
-                    .map(p -> (Map<String, Object>) Map.<String, Object>of(
-                            "id", p.getProductId(),
-                            "name", p.getName() != null ? p.getName() : "",
-                            "quantity", p.getQuantity() != null ? p.getQuantity() : 0,
-                            "price", p.getPrice() != null ? p.getPrice() : java.math.BigDecimal.ZERO
-                    ))
-                    .toList();
             Map<String, Object> analytics = new HashMap<>();
             analytics.put("totalOrders", totalOrders);
             analytics.put("totalRevenue", totalRevenue);
             analytics.put("pendingOrders", pendingOrders);
             analytics.put("averageOrderValue", avgOrderValue);
-            analytics.put("topProducts", topProducts);
-            return ResponseEntity.ok(analytics);
+            putTopProducts(analytics, businessId, from, to);
+            return analytics;
         }
 
-        // Admin or no businessId: system-wide stats (legacy)
-        BigDecimal totalRevenue = orderRepository.sumTotalRevenue();
-        long totalOrders = orderRepository.count();
-        long pendingOrders = orderRepository.countPendingOrders();
-        BigDecimal avgOrderValue = totalOrders > 0
-                ? totalRevenue.divide(BigDecimal.valueOf(totalOrders), 2, java.math.RoundingMode.HALF_UP)
-                : BigDecimal.ZERO;
+        // Admin: totals are filled in platform-wide by getAnalytics, top products cover the whole tenant
+        Map<String, Object> analytics = zeroTotals();
+        putTopProducts(analytics, null, from, to);
+        return analytics;
+    }
+
+    private static Map<String, Object> zeroTotals() {
         Map<String, Object> analytics = new HashMap<>();
-        analytics.put("totalOrders", totalOrders);
-        analytics.put("totalRevenue", totalRevenue);
-        analytics.put("pendingOrders", pendingOrders);
-        analytics.put("averageOrderValue", avgOrderValue);
-        analytics.put("topProducts", productRepository.findAll().stream().limit(5)
-                .map(p -> java.util.Map.<String, Object>of(
-                        "id", p.getProductId(),
-                        "name", p.getName() != null ? p.getName() : "",
-                        "quantity", p.getQuantity() != null ? p.getQuantity() : 0,
-                        "price", p.getPrice() != null ? p.getPrice() : java.math.BigDecimal.ZERO
+        analytics.put("totalOrders", 0L);
+        analytics.put("totalRevenue", BigDecimal.ZERO);
+        analytics.put("pendingOrders", 0L);
+        analytics.put("averageOrderValue", BigDecimal.ZERO);
+        return analytics;
+    }
+
+    /** Best sellers from the daily sales rollup (LIMIT-ed aggregate; independent of catalog size). */
+    private void putTopProducts(Map<String, Object> analytics, UUID businessId, LocalDate from, LocalDate to) {
+        analytics.put("topProducts", toMaps(salesRollupService.topProducts(businessId, from, to, false, TOP_PRODUCTS_LIMIT)));
+        analytics.put("topProductsByUnits", toMaps(salesRollupService.topProducts(businessId, from, to, true, TOP_PRODUCTS_LIMIT)));
+        analytics.put("topProductsFrom", from.toString());
+        analytics.put("topProductsTo", to.toString());
+    }
+
+    private static void putEmptyTopProducts(Map<String, Object> analytics, LocalDate from, LocalDate to) {
+        analytics.put("topProducts", List.of());
+        analytics.put("topProductsByUnits", List.of());
+        analytics.put("topProductsFrom", from.toString());
+        analytics.put("topProductsTo", to.toString());
+    }
+
+    private static List<Map<String, Object>> toMaps(List<SalesRollupService.ProductSales> products) {
+        return products.stream()
+                .map(p -> Map.<String, Object>of(
+                        "id", p.productId(),
+                        "name", p.name() != null ? p.name() : "",
+                        "quantity", p.stock(),
+                        "price", p.price() != null ? p.price() : BigDecimal.ZERO,
+                        "quantitySold", p.unitsSold(),
+                        "revenue", p.revenue()
                 ))
-                .toList());
-        return ResponseEntity.ok(analytics);
+                .toList();
+    }
+
+    /**
+     * Platform-wide totals across all tenant schemas (aggregated per tenant in parallel), with a per-tenant breakdown.
+     */
+    @GetMapping("/platform")
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ASSISTANT_ADMIN')")
+    public ResponseEntity<Map<String, Object>> getPlatformAnalytics(@AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(platformAnalyticsService.getPlatformTotals());
     }
 
     /**
@@ -113,6 +175,13 @@ public class AnalyticsController {
         if (!"owner".equals(role) && !"super_admin".equals(role) && !"assistant_admin".equals(role)) {
             return ResponseEntity.status(403).build();
         }
-        return ResponseEntity.ok(businessInsightsService.getInsights(user, period, from, to, productId));
+        UUID businessId = userRepository.findById(user.userId()).map(u -> u.getBusinessId()).orElse(null);
+        if (businessId == null) {
+            return ResponseEntity.ok(businessInsightsService.getInsights(user, period, from, to, productId));
+        }
+        LocalDate[] range = businessInsightsService.resolveDateRange(period, from, to);
+        return ResponseEntity.ok(analyticsResultCache.get(
+                AnalyticsResultCache.key(AnalyticsResultCache.KIND_INSIGHTS, businessId, period, range[0], range[1], productId),
+                () -> businessInsightsService.getInsightsForRange(businessId, period, range[0], range[1], productId)));
     }
 }
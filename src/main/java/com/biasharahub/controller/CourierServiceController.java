@@ -1,13 +1,17 @@
 package com.biasharahub.controller;
 
+import com.biasharahub.courier.CourierRateShopper;
+import com.biasharahub.courier.RateRequest;
 import com.biasharahub.dto.response.CourierServiceDto;
 import com.biasharahub.service.CourierServiceService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 /**
@@ -19,10 +23,32 @@ import java.util.List;
 public class CourierServiceController {
 
     private final CourierServiceService courierServiceService;
+    private final CourierRateShopper courierRateShopper;
 
     @GetMapping
     public ResponseEntity<List<CourierServiceDto>> listActive() {
         List<CourierServiceDto> list = courierServiceService.listActive();
         return ResponseEntity.ok(list);
     }
+
+    /**
+     * Delivery quotes from all active courier services for a route and parcel weight, cheapest first. Couriers that
+     * do not answer within the deadline are listed under {@code unavailable}.
+     */
+    @GetMapping("/rates")
+    public ResponseEntity<CourierRateShopper.RateShopResult> shopRates(
+            @RequestParam(required = false) String originCity,
+            @RequestParam(required = false) String originCountry,
+            @RequestParam String destinationCity,
+            @RequestParam(required = false) String destinationCountry,
+            @RequestParam(required = false) BigDecimal weightKg) {
+        RateRequest request = RateRequest.builder()
+                .originCity(originCity)
+                .originCountry(originCountry != null ? originCountry : "KE")
+                .destinationCity(destinationCity)
+                .destinationCountry(destinationCountry != null ? destinationCountry : "KE")
+                .weightKg(weightKg)
+                .build();
+        return ResponseEntity.ok(courierRateShopper.shop(request));
+    }
 }
@@ -0,0 +1,79 @@
+package com.biasharahub.controller;
+
+import com.biasharahub.courier.CourierIntegrationException;
+import com.biasharahub.courier.CourierProviderConfig;
+import com.biasharahub.courier.CourierWebhookIngestor;
+import com.biasharahub.courier.CourierWebhookMapper;
+import com.biasharahub.courier.TrackingInfo;
+import com.biasharahub.entity.CourierService;
+import com.biasharahub.repository.CourierServiceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracking webhooks from integrated couriers: POST https://your-domain/webhooks/couriers/{courierCode} with the
+ * courier's shared secret in X-Webhook-Secret (COURIER_&lt;CODE&gt;_WEBHOOK_SECRET). The payload is mapped by the
+ * courier's {@link CourierWebhookMapper}; the updates are stored before answering, and matched to shipments and
+ * applied in batches by {@link CourierWebhookIngestor}. Security: permitAll for this path, authenticated by the secret.
+ */
+@RestController
+@RequestMapping("/webhooks/couriers")
+@RequiredArgsConstructor
+@Slf4j
+public class CourierWebhookController {
+
+    private final CourierServiceRepository courierServiceRepository;
+    private final CourierProviderConfig providerConfig;
+    private final List<CourierWebhookMapper> mappers;
+    private final CourierWebhookIngestor ingestor;
+
+    /**
+     * Returns 200 once the updates are stored, 401 for a missing or wrong secret, 400 for an unreadable payload and
+     * 503 when they could not be stored, so the courier retries.
+     */
+    @PostMapping("/{courierCode}")
+    public ResponseEntity<Map<String, Object>> receive(
+            @PathVariable String courierCode,
+            @RequestHeader(value = "X-Webhook-Secret", required = false) String secret,
+            @RequestBody(required = false) String body) {
+        CourierService courier = courierServiceRepository.findByCode(courierCode.trim().toLowerCase()).orElse(null);
+        if (courier == null || !Boolean.TRUE.equals(courier.getIsActive())) {
+            return ResponseEntity.notFound().build();
+        }
+        String expected = providerConfig.getWebhookSecret(courier.getCode());
+        if (expected == null || secret == null
+                || !MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), secret.trim().getBytes(StandardCharsets.UTF_8))) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        CourierWebhookMapper mapper = mappers.stream()
+                .filter(m -> m.supports(courier.getProviderType()))
+                .findFirst()
+                .orElse(null);
+        if (mapper == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Courier does not send tracking webhooks"));
+        }
+        List<TrackingInfo> updates;
+        try {
+            updates = mapper.map(courier, body != null ? body : "");
+        } catch (CourierIntegrationException e) {
+            log.debug("Courier {} webhook rejected: {}", courier.getCode(), e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        try {
+            ingestor.submit(courier, updates);
+        } catch (DataAccessException e) {
+            log.warn("Courier {} webhook could not be stored: {}", courier.getCode(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(Map.of("accepted", updates.size()));
+    }
+}
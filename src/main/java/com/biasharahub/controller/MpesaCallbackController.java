@@ -10,12 +10,10 @@ import com.biasharahub.repository.PaymentRepository;
 import com.biasharahub.repository.ServiceAppointmentRepository;
 import com.biasharahub.repository.ServiceBookingEscrowRepository;
 import com.biasharahub.repository.ServiceBookingPaymentRepository;
-import com.biasharahub.service.InAppNotificationService;
+import com.biasharahub.service.NotificationDispatcher;
 import com.biasharahub.service.OrderEventPublisher;
 import com.biasharahub.service.PayoutService;
-import com.biasharahub.service.SmsNotificationService;
 import com.biasharahub.service.TenantWalletService;
-import com.biasharahub.service.WhatsAppNotificationService;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -47,9 +45,7 @@ public class MpesaCallbackController {
     private final TenantWalletService tenantWalletService;
     private final OrderEventPublisher orderEventPublisher;
     private final PayoutService payoutService;
-    private final InAppNotificationService inAppNotificationService;
-    private final WhatsAppNotificationService whatsAppNotificationService;
-    private final SmsNotificationService smsNotificationService;
+    private final NotificationDispatcher notificationDispatcher;
 
     @PostMapping("/stk-callback")
     @Transactional
@@ -83,16 +79,8 @@ public class MpesaCallbackController {
             tenantWalletService.recordIncomingPaymentForCurrentTenant(
                     amount, payment.getOrder().getOrderId().toString(), payment.getPaymentId().toString());
             orderEventPublisher.paymentCompleted(payment.getOrder().getOrderId(), payment.getPaymentId());
-            // Notify sellers synchronously so they receive payment-completed notifications
-            orderRepository.findByIdWithItems(payment.getOrder().getOrderId()).ifPresent(order -> {
-                try {
-                    inAppNotificationService.notifySellerPaymentCompleted(order);
-                    whatsAppNotificationService.notifySellerPaymentCompleted(order);
-                    smsNotificationService.notifySellerPaymentCompleted(order);
-                } catch (Exception e) {
-                    log.warn("Failed to send payment-completed notifications to seller for order {}: {}", order.getOrderId(), e.getMessage());
-                }
-            });
+            // Notify customer and sellers now (in this tenant); the async payment-completed handler's repeat is ignored
+            orderRepository.findByIdWithItems(payment.getOrder().getOrderId()).ifPresent(notificationDispatcher::orderPaid);
             return ResponseEntity.ok().build();
         }
 
@@ -134,15 +122,7 @@ public class MpesaCallbackController {
             tenantWalletService.recordIncomingPaymentForCurrentTenant(
                     amount, "appointment:" + appointment.getAppointmentId(), bookingPayment.getPaymentId().toString());
         }
-        try {
-            inAppNotificationService.notifyServiceBookingPaymentCompletedCustomer(appointment);
-            inAppNotificationService.notifyServiceBookingPaymentCompletedProvider(appointment);
-            whatsAppNotificationService.notifyServiceBookingPaymentCompletedCustomer(appointment);
-            whatsAppNotificationService.notifyServiceBookingPaymentCompletedProvider(appointment);
-            smsNotificationService.notifyProviderServiceBookingPaymentCompleted(appointment);
-        } catch (Exception ex) {
-            log.warn("Failed to send service booking payment notifications: {}", ex.getMessage());
-        }
+        notificationDispatcher.serviceBookingPaid(appointment);
         return ResponseEntity.ok().build();
     }
 
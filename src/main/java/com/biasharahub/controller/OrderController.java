@@ -19,6 +19,7 @@ import com.biasharahub.repository.UserRepository;
 import com.biasharahub.security.AuthenticatedUser;
 import com.biasharahub.service.InAppNotificationService;
 import com.biasharahub.service.OrderEventPublisher;
+import com.biasharahub.service.SellerAlertDigestService;
 import com.biasharahub.service.SmsNotificationService;
 import com.biasharahub.service.WhatsAppNotificationService;
 import com.biasharahub.service.StockLedgerService;
@@ -57,6 +58,7 @@ public class OrderController {
     private final WhatsAppNotificationService whatsAppNotificationService;
     private final SmsNotificationService smsNotificationService;
     private final StockLedgerService stockLedgerService;
+    private final SellerAlertDigestService sellerAlertDigestService;
 
     @GetMapping
     @Transactional(readOnly = true)
@@ -183,21 +185,13 @@ public class OrderController {
         order.setTotalAmount(total);
         order = orderRepository.save(order);
 
-        // Notify active sellers for products that are now low stock (in-app, WhatsApp, SMS)
+        // Notify active sellers for products that are now low stock (digested per channel; out-of-stock goes out immediately)
         Set<UUID> notifiedProductIds = new java.util.HashSet<>();
         for (OrderItem oi : order.getItems()) {
             Product p = oi.getProduct();
             if (p != null && p.getQuantity() != null && p.getQuantity() <= LOW_STOCK_THRESHOLD
                     && notifiedProductIds.add(p.getProductId())) {
-                try {
-                    inAppNotificationService.notifySellerLowStock(p);
-                } catch (Exception ignored) {}
-                try {
-                    whatsAppNotificationService.notifySellerLowStock(p);
-                } catch (Exception ignored) {}
-                try {
-                    smsNotificationService.notifySellerLowStock(p);
-                } catch (Exception ignored) {}
+                sellerAlertDigestService.lowStock(p);
             }
         }
 
@@ -214,22 +208,8 @@ public class OrderController {
 
         orderEventPublisher.orderCreated(order);
 
-        // Notify sellers synchronously (same request) so they always receive order-created notifications
-        try {
-            inAppNotificationService.notifySellerOrderCreated(order);
-        } catch (Exception e) {
-            log.warn("Failed to send in-app order-created notification to seller for order {}: {}", order.getOrderId(), e.getMessage());
-        }
-        try {
-            whatsAppNotificationService.notifySellerOrderCreated(order);
-        } catch (Exception e) {
-            log.warn("Failed to send WhatsApp order-created notification to seller for order {}: {}", order.getOrderId(), e.getMessage());
-        }
-        try {
-            smsNotificationService.notifySellerOrderCreated(order);
-        } catch (Exception e) {
-            log.warn("Failed to send SMS order-created notification to seller for order {}: {}", order.getOrderId(), e.getMessage());
-        }
+        // Notify sellers in the same request; WhatsApp/SMS are coalesced into periodic digests unless urgent
+        sellerAlertDigestService.orderCreated(order);
 
         return ResponseEntity.ok(toDto(order));
     }
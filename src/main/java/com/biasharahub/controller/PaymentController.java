@@ -36,9 +36,7 @@ public class PaymentController {
     private final OrderEventPublisher orderEventPublisher;
     private final MpesaClient mpesaClient;
     private final TenantWalletService tenantWalletService;
-    private final WhatsAppNotificationService whatsAppNotificationService;
-    private final InAppNotificationService inAppNotificationService;
-    private final SmsNotificationService smsNotificationService;
+    private final NotificationDispatcher notificationDispatcher;
 
     /** Initiate payment for an order via M-PESA STK Push. */
     @PostMapping("/{orderId}/payments/initiate")
@@ -88,19 +86,8 @@ public class PaymentController {
                 .message("M-PESA STK push initiated. Complete the payment on your phone to confirm.")
                 .build();
 
-        // Notify WhatsApp chatbot (if enabled) that a payment request was sent
-        try {
-            whatsAppNotificationService.notifyPaymentRequested(order, payment);
-        } catch (Exception e) {
-            // Do not fail the payment initiation just because notifications failed
-        }
-
-        // In-app notification for payment request
-        try {
-            inAppNotificationService.notifyPaymentRequested(order, payment);
-        } catch (Exception e) {
-            // ignore failures
-        }
+        // In-app + WhatsApp notification that a payment request was sent (never fails the initiation)
+        notificationDispatcher.paymentRequested(order, payment);
 
         return ResponseEntity.ok(body);
     }
@@ -165,16 +152,8 @@ public class PaymentController {
                     tenantWalletService.recordIncomingPaymentForCurrentTenant(
                             payment.getAmount(), orderId.toString(), paymentId.toString());
                     orderEventPublisher.paymentCompleted(orderId, paymentId);
-                    // Notify sellers synchronously so they receive payment-completed notifications
-                    orderRepository.findByIdWithItems(orderId).ifPresent(o -> {
-                        try {
-                            inAppNotificationService.notifySellerPaymentCompleted(o);
-                            whatsAppNotificationService.notifySellerPaymentCompleted(o);
-                            smsNotificationService.notifySellerPaymentCompleted(o);
-                        } catch (Exception e) {
-                            // log and continue
-                        }
-                    });
+                    // Notify customer and sellers now (in this tenant); the async handler's repeat is ignored
+                    orderRepository.findByIdWithItems(orderId).ifPresent(notificationDispatcher::orderPaid);
                     return ResponseEntity.ok(java.util.Map.of("status", "completed", "paymentId", paymentId));
                 })
                 .orElse(ResponseEntity.notFound().build());
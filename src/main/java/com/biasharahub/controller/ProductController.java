@@ -1,6 +1,7 @@
 package com.biasharahub.controller;
 
 import com.biasharahub.dto.response.BusinessDto;
+import com.biasharahub.dto.response.CatalogSearchHitDto;
 import com.biasharahub.dto.response.ProductCategoryDto;
 import com.biasharahub.dto.response.ProductDto;
 import com.biasharahub.entity.InventoryImage;
@@ -12,10 +13,9 @@ import com.biasharahub.repository.ProductRepository;
 import com.biasharahub.repository.SupplierDeliveryItemRepository;
 import com.biasharahub.repository.UserRepository;
 import com.biasharahub.security.AuthenticatedUser;
-import com.biasharahub.service.InAppNotificationService;
+import com.biasharahub.service.CatalogSearchIndex;
 import com.biasharahub.service.R2StorageService;
-import com.biasharahub.service.SmsNotificationService;
-import com.biasharahub.service.WhatsAppNotificationService;
+import com.biasharahub.service.SellerAlertDigestService;
 import com.biasharahub.service.StockLedgerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -49,16 +49,16 @@ public class ProductController {
 
     /** Low-stock threshold for seller alerts (in-app, WhatsApp, SMS). */
     private static final int LOW_STOCK_THRESHOLD = 10;
+    private static final int MAX_SEARCH_RESULTS = 50;
 
     private final ProductRepository productRepository;
     private final ProductCategoryRepository productCategoryRepository;
     private final SupplierDeliveryItemRepository supplierDeliveryItemRepository;
     private final UserRepository userRepository;
     private final Optional<R2StorageService> r2StorageService;
-    private final InAppNotificationService inAppNotificationService;
-    private final WhatsAppNotificationService whatsAppNotificationService;
-    private final SmsNotificationService smsNotificationService;
+    private final SellerAlertDigestService sellerAlertDigestService;
     private final StockLedgerService stockLedgerService;
+    private final CatalogSearchIndex catalogSearchIndex;
 
     @Value("${app.frontend-url:http://localhost:3000}")
     private String frontendUrl;
@@ -212,9 +212,10 @@ public class ProductController {
                     .orElse(Set.of());
         }
         if (businessName != null && !businessName.isBlank()) {
-            List<UUID> ids = userRepository.findByRoleIgnoreCaseAndBusinessNameContainingIgnoreCase("owner", businessName.trim())
+            // Typo-tolerant shop name match (storefront only lists verified shops, which is what the index holds)
+            List<UUID> ids = catalogSearchIndex.searchShops(businessName.trim(), MAX_SEARCH_RESULTS)
                     .stream()
-                    .map(User::getBusinessId)
+                    .map(hit -> hit.item().businessId())
                     .filter(java.util.Objects::nonNull)
                     .distinct()
                     .toList();
@@ -223,6 +224,46 @@ public class ProductController {
         return null;
     }
 
+    /**
+     * Search shops and products by name (and product category), typo-tolerant, best match first. No auth required.
+     * type: all (default), shop or product. Served from an in-memory index; product stock may lag by a few seconds.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<CatalogSearchHitDto>> search(
+            @RequestParam("q") String q,
+            @RequestParam(defaultValue = "all") String type,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (q == null || q.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        int max = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        List<CatalogSearchHitDto> hits = new java.util.ArrayList<>();
+        if (!"product".equalsIgnoreCase(type)) {
+            catalogSearchIndex.searchShops(q, max).forEach(hit -> hits.add(CatalogSearchHitDto.builder()
+                    .type("shop")
+                    .id(hit.item().businessId())
+                    .businessId(hit.item().businessId())
+                    .name(hit.item().businessName())
+                    .businessName(hit.item().businessName())
+                    .score(hit.score())
+                    .build()));
+        }
+        if (!"shop".equalsIgnoreCase(type)) {
+            catalogSearchIndex.searchProducts(q, max).forEach(hit -> hits.add(CatalogSearchHitDto.builder()
+                    .type("product")
+                    .id(hit.item().productId())
+                    .businessId(hit.item().businessId())
+                    .name(hit.item().name())
+                    .businessName(hit.item().businessName())
+                    .category(hit.item().category())
+                    .price(hit.item().price())
+                    .score(hit.score())
+                    .build()));
+        }
+        hits.sort(java.util.Comparator.comparingDouble(CatalogSearchHitDto::getScore).reversed());
+        return ResponseEntity.ok(hits.size() > max ? hits.subList(0, max) : hits);
+    }
+
     /**
      * Get single product.
      * - Owner / staff: only products belonging to their business (any moderation status, for Seller Center).
@@ -353,17 +394,9 @@ public class ProductController {
                             stockLedgerService.recordManualAdjustment(businessId, product, previousQty, newQty, actorUserId, "Quantity updated via product edit");
                         }
                     } catch (Exception ignored) {}
-                    // Notify active sellers when quantity is at or below threshold (in-app, WhatsApp, SMS)
+                    // Notify active sellers when quantity is at or below threshold (digested per channel)
                     if (product.getQuantity() != null && product.getQuantity() <= LOW_STOCK_THRESHOLD) {
-                        try {
-                            inAppNotificationService.notifySellerLowStock(product);
-                        } catch (Exception ignored) {}
-                        try {
-                            whatsAppNotificationService.notifySellerLowStock(product);
-                        } catch (Exception ignored) {}
-                        try {
-                            smsNotificationService.notifySellerLowStock(product);
-                        } catch (Exception ignored) {}
+                        sellerAlertDigestService.lowStock(product);
                     }
                     return ResponseEntity.ok(toDto(product));
                 })
@@ -23,9 +23,9 @@ import com.biasharahub.repository.UserRepository;
 import com.biasharahub.service.GoogleCalendarMeetService;
 import com.biasharahub.service.InAppNotificationService;
 import com.biasharahub.service.MpesaClient;
+import com.biasharahub.service.NotificationDispatcher;
 import com.biasharahub.service.R2StorageService;
 import com.biasharahub.service.ServiceBookingEscrowService;
-import com.biasharahub.service.SmsNotificationService;
 import com.biasharahub.service.WhatsAppNotificationService;
 import com.biasharahub.security.AuthenticatedUser;
 import jakarta.validation.Valid;
@@ -66,7 +66,7 @@ public class ServiceOfferingController {
     private final MpesaClient mpesaClient;
     private final InAppNotificationService inAppNotificationService;
     private final WhatsAppNotificationService whatsAppNotificationService;
-    private final SmsNotificationService smsNotificationService;
+    private final NotificationDispatcher notificationDispatcher;
     private final ServiceBookingEscrowService serviceBookingEscrowService;
     private final GoogleCalendarMeetService googleCalendarMeetService;
 
@@ -444,17 +444,8 @@ public class ServiceOfferingController {
                             .build();
                     serviceBookingPaymentRepository.save(payment);
                     // Reload with service so provider notification can resolve businessId; then notify customer + provider
-                    serviceAppointmentRepository.findByAppointmentIdWithDetails(saved.getAppointmentId()).ifPresent(appointment -> {
-                        try {
-                            inAppNotificationService.notifyServiceBookingCreated(appointment);
-                            inAppNotificationService.notifyProviderServiceBookingCreated(appointment);
-                            whatsAppNotificationService.notifyServiceBookingCreated(appointment);
-                            whatsAppNotificationService.notifyProviderServiceBookingCreated(appointment);
-                            smsNotificationService.notifyProviderServiceBookingCreated(appointment);
-                        } catch (Exception ex) {
-                            log.warn("Failed to send service booking notifications for appointment {}: {}", appointment.getAppointmentId(), ex.getMessage());
-                        }
-                    });
+                    serviceAppointmentRepository.findByAppointmentIdWithDetails(saved.getAppointmentId())
+                            .ifPresent(notificationDispatcher::serviceBookingCreated);
                     return ResponseEntity.ok(toAppointmentDto(saved));
                 })
                 .orElse(ResponseEntity.notFound().build());
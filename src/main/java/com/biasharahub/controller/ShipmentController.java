@@ -1,10 +1,13 @@
 package com.biasharahub.controller;
 
+import com.biasharahub.courier.BulkShipmentJob;
+import com.biasharahub.courier.BulkShipmentService;
 import com.biasharahub.courier.CourierIntegrationException;
 import com.biasharahub.courier.CourierIntegrationService;
 import com.biasharahub.courier.CreateShipmentResult;
 import com.biasharahub.courier.TrackingEvent;
 import com.biasharahub.courier.TrackingInfo;
+import com.biasharahub.dto.request.BulkCreateShipmentsRequest;
 import com.biasharahub.dto.response.ShipmentDto;
 import com.biasharahub.dto.response.TrackingInfoDto;
 import com.biasharahub.entity.Order;
@@ -17,16 +20,19 @@ import com.biasharahub.security.AuthenticatedUser;
 import com.biasharahub.service.InAppNotificationService;
 import com.biasharahub.service.PayoutService;
 import com.biasharahub.service.WhatsAppNotificationService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -45,29 +51,43 @@ public class ShipmentController {
     private final InAppNotificationService inAppNotificationService;
     private final PayoutService payoutService;
     private final CourierIntegrationService courierIntegrationService;
+    private final BulkShipmentService bulkShipmentService;
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    /**
+     * Shipments visible to the caller, newest first, one page at a time: owner/staff see their business's shipments,
+     * customers their own orders', couriers those assigned to them, admins all. X-Has-Next tells whether another
+     * page follows.
+     */
     @GetMapping
     @Transactional(readOnly = true)
-    public ResponseEntity<List<ShipmentDto>> listShipments(@AuthenticationPrincipal AuthenticatedUser user) {
+    public ResponseEntity<List<ShipmentDto>> listShipments(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(required = false, defaultValue = "0") int page,
+            @RequestParam(required = false, defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
         if (user == null) return ResponseEntity.status(401).<List<ShipmentDto>>build();
-        List<Shipment> shipments = new ArrayList<>();
+        Pageable pageable = PageRequest.of(Math.max(0, page), Math.min(Math.max(1, size), MAX_PAGE_SIZE));
         String role = user.role() != null ? user.role().toLowerCase() : "";
-        if ("owner".equals(role) || "staff".equals(role)) {
-            UUID businessId = userRepository.findById(user.userId())
-                    .map(User::getBusinessId)
-                    .orElse(null);
-            if (businessId != null) {
-                List<Order> businessOrders = orderRepository.findOrdersContainingProductsByBusinessId(businessId);
-                List<UUID> orderIds = businessOrders.stream().map(Order::getOrderId).distinct().toList();
-                if (!orderIds.isEmpty()) {
-                    shipments = shipmentRepository.findByOrder_OrderIdIn(orderIds);
-                }
+        Slice<Shipment> shipments;
+        switch (role) {
+            case "owner", "staff" -> {
+                UUID businessId = userRepository.findById(user.userId())
+                        .map(User::getBusinessId)
+                        .orElse(null);
+                shipments = businessId != null
+                        ? shipmentRepository.findPageByBusinessId(businessId, pageable)
+                        : new SliceImpl<>(List.of(), pageable, false);
             }
-        } else {
-            shipments = shipmentRepository.findAll();
+            case "customer" -> shipments = shipmentRepository.findPageByCustomerId(user.userId(), pageable);
+            case "courier" -> shipments = shipmentRepository.findPageByAssignedCourierId(user.userId(), pageable);
+            case "super_admin", "assistant_admin" -> shipments = shipmentRepository.findPageAll(pageable);
+            default -> shipments = new SliceImpl<>(List.of(), pageable, false);
         }
-        shipments.sort(Comparator.comparing(Shipment::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder())));
-        return ResponseEntity.ok(shipments.stream().map(this::toDto).collect(Collectors.toList()));
+        return ResponseEntity.ok()
+                .header("X-Has-Next", String.valueOf(shipments.hasNext()))
+                .body(shipments.getContent().stream().map(this::toDto).collect(Collectors.toList()));
     }
 
     @GetMapping("/order/{orderId}")
@@ -140,7 +160,9 @@ public class ShipmentController {
                 .orElse(ResponseEntity.status(404).<ShipmentDto>build());
     }
 
+    /** Runs in one transaction so the save only writes the fields given (see Shipment). */
     @PatchMapping("/{id}")
+    @Transactional
     public ResponseEntity<ShipmentDto> updateShipment(
             @AuthenticationPrincipal AuthenticatedUser user,
             @PathVariable UUID id,
@@ -304,36 +326,82 @@ public class ShipmentController {
     }
 
     /**
-     * Get tracking info from courier provider (if integrated). Returns null fields for MANUAL.
+     * Create many shipments with one integrated courier in the background (end-of-day dispatch).
+     * Body: { "courierServiceCode": "dhl", "shipmentIds": [...] }. Returns 202 with the run's progress; poll
+     * GET /shipments/bulk-create-with-provider/{jobId} for per-shipment results until "done" is true.
+     * Owners and staff can only dispatch their own business's shipments.
+     */
+    @PostMapping("/bulk-create-with-provider")
+    public ResponseEntity<?> bulkCreateWithProvider(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @Valid @RequestBody BulkCreateShipmentsRequest body) {
+        if (user == null) return ResponseEntity.status(401).build();
+        String role = user.role() != null ? user.role().toLowerCase() : "";
+        UUID businessId = null;
+        switch (role) {
+            case "owner", "staff" -> {
+                businessId = userRepository.findById(user.userId()).map(User::getBusinessId).orElse(null);
+                if (businessId == null) return ResponseEntity.status(403).build();
+            }
+            case "super_admin", "assistant_admin" -> { }
+            default -> {
+                return ResponseEntity.status(403).build();
+            }
+        }
+        try {
+            BulkShipmentJob job = bulkShipmentService.start(user.userId(), businessId, body.getShipmentIds(),
+                    body.getCourierServiceCode().trim());
+            return ResponseEntity.accepted().body(job.snapshot());
+        } catch (CourierIntegrationException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(429).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /** Progress and per-shipment results of a bulk create-with-provider run started by the caller. */
+    @GetMapping("/bulk-create-with-provider/{jobId}")
+    public ResponseEntity<Map<String, Object>> bulkCreateProgress(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @PathVariable UUID jobId) {
+        if (user == null) return ResponseEntity.status(401).build();
+        BulkShipmentJob job = bulkShipmentService.get(jobId, user.userId());
+        return job != null ? ResponseEntity.ok(job.snapshot()) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Tracking info as last refreshed from the courier provider in the background. Returns null fields for MANUAL
+     * couriers and shipments not yet tracked.
      */
     @GetMapping("/{id}/tracking")
     public ResponseEntity<TrackingInfoDto> getTracking(
             @AuthenticationPrincipal AuthenticatedUser user,
             @PathVariable UUID id) {
         if (user == null) return ResponseEntity.status(401).build();
+        TrackingInfo info;
         try {
-            TrackingInfo info = courierIntegrationService.getTracking(id);
-            if (info == null) {
-                return ResponseEntity.ok(TrackingInfoDto.builder().build());
-            }
-            TrackingInfoDto dto = TrackingInfoDto.builder()
-                    .trackingNumber(info.getTrackingNumber())
-                    .status(info.getStatus())
-                    .statusDescription(info.getStatusDescription())
-                    .estimatedDelivery(info.getEstimatedDelivery())
-                    .events(info.getEvents() != null ? info.getEvents().stream()
-                            .map(e -> TrackingInfoDto.TrackingEventDto.builder()
-                                    .timestamp(e.getTimestamp())
-                                    .status(e.getStatus())
-                                    .description(e.getDescription())
-                                    .location(e.getLocation())
-                                    .build())
-                            .toList() : null)
-                    .build();
-            return ResponseEntity.ok(dto);
-        } catch (CourierIntegrationException e) {
-            return ResponseEntity.badRequest().build();
+            info = courierIntegrationService.getTracking(id);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(404).build();
+        }
+        if (info == null) {
+            return ResponseEntity.ok(TrackingInfoDto.builder().build());
         }
+        TrackingInfoDto dto = TrackingInfoDto.builder()
+                .trackingNumber(info.getTrackingNumber())
+                .status(info.getStatus())
+                .statusDescription(info.getStatusDescription())
+                .estimatedDelivery(info.getEstimatedDelivery())
+                .events(info.getEvents() != null ? info.getEvents().stream()
+                        .map(e -> TrackingInfoDto.TrackingEventDto.builder()
+                                .timestamp(e.getTimestamp())
+                                .status(e.getStatus())
+                                .description(e.getDescription())
+                                .location(e.getLocation())
+                                .build())
+                        .toList() : null)
+                .build();
+        return ResponseEntity.ok(dto);
     }
 
     private ShipmentDto toDto(Shipment s) {
@@ -52,11 +52,17 @@ public class UserController {
                         // Service provider fields
                         .serviceProviderStatus(u.getServiceProviderStatus())
                         .serviceDeliveryType(u.getServiceDeliveryType())
+                        .notifyInApp(u.getNotifyInApp())
+                        .notifyWhatsapp(u.getNotifyWhatsapp())
+                        .notifySms(u.getNotifySms())
                         .build()))
                 .orElse(ResponseEntity.status(401).build());
     }
 
-    /** Update current user's profile (name, phone). Customers use this to add their phone for WhatsApp. */
+    /**
+     * Update current user's profile (name, phone, notification channels). Customers use this to add their phone for
+     * WhatsApp; notifyInApp / notifyWhatsapp / notifySms ("true"/"false") opt in or out of each channel.
+     */
     @PatchMapping("/me")
     public ResponseEntity<UserDto> updateMyProfile(@AuthenticationPrincipal AuthenticatedUser auth,
                                                    @RequestBody Map<String, String> body) {
@@ -70,6 +76,15 @@ public class UserController {
                         String phone = body.get("phone");
                         u.setPhone(phone != null && !phone.isBlank() ? phone.trim() : null);
                     }
+                    if (body.get("notifyInApp") != null) {
+                        u.setNotifyInApp(Boolean.parseBoolean(body.get("notifyInApp").trim()));
+                    }
+                    if (body.get("notifyWhatsapp") != null) {
+                        u.setNotifyWhatsapp(Boolean.parseBoolean(body.get("notifyWhatsapp").trim()));
+                    }
+                    if (body.get("notifySms") != null) {
+                        u.setNotifySms(Boolean.parseBoolean(body.get("notifySms").trim()));
+                    }
                     User saved = userRepository.save(u);
                     return ResponseEntity.ok(UserDto.builder()
                             .id(saved.getUserId())
@@ -82,6 +97,9 @@ public class UserController {
                             .verificationStatus(saved.getVerificationStatus())
                             .sellerTier(saved.getSellerTier())
                             .applyingForTier(saved.getApplyingForTier())
+                            .notifyInApp(saved.getNotifyInApp())
+                            .notifyWhatsapp(saved.getNotifyWhatsapp())
+                            .notifySms(saved.getNotifySms())
                             .build());
                 })
                 .orElse(ResponseEntity.status(401).build());
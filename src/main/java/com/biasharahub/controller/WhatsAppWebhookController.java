@@ -1,14 +1,16 @@
 package com.biasharahub.controller;
 
-import com.biasharahub.service.WhatsAppChatbotService;
+import com.biasharahub.service.WhatsAppInboundQueue;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 /**
- * Twilio WhatsApp webhook: receives incoming messages and delegates to the AI chatbot.
+ * Twilio WhatsApp webhook: receives incoming messages and queues them for the AI chatbot (acknowledged at once;
+ * the reply is sent from the queue, see WhatsAppInboundQueue).
  * Configure this URL in Twilio Console: https://your-domain/webhooks/whatsapp
  * Security: permitAll for this path (validated by Twilio signature if needed later).
  */
@@ -18,21 +20,24 @@ import org.springframework.web.bind.annotation.*;
 @Slf4j
 public class WhatsAppWebhookController {
 
-    private final WhatsAppChatbotService chatbotService;
+    private final WhatsAppInboundQueue inboundQueue;
 
     /**
      * Twilio sends POST with application/x-www-form-urlencoded: From, Body, To, etc.
-     * Location shares include Latitude and Longitude parameters.
+     * Location shares include Latitude and Longitude parameters. Returns 200 once queued (or when MessageSid is a
+     * redelivery), 503 only if the sender's queue is full so Twilio retries.
      */
     @PostMapping(consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
     public ResponseEntity<Void> handleIncoming(
+            @RequestParam(value = "MessageSid", required = false) String messageSid,
             @RequestParam(value = "From", required = false) String from,
             @RequestParam(value = "Body", required = false) String body,
             @RequestParam(value = "Latitude", required = false) String latitude,
             @RequestParam(value = "Longitude", required = false) String longitude) {
         try {
-            if (from != null && !from.isBlank()) {
-                chatbotService.handleIncomingMessage(from, body != null ? body : "", latitude, longitude);
+            if (from != null && !from.isBlank()
+                    && !inboundQueue.submit(messageSid, from, body != null ? body : "", latitude, longitude)) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
             }
         } catch (Exception e) {
             log.warn("WhatsApp webhook error: {}", e.getMessage());
@@ -0,0 +1,111 @@
+package com.biasharahub.courier;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress and per-shipment outcome of one bulk create-with-provider run (see {@link BulkShipmentService}).
+ * Outcomes are written by worker threads as shipments finish and read by progress polls.
+ */
+public class BulkShipmentJob {
+
+    public static final String CREATED = "CREATED";
+    public static final String MANUAL = "MANUAL";
+    public static final String FAILED = "FAILED";
+    public static final String SKIPPED = "SKIPPED";
+    /** Created with the courier, but the shipment was given a tracking number meanwhile; counted as failed. */
+    public static final String CONFLICT = "CONFLICT";
+
+    /** Outcome of one shipment; tracking number and label when created, error otherwise. */
+    public record Outcome(UUID shipmentId, String status, String trackingNumber, String labelUrl, String error) {}
+
+    private final UUID jobId = UUID.randomUUID();
+    private final String tenantSchema;
+    private final UUID userId;
+    private final String courierCode;
+    private final List<UUID> shipmentIds;
+    private final Instant startedAt = Instant.now();
+    private final Map<UUID, Outcome> outcomes = new ConcurrentHashMap<>();
+    private final AtomicInteger succeeded = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private volatile Instant finishedAt;
+
+    BulkShipmentJob(String tenantSchema, UUID userId, String courierCode, List<UUID> shipmentIds) {
+        this.tenantSchema = tenantSchema;
+        this.userId = userId;
+        this.courierCode = courierCode;
+        this.shipmentIds = List.copyOf(shipmentIds);
+    }
+
+    void complete(Outcome outcome) {
+        if (outcomes.putIfAbsent(outcome.shipmentId(), outcome) != null) {
+            return;
+        }
+        if (CREATED.equals(outcome.status()) || MANUAL.equals(outcome.status())) {
+            succeeded.incrementAndGet();
+        } else if (SKIPPED.equals(outcome.status())) {
+            skipped.incrementAndGet();
+        } else {
+            failed.incrementAndGet();
+        }
+        if (outcomes.size() >= shipmentIds.size()) {
+            finishedAt = Instant.now();
+        }
+    }
+
+    /** Fail every shipment that has no outcome yet (e.g. the run could not be scheduled). */
+    void failRemaining(String error) {
+        for (UUID id : shipmentIds) {
+            complete(new Outcome(id, FAILED, null, null, error));
+        }
+    }
+
+    public UUID getJobId() {
+        return jobId;
+    }
+
+    public String getTenantSchema() {
+        return tenantSchema;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public boolean isDone() {
+        return finishedAt != null;
+    }
+
+    Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    /** Counts, and outcomes in the order the shipment ids were given (pending ones omitted). */
+    public Map<String, Object> snapshot() {
+        List<Outcome> results = new ArrayList<>(outcomes.size());
+        for (UUID id : shipmentIds) {
+            Outcome o = outcomes.get(id);
+            if (o != null) results.add(o);
+        }
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("jobId", jobId);
+        m.put("courierServiceCode", courierCode);
+        m.put("total", shipmentIds.size());
+        m.put("completed", results.size());
+        m.put("succeeded", succeeded.get());
+        m.put("failed", failed.get());
+        m.put("skipped", skipped.get());
+        m.put("done", isDone());
+        m.put("startedAt", startedAt);
+        m.put("finishedAt", finishedAt);
+        m.put("results", results);
+        return m;
+    }
+}
@@ -0,0 +1,270 @@
+package com.biasharahub.courier;
+
+import com.biasharahub.config.TenantContext;
+import com.biasharahub.entity.CourierService;
+import com.biasharahub.entity.Shipment;
+import com.biasharahub.repository.CourierServiceRepository;
+import com.biasharahub.repository.ShipmentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates many shipments with one courier provider in the background (end-of-day dispatch). The courier is looked
+ * up once and all shipments are loaded with their orders and recipients in one query on the request thread; provider
+ * calls then run on a bounded pool, in chunks through the provider's batch API when it has one, otherwise one call
+ * per shipment. Each shipment's tracking number is saved as soon as it is known, and progress is read from the
+ * returned {@link BulkShipmentJob} until it is done. Shipments that already have a tracking number are skipped, so
+ * resubmitting a partly failed run only retries the failures. A shipment is claimed by one run at a time, so
+ * overlapping runs never send it to the provider twice. A tracking number is only saved while the shipment has none,
+ * and a shipment given one in the meantime (e.g. entered manually) is reported as a conflict.
+ */
+@Slf4j
+@Service
+public class BulkShipmentService {
+
+    private static final String SAVE_TRACKING_SQL =
+            "UPDATE shipments SET courier_service = ?, tracking_number = ?, updated_at = CURRENT_TIMESTAMP "
+                    + "WHERE shipment_id = ? AND (tracking_number IS NULL OR tracking_number = '')";
+
+    /** A shipment claimed by a run; tenant schema included because shipment ids are only unique per tenant. */
+    private record Claim(String tenantSchema, UUID shipmentId) {}
+
+    private final CourierIntegrationService courierIntegrationService;
+    private final CourierServiceRepository courierServiceRepository;
+    private final ShipmentRepository shipmentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+    private final int maxShipments;
+    private final int batchSize;
+    private final int maxActiveJobs;
+    private final long retentionMs;
+    private final Map<UUID, BulkShipmentJob> jobs = new ConcurrentHashMap<>();
+    /** Shipment -> id of the run dispatching it, from before its lookup until its outcome is known. */
+    private final Map<Claim, UUID> claims = new ConcurrentHashMap<>();
+
+    public BulkShipmentService(CourierIntegrationService courierIntegrationService,
+                               CourierServiceRepository courierServiceRepository,
+                               ShipmentRepository shipmentRepository,
+                               JdbcTemplate jdbcTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.courier.bulk.parallelism:8}") int parallelism,
+                               @Value("${app.courier.bulk.max-shipments:500}") int maxShipments,
+                               @Value("${app.courier.bulk.batch-size:50}") int batchSize,
+                               @Value("${app.courier.bulk.max-active-jobs:20}") int maxActiveJobs,
+                               @Value("${app.courier.bulk.retention-ms:3600000}") long retentionMs) {
+        this.courierIntegrationService = courierIntegrationService;
+        this.courierServiceRepository = courierServiceRepository;
+        this.shipmentRepository = shipmentRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.maxShipments = Math.max(1, maxShipments);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxActiveJobs = Math.max(1, maxActiveJobs);
+        this.retentionMs = retentionMs;
+        int threads = Math.max(1, parallelism);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "courier-bulk-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Start creating the given shipments with the courier. With a business id, only shipments of orders containing
+     * that business's products are dispatched; others are reported as skipped, as are shipments another run is still
+     * dispatching. The run is only registered once its requests are built.
+     *
+     * @throws IllegalArgumentException    when no or too many shipment ids are given
+     * @throws IllegalStateException       when too many bulk runs are already in progress
+     * @throws CourierIntegrationException when the courier service does not exist
+     */
+    public BulkShipmentJob start(UUID userId, UUID businessId, List<UUID> shipmentIds, String courierServiceCode)
+            throws CourierIntegrationException {
+        List<UUID> ids = new ArrayList<>(new LinkedHashSet<>(shipmentIds != null ? shipmentIds : List.<UUID>of()));
+        ids.removeIf(Objects::isNull);
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("shipmentIds is required");
+        }
+        if (ids.size() > maxShipments) {
+            throw new IllegalArgumentException("At most " + maxShipments + " shipments can be dispatched at once");
+        }
+        if (jobs.values().stream().filter(j -> !j.isDone()).count() >= maxActiveJobs) {
+            throw new IllegalStateException("Too many bulk dispatches in progress. Please try again shortly.");
+        }
+        CourierService courier = courierServiceRepository.findByCode(courierServiceCode.trim().toLowerCase())
+                .orElseThrow(() -> new CourierIntegrationException("Courier service not found: " + courierServiceCode));
+        CourierProviderClient client = courierIntegrationService.getClient(courier);
+
+        BulkShipmentJob job = new BulkShipmentJob(TenantContext.getTenantSchema(), userId, courier.getCode(), ids);
+        // Claim before the lookup: a run finishing in between has saved its tracking numbers by the time it lets go
+        List<UUID> claimed = new ArrayList<>();
+        for (UUID id : ids) {
+            if (claims.putIfAbsent(new Claim(job.getTenantSchema(), id), job.getJobId()) == null) {
+                claimed.add(id);
+            } else {
+                complete(job, new BulkShipmentJob.Outcome(id, BulkShipmentJob.SKIPPED, null, null, "Shipment is already being dispatched"));
+            }
+        }
+        List<CreateShipmentRequest> requests = new ArrayList<>();
+        try {
+            List<Shipment> found = claimed.isEmpty() ? List.of() : businessId != null
+                    ? shipmentRepository.findWithOrderAndRecipientByShipmentIdInAndBusinessId(claimed, businessId)
+                    : shipmentRepository.findWithOrderAndRecipientByShipmentIdIn(claimed);
+            Map<UUID, Shipment> shipments = found.stream().collect(Collectors.toMap(Shipment::getShipmentId, Function.identity()));
+            for (UUID id : claimed) {
+                Shipment s = shipments.get(id);
+                if (s == null) {
+                    complete(job, new BulkShipmentJob.Outcome(id, BulkShipmentJob.SKIPPED, null, null, "Shipment not found"));
+                } else if (!"COURIER".equalsIgnoreCase(s.getDeliveryMode())) {
+                    complete(job, new BulkShipmentJob.Outcome(id, BulkShipmentJob.SKIPPED, null, null, "Shipment is not COURIER delivery mode"));
+                } else if (s.getTrackingNumber() != null && !s.getTrackingNumber().isBlank()) {
+                    complete(job, new BulkShipmentJob.Outcome(id, BulkShipmentJob.SKIPPED, s.getTrackingNumber(), null, "Shipment already has a tracking number"));
+                } else if (client instanceof ManualCourierProvider) {
+                    complete(job, new BulkShipmentJob.Outcome(id, BulkShipmentJob.MANUAL, null, null, "Manual courier: enter tracking number in shipment details."));
+                } else {
+                    requests.add(courierIntegrationService.buildRequest(s));
+                }
+            }
+        } catch (RuntimeException e) {
+            claimed.forEach(id -> release(job, id));
+            throw e;
+        }
+        jobs.put(job.getJobId(), job);
+
+        try {
+            if (client.supportsBatchCreate(courier)) {
+                for (int from = 0; from < requests.size(); from += batchSize) {
+                    List<CreateShipmentRequest> chunk = requests.subList(from, Math.min(requests.size(), from + batchSize));
+                    executor.execute(() -> inTenant(job, () -> createChunk(job, client, courier, chunk)));
+                }
+            } else {
+                for (CreateShipmentRequest request : requests) {
+                    executor.execute(() -> inTenant(job, () -> createOne(job, client, courier, request)));
+                }
+            }
+        } catch (RejectedExecutionException e) {
+            job.failRemaining("Bulk dispatch is shutting down");
+            claimed.forEach(id -> release(job, id));
+        }
+        return job;
+    }
+
+    /** A run started by this user in the current tenant, or null. */
+    public BulkShipmentJob get(UUID jobId, UUID userId) {
+        BulkShipmentJob job = jobs.get(jobId);
+        if (job == null || !job.getUserId().equals(userId)
+                || !Objects.equals(job.getTenantSchema(), TenantContext.getTenantSchema())) {
+            return null;
+        }
+        return job;
+    }
+
+    private void createOne(BulkShipmentJob job, CourierProviderClient client, CourierService courier, CreateShipmentRequest request) {
+        try {
+            CreateShipmentResult result = client.createShipment(courier, request);
+            if (result == null) {
+                complete(job, new BulkShipmentJob.Outcome(request.getShipmentId(), BulkShipmentJob.MANUAL, null, null,
+                        "Manual courier: enter tracking number in shipment details."));
+                return;
+            }
+            created(job, courier, request.getShipmentId(), result);
+        } catch (Exception e) {
+            complete(job, new BulkShipmentJob.Outcome(request.getShipmentId(), BulkShipmentJob.FAILED, null, null, e.getMessage()));
+        }
+    }
+
+    private void createChunk(BulkShipmentJob job, CourierProviderClient client, CourierService courier, List<CreateShipmentRequest> chunk) {
+        Map<UUID, CreateShipmentResult> results;
+        try {
+            results = client.createShipments(courier, chunk);
+        } catch (Exception e) {
+            for (CreateShipmentRequest request : chunk) {
+                complete(job, new BulkShipmentJob.Outcome(request.getShipmentId(), BulkShipmentJob.FAILED, null, null, e.getMessage()));
+            }
+            return;
+        }
+        for (CreateShipmentRequest request : chunk) {
+            CreateShipmentResult result = results.get(request.getShipmentId());
+            if (result == null) {
+                complete(job, new BulkShipmentJob.Outcome(request.getShipmentId(), BulkShipmentJob.FAILED, null, null,
+                        "The courier provider did not return a tracking number for this shipment."));
+            } else {
+                created(job, courier, request.getShipmentId(), result);
+            }
+        }
+    }
+
+    private void created(BulkShipmentJob job, CourierService courier, UUID shipmentId, CreateShipmentResult result) {
+        try {
+            if (jdbcTemplate.update(SAVE_TRACKING_SQL, courier.getName(), result.getTrackingNumber(), shipmentId) == 0) {
+                log.warn("Created shipment {} with {} as {}, but it was given a tracking number meanwhile",
+                        shipmentId, courier.getCode(), result.getTrackingNumber());
+                complete(job, new BulkShipmentJob.Outcome(shipmentId, BulkShipmentJob.CONFLICT, result.getTrackingNumber(), result.getLabelUrl(),
+                        "Created with the courier, but the shipment already has a tracking number; cancel the duplicate with the courier."));
+                return;
+            }
+            complete(job, new BulkShipmentJob.Outcome(shipmentId, BulkShipmentJob.CREATED, result.getTrackingNumber(), result.getLabelUrl(), null));
+        } catch (Exception e) {
+            log.warn("Created shipment {} with {} but could not save tracking number {}: {}",
+                    shipmentId, courier.getCode(), result.getTrackingNumber(), e.getMessage());
+            complete(job, new BulkShipmentJob.Outcome(shipmentId, BulkShipmentJob.FAILED, result.getTrackingNumber(), result.getLabelUrl(),
+                    "Created with the courier but not saved; enter the tracking number manually."));
+        }
+    }
+
+    /** Record a shipment's outcome and let other runs dispatch it again. */
+    private void complete(BulkShipmentJob job, BulkShipmentJob.Outcome outcome) {
+        job.complete(outcome);
+        release(job, outcome.shipmentId());
+        meterRegistry.counter("courier.bulk.shipments", "outcome", outcome.status().toLowerCase()).increment();
+    }
+
+    /** Drop the run's claim on a shipment; a claim held by another run is left alone. */
+    private void release(BulkShipmentJob job, UUID shipmentId) {
+        claims.remove(new Claim(job.getTenantSchema(), shipmentId), job.getJobId());
+    }
+
+    private static void inTenant(BulkShipmentJob job, Runnable task) {
+        TenantContext.setTenantSchema(job.getTenantSchema());
+        try {
+            task.run();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    @Scheduled(fixedDelay = 600_000)
+    public void evictFinished() {
+        Instant cutoff = Instant.now().minusMillis(retentionMs);
+        jobs.values().removeIf(j -> j.isDone() && j.getFinishedAt().isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,178 @@
+package com.biasharahub.courier;
+
+import com.biasharahub.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Shared HTTP layer for courier provider APIs. Connections are pooled and kept alive by the JDK client (one client for
+ * all providers unless a provider sets its own connect timeout). Every call is bounded end to end by the provider's
+ * timeout, limited to {@code max-concurrent} calls in flight per provider (bulkhead) and guarded by a per-provider
+ * {@link CircuitBreaker}, so a hung or failing courier costs callers at most one timeout and then fails fast.
+ * Latency and outcome are recorded per provider as {@code courier.http.requests}; refused calls as
+ * {@code courier.http.rejected}.
+ * <p>
+ * Settings under {@code app.courier.http.*}; each can be overridden per courier code under
+ * {@code app.courier.http.providers.<code>.*}: {@code connect-timeout-ms}, {@code timeout-ms}, {@code max-concurrent},
+ * {@code failure-threshold}, {@code open-duration-ms}.
+ */
+@Slf4j
+@Component
+public class CourierHttpClient {
+
+    private static final String PREFIX = "app.courier.http.";
+
+    /** Status and body of a completed call. */
+    public record Response(int status, String body) {
+        public boolean isSuccess() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    private record Provider(HttpClient http, long timeoutMs, Semaphore bulkhead, CircuitBreaker breaker) {}
+
+    private final MeterRegistry meterRegistry;
+    private final Function<String, String> properties;
+    private final long defaultConnectTimeoutMs;
+    private final HttpClient sharedClient;
+    private final ConcurrentHashMap<String, Provider> providers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CourierHttpClient(MeterRegistry meterRegistry, Environment environment) {
+        this(meterRegistry, environment::getProperty);
+    }
+
+    CourierHttpClient(MeterRegistry meterRegistry, Function<String, String> properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+        this.defaultConnectTimeoutMs = longSetting(null, "connect-timeout-ms", 2000);
+        this.sharedClient = newClient(defaultConnectTimeoutMs);
+    }
+
+    /**
+     * Send a request to a courier's API (the builder's URI, method and headers are used as given; its timeout is set
+     * here). Non-2xx answers are returned, with 5xx and 429 counting as provider failures.
+     *
+     * @throws CourierIntegrationException when the provider's circuit is open, its bulkhead is full, or the call
+     *                                     times out or fails at the transport level
+     */
+    public Response send(String courierCode, HttpRequest.Builder request) throws CourierIntegrationException {
+        String code = normalize(courierCode);
+        Provider provider = providers.computeIfAbsent(code, this::newProvider);
+        if (!provider.bulkhead().tryAcquire()) {
+            reject(code, "bulkhead_full");
+            throw new CourierIntegrationException("The courier provider is busy right now. Please try again shortly.");
+        }
+        try {
+            if (!provider.breaker().tryAcquire()) {
+                reject(code, "circuit_open");
+                throw new CourierIntegrationException("The courier provider is unavailable right now. Please try again later.");
+            }
+            long start = System.nanoTime();
+            String outcome = "error";
+            CompletableFuture<HttpResponse<String>> call = null;
+            try {
+                HttpRequest httpRequest = request.timeout(Duration.ofMillis(provider.timeoutMs())).build();
+                call = provider.http().sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+                // Bounds the whole exchange, including a body that stalls after the headers arrived
+                HttpResponse<String> response = call.get(provider.timeoutMs(), TimeUnit.MILLISECONDS);
+                int status = response.statusCode();
+                if (status >= 500 || status == 429) {
+                    outcome = "server_error";
+                    provider.breaker().recordFailure();
+                } else {
+                    outcome = status >= 400 ? "client_error" : "success";
+                    provider.breaker().recordSuccess();
+                }
+                return new Response(status, response.body());
+            } catch (TimeoutException e) {
+                outcome = "timeout";
+                call.cancel(true);
+                provider.breaker().recordFailure();
+                throw new CourierIntegrationException("The courier provider did not respond in time.", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                outcome = cause instanceof java.net.http.HttpTimeoutException ? "timeout" : "error";
+                provider.breaker().recordFailure();
+                log.debug("Courier {} call failed: {}", code, cause.toString());
+                throw new CourierIntegrationException("We couldn't reach the courier provider right now.", cause);
+            } catch (InterruptedException e) {
+                call.cancel(true);
+                provider.breaker().recordFailure();
+                Thread.currentThread().interrupt();
+                throw new CourierIntegrationException("Interrupted while calling the courier provider.", e);
+            } catch (RuntimeException e) {
+                // An unbuildable request or a refused send must still report back, or a half-open trial never ends
+                if (call != null) call.cancel(true);
+                provider.breaker().recordFailure();
+                throw e;
+            } finally {
+                meterRegistry.timer("courier.http.requests", "courier", code, "outcome", outcome)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            provider.bulkhead().release();
+        }
+    }
+
+    /** Breaker state of a provider (CLOSED until it has been called). */
+    public CircuitBreaker.State circuitState(String courierCode) {
+        Provider provider = providers.get(normalize(courierCode));
+        return provider != null ? provider.breaker().getState() : CircuitBreaker.State.CLOSED;
+    }
+
+    private Provider newProvider(String code) {
+        long connectTimeoutMs = longSetting(code, "connect-timeout-ms", defaultConnectTimeoutMs);
+        HttpClient http = connectTimeoutMs == defaultConnectTimeoutMs ? sharedClient : newClient(connectTimeoutMs);
+        int maxConcurrent = (int) Math.max(1, longSetting(code, "max-concurrent", 10));
+        CircuitBreaker breaker = new CircuitBreaker("courier-" + code,
+                (int) longSetting(code, "failure-threshold", 5),
+                Duration.ofMillis(longSetting(code, "open-duration-ms", 30_000)));
+        return new Provider(http, Math.max(1, longSetting(code, "timeout-ms", 5000)), new Semaphore(maxConcurrent), breaker);
+    }
+
+    private void reject(String code, String reason) {
+        meterRegistry.counter("courier.http.rejected", "courier", code, "reason", reason).increment();
+    }
+
+    /** Provider override, else the shared setting, else the default. */
+    private long longSetting(String code, String name, long defaultValue) {
+        String value = code != null ? properties.apply(PREFIX + "providers." + code + "." + name) : null;
+        if (value == null || value.isBlank()) value = properties.apply(PREFIX + name);
+        if (value == null || value.isBlank()) return defaultValue;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring invalid {}{}: {}", PREFIX, name, value);
+            return defaultValue;
+        }
+    }
+
+    private static HttpClient newClient(long connectTimeoutMs) {
+        return HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(Math.max(1, connectTimeoutMs)))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    private static String normalize(String courierCode) {
+        return courierCode == null || courierCode.isBlank() ? "unknown" : courierCode.trim().toLowerCase(Locale.ROOT);
+    }
+}
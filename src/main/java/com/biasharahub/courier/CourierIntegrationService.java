@@ -10,7 +10,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -25,6 +24,7 @@ public class CourierIntegrationService {
     private final CourierServiceRepository courierServiceRepository;
     private final ShipmentRepository shipmentRepository;
     private final List<CourierProviderClient> providers;
+    private final ShipmentTrackingStore trackingStore;
 
     public CourierProviderClient getClient(CourierService courier) {
         String type = courier.getProviderType() == null ? "MANUAL" : courier.getProviderType();
@@ -56,28 +56,16 @@ public class CourierIntegrationService {
     }
 
     /**
-     * Get tracking info from the provider for a shipment. Returns null if MANUAL or provider does not support tracking.
+     * Tracking for a shipment as last stored by {@link CourierTrackingPoller} (no courier call on this path).
+     * Returns null when the shipment has no tracking number or nothing has been recorded for it yet.
      */
-    public TrackingInfo getTracking(UUID shipmentId) throws CourierIntegrationException {
+    public TrackingInfo getTracking(UUID shipmentId) {
         Shipment shipment = shipmentRepository.findById(shipmentId).orElseThrow(() -> new IllegalArgumentException("Shipment not found"));
         String trackingNumber = shipment.getTrackingNumber();
         if (trackingNumber == null || trackingNumber.isBlank()) {
             return null;
         }
-        String carrierNameOrCode = shipment.getCourierService();
-        if (carrierNameOrCode == null || carrierNameOrCode.isBlank()) {
-            return null;
-        }
-        Optional<CourierService> courierOpt = courierServiceRepository.findByCode(carrierNameOrCode.trim().toLowerCase())
-                .or(() -> courierServiceRepository.findAllByOrderByNameAsc().stream()
-                        .filter(c -> carrierNameOrCode.equalsIgnoreCase(c.getName()))
-                        .findFirst());
-        if (courierOpt.isEmpty()) {
-            return null;
-        }
-        CourierService courier = courierOpt.get();
-        CourierProviderClient client = getClient(courier);
-        return client.getTracking(courier, trackingNumber);
+        return trackingStore.load(shipmentId, trackingNumber);
     }
 
     public List<RateQuote> getRates(String courierServiceCode, RateRequest rateRequest) throws CourierIntegrationException {
@@ -86,7 +74,7 @@ public class CourierIntegrationService {
         return getClient(courier).getRates(courier, rateRequest);
     }
 
-    private CreateShipmentRequest buildRequest(Shipment shipment) {
+    CreateShipmentRequest buildRequest(Shipment shipment) {
         Order order = shipment.getOrder();
         return CreateShipmentRequest.builder()
                 .orderId(order.getOrderId())
@@ -4,6 +4,8 @@ import com.biasharahub.entity.CourierService;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Integration with a courier provider (DHL, FedEx, Sendy, or generic REST).
@@ -27,6 +29,21 @@ public interface CourierProviderClient {
      */
     CreateShipmentResult createShipment(CourierService courier, CreateShipmentRequest request) throws CourierIntegrationException;
 
+    /**
+     * Whether this courier accepts many shipments in one {@link #createShipments} call.
+     */
+    default boolean supportsBatchCreate(CourierService courier) {
+        return false;
+    }
+
+    /**
+     * Create several shipments in one provider call (only when {@link #supportsBatchCreate} is true).
+     * Returns results by shipment id; shipments the provider did not accept are absent.
+     */
+    default Map<UUID, CreateShipmentResult> createShipments(CourierService courier, List<CreateShipmentRequest> requests) throws CourierIntegrationException {
+        throw new CourierIntegrationException("This courier provider does not support batch shipment creation.");
+    }
+
     /**
      * Get tracking events for a tracking number. Return null if not available (e.g. MANUAL).
      */
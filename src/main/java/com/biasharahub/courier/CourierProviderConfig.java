@@ -41,6 +41,15 @@ public class CourierProviderConfig {
         }
     }
 
+    /**
+     * Shared secret a courier sends with its tracking webhooks (COURIER_&lt;CODE&gt;_WEBHOOK_SECRET); null when the
+     * courier has none, in which case its webhooks are refused.
+     */
+    public String getWebhookSecret(String courierCode) {
+        if (courierCode == null || courierCode.isBlank()) return null;
+        return blankToNull(System.getenv("COURIER_" + courierCode.trim().toUpperCase().replace("-", "_") + "_WEBHOOK_SECRET"));
+    }
+
     /** Allow runtime registration for REST providers (e.g. from app.courier.providers.*.api-key). */
     public void setApiKeyForCode(String code, String apiKey) {
         if (code != null) keyByCode.put(code.trim().toLowerCase().replace("-", "_"), apiKey);
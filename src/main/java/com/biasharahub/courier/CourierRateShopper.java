@@ -0,0 +1,223 @@
+package com.biasharahub.courier;
+
+import com.biasharahub.entity.CourierService;
+import com.biasharahub.repository.CourierServiceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rate shopping: asks every active courier service for quotes at once and returns those that arrive within the
+ * deadline, cheapest first (then fastest). Integrated providers are called on a bounded pool; a provider that is slow,
+ * fails or cannot be scheduled is listed as unavailable instead of holding up the answer. Results are cached per
+ * origin, destination and weight bucket (quotes are priced at the top of the bucket); a result missing some couriers
+ * is kept for a shorter time so they are asked again soon.
+ */
+@Slf4j
+@Component
+public class CourierRateShopper {
+
+    private static final Pattern LEADING_DAYS = Pattern.compile("(\\d+)");
+    private static final Comparator<RateQuote> CHEAPEST_THEN_FASTEST = Comparator
+            .comparing(RateQuote::getAmount, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(q -> etaDays(q.getEstimatedDays()), Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(RateQuote::getCourierName, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    /** Quotes ranked cheapest first, and the courier codes that gave no answer in time. */
+    public record RateShopResult(List<RateQuote> quotes, List<String> unavailable, Instant quotedAt) {}
+
+    private record CacheKey(String origin, String destination, BigDecimal weightBucketKg) {}
+
+    private record CacheEntry(RateShopResult result, Instant expiresAt) {}
+
+    private final CourierServiceRepository courierServiceRepository;
+    private final CourierIntegrationService courierIntegrationService;
+    private final MeterRegistry meterRegistry;
+    private final Timer shopTimer;
+    private final ThreadPoolExecutor executor;
+    private final long deadlineMs;
+    private final BigDecimal weightBucketKg;
+    private final long ttlMs;
+    private final long partialTtlMs;
+    /** Access-ordered LRU; guarded by itself. */
+    private final LinkedHashMap<CacheKey, CacheEntry> cache;
+
+    public CourierRateShopper(CourierServiceRepository courierServiceRepository,
+                              CourierIntegrationService courierIntegrationService,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.courier.rates.parallelism:16}") int parallelism,
+                              @Value("${app.courier.rates.deadline-ms:400}") long deadlineMs,
+                              @Value("${app.courier.rates.weight-bucket-kg:1}") BigDecimal weightBucketKg,
+                              @Value("${app.courier.rates.cache-ttl-seconds:300}") long ttlSeconds,
+                              @Value("${app.courier.rates.partial-cache-ttl-seconds:30}") long partialTtlSeconds,
+                              @Value("${app.courier.rates.cache-size:2000}") int cacheSize) {
+        this.courierServiceRepository = courierServiceRepository;
+        this.courierIntegrationService = courierIntegrationService;
+        this.meterRegistry = meterRegistry;
+        this.shopTimer = meterRegistry.timer("courier.rates.shop");
+        this.deadlineMs = Math.max(1, deadlineMs);
+        this.weightBucketKg = weightBucketKg != null && weightBucketKg.signum() > 0 ? weightBucketKg : BigDecimal.ONE;
+        this.ttlMs = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.partialTtlMs = TimeUnit.SECONDS.toMillis(Math.min(partialTtlSeconds, ttlSeconds));
+        int threads = Math.max(1, parallelism);
+        AtomicInteger threadCount = new AtomicInteger();
+        // Bounded queue: when every thread is stuck on slow couriers, new calls are refused rather than piling up
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(threads * 4), r -> {
+            Thread t = new Thread(r, "courier-rates-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        int maxEntries = Math.max(1, cacheSize);
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /** Quotes of all active courier services for the route and weight, ranked cheapest then fastest. */
+    public RateShopResult shop(RateRequest request) {
+        BigDecimal bucket = bucketOf(request.getWeightKg());
+        CacheKey key = new CacheKey(place(request.getOriginCity(), request.getOriginCountry()),
+                place(request.getDestinationCity(), request.getDestinationCountry()), bucket);
+        Instant now = Instant.now();
+        synchronized (cache) {
+            CacheEntry entry = cache.get(key);
+            if (entry != null && entry.expiresAt().isAfter(now)) {
+                meterRegistry.counter("courier.rates.cache", "outcome", "hit").increment();
+                return entry.result();
+            }
+        }
+        meterRegistry.counter("courier.rates.cache", "outcome", "miss").increment();
+        RateRequest priced = RateRequest.builder()
+                .originAddress(request.getOriginAddress())
+                .originCity(request.getOriginCity())
+                .originPostalCode(request.getOriginPostalCode())
+                .originCountry(request.getOriginCountry())
+                .destinationAddress(request.getDestinationAddress())
+                .destinationCity(request.getDestinationCity())
+                .destinationPostalCode(request.getDestinationPostalCode())
+                .destinationCountry(request.getDestinationCountry())
+                .weightKg(bucket)
+                .lengthCm(request.getLengthCm())
+                .widthCm(request.getWidthCm())
+                .heightCm(request.getHeightCm())
+                .build();
+        RateShopResult result = shopTimer.record(() -> fanOut(priced));
+        long ttl = result.unavailable().isEmpty() ? ttlMs : partialTtlMs;
+        if (ttl > 0) {
+            synchronized (cache) {
+                cache.put(key, new CacheEntry(result, result.quotedAt().plusMillis(ttl)));
+            }
+        }
+        return result;
+    }
+
+    private RateShopResult fanOut(RateRequest request) {
+        List<RateQuote> quotes = new ArrayList<>();
+        List<String> unavailable = new ArrayList<>();
+        List<CourierService> remote = new ArrayList<>();
+        List<Future<List<RateQuote>>> futures = new ArrayList<>();
+        for (CourierService courier : courierServiceRepository.findByIsActiveTrueOrderByNameAsc()) {
+            CourierProviderClient client = courierIntegrationService.getClient(courier);
+            if (client instanceof ManualCourierProvider manual) {
+                // Priced from the courier's own tariff; no call to make
+                quotes.addAll(tag(courier, manual.getRates(courier, request)));
+                continue;
+            }
+            Callable<List<RateQuote>> call = () -> client.getRates(courier, request);
+            try {
+                futures.add(executor.submit(call));
+                remote.add(courier);
+            } catch (RejectedExecutionException e) {
+                count(courier, "rejected");
+                unavailable.add(courier.getCode());
+            }
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        for (int i = 0; i < futures.size(); i++) {
+            CourierService courier = remote.get(i);
+            Future<List<RateQuote>> future = futures.get(i);
+            try {
+                quotes.addAll(tag(courier, future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)));
+                count(courier, "ok");
+            } catch (TimeoutException | CancellationException e) {
+                future.cancel(true);
+                count(courier, "timeout");
+                unavailable.add(courier.getCode());
+            } catch (ExecutionException e) {
+                log.debug("Rate quote from {} failed: {}", courier.getCode(), e.getCause().getMessage());
+                count(courier, "error");
+                unavailable.add(courier.getCode());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new IllegalStateException("Interrupted while collecting rate quotes", e);
+            }
+        }
+        quotes.sort(CHEAPEST_THEN_FASTEST);
+        return new RateShopResult(List.copyOf(quotes), List.copyOf(unavailable), Instant.now());
+    }
+
+    private static List<RateQuote> tag(CourierService courier, List<RateQuote> quotes) {
+        if (quotes == null) return List.of();
+        for (RateQuote q : quotes) {
+            q.setCourierCode(courier.getCode());
+            q.setCourierName(courier.getName());
+        }
+        return quotes;
+    }
+
+    private void count(CourierService courier, String outcome) {
+        meterRegistry.counter("courier.rates.calls", "courier", courier.getCode(), "outcome", outcome).increment();
+    }
+
+    /** Upper bound of the weight bucket the parcel falls in (1 kg parcels and below share the first bucket). */
+    private BigDecimal bucketOf(BigDecimal weightKg) {
+        if (weightKg == null || weightKg.signum() <= 0) return weightBucketKg;
+        return weightKg.divide(weightBucketKg, 0, RoundingMode.CEILING).multiply(weightBucketKg);
+    }
+
+    private static String place(String city, String country) {
+        return (city == null ? "" : city.trim().toLowerCase(Locale.ROOT)) + "|"
+                + (country == null || country.isBlank() ? "ke" : country.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /** Smallest number of days in an estimate like "2" or "1-3 days"; null when there is none. */
+    private static Integer etaDays(String estimatedDays) {
+        if (estimatedDays == null) return null;
+        Matcher m = LEADING_DAYS.matcher(estimatedDays);
+        return m.find() ? Integer.valueOf(m.group(1)) : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
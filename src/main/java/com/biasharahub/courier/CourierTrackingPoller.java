@@ -0,0 +1,174 @@
+package com.biasharahub.courier;
+
+import com.biasharahub.config.TenantContext;
+import com.biasharahub.entity.CourierService;
+import com.biasharahub.entity.Tenant;
+import com.biasharahub.repository.CourierServiceRepository;
+import com.biasharahub.repository.TenantRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Refreshes tracking of in-flight courier shipments in the background and stores it through
+ * {@link ShipmentTrackingStore}, so /shipments/{id}/tracking never waits on a courier API. Each run walks the
+ * active tenants, takes the shipments checked least recently and calls each provider for at most
+ * {@code per-provider-limit} of them, spaced by {@code min-interval-ms}; a provider that fails several times in a row
+ * is skipped for the rest of the run. Runs on its own thread so slow couriers don't hold up other scheduled jobs.
+ */
+@Slf4j
+@Component
+public class CourierTrackingPoller {
+
+    private static final int MAX_FAILURES_IN_ROW = 3;
+
+    private final TenantRepository tenantRepository;
+    private final CourierServiceRepository courierServiceRepository;
+    private final CourierIntegrationService courierIntegrationService;
+    private final ShipmentTrackingStore trackingStore;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int perProviderLimit;
+    private final long minIntervalMs;
+    private final long recheckAfterMs;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "courier-tracking-poller");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public CourierTrackingPoller(TenantRepository tenantRepository,
+                                 CourierServiceRepository courierServiceRepository,
+                                 CourierIntegrationService courierIntegrationService,
+                                 ShipmentTrackingStore trackingStore,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.courier.tracking.poll-enabled:true}") boolean enabled,
+                                 @Value("${app.courier.tracking.batch-size:200}") int batchSize,
+                                 @Value("${app.courier.tracking.per-provider-limit:50}") int perProviderLimit,
+                                 @Value("${app.courier.tracking.min-interval-ms:250}") long minIntervalMs,
+                                 @Value("${app.courier.tracking.recheck-after-ms:900000}") long recheckAfterMs) {
+        this.tenantRepository = tenantRepository;
+        this.courierServiceRepository = courierServiceRepository;
+        this.courierIntegrationService = courierIntegrationService;
+        this.trackingStore = trackingStore;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.perProviderLimit = Math.max(1, perProviderLimit);
+        this.minIntervalMs = Math.max(0, minIntervalMs);
+        this.recheckAfterMs = recheckAfterMs;
+    }
+
+    @Scheduled(fixedDelayString = "${app.courier.tracking.poll-interval-ms:300000}", initialDelay = 60_000)
+    public void schedule() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        worker.execute(() -> {
+            try {
+                pollAllTenants();
+            } catch (Exception e) {
+                log.warn("Courier tracking poll failed: {}", e.getMessage());
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    private void pollAllTenants() throws InterruptedException {
+        // courier_services is shared (public schema): index once per run by code and by display name
+        Map<String, CourierService> couriers = new HashMap<>();
+        for (CourierService c : courierServiceRepository.findAll()) {
+            if (c.getName() != null) couriers.putIfAbsent(c.getName().trim().toLowerCase(), c);
+            if (c.getCode() != null) couriers.put(c.getCode().trim().toLowerCase(), c);
+        }
+        for (Tenant tenant : tenantRepository.findAll()) {
+            if (tenant.getSchemaName() == null || Boolean.FALSE.equals(tenant.getIsActive())) {
+                continue;
+            }
+            TenantContext.setTenantSchema(tenant.getSchemaName());
+            try {
+                pollTenant(couriers);
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                log.warn("Courier tracking poll failed in {}: {}", tenant.getSchemaName(), e.getMessage());
+            } finally {
+                TenantContext.clear();
+            }
+        }
+    }
+
+    private void pollTenant(Map<String, CourierService> couriers) throws InterruptedException {
+        List<ShipmentTrackingStore.DueShipment> due = trackingStore.findDue(Instant.now().minusMillis(recheckAfterMs), batchSize);
+        Map<String, List<ShipmentTrackingStore.DueShipment>> byCourier = new LinkedHashMap<>();
+        for (ShipmentTrackingStore.DueShipment s : due) {
+            CourierService courier = couriers.get(s.courierService().trim().toLowerCase());
+            if (courier == null || courier.getProviderType() == null || "MANUAL".equalsIgnoreCase(courier.getProviderType())) {
+                // Nothing to poll; move it to the back so it doesn't hold a batch slot every run
+                trackingStore.markChecked(s.shipmentId());
+                continue;
+            }
+            byCourier.computeIfAbsent(courier.getCode(), c -> new ArrayList<>()).add(s);
+        }
+        for (Map.Entry<String, List<ShipmentTrackingStore.DueShipment>> entry : byCourier.entrySet()) {
+            pollProvider(couriers.get(entry.getKey().trim().toLowerCase()), entry.getValue());
+        }
+    }
+
+    private void pollProvider(CourierService courier, List<ShipmentTrackingStore.DueShipment> shipments) throws InterruptedException {
+        CourierProviderClient client = courierIntegrationService.getClient(courier);
+        int calls = 0;
+        int failuresInRow = 0;
+        for (ShipmentTrackingStore.DueShipment s : shipments) {
+            if (calls >= perProviderLimit) break;
+            if (calls > 0 && minIntervalMs > 0) Thread.sleep(minIntervalMs);
+            calls++;
+            TrackingInfo info;
+            try {
+                info = client.getTracking(courier, s.trackingNumber());
+            } catch (Exception e) {
+                info = null;
+            }
+            if (info == null) {
+                trackingStore.markChecked(s.shipmentId());
+                count(courier, "empty");
+                if (++failuresInRow >= MAX_FAILURES_IN_ROW) {
+                    log.info("Courier {} returned no tracking {} times in a row; skipping it this run", courier.getCode(), failuresInRow);
+                    return;
+                }
+                continue;
+            }
+            failuresInRow = 0;
+            int added = trackingStore.record(s.shipmentId(), info, ShipmentTrackingStore.SOURCE_POLL);
+            count(courier, "updated");
+            if (added > 0) {
+                meterRegistry.counter("courier.tracking.events", "courier", courier.getCode(), "source", "poll").increment(added);
+            }
+        }
+    }
+
+    private void count(CourierService courier, String outcome) {
+        meterRegistry.counter("courier.tracking.poll", "courier", courier.getCode(), "outcome", outcome).increment();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+}
@@ -0,0 +1,349 @@
+package com.biasharahub.courier;
+
+import com.biasharahub.config.TenantContext;
+import com.biasharahub.entity.CourierService;
+import com.biasharahub.entity.Shipment;
+import com.biasharahub.entity.Tenant;
+import com.biasharahub.repository.ShipmentRepository;
+import com.biasharahub.repository.TenantRepository;
+import com.biasharahub.service.InAppNotificationService;
+import com.biasharahub.service.WhatsAppNotificationService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Tracking updates pushed by couriers (see CourierWebhookController). The webhook only stores what it received in
+ * public.courier_webhook_inbox, one row per request; finding the shipments behind the tracking numbers takes a
+ * query per tenant, so that happens in a scheduled flush instead. The flush claims stored rows in batches, merges
+ * their updates per courier and tracking number, looks the shipments up tenant by tenant (stopping once every
+ * tracking number is found), appends unseen events through {@link ShipmentTrackingStore}, moves shipments forward
+ * in their lifecycle and sends the buyer's dispatch notifications as PATCH /shipments does. Rows are deleted once
+ * applied; a batch that fails is claimed again later, and repeated events are dropped by the event log's dedupe key.
+ */
+@Slf4j
+@Component
+public class CourierWebhookIngestor {
+
+    /** Shipment lifecycle (see Shipment#status); a tracking update only ever moves a shipment forward. */
+    private static final List<String> LIFECYCLE = List.of("CREATED", "PICKED_UP", "IN_TRANSIT", "OUT_FOR_DELIVERY", "DELIVERED");
+    private static final List<String> FINAL_STATUSES = List.of("DELIVERED", "COLLECTED", "ESCROW_RELEASED", "CANCELLED");
+
+    /**
+     * Per target status, the statuses a shipment may still move forward from (the same rule as {@link #isForward}),
+     * checked again under a row lock when the change is applied.
+     */
+    private static final Map<String, String> FORWARD_GUARDS = forwardGuards();
+
+    /** Tracking numbers per shipment lookup, well below the driver's bind parameter limit. */
+    private static final int LOOKUP_CHUNK = 1000;
+
+    private static final String CLAIM_SQL = """
+            UPDATE public.courier_webhook_inbox SET claimed_at = CURRENT_TIMESTAMP
+            WHERE inbox_id IN (
+                SELECT inbox_id FROM public.courier_webhook_inbox
+                WHERE claimed_at IS NULL OR claimed_at < ?
+                ORDER BY inbox_id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            RETURNING inbox_id, courier_code, courier_name, updates
+            """;
+
+    private static final TypeReference<List<TrackingInfo>> UPDATES = new TypeReference<>() {};
+
+    private record StatusChange(String tenantSchema, UUID shipmentId, String status) {}
+
+    private record Match(UUID shipmentId, String trackingNumber, String status) {}
+
+    private record Stored(long inboxId, String courierCode, String courierName, String updates) {}
+
+    private record Courier(String code, String name) {}
+
+    private final TenantRepository tenantRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ShipmentTrackingStore trackingStore;
+    private final ShipmentRepository shipmentRepository;
+    private final WhatsAppNotificationService whatsAppNotificationService;
+    private final InAppNotificationService inAppNotificationService;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final long reclaimAfterMs;
+
+    public CourierWebhookIngestor(TenantRepository tenantRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  ObjectMapper objectMapper,
+                                  ShipmentTrackingStore trackingStore,
+                                  ShipmentRepository shipmentRepository,
+                                  WhatsAppNotificationService whatsAppNotificationService,
+                                  InAppNotificationService inAppNotificationService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.courier.webhook.batch-size:500}") int batchSize,
+                                  @Value("${app.courier.webhook.reclaim-after-ms:300000}") long reclaimAfterMs) {
+        this.tenantRepository = tenantRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.trackingStore = trackingStore;
+        this.shipmentRepository = shipmentRepository;
+        this.whatsAppNotificationService = whatsAppNotificationService;
+        this.inAppNotificationService = inAppNotificationService;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = Math.max(1, batchSize);
+        this.reclaimAfterMs = Math.max(1000, reclaimAfterMs);
+    }
+
+    /**
+     * Store a courier's tracking updates for the next flush (a single insert; no tenant is looked at here).
+     *
+     * @throws org.springframework.dao.DataAccessException when the updates could not be stored (caller should answer
+     *                                                     503 so the courier retries)
+     */
+    public void submit(CourierService courier, List<TrackingInfo> updates) {
+        if (updates.isEmpty()) return;
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(updates);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize courier tracking updates", e);
+        }
+        jdbcTemplate.update("INSERT INTO public.courier_webhook_inbox (courier_code, courier_name, updates) VALUES (?, ?, ?)",
+                courier.getCode(), courier.getName(), json);
+        meterRegistry.counter("courier.webhook.updates", "courier", courier.getCode(), "outcome", "stored")
+                .increment(updates.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.courier.webhook.flush-interval-ms:1000}")
+    public void flush() {
+        while (true) {
+            List<Stored> batch = jdbcTemplate.query(CLAIM_SQL,
+                    (rs, i) -> new Stored(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4)),
+                    Timestamp.from(Instant.now().minusMillis(reclaimAfterMs)), batchSize);
+            if (batch.isEmpty()) return;
+            try {
+                apply(batch);
+            } catch (Exception e) {
+                // Left claimed: retried once the claim is old enough
+                log.warn("Courier webhook batch failed, will retry: {}", e.getMessage());
+                return;
+            }
+            List<Object> ids = batch.stream().<Object>map(Stored::inboxId).toList();
+            jdbcTemplate.update("DELETE FROM public.courier_webhook_inbox WHERE inbox_id IN ("
+                    + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")", ids.toArray());
+            if (batch.size() < batchSize) return;
+        }
+    }
+
+    /** Record a batch of stored webhooks in their shipments' tenants and apply the status changes they imply. */
+    private void apply(List<Stored> batch) {
+        // courier -> tracking number -> merged update (later updates win, events accumulate)
+        Map<Courier, Map<String, TrackingInfo>> byCourier = new LinkedHashMap<>();
+        batch.stream().sorted(Comparator.comparingLong(Stored::inboxId)).forEach(stored -> {
+            List<TrackingInfo> updates;
+            try {
+                updates = objectMapper.readValue(stored.updates(), UPDATES);
+            } catch (JsonProcessingException e) {
+                log.warn("Dropping unreadable courier webhook {}: {}", stored.inboxId(), e.getMessage());
+                return;
+            }
+            Map<String, TrackingInfo> byTrackingNumber = byCourier.computeIfAbsent(
+                    new Courier(stored.courierCode(), stored.courierName()), c -> new LinkedHashMap<>());
+            for (TrackingInfo info : updates) {
+                byTrackingNumber.merge(info.getTrackingNumber(), info, CourierWebhookIngestor::merge);
+            }
+        });
+        List<StatusChange> changes = new ArrayList<>();
+        for (Tenant tenant : tenantRepository.findAll()) {
+            byCourier.values().removeIf(Map::isEmpty);
+            if (byCourier.isEmpty()) break;
+            if (tenant.getSchemaName() == null || Boolean.FALSE.equals(tenant.getIsActive())) {
+                continue;
+            }
+            TenantContext.setTenantSchema(tenant.getSchemaName());
+            try {
+                byCourier.forEach((courier, updates) -> recordInTenant(tenant.getSchemaName(), courier, updates, changes));
+            } finally {
+                TenantContext.clear();
+            }
+        }
+        byCourier.forEach((courier, unmatched) -> {
+            if (unmatched.isEmpty()) return;
+            meterRegistry.counter("courier.webhook.updates", "courier", courier.code(), "outcome", "unmatched")
+                    .increment(unmatched.size());
+            log.debug("Courier {} pushed tracking for unknown shipments: {}", courier.code(), unmatched.keySet());
+        });
+
+        // tenant -> target status -> shipments; a later change for the same shipment wins when it is further on
+        Map<String, Map<String, List<UUID>>> byTenant = new LinkedHashMap<>();
+        Map<UUID, String> latest = new LinkedHashMap<>();
+        for (StatusChange c : changes) {
+            latest.merge(c.shipmentId(), c.status(), (a, b) -> LIFECYCLE.indexOf(b) > LIFECYCLE.indexOf(a) ? b : a);
+        }
+        for (StatusChange c : changes) {
+            if (c.status().equals(latest.remove(c.shipmentId()))) {
+                byTenant.computeIfAbsent(c.tenantSchema(), t -> new LinkedHashMap<>())
+                        .computeIfAbsent(c.status(), st -> new ArrayList<>())
+                        .add(c.shipmentId());
+            }
+        }
+        byTenant.forEach(this::applyInTenant);
+    }
+
+    /**
+     * Record the updates whose shipments live in the current tenant, collect the status changes they imply and remove
+     * them from {@code updates}.
+     */
+    private void recordInTenant(String tenantSchema, Courier courier, Map<String, TrackingInfo> updates,
+                                List<StatusChange> changes) {
+        if (updates.isEmpty()) return;
+        String courierCode = courier.code();
+        List<String> trackingNumbers = new ArrayList<>(updates.keySet());
+        List<Match> matches = new ArrayList<>();
+        for (int from = 0; from < trackingNumbers.size(); from += LOOKUP_CHUNK) {
+            List<String> chunk = trackingNumbers.subList(from, Math.min(from + LOOKUP_CHUNK, trackingNumbers.size()));
+            List<Object> args = new ArrayList<>(chunk);
+            args.add(courierCode.toLowerCase(Locale.ROOT));
+            args.add(courier.name() != null ? courier.name().trim().toLowerCase(Locale.ROOT) : courierCode.toLowerCase(Locale.ROOT));
+            matches.addAll(jdbcTemplate.query(
+                    "SELECT shipment_id, tracking_number, status FROM shipments WHERE tracking_number IN ("
+                            + String.join(", ", Collections.nCopies(chunk.size(), "?"))
+                            + ") AND LOWER(TRIM(courier_service)) IN (?, ?)",
+                    (rs, i) -> new Match(rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3)),
+                    args.toArray()));
+        }
+        if (matches.isEmpty()) return;
+
+        int events = 0;
+        for (Match m : matches) {
+            TrackingInfo info = updates.get(m.trackingNumber());
+            if (info == null) continue;
+            events += trackingStore.record(m.shipmentId(), info, ShipmentTrackingStore.SOURCE_PUSH);
+            String next = shipmentStatus(info.getStatus());
+            if (next != null && isForward(m.status(), next)) {
+                changes.add(new StatusChange(tenantSchema, m.shipmentId(), next));
+            }
+        }
+        matches.forEach(m -> updates.remove(m.trackingNumber()));
+        meterRegistry.counter("courier.webhook.updates", "courier", courierCode, "outcome", "applied").increment(matches.size());
+        meterRegistry.counter("courier.tracking.events", "courier", courierCode, "source", "push").increment(events);
+    }
+
+    /** Apply one tenant's status changes (one statement per target status), then notify newly dispatched buyers. */
+    private void applyInTenant(String tenantSchema, Map<String, List<UUID>> byStatus) {
+        TenantContext.setTenantSchema(tenantSchema);
+        try {
+            Timestamp now = Timestamp.from(Instant.now());
+            List<UUID> dispatched = new ArrayList<>();
+            byStatus.forEach((next, ids) -> {
+                boolean shipped = LIFECYCLE.indexOf(next) >= LIFECYCLE.indexOf("IN_TRANSIT");
+                List<Object> args = new ArrayList<>(ids);
+                args.add(next);
+                args.add(shipped ? now : null);
+                args.add("DELIVERED".equals(next) ? now : null);
+                // Rows are locked and re-checked so a change that raced ahead is never moved back
+                List<UUID> updated = jdbcTemplate.query("""
+                        WITH due AS (
+                            SELECT shipment_id, shipped_at FROM shipments
+                            WHERE shipment_id IN (%s) AND %s
+                            FOR UPDATE)
+                        UPDATE shipments s
+                        SET status = ?, shipped_at = COALESCE(s.shipped_at, ?), delivered_at = COALESCE(s.delivered_at, ?),
+                            updated_at = CURRENT_TIMESTAMP
+                        FROM due WHERE s.shipment_id = due.shipment_id
+                        RETURNING s.shipment_id, due.shipped_at IS NULL AND s.shipped_at IS NOT NULL
+                        """.formatted(String.join(", ", Collections.nCopies(ids.size(), "?")), FORWARD_GUARDS.get(next)),
+                        (rs, i) -> rs.getBoolean(2) ? rs.getObject(1, UUID.class) : null,
+                        args.toArray());
+                updated.stream().filter(Objects::nonNull).forEach(dispatched::add);
+            });
+            if (!dispatched.isEmpty()) {
+                shipmentRepository.findWithOrderAndRecipientByShipmentIdIn(dispatched).forEach(this::notifyDispatched);
+            }
+        } catch (Exception e) {
+            log.warn("Courier webhook status updates failed in {}: {}", tenantSchema, e.getMessage());
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private void notifyDispatched(Shipment shipment) {
+        try {
+            whatsAppNotificationService.notifyShipmentUpdated(shipment);
+        } catch (Exception e) {
+            log.warn("Failed to send WhatsApp dispatch notification: {}", e.getMessage());
+        }
+        try {
+            inAppNotificationService.notifyShipmentUpdated(shipment);
+        } catch (Exception e) {
+            log.warn("Failed to create in-app dispatch notification: {}", e.getMessage());
+        }
+    }
+
+    private static TrackingInfo merge(TrackingInfo earlier, TrackingInfo later) {
+        List<TrackingEvent> events = new ArrayList<>();
+        if (earlier.getEvents() != null) events.addAll(earlier.getEvents());
+        if (later.getEvents() != null) events.addAll(later.getEvents());
+        return TrackingInfo.builder()
+                .trackingNumber(earlier.getTrackingNumber())
+                .status(later.getStatus() != null ? later.getStatus() : earlier.getStatus())
+                .statusDescription(later.getStatusDescription() != null ? later.getStatusDescription() : earlier.getStatusDescription())
+                .estimatedDelivery(later.getEstimatedDelivery() != null ? later.getEstimatedDelivery() : earlier.getEstimatedDelivery())
+                .events(events)
+                .build();
+    }
+
+    /** Our shipment status for a courier tracking status, or null when it says nothing about the lifecycle. */
+    static String shipmentStatus(String trackingStatus) {
+        if (trackingStatus == null) return null;
+        String s = trackingStatus.trim().toUpperCase(Locale.ROOT).replace(' ', '_').replace('-', '_');
+        if (s.contains("OUT_FOR_DELIVERY")) return "OUT_FOR_DELIVERY";
+        if (s.contains("DELIVERED") && !s.contains("NOT_DELIVERED") && !s.contains("UNDELIVERED")) return "DELIVERED";
+        if (s.contains("TRANSIT") || s.equals("SHIPPED") || s.contains("DEPARTED") || s.contains("ARRIVED")) return "IN_TRANSIT";
+        if (s.contains("PICKED_UP") || s.equals("PICKUP") || s.equals("COLLECTED")) return "PICKED_UP";
+        return null;
+    }
+
+    private static boolean isForward(String current, String next) {
+        String cur = current == null ? "CREATED" : current.toUpperCase(Locale.ROOT);
+        if (FINAL_STATUSES.contains(cur)) return false;
+        int from = LIFECYCLE.indexOf(cur);
+        // Statuses outside the courier lifecycle (e.g. SHIPPED, READY_FOR_PICKUP) count as in transit
+        return LIFECYCLE.indexOf(next) > (from >= 0 ? from : LIFECYCLE.indexOf("IN_TRANSIT"));
+    }
+
+    private static Map<String, String> forwardGuards() {
+        Map<String, String> guards = new LinkedHashMap<>();
+        int inTransit = LIFECYCLE.indexOf("IN_TRANSIT");
+        for (int i = 1; i < LIFECYCLE.size(); i++) {
+            List<String> statuses = new ArrayList<>();
+            if (i <= inTransit) {
+                statuses.addAll(LIFECYCLE.subList(0, i));
+            } else {
+                statuses.addAll(FINAL_STATUSES);
+                statuses.addAll(LIFECYCLE.subList(i, LIFECYCLE.size()));
+            }
+            String list = statuses.stream().distinct().map(st -> "'" + st + "'").collect(Collectors.joining(", "));
+            // A shipment without a status is CREATED, as in isForward
+            guards.put(LIFECYCLE.get(i), "(status IS NULL OR UPPER(status) " + (i <= inTransit ? "IN" : "NOT IN") + " (" + list + "))");
+        }
+        return Map.copyOf(guards);
+    }
+}
@@ -0,0 +1,24 @@
+package com.biasharahub.courier;
+
+import com.biasharahub.entity.CourierService;
+
+import java.util.List;
+
+/**
+ * Turns a courier's tracking webhook payload into tracking updates (one per tracking number), the push counterpart of
+ * {@link CourierProviderClient#getTracking}. One implementation per provider payload format.
+ */
+public interface CourierWebhookMapper {
+
+    /**
+     * Whether this mapper reads webhooks of the given provider type (e.g. "REST").
+     */
+    boolean supports(String providerType);
+
+    /**
+     * Tracking updates in the payload; fields the courier did not send are left null.
+     *
+     * @throws CourierIntegrationException when the payload cannot be read
+     */
+    List<TrackingInfo> map(CourierService courier, String payload) throws CourierIntegrationException;
+}
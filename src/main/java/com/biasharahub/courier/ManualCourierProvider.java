@@ -3,12 +3,15 @@ package com.biasharahub.courier;
 import com.biasharahub.entity.CourierService;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.Collections;
 import java.util.List;
 
 /**
  * No API integration: seller enters carrier and tracking number manually.
- * Tracking link is built from entity's trackingUrlTemplate when present.
+ * Tracking link is built from entity's trackingUrlTemplate when present; rates come from the entity's
+ * base rate and rate per kg when those are set.
  */
 @Component
 public class ManualCourierProvider implements CourierProviderClient {
@@ -20,7 +23,18 @@ public class ManualCourierProvider implements CourierProviderClient {
 
     @Override
     public List<RateQuote> getRates(CourierService courier, RateRequest request) {
-        return Collections.emptyList();
+        BigDecimal baseRate = courier.getBaseRate() != null ? courier.getBaseRate() : BigDecimal.ZERO;
+        BigDecimal ratePerKg = courier.getRatePerKg() != null ? courier.getRatePerKg() : BigDecimal.ZERO;
+        if (baseRate.signum() <= 0 && ratePerKg.signum() <= 0) {
+            return Collections.emptyList();
+        }
+        BigDecimal weightKg = request.getWeightKg() != null ? request.getWeightKg() : BigDecimal.ONE;
+        return List.of(RateQuote.builder()
+                .serviceName(courier.getName())
+                .serviceCode(courier.getCode())
+                .amount(baseRate.add(ratePerKg.multiply(weightKg)).setScale(2, RoundingMode.HALF_UP))
+                .currency("KES")
+                .build());
     }
 
     @Override
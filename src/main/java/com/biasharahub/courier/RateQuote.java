@@ -8,6 +8,9 @@ import java.math.BigDecimal;
 @Data
 @Builder
 public class RateQuote {
+    /** Courier service the quote is from (set when quotes of several couriers are compared). */
+    private String courierCode;
+    private String courierName;
     private String serviceName;
     private String serviceCode;
     private BigDecimal amount;
@@ -4,31 +4,35 @@ import com.biasharahub.entity.CourierService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.*;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
-import java.time.Instant;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Generic REST integration: calls provider's API base URL with API key from config.
- * Expects: POST {apiBaseUrl}/shipments -> { trackingNumber, labelUrl? }; GET {apiBaseUrl}/tracking/{trackingNumber} -> { status, events? }.
+ * Expects: POST {apiBaseUrl}/shipments -> { trackingNumber, labelUrl? }; GET {apiBaseUrl}/tracking/{trackingNumber} -> { status, events? };
+ * POST {apiBaseUrl}/rates -> [ { serviceName, serviceCode?, amount, currency?, estimatedDays? } ] (or { rates: [...] }).
  */
 @Slf4j
 @Component
 public class RestGenericCourierProvider implements CourierProviderClient {
 
-    private static final RestTemplate REST_TEMPLATE = new RestTemplate();
     private final ObjectMapper objectMapper;
     private final CourierProviderConfig providerConfig;
+    private final CourierHttpClient httpClient;
 
-    public RestGenericCourierProvider(CourierProviderConfig providerConfig, ObjectMapper objectMapper) {
+    public RestGenericCourierProvider(CourierProviderConfig providerConfig, ObjectMapper objectMapper, CourierHttpClient httpClient) {
         this.providerConfig = providerConfig;
+        this.httpClient = httpClient;
         this.objectMapper = objectMapper != null ? objectMapper : new ObjectMapper();
     }
 
@@ -38,8 +42,49 @@ public class RestGenericCourierProvider implements CourierProviderClient {
     }
 
     @Override
-    public List<RateQuote> getRates(CourierService courier, RateRequest request) {
-        return List.of();
+    public List<RateQuote> getRates(CourierService courier, RateRequest request) throws CourierIntegrationException {
+        String baseUrl = courier.getApiBaseUrl();
+        String apiKey = providerConfig.getApiKey(courier.getCode());
+        if (baseUrl == null || baseUrl.isBlank() || apiKey == null || apiKey.isBlank()) {
+            return List.of();
+        }
+        String url = baseUrl.replaceAll("/$", "") + "/rates";
+        Map<String, Object> body = new HashMap<>();
+        body.put("originCity", nullToEmpty(request.getOriginCity()));
+        body.put("originPostalCode", nullToEmpty(request.getOriginPostalCode()));
+        body.put("originCountry", nullToEmpty(request.getOriginCountry()));
+        body.put("destinationCity", nullToEmpty(request.getDestinationCity()));
+        body.put("destinationPostalCode", nullToEmpty(request.getDestinationPostalCode()));
+        body.put("destinationCountry", nullToEmpty(request.getDestinationCountry()));
+        body.put("weightKg", request.getWeightKg() != null ? request.getWeightKg() : BigDecimal.ONE);
+        try {
+            CourierHttpClient.Response response = httpClient.send(courier.getCode(), post(url, apiKey, body));
+            if (!response.isSuccess() || response.body() == null) {
+                return List.of();
+            }
+            JsonNode root = objectMapper.readTree(response.body());
+            JsonNode rates = root.isArray() ? root : root.path("rates");
+            List<RateQuote> quotes = new ArrayList<>();
+            for (JsonNode r : rates) {
+                JsonNode amount = r.has("amount") ? r.get("amount") : r.get("price");
+                if (amount == null || !amount.isNumber() && !amount.isTextual()) {
+                    continue;
+                }
+                quotes.add(RateQuote.builder()
+                        .serviceName(r.has("serviceName") ? r.get("serviceName").asText() : courier.getName())
+                        .serviceCode(r.has("serviceCode") ? r.get("serviceCode").asText(null) : null)
+                        .amount(new BigDecimal(amount.asText()))
+                        .currency(r.has("currency") ? r.get("currency").asText() : "KES")
+                        .estimatedDays(r.has("estimatedDays") ? r.get("estimatedDays").asText(null) : null)
+                        .build());
+            }
+            return quotes;
+        } catch (CourierIntegrationException e) {
+            throw e;
+        } catch (Exception e) {
+            log.debug("REST rates failed for {}: {}", courier.getCode(), e.getMessage());
+            throw new CourierIntegrationException("We couldn't get rates from the courier provider right now.", e);
+        }
     }
 
     @Override
@@ -53,47 +98,17 @@ public class RestGenericCourierProvider implements CourierProviderClient {
             throw new CourierIntegrationException("This courier is not connected yet. Ask your administrator to add the API key in the server settings for \"" + courier.getName() + "\".");
         }
         String url = baseUrl.replaceAll("/$", "") + "/shipments";
-        Map<String, Object> shipper = new HashMap<>();
-        shipper.put("name", nullToEmpty(request.getShipperName()));
-        shipper.put("phone", nullToEmpty(request.getShipperPhone()));
-        shipper.put("address", nullToEmpty(request.getShipperAddress()));
-        shipper.put("city", nullToEmpty(request.getShipperCity()));
-        shipper.put("postalCode", nullToEmpty(request.getShipperPostalCode()));
-        shipper.put("country", nullToEmpty(request.getShipperCountry()));
-        Map<String, Object> recipient = new HashMap<>();
-        recipient.put("name", nullToEmpty(request.getRecipientName()));
-        recipient.put("phone", nullToEmpty(request.getRecipientPhone()));
-        recipient.put("address", nullToEmpty(request.getRecipientAddress()));
-        recipient.put("city", nullToEmpty(request.getRecipientCity()));
-        recipient.put("postalCode", nullToEmpty(request.getRecipientPostalCode()));
-        recipient.put("country", nullToEmpty(request.getRecipientCountry()));
-        Map<String, Object> body = new HashMap<>();
-        body.put("shipper", shipper);
-        body.put("recipient", recipient);
-        body.put("weightKg", request.getWeightKg() != null ? request.getWeightKg() : BigDecimal.ONE);
-        body.put("orderId", request.getOrderId() != null ? request.getOrderId().toString() : "");
-        body.put("shipmentId", request.getShipmentId() != null ? request.getShipmentId().toString() : "");
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.set("Authorization", "Bearer " + apiKey);
-        headers.set("X-API-Key", apiKey);
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
+        Map<String, Object> body = shipmentBody(request);
         try {
-            ResponseEntity<String> response = REST_TEMPLATE.exchange(url, HttpMethod.POST, entity, String.class);
-            if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            CourierHttpClient.Response response = httpClient.send(courier.getCode(), post(url, apiKey, body));
+            if (!response.isSuccess() || response.body() == null) {
                 throw new CourierIntegrationException("The courier provider could not create the shipment. Please try again or enter the tracking number manually.");
             }
-            JsonNode root = objectMapper.readTree(response.getBody());
-            String trackingNumber = root.has("trackingNumber") ? root.get("trackingNumber").asText() : (root.has("tracking_number") ? root.get("tracking_number").asText() : null);
-            String labelUrl = root.has("labelUrl") ? root.get("labelUrl").asText(null) : (root.has("label_url") ? root.get("label_url").asText(null) : null);
-            if (trackingNumber == null || trackingNumber.isBlank()) {
+            CreateShipmentResult result = createResult(objectMapper.readTree(response.body()));
+            if (result == null) {
                 throw new CourierIntegrationException("The courier provider did not return a tracking number. You can add it manually in the shipment details.");
             }
-            return CreateShipmentResult.builder()
-                    .trackingNumber(trackingNumber.trim())
-                    .labelUrl(labelUrl)
-                    .carrierReference(root.has("carrierReference") ? root.get("carrierReference").asText(null) : null)
-                    .build();
+            return result;
         } catch (CourierIntegrationException e) {
             throw e;
         } catch (Exception e) {
@@ -102,6 +117,62 @@ public class RestGenericCourierProvider implements CourierProviderClient {
         }
     }
 
+    /** Couriers whose config JSON has "batchCreate": true accept POST {apiBaseUrl}/shipments/batch. */
+    @Override
+    public boolean supportsBatchCreate(CourierService courier) {
+        String config = courier.getConfigJson();
+        if (config == null || config.isBlank()) return false;
+        try {
+            return objectMapper.readTree(config).path("batchCreate").asBoolean(false);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * POST {apiBaseUrl}/shipments/batch with { shipments: [ ...same bodies as /shipments ] } -> { results: [ { shipmentId,
+     * trackingNumber, labelUrl? } ] } (or the results array alone).
+     */
+    @Override
+    public Map<UUID, CreateShipmentResult> createShipments(CourierService courier, List<CreateShipmentRequest> requests) throws CourierIntegrationException {
+        String baseUrl = courier.getApiBaseUrl();
+        String apiKey = providerConfig.getApiKey(courier.getCode());
+        if (baseUrl == null || baseUrl.isBlank() || apiKey == null || apiKey.isBlank()) {
+            throw new CourierIntegrationException("This courier is not connected yet. Ask your administrator to add the API base URL and key for \"" + courier.getName() + "\".");
+        }
+        String url = baseUrl.replaceAll("/$", "") + "/shipments/batch";
+        List<Map<String, Object>> shipments = new ArrayList<>(requests.size());
+        for (CreateShipmentRequest request : requests) {
+            shipments.add(shipmentBody(request));
+        }
+        try {
+            CourierHttpClient.Response response = httpClient.send(courier.getCode(), post(url, apiKey, Map.of("shipments", shipments)));
+            if (!response.isSuccess() || response.body() == null) {
+                throw new CourierIntegrationException("The courier provider could not create the shipments. Please try again.");
+            }
+            JsonNode root = objectMapper.readTree(response.body());
+            Map<UUID, CreateShipmentResult> results = new HashMap<>();
+            for (JsonNode r : root.isArray() ? root : root.path("results")) {
+                CreateShipmentResult result = createResult(r);
+                if (result == null || !r.hasNonNull("shipmentId")) {
+                    continue;
+                }
+                try {
+                    results.put(UUID.fromString(r.get("shipmentId").asText()), result);
+                } catch (IllegalArgumentException e) {
+                    // One bad row must not fail the chunk; its shipment is reported as not created
+                    log.warn("REST courier {} batch result has an unreadable shipmentId: {}", courier.getCode(), r.get("shipmentId").asText());
+                }
+            }
+            return results;
+        } catch (CourierIntegrationException e) {
+            throw e;
+        } catch (Exception e) {
+            log.warn("REST courier batch createShipment failed: {}", e.getMessage());
+            throw new CourierIntegrationException("We couldn't reach the courier provider right now. Please try again later.", e);
+        }
+    }
+
     @Override
     public TrackingInfo getTracking(CourierService courier, String trackingNumber) throws CourierIntegrationException {
         String baseUrl = courier.getApiBaseUrl();
@@ -112,56 +183,72 @@ public class RestGenericCourierProvider implements CourierProviderClient {
         if (apiKey == null || apiKey.isBlank()) {
             return null;
         }
-        String url = baseUrl.replaceAll("/$", "") + "/tracking/" + trackingNumber.trim();
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", "Bearer " + apiKey);
-        headers.set("X-API-Key", apiKey);
+        String url = baseUrl.replaceAll("/$", "") + "/tracking/"
+                + URLEncoder.encode(trackingNumber.trim(), StandardCharsets.UTF_8).replace("+", "%20");
         try {
-            ResponseEntity<String> response = REST_TEMPLATE.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
-            if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            HttpRequest.Builder request = authorized(HttpRequest.newBuilder(URI.create(url)), apiKey).GET();
+            CourierHttpClient.Response response = httpClient.send(courier.getCode(), request);
+            if (!response.isSuccess() || response.body() == null) {
                 return null;
             }
-            JsonNode root = objectMapper.readTree(response.getBody());
-            String status = root.has("status") ? root.get("status").asText() : (root.has("state") ? root.get("state").asText() : "UNKNOWN");
-            String statusDesc = root.has("statusDescription") ? root.get("statusDescription").asText(null) : (root.has("description") ? root.get("description").asText(null) : null);
-            Instant estDelivery = null;
-            if (root.has("estimatedDelivery")) {
-                try {
-                    estDelivery = Instant.parse(root.get("estimatedDelivery").asText());
-                } catch (Exception ignored) {}
-            }
-            List<TrackingEvent> events = new ArrayList<>();
-            if (root.has("events") && root.get("events").isArray()) {
-                for (JsonNode ev : root.get("events")) {
-                    Instant ts = null;
-                    if (ev.has("timestamp")) {
-                        try {
-                            ts = Instant.parse(ev.get("timestamp").asText());
-                        } catch (Exception ignored) {
-                            // ignore invalid timestamp format
-                        }
-                    }
-                    events.add(TrackingEvent.builder()
-                            .timestamp(ts)
-                            .status(ev.has("status") ? ev.get("status").asText() : null)
-                            .description(ev.has("description") ? ev.get("description").asText(null) : null)
-                            .location(ev.has("location") ? ev.get("location").asText(null) : null)
-                            .build());
-                }
-            }
-            return TrackingInfo.builder()
-                    .trackingNumber(trackingNumber)
-                    .status(status)
-                    .statusDescription(statusDesc)
-                    .estimatedDelivery(estDelivery)
-                    .events(events)
-                    .build();
+            return RestGenericCourierWebhookMapper.trackingInfo(objectMapper.readTree(response.body()), trackingNumber);
         } catch (Exception e) {
             log.debug("REST tracking failed for {}: {}", trackingNumber, e.getMessage());
             return null;
         }
     }
 
+    private static Map<String, Object> shipmentBody(CreateShipmentRequest request) {
+        Map<String, Object> shipper = new HashMap<>();
+        shipper.put("name", nullToEmpty(request.getShipperName()));
+        shipper.put("phone", nullToEmpty(request.getShipperPhone()));
+        shipper.put("address", nullToEmpty(request.getShipperAddress()));
+        shipper.put("city", nullToEmpty(request.getShipperCity()));
+        shipper.put("postalCode", nullToEmpty(request.getShipperPostalCode()));
+        shipper.put("country", nullToEmpty(request.getShipperCountry()));
+        Map<String, Object> recipient = new HashMap<>();
+        recipient.put("name", nullToEmpty(request.getRecipientName()));
+        recipient.put("phone", nullToEmpty(request.getRecipientPhone()));
+        recipient.put("address", nullToEmpty(request.getRecipientAddress()));
+        recipient.put("city", nullToEmpty(request.getRecipientCity()));
+        recipient.put("postalCode", nullToEmpty(request.getRecipientPostalCode()));
+        recipient.put("country", nullToEmpty(request.getRecipientCountry()));
+        Map<String, Object> body = new HashMap<>();
+        body.put("shipper", shipper);
+        body.put("recipient", recipient);
+        body.put("weightKg", request.getWeightKg() != null ? request.getWeightKg() : BigDecimal.ONE);
+        body.put("orderId", request.getOrderId() != null ? request.getOrderId().toString() : "");
+        body.put("shipmentId", request.getShipmentId() != null ? request.getShipmentId().toString() : "");
+        return body;
+    }
+
+    /** Tracking number, label and reference from a created-shipment answer; null without a tracking number. */
+    private static CreateShipmentResult createResult(JsonNode root) {
+        String trackingNumber = root.has("trackingNumber") ? root.get("trackingNumber").asText() : (root.has("tracking_number") ? root.get("tracking_number").asText() : null);
+        String labelUrl = root.has("labelUrl") ? root.get("labelUrl").asText(null) : (root.has("label_url") ? root.get("label_url").asText(null) : null);
+        if (trackingNumber == null || trackingNumber.isBlank()) {
+            return null;
+        }
+        return CreateShipmentResult.builder()
+                .trackingNumber(trackingNumber.trim())
+                .labelUrl(labelUrl)
+                .carrierReference(root.has("carrierReference") ? root.get("carrierReference").asText(null) : null)
+                .build();
+    }
+
+    private HttpRequest.Builder post(String url, String apiKey, Map<String, Object> body) throws Exception {
+        return authorized(HttpRequest.newBuilder(URI.create(url)), apiKey)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body), StandardCharsets.UTF_8));
+    }
+
+    private static HttpRequest.Builder authorized(HttpRequest.Builder request, String apiKey) {
+        return request
+                .header("Accept", "application/json")
+                .header("Authorization", "Bearer " + apiKey)
+                .header("X-API-Key", apiKey);
+    }
+
     private static String nullToEmpty(String s) {
         return s == null ? "" : s;
     }
@@ -0,0 +1,111 @@
+package com.biasharahub.courier;
+
+import com.biasharahub.entity.CourierService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Webhooks of generic REST couriers, in the same shape as their GET /tracking/{trackingNumber} answer:
+ * { trackingNumber, status?, statusDescription?, estimatedDelivery?, events?: [ { timestamp, status, description, location } ] }.
+ * The body may be one such update, an array of them, or { updates: [...] }; an update without an events array but
+ * with a timestamp is itself one event.
+ */
+@Component
+public class RestGenericCourierWebhookMapper implements CourierWebhookMapper {
+
+    private final ObjectMapper objectMapper;
+
+    public RestGenericCourierWebhookMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper != null ? objectMapper : new ObjectMapper();
+    }
+
+    @Override
+    public boolean supports(String providerType) {
+        return "REST".equalsIgnoreCase(providerType == null ? "" : providerType.trim());
+    }
+
+    @Override
+    public List<TrackingInfo> map(CourierService courier, String payload) throws CourierIntegrationException {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(payload);
+        } catch (Exception e) {
+            throw new CourierIntegrationException("Webhook body is not valid JSON", e);
+        }
+        if (root == null || root.isMissingNode()) {
+            return List.of();
+        }
+        JsonNode updates = root.isArray() ? root : (root.has("updates") ? root.get("updates") : null);
+        List<TrackingInfo> result = new ArrayList<>();
+        if (updates == null) {
+            addUpdate(root, result);
+        } else {
+            for (JsonNode update : updates) {
+                addUpdate(update, result);
+            }
+        }
+        return result;
+    }
+
+    private static void addUpdate(JsonNode node, List<TrackingInfo> result) {
+        String trackingNumber = text(node, "trackingNumber", "tracking_number");
+        if (trackingNumber == null || trackingNumber.isBlank()) {
+            return;
+        }
+        TrackingInfo info = trackingInfo(node, trackingNumber.trim());
+        if (info.getEvents().isEmpty() && node.has("timestamp")) {
+            info.getEvents().add(event(node));
+        }
+        result.add(info);
+    }
+
+    /** Tracking of one shipment from a tracking answer or webhook update; status is null when not sent. */
+    static TrackingInfo trackingInfo(JsonNode root, String trackingNumber) {
+        List<TrackingEvent> events = new ArrayList<>();
+        if (root.has("events") && root.get("events").isArray()) {
+            for (JsonNode ev : root.get("events")) {
+                events.add(event(ev));
+            }
+        }
+        return TrackingInfo.builder()
+                .trackingNumber(trackingNumber)
+                .status(text(root, "status", "state"))
+                .statusDescription(text(root, "statusDescription", "description"))
+                .estimatedDelivery(instant(root.get("estimatedDelivery")))
+                .events(events)
+                .build();
+    }
+
+    private static TrackingEvent event(JsonNode ev) {
+        return TrackingEvent.builder()
+                .timestamp(instant(ev.get("timestamp")))
+                .status(text(ev, "status", "state"))
+                .description(text(ev, "description", "statusDescription"))
+                .location(text(ev, "location"))
+                .build();
+    }
+
+    private static String text(JsonNode node, String field, String alternative) {
+        return node.has(field) ? text(node, field) : text(node, alternative);
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value != null && !value.isNull() ? value.asText() : null;
+    }
+
+    private static Instant instant(JsonNode value) {
+        if (value == null || value.isNull()) return null;
+        try {
+            return Instant.parse(value.asText());
+        } catch (Exception ignored) {
+            // ignore invalid timestamp format
+            return null;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.biasharahub.courier;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tracking state and event log of shipments in our database (current tenant): shipment_tracking holds the latest
+ * status per shipment, shipment_tracking_events every distinct event seen (a hash of its fields dedupes repeats,
+ * whether they arrive by polling or by push). Tracking reads are answered from here, never from the courier.
+ */
+@Component
+public class ShipmentTrackingStore {
+
+    public static final String SOURCE_POLL = "POLL";
+    public static final String SOURCE_PUSH = "PUSH";
+
+    /** Courier shipments still in motion whose tracking was checked least recently (never checked first). */
+    private static final String DUE_SQL = """
+            SELECT s.shipment_id, s.tracking_number, s.courier_service
+            FROM shipments s
+            LEFT JOIN shipment_tracking t ON t.shipment_id = s.shipment_id
+            WHERE s.delivery_mode = 'COURIER' AND s.tracking_number IS NOT NULL
+              AND s.status NOT IN ('DELIVERED', 'COLLECTED', 'ESCROW_RELEASED', 'CANCELLED')
+              AND s.courier_service IS NOT NULL
+              AND COALESCE(UPPER(t.tracking_status), '') NOT IN ('DELIVERED', 'RETURNED', 'CANCELLED')
+              AND (t.checked_at IS NULL OR t.checked_at < ?)
+            ORDER BY t.checked_at NULLS FIRST
+            LIMIT ?
+            """;
+    private static final String UPSERT_STATE_SQL = """
+            INSERT INTO shipment_tracking (shipment_id, tracking_status, status_description, estimated_delivery, checked_at, updated_at)
+            VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+            ON CONFLICT (shipment_id) DO UPDATE
+            SET tracking_status = COALESCE(EXCLUDED.tracking_status, shipment_tracking.tracking_status),
+                status_description = COALESCE(EXCLUDED.status_description, shipment_tracking.status_description),
+                estimated_delivery = COALESCE(EXCLUDED.estimated_delivery, shipment_tracking.estimated_delivery),
+                checked_at = EXCLUDED.checked_at, updated_at = EXCLUDED.updated_at
+            """;
+    private static final String INSERT_EVENT_SQL = """
+            INSERT INTO shipment_tracking_events (shipment_id, event_time, status, description, location, source, dedupe_key)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (shipment_id, dedupe_key) DO NOTHING
+            """;
+
+    /** A courier shipment due for a tracking refresh. */
+    public record DueShipment(UUID shipmentId, String trackingNumber, String courierService) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ShipmentTrackingStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<DueShipment> findDue(Instant checkedBefore, int limit) {
+        return jdbcTemplate.query(DUE_SQL, (rs, i) -> new DueShipment(
+                rs.getObject(1, UUID.class), rs.getString(2), rs.getString(3)), Timestamp.from(checkedBefore), limit);
+    }
+
+    /**
+     * Store the latest state (fields left null keep their previous value) and append unseen events.
+     *
+     * @return number of new events
+     */
+    public int record(UUID shipmentId, TrackingInfo info, String source) {
+        jdbcTemplate.update(UPSERT_STATE_SQL, shipmentId, info.getStatus(), info.getStatusDescription(),
+                info.getEstimatedDelivery() != null ? Timestamp.from(info.getEstimatedDelivery()) : null);
+        int added = 0;
+        if (info.getEvents() != null) {
+            for (TrackingEvent e : info.getEvents()) {
+                added += jdbcTemplate.update(INSERT_EVENT_SQL, shipmentId,
+                        e.getTimestamp() != null ? Timestamp.from(e.getTimestamp()) : null,
+                        e.getStatus(), e.getDescription(), e.getLocation(), source, dedupeKey(e));
+            }
+        }
+        return added;
+    }
+
+    /** Mark a shipment checked without new data (provider had nothing or failed), so it goes to the back of the queue. */
+    public void markChecked(UUID shipmentId) {
+        jdbcTemplate.update("""
+                INSERT INTO shipment_tracking (shipment_id, checked_at) VALUES (?, CURRENT_TIMESTAMP)
+                ON CONFLICT (shipment_id) DO UPDATE SET checked_at = EXCLUDED.checked_at
+                """, shipmentId);
+    }
+
+    /** Stored tracking for a shipment (events oldest first), or null if nothing has been recorded yet. */
+    public TrackingInfo load(UUID shipmentId, String trackingNumber) {
+        List<TrackingInfo> state = jdbcTemplate.query(
+                "SELECT tracking_status, status_description, estimated_delivery FROM shipment_tracking WHERE shipment_id = ?",
+                (rs, i) -> TrackingInfo.builder()
+                        .trackingNumber(trackingNumber)
+                        .status(rs.getString(1))
+                        .statusDescription(rs.getString(2))
+                        .estimatedDelivery(rs.getTimestamp(3) != null ? rs.getTimestamp(3).toInstant() : null)
+                        .build(),
+                shipmentId);
+        if (state.isEmpty()) {
+            return null;
+        }
+        TrackingInfo info = state.get(0);
+        info.setEvents(jdbcTemplate.query("""
+                SELECT event_time, status, description, location FROM shipment_tracking_events
+                WHERE shipment_id = ? ORDER BY event_time NULLS FIRST, received_at
+                """, (rs, i) -> TrackingEvent.builder()
+                .timestamp(rs.getTimestamp(1) != null ? rs.getTimestamp(1).toInstant() : null)
+                .status(rs.getString(2))
+                .description(rs.getString(3))
+                .location(rs.getString(4))
+                .build(), shipmentId));
+        return info;
+    }
+
+    static String dedupeKey(TrackingEvent e) {
+        String raw = e.getTimestamp() + "|" + e.getStatus() + "|" + e.getDescription() + "|" + e.getLocation();
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(raw.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
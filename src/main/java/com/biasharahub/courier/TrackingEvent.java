@@ -2,11 +2,13 @@ package com.biasharahub.courier;
 
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 import java.time.Instant;
 
 @Data
 @Builder
+@Jacksonized
 public class TrackingEvent {
     private Instant timestamp;
     private String status;
@@ -2,12 +2,14 @@ package com.biasharahub.courier;
 
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 import java.time.Instant;
 import java.util.List;
 
 @Data
 @Builder
+@Jacksonized
 public class TrackingInfo {
     private String trackingNumber;
     private String status;
@@ -0,0 +1,20 @@
+package com.biasharahub.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bulk create-with-provider: dispatch several COURIER shipments with one courier service.
+ */
+@Data
+public class BulkCreateShipmentsRequest {
+    @NotBlank(message = "courierServiceCode is required")
+    private String courierServiceCode;
+
+    @NotEmpty(message = "shipmentIds is required")
+    private List<UUID> shipmentIds;
+}
@@ -0,0 +1,28 @@
+package com.biasharahub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/** One result of /products/search: a shop or a product, best match first. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogSearchHitDto {
+    /** "shop" or "product". */
+    private String type;
+    /** businessId for shops, productId for products. */
+    private UUID id;
+    private UUID businessId;
+    private String name;
+    private String businessName;
+    private String category;
+    /** Products only: price per item. */
+    private BigDecimal price;
+    private double score;
+}
@@ -42,4 +42,9 @@ public class UserDto {
     private String serviceLocationDescription;
     private java.time.Instant serviceProviderVerifiedAt;
     private UUID serviceProviderVerifiedByUserId;
+
+    // --- Notification channel preferences (null = enabled) ---
+    private Boolean notifyInApp;
+    private Boolean notifyWhatsapp;
+    private Boolean notifySms;
 }
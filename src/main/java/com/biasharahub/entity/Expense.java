@@ -1,5 +1,7 @@
 package com.biasharahub.entity;
 
+import com.biasharahub.service.AnalyticsCacheListener;
+import com.biasharahub.service.SalesRollupListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -14,6 +16,7 @@ import java.util.UUID;
  */
 @Entity
 @Table(name = "expenses")
+@EntityListeners({AnalyticsCacheListener.class, SalesRollupListener.class})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,41 @@
+package com.biasharahub.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Tenant-specific replacement for a built-in notification template (see NotificationTemplateKey).
+ */
+@Entity
+@Table(name = "notification_templates")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationTemplateOverride {
+
+    /**
+     * Template key, e.g. whatsapp.order.created.
+     */
+    @Id
+    @Column(name = "template_key", length = 64)
+    private String templateKey;
+
+    /**
+     * Template text with {placeholder} slots.
+     */
+    @Column(name = "body", nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    public void onSave() {
+        updatedAt = Instant.now();
+    }
+}
@@ -1,6 +1,8 @@
 package com.biasharahub.entity;
 
 import com.biasharahub.config.EncryptedStringAttributeConverter;
+import com.biasharahub.service.AnalyticsCacheListener;
+import com.biasharahub.service.SalesRollupListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -12,6 +14,8 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "orders")
+// Analytics first: its after-commit invalidation must run before the rollup refresh, which invalidates again
+@EntityListeners({AnalyticsCacheListener.class, SalesRollupListener.class})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -83,6 +87,25 @@ public class Order {
     @Builder.Default
     private List<Shipment> shipments = new ArrayList<>();
 
+    /** order_status as last read from or written to the database, so listeners can see status transitions. */
+    @Transient
+    private String persistedOrderStatus;
+
+    @PostLoad
+    public void postLoad() {
+        persistedOrderStatus = orderStatus;
+    }
+
+    /**
+     * Entity callbacks run after the {@link EntityListeners} ones, so every listener sees the status from before this
+     * write whatever their order.
+     */
+    @PostPersist
+    @PostUpdate
+    public void statusWritten() {
+        persistedOrderStatus = orderStatus;
+    }
+
     @PrePersist
     public void prePersist() {
         Instant now = Instant.now();
@@ -1,6 +1,7 @@
 package com.biasharahub.entity;
 
 import com.biasharahub.config.EncryptedStringAttributeConverter;
+import com.biasharahub.service.AnalyticsCacheListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -10,6 +11,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "payments")
+@EntityListeners(AnalyticsCacheListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -2,12 +2,18 @@ package com.biasharahub.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.Instant;
 import java.util.UUID;
 
+/**
+ * Updates write only the columns that changed, so saving a shipment loaded before a courier webhook moved its status
+ * on (see CourierWebhookIngestor) does not move it back unless the status itself was edited.
+ */
 @Entity
 @Table(name = "shipments")
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
@@ -61,4 +61,16 @@ public class Tenant {
     @Convert(converter = EncryptedStringAttributeConverter.class)
     @Column(name = "default_payout_destination", length = 1024)
     private String defaultPayoutDestination;
+
+    /**
+     * Days to keep read notifications before compaction. Null uses app.notifications.retention.default-days.
+     */
+    @Column(name = "notification_retention_days")
+    private Integer notificationRetentionDays;
+
+    /**
+     * Notification compaction mode: ARCHIVE, DELETE or NONE. Null uses app.notifications.retention.default-mode.
+     */
+    @Column(name = "notification_retention_mode", length = 16)
+    private String notificationRetentionMode;
 }
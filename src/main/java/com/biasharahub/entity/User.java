@@ -1,6 +1,8 @@
 package com.biasharahub.entity;
 
 import com.biasharahub.config.EncryptedStringAttributeConverter;
+import com.biasharahub.service.CatalogChangeListener;
+import com.biasharahub.util.PhoneNumbers;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -9,6 +11,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(CatalogChangeListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -38,6 +41,10 @@ public class User {
     @Column(name = "phone", length = 50)
     private String phone;
 
+    /** {@link #phone} normalized to E.164; maintained on save, indexed for WhatsApp chatbot lookups. */
+    @Column(name = "phone_e164", length = 20)
+    private String phoneE164;
+
     @Column(nullable = false)
     @Builder.Default
     private String role = "customer";
@@ -192,6 +199,20 @@ public class User {
     @Column(name = "terms_accepted_at")
     private Instant termsAcceptedAt;
 
+    // --- Notification channel preferences (null or true = enabled) ---
+
+    @Column(name = "notify_in_app")
+    @Builder.Default
+    private Boolean notifyInApp = true;
+
+    @Column(name = "notify_whatsapp")
+    @Builder.Default
+    private Boolean notifyWhatsapp = true;
+
+    @Column(name = "notify_sms")
+    @Builder.Default
+    private Boolean notifySms = true;
+
     @Column(name = "created_at")
     private Instant createdAt;
 
@@ -203,10 +224,12 @@ public class User {
         Instant now = Instant.now();
         if (createdAt == null) createdAt = now;
         if (updatedAt == null) updatedAt = now;
+        phoneE164 = PhoneNumbers.toE164(phone);
     }
 
     @PreUpdate
     public void preUpdate() {
         updatedAt = Instant.now();
+        phoneE164 = PhoneNumbers.toE164(phone);
     }
 }
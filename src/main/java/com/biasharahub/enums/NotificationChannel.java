@@ -0,0 +1,27 @@
+package com.biasharahub.enums;
+
+import com.biasharahub.entity.User;
+
+/**
+ * Delivery channels for user notifications. Each user can switch channels off (users.notify_*).
+ */
+public enum NotificationChannel {
+    IN_APP,
+    WHATSAPP,
+    SMS;
+
+    /** True unless the user has switched this channel off. */
+    public boolean isEnabledFor(User user) {
+        Boolean enabled = switch (this) {
+            case IN_APP -> user.getNotifyInApp();
+            case WHATSAPP -> user.getNotifyWhatsapp();
+            case SMS -> user.getNotifySms();
+        };
+        return enabled == null || enabled;
+    }
+
+    /** WhatsApp and SMS are delivered to the user's phone number. */
+    public boolean requiresPhone() {
+        return this != IN_APP;
+    }
+}
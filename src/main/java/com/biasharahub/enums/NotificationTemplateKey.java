@@ -0,0 +1,213 @@
+package com.biasharahub.enums;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Notification message templates (WhatsApp, SMS, in-app) with their built-in default text.
+ * Placeholders are written as {name} and must be one of the key's parameters; arguments are passed to
+ * NotificationTemplateRegistry.render in parameter order. Tenants can replace the text per key via the
+ * notification_templates table.
+ */
+public enum NotificationTemplateKey {
+
+    // ---------- WhatsApp ----------
+    WHATSAPP_ORDER_CREATED("whatsapp.order.created",
+            "BiasharaHub: Your order #{orderNumber} has been placed. Total: {total}. Complete payment to confirm.",
+            "orderNumber", "total"),
+    WHATSAPP_SELLER_ORDER_CREATED("whatsapp.seller.order.created",
+            "BiasharaHub: New order #{orderNumber} from {customerName}. Total: {total}. Log in to process the order.",
+            "orderNumber", "customerName", "total"),
+    WHATSAPP_PAYMENT_REQUESTED("whatsapp.payment.requested",
+            "BiasharaHub: Pay KES {amount} for order #{orderNumber} via M-Pesa to confirm. Check your phone for the prompt.",
+            "amount", "orderNumber"),
+    WHATSAPP_PAYMENT_COMPLETED("whatsapp.payment.completed",
+            "BiasharaHub: Payment received for order #{orderNumber}. Your order is confirmed. We'll notify you when it ships.",
+            "orderNumber"),
+    WHATSAPP_SELLER_PAYMENT_COMPLETED("whatsapp.seller.payment.completed",
+            "BiasharaHub: Order #{orderNumber} has been paid. You can now prepare and dispatch.",
+            "orderNumber"),
+    WHATSAPP_SELLER_LOW_STOCK("whatsapp.seller.low-stock",
+            "BiasharaHub: Low stock – \"{productName}\" has {quantity} left. Consider restocking.",
+            "productName", "quantity"),
+    WHATSAPP_SELLER_DIGEST("whatsapp.seller.digest",
+            "BiasharaHub: {summary}",
+            "summary"),
+    WHATSAPP_SELLER_DISPUTE_CREATED("whatsapp.seller.dispute.created",
+            "BiasharaHub: A customer opened a dispute for order #{orderNumber}{disputeDetail}. Please respond in the dashboard.",
+            "orderNumber", "disputeDetail"),
+    WHATSAPP_SELLER_ORDER_CANCELLED("whatsapp.seller.order.cancelled",
+            "BiasharaHub: Order #{orderNumber} was cancelled. Inventory has been restored.",
+            "orderNumber"),
+    WHATSAPP_ACCOUNT_SUSPENDED("whatsapp.account.suspended",
+            "BiasharaHub: Your account has been disabled. You cannot log in or receive orders. Please contact the admin to resolve."),
+    WHATSAPP_ACCOUNT_ENABLED("whatsapp.account.enabled",
+            "BiasharaHub: Your account has been enabled. You can log in again and receive orders."),
+    WHATSAPP_SERVICE_BOOKING_CREATED("whatsapp.service.booking.created",
+            "BiasharaHub: Your appointment for \"{serviceName}\" on {dateTime} has been booked. Pay in the app to confirm.",
+            "serviceName", "dateTime"),
+    WHATSAPP_PROVIDER_BOOKING_CREATED("whatsapp.provider.booking.created",
+            "BiasharaHub: New booking for \"{serviceName}\" from {customerName} on {dateTime}.{locationDetail}\nLog in to confirm.",
+            "serviceName", "customerName", "dateTime", "locationDetail"),
+    WHATSAPP_SERVICE_MEETING_LINK("whatsapp.service.meeting-link",
+            "BiasharaHub: Meeting link for \"{serviceName}\": {meetingLink}",
+            "serviceName", "meetingLink"),
+    WHATSAPP_SERVICE_BOOKING_STATUS("whatsapp.service.booking.status",
+            "BiasharaHub: Your appointment for \"{serviceName}\" is now {status}.",
+            "serviceName", "status"),
+    WHATSAPP_SERVICE_PAYMENT_CUSTOMER("whatsapp.service.payment.customer",
+            "BiasharaHub: Payment received for \"{serviceName}\". Your booking is confirmed.",
+            "serviceName"),
+    WHATSAPP_SERVICE_PAYMENT_PROVIDER("whatsapp.service.payment.provider",
+            "BiasharaHub: Payment received for \"{serviceName}\" from {customerName}. See dashboard.",
+            "serviceName", "customerName"),
+    WHATSAPP_SUPPLIER_PO_CREATED("whatsapp.supplier.po.created",
+            "BiasharaHub: New purchase order {poNumber} has been created for you. Log in to view and submit your dispatch.",
+            "poNumber"),
+    WHATSAPP_SELLER_SUPPLIER_DISPATCHED("whatsapp.seller.supplier.dispatched",
+            "BiasharaHub: A supplier has submitted a dispatch{dispatchDetail}. Log in to confirm receipt.",
+            "dispatchDetail"),
+    WHATSAPP_SUPPLIER_RECEIPT_CONFIRMED("whatsapp.supplier.receipt.confirmed",
+            "BiasharaHub: The seller has confirmed receipt of your dispatch{poDetail}. Thank you.",
+            "poDetail"),
+    WHATSAPP_SHIPMENT_DELIVERED("whatsapp.shipment.delivered",
+            "BiasharaHub: Delivered! Your order #{orderNumber} has been delivered. Thank you for shopping with us!",
+            "orderNumber"),
+    WHATSAPP_SHIPMENT_DISPATCHED("whatsapp.shipment.dispatched",
+            "BiasharaHub: Your order #{orderNumber} has been dispatched.{dispatchDetail}{otpDetail}",
+            "orderNumber", "dispatchDetail", "otpDetail"),
+    WHATSAPP_SHIPMENT_STATUS("whatsapp.shipment.status",
+            "BiasharaHub: Order #{orderNumber} – {status}.",
+            "orderNumber", "status"),
+
+    // ---------- SMS ----------
+    SMS_SELLER_ORDER_CREATED("sms.seller.order.created",
+            "BiasharaHub: New order #{orderNumber} from {customerName}. Total: {total}. Log in to process the order.",
+            "orderNumber", "customerName", "total"),
+    SMS_SELLER_PAYMENT_COMPLETED("sms.seller.payment.completed",
+            "BiasharaHub: Order #{orderNumber} has been paid. You can now prepare and dispatch.",
+            "orderNumber"),
+    SMS_SELLER_LOW_STOCK("sms.seller.low-stock",
+            "BiasharaHub: Low stock – \"{productName}\" has {quantity} left. Consider restocking.",
+            "productName", "quantity"),
+    SMS_SELLER_DIGEST("sms.seller.digest",
+            "BiasharaHub: {summary}",
+            "summary"),
+    SMS_SELLER_DISPUTE_CREATED("sms.seller.dispute.created",
+            "BiasharaHub: A customer opened a dispute for order #{orderNumber}{disputeDetail}. Please respond in the dashboard.",
+            "orderNumber", "disputeDetail"),
+    SMS_SELLER_ORDER_CANCELLED("sms.seller.order.cancelled",
+            "BiasharaHub: Order #{orderNumber} was cancelled. Inventory has been restored.",
+            "orderNumber"),
+    SMS_ACCOUNT_SUSPENDED("sms.account.suspended",
+            "BiasharaHub: Your account has been disabled. You cannot log in or receive orders. Please contact the admin to resolve."),
+    SMS_ACCOUNT_ENABLED("sms.account.enabled",
+            "BiasharaHub: Your account has been enabled. You can log in again and receive orders."),
+    SMS_PROVIDER_BOOKING_CREATED("sms.provider.booking.created",
+            "BiasharaHub: New booking for \"{serviceName}\" from {customerName} on {dateTime}. Log in to confirm.",
+            "serviceName", "customerName", "dateTime"),
+    SMS_SERVICE_PAYMENT_PROVIDER("sms.service.payment.provider",
+            "BiasharaHub: Payment received for \"{serviceName}\" from {customerName}. See dashboard.",
+            "serviceName", "customerName"),
+
+    // ---------- In-app (message body; titles stay fixed) ----------
+    IN_APP_ORDER_CREATED("in-app.order.created",
+            "Your order {orderNumber} has been placed. Complete payment to confirm.",
+            "orderNumber"),
+    IN_APP_SELLER_ORDER_CREATED("in-app.seller.order.created",
+            "You have received a new order {orderNumber} from {customerName}.",
+            "orderNumber", "customerName"),
+    IN_APP_PAYMENT_REQUESTED("in-app.payment.requested",
+            "We sent an M-Pesa prompt for order {orderNumber}. Complete the payment on your phone.",
+            "orderNumber"),
+    IN_APP_PAYMENT_COMPLETED("in-app.payment.completed",
+            "We received your payment for order {orderNumber}. Your order is now confirmed.",
+            "orderNumber"),
+    IN_APP_SELLER_PAYMENT_COMPLETED("in-app.seller.payment.completed",
+            "Order {orderNumber} has been paid. You can now prepare and dispatch.",
+            "orderNumber"),
+    IN_APP_SELLER_LOW_STOCK("in-app.seller.low-stock",
+            "Product \"{productName}\" is running low ({quantity} left). Consider restocking.",
+            "productName", "quantity"),
+    IN_APP_SELLER_DISPUTE_CREATED("in-app.seller.dispute.created",
+            "A customer opened a dispute for order {orderNumber}{disputeDetail}.",
+            "orderNumber", "disputeDetail"),
+    IN_APP_SELLER_ORDER_CANCELLED("in-app.seller.order.cancelled",
+            "Order {orderNumber} was cancelled. Inventory has been restored.",
+            "orderNumber"),
+    IN_APP_ACCOUNT_SUSPENDED("in-app.account.suspended",
+            "Your account has been disabled. You cannot log in or receive orders. Please contact the admin to resolve."),
+    IN_APP_ACCOUNT_ENABLED("in-app.account.enabled",
+            "Your account has been enabled. You can log in again and receive orders."),
+    IN_APP_SERVICE_BOOKING_CREATED("in-app.service.booking.created",
+            "Your appointment for \"{serviceName}\" on {dateTime} has been booked. Pay to confirm.",
+            "serviceName", "dateTime"),
+    IN_APP_PROVIDER_BOOKING_CREATED("in-app.provider.booking.created",
+            "{customerName} booked \"{serviceName}\" for {dateTime}. Confirm in the dashboard.",
+            "customerName", "serviceName", "dateTime"),
+    IN_APP_SERVICE_MEETING_LINK("in-app.service.meeting-link",
+            "Your meeting link for \"{serviceName}\": {meetingLink}{meetingDetail}",
+            "serviceName", "meetingLink", "meetingDetail"),
+    IN_APP_PROVIDER_MEETING_LINK("in-app.provider.meeting-link",
+            "Meeting link for \"{serviceName}\" with {customerName}: {meetingLink}",
+            "serviceName", "customerName", "meetingLink"),
+    IN_APP_SERVICE_BOOKING_STATUS("in-app.service.booking.status",
+            "Your appointment for \"{serviceName}\" is now {status}.",
+            "serviceName", "status"),
+    IN_APP_SERVICE_PAYMENT_CUSTOMER("in-app.service.payment.customer",
+            "We received your payment for \"{serviceName}\". Your booking is confirmed.",
+            "serviceName"),
+    IN_APP_SERVICE_PAYMENT_PROVIDER("in-app.service.payment.provider",
+            "Payment received for \"{serviceName}\" from {customerName}. See appointment in dashboard.",
+            "serviceName", "customerName"),
+    IN_APP_SUPPLIER_PO_CREATED("in-app.supplier.po.created",
+            "Purchase order {poNumber} has been created for you. Log in to view and submit your dispatch.",
+            "poNumber"),
+    IN_APP_SELLER_SUPPLIER_DISPATCHED("in-app.seller.supplier.dispatched",
+            "A supplier{supplierDetail} has submitted a dispatch{poDetail}. Confirm receipt in Deliveries.",
+            "supplierDetail", "poDetail"),
+    IN_APP_SUPPLIER_RECEIPT_CONFIRMED("in-app.supplier.receipt.confirmed",
+            "The seller has confirmed receipt of your dispatch{poDetail}.",
+            "poDetail"),
+    IN_APP_SHIPMENT_DELIVERED("in-app.shipment.delivered",
+            "Your order {orderNumber} has been delivered. Thank you for shopping with us.",
+            "orderNumber"),
+    IN_APP_SHIPMENT_STATUS("in-app.shipment.status",
+            "Your order {orderNumber} shipment status is now: {status}.",
+            "orderNumber", "status");
+
+    private static final Map<String, NotificationTemplateKey> BY_KEY = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(NotificationTemplateKey::getKey, Function.identity()));
+
+    private final String key;
+    private final String defaultTemplate;
+    private final List<String> parameters;
+
+    NotificationTemplateKey(String key, String defaultTemplate, String... parameters) {
+        this.key = key;
+        this.defaultTemplate = defaultTemplate;
+        this.parameters = List.of(parameters);
+    }
+
+    /** Stable key stored in notification_templates.template_key. */
+    public String getKey() {
+        return key;
+    }
+
+    public String getDefaultTemplate() {
+        return defaultTemplate;
+    }
+
+    /** Placeholder names, in the order arguments are passed to render. */
+    public List<String> getParameters() {
+        return parameters;
+    }
+
+    /** Look up a template by its stored key; null if unknown. */
+    public static NotificationTemplateKey fromKey(String key) {
+        return key == null ? null : BY_KEY.get(key.trim());
+    }
+}
@@ -0,0 +1,130 @@
+package com.biasharahub.mail;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends email off the request thread so login, registration and password reset never wait on a mail provider.
+ * Messages go onto a bounded queue served by a small worker pool; failed sends are retried with exponential
+ * backoff and jitter. When the queue is full the message is dropped (logged and counted) rather than blocking
+ * the caller. Queue contents are in-memory: a restart drops unsent mail, as the synchronous path did on failure.
+ */
+@Component
+@Slf4j
+public class AsyncEmailDispatcher {
+
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService retryScheduler;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final MeterRegistry meterRegistry;
+
+    public AsyncEmailDispatcher(
+            @Value("${app.mail.async.pool-size:4}") int poolSize,
+            @Value("${app.mail.async.queue-capacity:1000}") int queueCapacity,
+            @Value("${app.mail.async.max-attempts:4}") int maxAttempts,
+            @Value("${app.mail.async.initial-backoff-ms:500}") long initialBackoffMs,
+            @Value("${app.mail.async.max-backoff-ms:30000}") long maxBackoffMs,
+            MeterRegistry meterRegistry) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = Math.max(1, initialBackoffMs);
+        this.maxBackoffMs = Math.max(this.initialBackoffMs, maxBackoffMs);
+        this.meterRegistry = meterRegistry;
+        int threads = Math.max(1, poolSize);
+        this.workers = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), namedThreads("mail-dispatch-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.workers.allowCoreThreadTimeOut(true);
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(namedThreads("mail-retry-"));
+        Gauge.builder("mail.dispatch.queue.size", workers, w -> w.getQueue().size())
+                .description("Emails waiting for a dispatch worker")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue a message for delivery via the given sender. Never blocks and never throws.
+     */
+    public void submit(EmailMessage message, EmailSender sender) {
+        enqueue(message, sender, 1);
+    }
+
+    private void enqueue(EmailMessage message, EmailSender sender, int attempt) {
+        try {
+            workers.execute(() -> deliver(message, sender, attempt));
+        } catch (RejectedExecutionException e) {
+            count("rejected");
+            log.warn("Email queue full; dropping email to {} (subject: {})", message.getTo(), message.getSubject());
+        }
+    }
+
+    private void deliver(EmailMessage message, EmailSender sender, int attempt) {
+        try {
+            sender.send(message);
+            count("sent");
+        } catch (Exception e) {
+            if (attempt >= maxAttempts || workers.isShutdown()) {
+                count("failed");
+                log.warn("Email to {} failed after {} attempt(s), giving up: {}", message.getTo(), attempt, e.getMessage());
+                return;
+            }
+            long delay = backoffWithJitter(attempt);
+            count("retried");
+            log.debug("Email to {} failed (attempt {}), retrying in {} ms: {}", message.getTo(), attempt, delay, e.getMessage());
+            try {
+                retryScheduler.schedule(() -> enqueue(message, sender, attempt + 1), delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException rejected) {
+                count("failed");
+            }
+        }
+    }
+
+    /** Exponential backoff capped at maxBackoffMs, with "equal jitter" (half fixed, half random) to spread retries. */
+    long backoffWithJitter(int attempt) {
+        long exp = initialBackoffMs << Math.min(attempt - 1, 20);
+        long capped = Math.min(maxBackoffMs, exp);
+        long half = capped / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("mail.dispatch", "outcome", outcome).increment();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryScheduler.shutdownNow();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Email dispatcher did not drain within 10s; {} queued email(s) dropped", workers.getQueue().size());
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static java.util.concurrent.ThreadFactory namedThreads(String prefix) {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.biasharahub.mail;
+
+import com.biasharahub.resilience.CircuitBreaker;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tries each configured provider in order (e.g. Postmark, then Gmail OAuth), skipping providers whose circuit
+ * breaker is open. Falls back to {@link NoOpEmailSender} only when no real provider is configured; when providers
+ * are configured but all fail, an {@link EmailException} is thrown so {@link AsyncEmailDispatcher} can retry.
+ */
+@Slf4j
+public class FailoverEmailSender implements EmailSender {
+
+    private final List<Provider> providers = new ArrayList<>();
+    private final EmailSender fallback = new NoOpEmailSender();
+
+    /**
+     * @param senders          candidate providers in priority order; unavailable ones are ignored
+     * @param failureThreshold consecutive failures before a provider's breaker opens
+     * @param openDuration     how long an open breaker skips the provider before a trial send
+     */
+    public FailoverEmailSender(List<EmailSender> senders, int failureThreshold, Duration openDuration) {
+        for (EmailSender sender : senders) {
+            if (sender != null && sender.isAvailable()) {
+                String name = sender.getClass().getSimpleName();
+                providers.add(new Provider(name, sender, new CircuitBreaker("mail-" + name, failureThreshold, openDuration)));
+            }
+        }
+        log.info("Email providers (failover order): {}", providers.isEmpty() ? "none (no-op)" : providers.stream().map(Provider::name).toList());
+    }
+
+    @Override
+    public void send(EmailMessage message) {
+        if (providers.isEmpty()) {
+            fallback.send(message);
+            return;
+        }
+        EmailException last = null;
+        for (Provider p : providers) {
+            if (!p.breaker().tryAcquire()) {
+                log.debug("Skipping {} (circuit open)", p.name());
+                continue;
+            }
+            try {
+                p.sender().send(message);
+                p.breaker().recordSuccess();
+                return;
+            } catch (Exception e) {
+                p.breaker().recordFailure();
+                last = e instanceof EmailException ee ? ee : new EmailException(p.name() + " send failed: " + e.getMessage(), e);
+                log.warn("Email via {} failed, trying next provider: {}", p.name(), e.getMessage());
+            }
+        }
+        throw last != null ? last : new EmailException("All email providers are unavailable (circuits open)");
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    private record Provider(String name, EmailSender sender, CircuitBreaker breaker) {}
+}
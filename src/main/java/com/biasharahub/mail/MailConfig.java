@@ -5,6 +5,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Mail beans: Gmail OAuth config and primary EmailSender (Gmail OAuth when configured, else fallback).
  */
@@ -32,6 +36,12 @@ public class MailConfig {
     @Value("${app.mail.gmail.from:${MAIL_FROM:no-reply@biasharahub.local}}")
     private String gmailFrom;
 
+    @Value("${app.mail.circuit-breaker.failure-threshold:5}")
+    private int circuitFailureThreshold;
+
+    @Value("${app.mail.circuit-breaker.open-ms:60000}")
+    private long circuitOpenMs;
+
     @Bean
     public GmailOAuthConfig gmailOAuthConfig() {
         return GmailOAuthConfig.builder()
@@ -43,12 +53,12 @@ public class MailConfig {
     }
 
     /**
-     * Default sender:
+     * Default sender: failover chain, each provider behind its own circuit breaker
      * - Postmark when configured (recommended)
-     * - else Gmail OAuth when configured
-     * - else no-op
+     * - then Gmail OAuth when configured
+     * - no-op when neither is configured
      *
-     * Wired into MultiTenantEmailSender.
+     * Wired into MultiTenantEmailSender, which sends through AsyncEmailDispatcher.
      */
     @Bean("defaultEmailSender")
     public EmailSender defaultEmailSender(GmailOAuthEmailSender gmailOAuthEmailSender, ObjectMapper objectMapper) {
@@ -58,13 +68,10 @@ public class MailConfig {
                 blankToNull(postmarkMessageStream),
                 objectMapper
         );
-        if (postmark.isAvailable()) {
-            return postmark;
-        }
-        if (gmailOAuthEmailSender.isAvailable()) {
-            return gmailOAuthEmailSender;
-        }
-        return new NoOpEmailSender();
+        List<EmailSender> chain = new ArrayList<>();
+        chain.add(postmark);
+        chain.add(gmailOAuthEmailSender);
+        return new FailoverEmailSender(chain, circuitFailureThreshold, Duration.ofMillis(circuitOpenMs));
     }
 
     private static String blankToNull(String s) {
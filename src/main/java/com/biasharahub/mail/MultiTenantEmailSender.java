@@ -6,33 +6,53 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
- * Multi-tenant email facade: resolves tenant from TenantContext and delegates to the default sender.
- * Extend with per-tenant config (e.g. DB) if you need different senders per tenant.
+ * Multi-tenant email facade: resolves tenant from TenantContext, picks the tenant's sender (cached per tenant)
+ * and hands the message to {@link AsyncEmailDispatcher}, so callers return without waiting on the provider.
+ * Extend {@link #resolveSender(String)} with per-tenant config (e.g. DB) if you need different senders per tenant.
  */
 @Component
 @Primary
 @Slf4j
 public class MultiTenantEmailSender implements EmailSender {
 
+    private static final String DEFAULT_TENANT_KEY = "";
+
     private final EmailSender defaultSender;
+    private final AsyncEmailDispatcher dispatcher;
+    private final Map<String, EmailSender> senderByTenant = new ConcurrentHashMap<>();
 
-    public MultiTenantEmailSender(@Qualifier("defaultEmailSender") EmailSender defaultSender) {
+    public MultiTenantEmailSender(@Qualifier("defaultEmailSender") EmailSender defaultSender, AsyncEmailDispatcher dispatcher) {
         this.defaultSender = defaultSender;
+        this.dispatcher = dispatcher;
     }
 
+    /**
+     * Queue the email for asynchronous delivery. Provider failures are retried and logged by the dispatcher;
+     * they are not thrown to the caller.
+     */
     @Override
     public void send(EmailMessage message) {
         String tenantSchema = TenantContext.getTenantSchema();
         if (message.getTenantId() == null && tenantSchema != null) {
             message.setTenantId(tenantSchema);
         }
-        // Per-tenant sender resolution: could look up sender by message.getTenantId() here
-        defaultSender.send(message);
+        String key = message.getTenantId() != null ? message.getTenantId() : DEFAULT_TENANT_KEY;
+        EmailSender sender = senderByTenant.computeIfAbsent(key, this::resolveSender);
+        dispatcher.submit(message, sender);
     }
 
     @Override
     public boolean isAvailable() {
         return defaultSender.isAvailable();
     }
+
+    /** Per-tenant sender resolution; runs once per tenant, the result is cached for the life of the app. */
+    private EmailSender resolveSender(String tenantKey) {
+        log.debug("Resolved email sender for tenant '{}': default", tenantKey);
+        return defaultSender;
+    }
 }
@@ -4,7 +4,9 @@
  * <ul>
  *   <li>{@link com.biasharahub.mail.EmailSender} – abstraction for sending (Gmail OAuth or fallback).</li>
  *   <li>{@link com.biasharahub.mail.GmailOAuthEmailSender} – Gmail API with OAuth2 refresh token; token refreshed on schedule.</li>
- *   <li>{@link com.biasharahub.mail.MultiTenantEmailSender} – resolves tenant from context and delegates to default sender.</li>
+ *   <li>{@link com.biasharahub.mail.MultiTenantEmailSender} – resolves tenant from context (sender cached per tenant) and queues the send.</li>
+ *   <li>{@link com.biasharahub.mail.AsyncEmailDispatcher} – bounded queue + worker pool; retries with backoff and jitter.</li>
+ *   <li>{@link com.biasharahub.mail.FailoverEmailSender} – Postmark, then Gmail, each behind a circuit breaker; no-op when none configured.</li>
  * </ul>
  */
 package com.biasharahub.mail;
@@ -0,0 +1,7 @@
+package com.biasharahub.repository;
+
+import com.biasharahub.entity.NotificationTemplateOverride;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface NotificationTemplateOverrideRepository extends JpaRepository<NotificationTemplateOverride, String> {
+}
@@ -63,5 +63,12 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
             + "AND (p.sourceProductId IS NOT NULL OR NOT EXISTS (SELECT 1 FROM Product p2 WHERE p2.sourceProductId = p.productId))")
     List<Product> findCustomerFacingAll();
 
+    /**
+     * Approved customer-facing products of all shops, without images (chatbot stock snapshot; see ShopDirectory).
+     */
+    @Query("SELECT p FROM Product p WHERE p.supplierFacingOnly = false AND LOWER(p.moderationStatus) = 'approved' "
+            + "AND (p.sourceProductId IS NOT NULL OR NOT EXISTS (SELECT 1 FROM Product p2 WHERE p2.sourceProductId = p.productId))")
+    List<Product> findCustomerFacingApproved();
+
     boolean existsByProductIdAndBusinessId(UUID productId, UUID businessId);
 }
@@ -2,11 +2,14 @@ package com.biasharahub.repository;
 
 import com.biasharahub.entity.Order;
 import com.biasharahub.entity.Shipment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -32,8 +35,38 @@ public interface ShipmentRepository extends JpaRepository<Shipment, UUID> {
             @Param("toExclusive") Instant toExclusive);
 
 
-    /** Shipments for orders in the given set (for seller: shipments for their business's orders). */
-    List<Shipment> findByOrder_OrderIdIn(List<UUID> orderIds);
+    /** Newest first: shipments of orders containing the business's products (semi-join, no order id list). */
+    @Query("""
+        SELECT s FROM Shipment s
+        WHERE EXISTS (SELECT 1 FROM OrderItem i WHERE i.order = s.order AND i.product.businessId = :businessId)
+        ORDER BY s.createdAt DESC NULLS LAST, s.shipmentId DESC
+        """)
+    Slice<Shipment> findPageByBusinessId(@Param("businessId") UUID businessId, Pageable pageable);
+
+    /** Newest first: shipments of the customer's own orders. */
+    @Query("SELECT s FROM Shipment s WHERE s.order.user.userId = :userId ORDER BY s.createdAt DESC NULLS LAST, s.shipmentId DESC")
+    Slice<Shipment> findPageByCustomerId(@Param("userId") UUID userId, Pageable pageable);
+
+    /** Newest first: shipments assigned to the courier. */
+    @Query("SELECT s FROM Shipment s WHERE s.assignedCourier.userId = :userId ORDER BY s.createdAt DESC NULLS LAST, s.shipmentId DESC")
+    Slice<Shipment> findPageByAssignedCourierId(@Param("userId") UUID userId, Pageable pageable);
+
+    /** Newest first: all shipments in the tenant (admins). */
+    @Query("SELECT s FROM Shipment s ORDER BY s.createdAt DESC NULLS LAST, s.shipmentId DESC")
+    Slice<Shipment> findPageAll(Pageable pageable);
+
+    /** Shipments with their order and recipient loaded in one query (bulk courier dispatch). */
+    @Query("SELECT s FROM Shipment s JOIN FETCH s.order o LEFT JOIN FETCH o.user WHERE s.shipmentId IN :ids")
+    List<Shipment> findWithOrderAndRecipientByShipmentIdIn(@Param("ids") Collection<UUID> ids);
+
+    /** As above, limited to shipments of orders containing the business's products. */
+    @Query("""
+        SELECT s FROM Shipment s JOIN FETCH s.order o LEFT JOIN FETCH o.user
+        WHERE s.shipmentId IN :ids
+        AND EXISTS (SELECT 1 FROM OrderItem i WHERE i.order = o AND i.product.businessId = :businessId)
+        """)
+    List<Shipment> findWithOrderAndRecipientByShipmentIdInAndBusinessId(@Param("ids") Collection<UUID> ids,
+                                                                        @Param("businessId") UUID businessId);
 
     /** Find by order id (avoids proxy/context issues when creating shipment after confirm). */
     List<Shipment> findByOrder_OrderId(UUID orderId);
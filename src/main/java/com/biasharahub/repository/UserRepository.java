@@ -20,9 +20,6 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     /** Case-insensitive: find users by role and business (e.g. owner, staff) for seller notifications. */
     List<User> findByRoleIgnoreCaseAndBusinessId(String role, UUID businessId);
 
-    /** Find owners whose business name contains the given string (for customer filter by business). */
-    List<User> findByRoleIgnoreCaseAndBusinessNameContainingIgnoreCase(String role, String businessName);
-
     /** Find owners for dropdown (businessId, businessName, owner name). */
     List<User> findByRoleIgnoreCaseAndBusinessIdIsNotNullOrderByBusinessNameAsc(String role);
 
@@ -40,11 +37,15 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     @Query("SELECT u FROM User u WHERE LOWER(u.role) = LOWER(:role) AND LOWER(u.serviceProviderStatus) = LOWER(:serviceProviderStatus) AND u.businessId IS NOT NULL AND (u.accountStatus IS NULL OR LOWER(u.accountStatus) = 'active') ORDER BY u.businessName ASC")
     List<User> findActiveOwnersByRoleAndServiceProviderStatusAndBusinessIdIsNotNullOrderByBusinessNameAsc(@Param("role") String role, @Param("serviceProviderStatus") String serviceProviderStatus);
 
+    /** Active owners and staff of a business in one query (recipients of seller notifications). */
+    @Query("SELECT u FROM User u WHERE u.businessId = :businessId AND LOWER(u.role) IN ('owner', 'staff') AND (u.accountStatus IS NULL OR LOWER(u.accountStatus) = 'active')")
+    List<User> findActiveSellerUsersByBusinessId(@Param("businessId") UUID businessId);
+
     /** Find users by role (e.g. customers for staff/owner "order for" dropdown). */
     List<User> findByRoleIgnoreCaseOrderByNameAsc(String role);
 
-    /** Find customer by phone (for WhatsApp chatbot). Phone should be normalized (e.g. +254712345678 or 0712345678). */
-    java.util.Optional<User> findFirstByRoleIgnoreCaseAndPhone(String role, String phone);
+    /** Users whose phone normalizes to this E.164 number (indexed; see User#phoneE164). */
+    List<User> findByPhoneE164(String phoneE164);
 
     /** Find owners pending verification for admin review queue. */
     List<User> findByRoleIgnoreCaseAndVerificationStatusOrderByCreatedAtAsc(String role, String verificationStatus);
@@ -0,0 +1,88 @@
+package com.biasharahub.resilience;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Minimal consecutive-failure circuit breaker for outbound integrations (email providers, courier APIs).
+ * <ul>
+ *   <li>CLOSED: calls pass; after {@code failureThreshold} consecutive failures the breaker opens.</li>
+ *   <li>OPEN: calls are rejected immediately until {@code openDuration} has elapsed.</li>
+ *   <li>HALF_OPEN: a single trial call is let through; success closes the breaker, failure re-opens it.</li>
+ * </ul>
+ * Thread-safe; state transitions are synchronized (they are rare and cheap compared with the calls they guard).
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationMs;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtMs;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        this(name, failureThreshold, openDuration, Clock.systemUTC());
+    }
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration, Clock clock) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationMs = Math.max(0, openDuration.toMillis());
+        this.clock = clock;
+    }
+
+    /**
+     * Returns true if a call may proceed. In HALF_OPEN only one caller gets true until it reports back.
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.millis() - openedAtMs < openDurationMs) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+                return true;
+            default:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    public synchronized void recordFailure() {
+        trialInFlight = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAtMs = clock.millis();
+        }
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && clock.millis() - openedAtMs >= openDurationMs) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
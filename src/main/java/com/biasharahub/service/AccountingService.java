@@ -2,17 +2,25 @@ package com.biasharahub.service;
 
 import com.biasharahub.entity.User;
 import com.biasharahub.repository.ExpenseRepository;
-import com.biasharahub.repository.OrderRepository;
 import com.biasharahub.repository.UserRepository;
 import com.biasharahub.security.AuthenticatedUser;
+import com.biasharahub.util.RowWriter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.Instant;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.LocalDate;
-import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -24,9 +32,52 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AccountingService {
 
-    private final OrderRepository orderRepository;
+    /** Export file formats for {@link #writeKraExport}. */
+    public enum ExportFormat {
+        CSV("text/csv", "csv"),
+        XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    /** Rows fetched per round trip by the export cursor (needs the read-only transaction on writeKraExport). */
+    private static final int EXPORT_FETCH_SIZE = 500;
+    /** One sales line per day (from the daily sales rollup), then that day's expenses, in date order. */
+    private static final String EXPORT_LINES_SQL = """
+            SELECT day, kind, category, description, reference, amount FROM (
+                SELECT sales_date AS day, 0 AS ord, NULL::timestamptz AS created_at, 'Sales' AS kind,
+                       'Sales' AS category, SUM(quantity_sold) || ' units sold (delivered orders)' AS description,
+                       NULL AS reference, SUM(revenue) AS amount
+                FROM daily_business_sales
+                WHERE business_id = ? AND sales_date BETWEEN ? AND ?
+                GROUP BY sales_date
+                UNION ALL
+                SELECT e.expense_date, 1, e.created_at, 'Expense', e.category, e.description, e.receipt_reference, e.amount
+                FROM expenses e
+                JOIN users u ON u.user_id = e.created_by_user_id
+                WHERE u.business_id = ? AND e.expense_date BETWEEN ? AND ?
+            ) lines
+            ORDER BY day, ord, created_at
+            """;
+
     private final ExpenseRepository expenseRepository;
     private final UserRepository userRepository;
+    private final SalesRollupService salesRollupService;
+    private final JdbcTemplate jdbcTemplate;
 
     /**
      * Daily sales and expenses summary for a date range. KRA-ready format.
@@ -39,19 +90,22 @@ public class AccountingService {
                     "totalExpenses", BigDecimal.ZERO, "netIncome", BigDecimal.ZERO);
         }
 
-        Instant fromInstant = from.atStartOfDay(ZoneId.systemDefault()).toInstant();
-        Instant toInstant = to.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
-
-        BigDecimal totalSales = orderRepository.sumRevenueByBusinessIdAndDateRange(
-                u.getBusinessId(), fromInstant, toInstant);
+        // Sales per day from the daily rollup (business's own items of delivered orders)
+        BigDecimal totalSales = BigDecimal.ZERO;
+        List<Map<String, Object>> dailySales = new ArrayList<>();
+        for (SalesRollupService.DailyTotals day : salesRollupService.dailyTotals(u.getBusinessId(), from, to, null).values()) {
+            if (day.revenue().signum() == 0) continue;
+            totalSales = totalSales.add(day.revenue());
+            dailySales.add(Map.of(
+                    "date", day.day().toString(),
+                    "amount", day.revenue().setScale(2, RoundingMode.HALF_UP)));
+        }
         BigDecimal totalExpenses = expenseRepository.sumAmountByBusinessIdAndDateRange(
                 u.getBusinessId(), from, to);
 
-        if (totalSales == null) totalSales = BigDecimal.ZERO;
         if (totalExpenses == null) totalExpenses = BigDecimal.ZERO;
         BigDecimal netIncome = totalSales.subtract(totalExpenses);
 
-        List<Map<String, Object>> dailySales = new ArrayList<>();
         List<Map<String, Object>> dailyExpenses = expenseRepository.findByBusinessIdAndDateRange(
                 u.getBusinessId(), from, to)
                 .stream()
@@ -68,22 +122,67 @@ public class AccountingService {
                 "totalSales", totalSales.setScale(2, RoundingMode.HALF_UP),
                 "totalExpenses", totalExpenses.setScale(2, RoundingMode.HALF_UP),
                 "netIncome", netIncome.setScale(2, RoundingMode.HALF_UP),
+                "dailySales", dailySales,
                 "dailyExpenses", dailyExpenses,
                 "currency", "KES"
         );
     }
 
     /**
-     * KRA-ready export: income statement format for date range.
+     * KRA-ready export: one line per sales day and per expense, then totals, written to {@code out} as it is read
+     * from a forward-only cursor, so memory stays flat however long the range. The stream is not closed.
      */
-    public List<Map<String, String>> getKraExport(AuthenticatedUser user, LocalDate from, LocalDate to) {
-        Map<String, Object> summary = getDailySummary(user, from, to);
-        List<Map<String, String>> rows = new ArrayList<>();
-        rows.add(Map.of("Item", "Report", "Amount", "BiasharaHub Income Summary"));
-        rows.add(Map.of("Item", "Period", "Amount", from + " to " + to));
-        rows.add(Map.of("Item", "Total Sales (KES)", "Amount", summary.get("totalSales").toString()));
-        rows.add(Map.of("Item", "Total Expenses (KES)", "Amount", summary.get("totalExpenses").toString()));
-        rows.add(Map.of("Item", "Net Income (KES)", "Amount", summary.get("netIncome").toString()));
-        return rows;
+    @Transactional(readOnly = true)
+    public void writeKraExport(AuthenticatedUser user, LocalDate from, LocalDate to, ExportFormat format,
+                               OutputStream out) throws IOException {
+        User u = userRepository.findById(user.userId())
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        try (RowWriter writer = format == ExportFormat.XLSX ? RowWriter.xlsx(out, "Income") : RowWriter.csv(out)) {
+            writer.row("BiasharaHub Income Summary", null, null, null, null, "Period: " + from + " to " + to);
+            writer.row("Date", "Type", "Category", "Description", "Reference", "Amount (KES)");
+            BigDecimal[] totals = {BigDecimal.ZERO, BigDecimal.ZERO};
+            if (u.getBusinessId() != null) {
+                streamExportLines(u.getBusinessId(), from, to, rs -> {
+                    boolean sale = "Sales".equals(rs.getString(2));
+                    BigDecimal amount = rs.getBigDecimal(6).setScale(2, RoundingMode.HALF_UP);
+                    totals[sale ? 0 : 1] = totals[sale ? 0 : 1].add(amount);
+                    writer.row(rs.getDate(1).toLocalDate().toString(), rs.getString(2), rs.getString(3),
+                            rs.getString(4), rs.getString(5), amount);
+                });
+            }
+            writer.row();
+            writer.row(null, "Total Sales (KES)", null, null, null, totals[0]);
+            writer.row(null, "Total Expenses (KES)", null, null, null, totals[1]);
+            writer.row(null, "Net Income (KES)", null, null, null, totals[0].subtract(totals[1]));
+        }
+    }
+
+    private interface LineHandler {
+        void line(ResultSet rs) throws SQLException, IOException;
+    }
+
+    private void streamExportLines(UUID businessId, LocalDate from, LocalDate to, LineHandler handler) throws IOException {
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(EXPORT_LINES_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(EXPORT_FETCH_SIZE);
+                ps.setObject(1, businessId);
+                ps.setDate(2, Date.valueOf(from));
+                ps.setDate(3, Date.valueOf(to));
+                ps.setObject(4, businessId);
+                ps.setDate(5, Date.valueOf(from));
+                ps.setDate(6, Date.valueOf(to));
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    handler.line(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Client went away mid-download
+            throw e.getCause();
+        }
     }
 }
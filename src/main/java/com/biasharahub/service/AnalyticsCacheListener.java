@@ -0,0 +1,67 @@
+package com.biasharahub.service;
+
+import com.biasharahub.entity.Expense;
+import com.biasharahub.entity.Order;
+import com.biasharahub.entity.Payment;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * JPA listener on Order, Payment and Expense that marks cached analytics stale in {@link AnalyticsResultCache}:
+ * a new order or an order status change, any payment write, and any expense write. Runs after commit in the
+ * writer's tenant. Neither listener changes the order; the order advances its own persisted status after both have
+ * run. Being listed first on Order, its after-commit work runs before the rollup refresh, so
+ * {@link SalesRollupService} marks the results stale again once a refreshed rollup is written.
+ */
+public class AnalyticsCacheListener {
+
+    private final ObjectProvider<AnalyticsResultCache> resultCache;
+
+    public AnalyticsCacheListener(ObjectProvider<AnalyticsResultCache> resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void written(Object entity) {
+        if (entity instanceof Order order) {
+            if (Objects.equals(order.getPersistedOrderStatus(), order.getOrderStatus()) || order.getOrderId() == null) {
+                return;
+            }
+            UUID orderId = order.getOrderId();
+            afterCommit(cache -> cache.invalidateOrder(orderId));
+        } else if (entity instanceof Payment payment) {
+            if (payment.getOrder() == null) return;
+            UUID orderId = payment.getOrder().getOrderId();
+            afterCommit(cache -> cache.invalidateOrder(orderId));
+        } else if (entity instanceof Expense expense) {
+            expenseWritten(expense);
+        }
+    }
+
+    @PostRemove
+    public void removed(Object entity) {
+        if (entity instanceof Expense expense) {
+            expenseWritten(expense);
+        }
+    }
+
+    private void expenseWritten(Expense expense) {
+        if (expense.getCreatedBy() == null) return;
+        UUID userId = expense.getCreatedBy().getUserId();
+        afterCommit(cache -> cache.invalidateUserBusiness(userId));
+    }
+
+    private void afterCommit(Consumer<AnalyticsResultCache> invalidate) {
+        TenantAfterCommit.run("Analytics cache invalidation", () -> {
+            AnalyticsResultCache cache = resultCache.getIfAvailable();
+            if (cache != null) invalidate.accept(cache);
+        });
+    }
+}
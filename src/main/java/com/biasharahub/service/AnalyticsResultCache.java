@@ -0,0 +1,220 @@
+package com.biasharahub.service;
+
+import com.biasharahub.config.TenantContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Results cache for the analytics dashboard and business insights, keyed by (tenant, kind, business, period, range,
+ * product). Each (tenant, business) has a generation counter that order-status, payment and expense writes bump
+ * (see {@link AnalyticsCacheListener}), and that {@link SalesRollupService} bumps again once the rollups those
+ * writes change are refreshed; an entry from an older generation is stale. Stale entries are still served
+ * while one background refresh recomputes them, so the first load after a change does not wait; entries older than
+ * max-stale (or missing) are computed on the caller's thread. max-age bounds what events don't cover (products,
+ * shipments, other instances). Metrics: analytics.cache.requests{kind,outcome=hit|stale|miss} (hit rate) and
+ * analytics.cache.recompute{kind,mode=sync|async}.
+ */
+@Slf4j
+@Component
+public class AnalyticsResultCache {
+
+    public static final String KIND_SUMMARY = "summary";
+    public static final String KIND_INSIGHTS = "insights";
+
+    private static final String DEFAULT_TENANT_SCHEMA = "tenant_default";
+    private static final String BUSINESSES_FOR_ORDER_SQL = """
+            SELECT DISTINCT p.business_id FROM order_items i
+            JOIN products p ON p.product_id = i.product_id
+            WHERE i.order_id = ? AND p.business_id IS NOT NULL
+            """;
+    private static final String BUSINESS_FOR_USER_SQL =
+            "SELECT business_id FROM users WHERE user_id = ? AND business_id IS NOT NULL";
+
+    /** Cache key; businessId null is the tenant-wide (admin) view. */
+    public record Key(String tenant, String kind, UUID businessId, String period, LocalDate from, LocalDate to,
+                      UUID productId) {}
+
+    private record Scope(String tenant, UUID businessId) {}
+
+    private record Entry(Map<String, Object> value, long generation, long computedAtNanos) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long maxAgeNanos;
+    private final long maxStaleNanos;
+    /** Access-ordered LRU; guarded by itself. */
+    private final LinkedHashMap<Key, Entry> entries;
+    private final ConcurrentHashMap<Scope, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final Set<Key> refreshing = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor refresher;
+
+    public AnalyticsResultCache(JdbcTemplate jdbcTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.analytics.cache.max-age-seconds:600}") long maxAgeSeconds,
+                                @Value("${app.analytics.cache.max-stale-seconds:3600}") long maxStaleSeconds,
+                                @Value("${app.analytics.cache.max-entries:5000}") int maxEntries,
+                                @Value("${app.analytics.cache.refresh-threads:2}") int refreshThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.maxAgeNanos = TimeUnit.SECONDS.toNanos(Math.max(1, maxAgeSeconds));
+        this.maxStaleNanos = TimeUnit.SECONDS.toNanos(Math.max(maxAgeSeconds, maxStaleSeconds));
+        int capacity = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+        int threads = Math.max(1, refreshThreads);
+        AtomicLong threadCount = new AtomicLong();
+        this.refresher = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(100), r -> {
+                    Thread t = new Thread(r, "analytics-cache-refresh-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        meterRegistry.gauge("analytics.cache.entries", entries, m -> {
+            synchronized (m) {
+                return m.size();
+            }
+        });
+    }
+
+    /** Key in the current tenant. */
+    public static Key key(String kind, UUID businessId, String period, LocalDate from, LocalDate to, UUID productId) {
+        return new Key(currentTenant(), kind, businessId, period, from, to, productId);
+    }
+
+    /**
+     * Cached result for the key, computing it when missing or too old. The supplier may also run later on a refresh
+     * thread (with the key's tenant set), so it must not depend on request-scoped state. The result is read-only.
+     */
+    public Map<String, Object> get(Key key, Supplier<Map<String, Object>> compute) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry != null) {
+            long age = System.nanoTime() - entry.computedAtNanos();
+            if (entry.generation() == generation(key).get() && age < maxAgeNanos) {
+                count(key, "hit");
+                return entry.value();
+            }
+            if (age < maxStaleNanos) {
+                count(key, "stale");
+                refreshAsync(key, compute);
+                return entry.value();
+            }
+        }
+        count(key, "miss");
+        return computeAndStore(key, compute, "sync");
+    }
+
+    /** Mark results for the businesses selling in this order (and the tenant-wide view) stale; current tenant. */
+    public void invalidateOrder(UUID orderId) {
+        invalidateBusinesses(jdbcTemplate.queryForList(BUSINESSES_FOR_ORDER_SQL, UUID.class, orderId));
+    }
+
+    /** Mark results for the user's business (and the tenant-wide view) stale; current tenant. */
+    public void invalidateUserBusiness(UUID userId) {
+        invalidateBusinesses(jdbcTemplate.queryForList(BUSINESS_FOR_USER_SQL, UUID.class, userId));
+    }
+
+    /** Mark results for the business (and the tenant-wide view) stale; current tenant. */
+    public void invalidateBusiness(UUID businessId) {
+        invalidateBusinesses(List.of(businessId));
+    }
+
+    private void invalidateBusinesses(List<UUID> businessIds) {
+        String tenant = currentTenant();
+        for (UUID businessId : businessIds) {
+            bump(new Scope(tenant, businessId));
+        }
+        bump(new Scope(tenant, null));
+    }
+
+    private void bump(Scope scope) {
+        generations.computeIfAbsent(scope, s -> new AtomicLong()).incrementAndGet();
+    }
+
+    private AtomicLong generation(Key key) {
+        return generations.computeIfAbsent(new Scope(key.tenant(), key.businessId()), s -> new AtomicLong());
+    }
+
+    private Map<String, Object> computeAndStore(Key key, Supplier<Map<String, Object>> compute, String mode) {
+        // Read before computing: a write that lands during the computation leaves this entry stale
+        long generation = generation(key).get();
+        long start = System.nanoTime();
+        Map<String, Object> value = Collections.unmodifiableMap(compute.get());
+        meterRegistry.timer("analytics.cache.recompute", "kind", key.kind(), "mode", mode)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        synchronized (entries) {
+            entries.put(key, new Entry(value, generation, start));
+        }
+        return value;
+    }
+
+    private void refreshAsync(Key key, Supplier<Map<String, Object>> compute) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                TenantContext.setTenantSchema(key.tenant());
+                try {
+                    computeAndStore(key, compute, "async");
+                } catch (Exception e) {
+                    log.warn("Analytics cache refresh failed for {}: {}", key, e.getMessage());
+                } finally {
+                    TenantContext.clear();
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Refresh queue full: keep serving the stale value; a later request retries
+            refreshing.remove(key);
+        }
+    }
+
+    private void count(Key key, String outcome) {
+        meterRegistry.counter("analytics.cache.requests", "kind", key.kind(), "outcome", outcome).increment();
+    }
+
+    private static String currentTenant() {
+        String schema = TenantContext.getTenantSchema();
+        return schema != null ? schema : DEFAULT_TENANT_SCHEMA;
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            entries.values().removeIf(e -> now - e.computedAtNanos() >= maxStaleNanos);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+}
@@ -2,17 +2,20 @@ package com.biasharahub.service;
 
 import com.biasharahub.entity.User;
 import com.biasharahub.repository.ExpenseRepository;
-import com.biasharahub.repository.OrderItemRepository;
-import com.biasharahub.repository.OrderRepository;
 import com.biasharahub.repository.ShipmentRepository;
 import com.biasharahub.repository.SupplierDeliveryRepository;
 import com.biasharahub.repository.UserRepository;
 import com.biasharahub.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
 import java.time.*;
 import java.util.*;
 
@@ -31,15 +34,26 @@ public class BusinessInsightsService {
     public static final String PERIOD_YEAR = "YEAR";
     public static final String PERIOD_CUSTOM = "CUSTOM";
 
-    private final OrderRepository orderRepository;
-    private final OrderItemRepository orderItemRepository;
     private final ExpenseRepository expenseRepository;
     private final SupplierDeliveryRepository supplierDeliveryRepository;
     private final ShipmentRepository shipmentRepository;
     private final UserRepository userRepository;
+    private final SalesRollupService salesRollupService;
+    private final JdbcTemplate jdbcTemplate;
 
     private static final ZoneId ZONE = ZoneId.systemDefault();
 
+    /** Rows fetched per round trip when streaming order items (needs the read-only transaction on getInsights). */
+    private static final int ITEM_FETCH_SIZE = 1000;
+    private static final String DELIVERED_ITEMS_SQL = """
+            SELECT o.order_id, i.product_id, p.name, p.category, i.quantity, i.price_at_order
+            FROM order_items i
+            JOIN orders o ON o.order_id = i.order_id
+            JOIN products p ON p.product_id = i.product_id
+            WHERE p.business_id = ? AND o.order_status = 'delivered'
+              AND o.ordered_at >= ? AND o.ordered_at < ?
+            """;
+
     /**
      * Compute date range from period type and optional from/to.
      * For CUSTOM, from and to must be provided.
@@ -89,6 +103,7 @@ public class BusinessInsightsService {
      * Full business insights for an owner: P&L, product performance, staff performance, period breakdown.
      * @param productId optional; when set, revenue and product performance are filtered to this product.
      */
+    @Transactional(readOnly = true)
     public Map<String, Object> getInsights(AuthenticatedUser user, String period, LocalDate fromParam, LocalDate toParam, UUID productId) {
         User u = userRepository.findById(user.userId()).orElseThrow(() -> new IllegalArgumentException("User not found"));
         if (u.getBusinessId() == null) {
@@ -96,64 +111,66 @@ public class BusinessInsightsService {
         }
 
         LocalDate[] range = resolveDateRange(period, fromParam, toParam);
-        LocalDate from = range[0];
-        LocalDate to = range[1];
+        return computeInsights(u.getBusinessId(), period, range[0], range[1], productId);
+    }
+
+    /**
+     * Insights for a business over an already resolved range (see {@link #resolveDateRange}); what the analytics
+     * results cache computes and refreshes.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getInsightsForRange(UUID businessId, String period, LocalDate from, LocalDate to, UUID productId) {
+        return computeInsights(businessId, period, from, to, productId);
+    }
 
+    private Map<String, Object> computeInsights(UUID businessId, String period, LocalDate from, LocalDate to, UUID productId) {
         Instant fromInstant = from.atStartOfDay(ZONE).toInstant();
         Instant toInstant = to.plusDays(1).atStartOfDay(ZONE).toInstant();
 
-        UUID businessId = u.getBusinessId();
-
-        // Revenue: all or filtered by product
-        BigDecimal revenue;
-        if (productId != null) {
-            revenue = orderItemRepository.sumRevenueByBusinessIdAndProductIdAndDateRange(businessId, productId, fromInstant, toInstant);
-            if (revenue == null) revenue = BigDecimal.ZERO;
-        } else {
-            revenue = orderItemRepository.sumRevenueByBusinessIdAndDateRange(businessId, fromInstant, toInstant);
-            if (revenue == null) revenue = BigDecimal.ZERO;
-        }
-
+        // Revenue (all or one product) and expenses per day: one range scan over the daily rollups
+        // The same range scan also covers the previous period of equal length, for comparison and forecast
+        long days = java.time.temporal.ChronoUnit.DAYS.between(from, to) + 1;
+        LocalDate previousFrom = from.minusDays(days);
+        NavigableMap<LocalDate, SalesRollupService.DailyTotals> daily = salesRollupService.dailyTotals(businessId, previousFrom, to, productId);
+        BigDecimal revenue = BigDecimal.ZERO;
         // Expenses (period total; no per-product allocation)
-        BigDecimal expenses = expenseRepository.sumAmountByBusinessIdAndDateRange(businessId, from, to);
-        if (expenses == null) expenses = BigDecimal.ZERO;
+        BigDecimal expenses = BigDecimal.ZERO;
+        BigDecimal previousRevenue = BigDecimal.ZERO;
+        BigDecimal previousExpenses = BigDecimal.ZERO;
+        // The trend only sees completed days: today's partial revenue would drag both averages down
+        LocalDate today = LocalDate.now(ZONE);
+        RevenueTrend trend = new RevenueTrend();
+        for (LocalDate d = previousFrom; !d.isAfter(to); d = d.plusDays(1)) {
+            SalesRollupService.DailyTotals day = daily.get(d);
+            BigDecimal dayRevenue = day != null ? day.revenue() : BigDecimal.ZERO;
+            BigDecimal dayExpenses = day != null ? day.expenses() : BigDecimal.ZERO;
+            if (d.isBefore(from)) {
+                previousRevenue = previousRevenue.add(dayRevenue);
+                previousExpenses = previousExpenses.add(dayExpenses);
+            } else {
+                revenue = revenue.add(dayRevenue);
+                expenses = expenses.add(dayExpenses);
+            }
+            if (d.isBefore(today)) {
+                trend.add(dayRevenue);
+            }
+        }
 
         // Profit / Loss
         BigDecimal profitLoss = revenue.subtract(expenses);
 
-        // Order count (when product filter set, we don't have order count for that product easily; keep total)
-        long orderCount = orderRepository.countDeliveredOrdersByBusinessIdAndDateRange(businessId, fromInstant, toInstant);
-
-        // Product performance: all products or single product
-        List<Map<String, Object>> productPerformance = new ArrayList<>();
-        for (Object[] row : orderItemRepository.findProductRevenueByBusinessIdAndDateRange(businessId, fromInstant, toInstant)) {
-            UUID rowProductId = row[0] != null ? (UUID) row[0] : null;
-            if (productId != null && !productId.equals(rowProductId)) continue;
-            productPerformance.add(Map.<String, Object>of(
-                    "productId", row[0] != null ? row[0].toString() : "",
-                    "productName", row[1] != null ? row[1].toString() : "Unknown",
-                    "category", row[2] != null ? row[2].toString() : "Uncategorized",
-                    "quantitySold", row[3] != null ? ((Number) row[3]).longValue() : 0,
-                    "revenue", row[4] != null ? ((BigDecimal) row[4]).setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO
-            ));
-        }
-
+        // Order count (total, not per product), product and category performance: one pass over the item rows
+        InsightsAggregator items = aggregateDeliveredItems(businessId, fromInstant, toInstant);
+        long orderCount = items.orderCount();
+        List<Map<String, Object>> productPerformance = items.productPerformance(productId);
         // Category performance (exclude when filtering by product to avoid confusion)
-        List<Map<String, Object>> categoryPerformance = new ArrayList<>();
-        if (productId == null) {
-            for (Object[] row : orderItemRepository.findCategoryRevenueByBusinessIdAndDateRange(businessId, fromInstant, toInstant)) {
-                categoryPerformance.add(Map.of(
-                        "category", row[0] != null ? row[0].toString() : "Uncategorized",
-                        "revenue", row[1] != null ? ((BigDecimal) row[1]).setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO
-                ));
-            }
-        }
+        List<Map<String, Object>> categoryPerformance = productId == null ? items.categoryPerformance() : new ArrayList<>();
 
         // Staff performance: expenses logged + deliveries received
         List<Map<String, Object>> staffPerformance = buildStaffPerformance(businessId, from, to, fromInstant, toInstant);
 
         // Period breakdown (optionally by product when productId set)
-        List<Map<String, Object>> periodBreakdown = buildPeriodBreakdown(businessId, from, to, fromInstant, toInstant, productId);
+        List<Map<String, Object>> periodBreakdown = buildPeriodBreakdown(daily, from, to);
 
         Map<String, Object> result = new HashMap<>();
         result.put("period", period);
@@ -171,10 +188,100 @@ public class BusinessInsightsService {
         result.put("categoryPerformance", categoryPerformance);
         result.put("staffPerformance", staffPerformance);
         result.put("periodBreakdown", periodBreakdown);
+        result.put("comparison", buildComparison(previousFrom, from.minusDays(1), revenue, expenses, previousRevenue, previousExpenses));
+        result.put("forecast", trend.forecast());
         result.put("currency", "KES");
         return result;
     }
 
+    /** This period against the one of equal length just before it. Percent changes are null when the base is zero. */
+    private Map<String, Object> buildComparison(LocalDate previousFrom, LocalDate previousTo, BigDecimal revenue, BigDecimal expenses,
+                                                BigDecimal previousRevenue, BigDecimal previousExpenses) {
+        BigDecimal profitLoss = revenue.subtract(expenses);
+        BigDecimal previousProfitLoss = previousRevenue.subtract(previousExpenses);
+        Map<String, Object> m = new HashMap<>();
+        m.put("previousFrom", previousFrom.toString());
+        m.put("previousTo", previousTo.toString());
+        m.put("previousRevenue", previousRevenue.setScale(2, RoundingMode.HALF_UP));
+        m.put("previousExpenses", previousExpenses.setScale(2, RoundingMode.HALF_UP));
+        m.put("previousProfitLoss", previousProfitLoss.setScale(2, RoundingMode.HALF_UP));
+        m.put("revenueChange", revenue.subtract(previousRevenue).setScale(2, RoundingMode.HALF_UP));
+        m.put("revenueChangePercent", percentChange(revenue, previousRevenue));
+        m.put("expensesChange", expenses.subtract(previousExpenses).setScale(2, RoundingMode.HALF_UP));
+        m.put("expensesChangePercent", percentChange(expenses, previousExpenses));
+        m.put("profitLossChange", profitLoss.subtract(previousProfitLoss).setScale(2, RoundingMode.HALF_UP));
+        m.put("profitLossChangePercent", percentChange(profitLoss, previousProfitLoss));
+        return m;
+    }
+
+    private static BigDecimal percentChange(BigDecimal current, BigDecimal previous) {
+        if (previous.signum() == 0) return null;
+        return current.subtract(previous).multiply(BigDecimal.valueOf(100))
+                .divide(previous.abs(), 1, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Daily revenue series of completed days fed oldest first (days without sales as zero): trailing moving average and simple
+     * exponential smoothing, each projected flat over the forecast horizon.
+     */
+    private static final class RevenueTrend {
+        private static final int MOVING_AVERAGE_DAYS = 7;
+        private static final double SMOOTHING_ALPHA = 0.3;
+        private static final int HORIZON_DAYS = 7;
+
+        private final BigDecimal[] window = new BigDecimal[MOVING_AVERAGE_DAYS];
+        private BigDecimal windowSum = BigDecimal.ZERO;
+        private int count;
+        private double level;
+
+        void add(BigDecimal dayRevenue) {
+            int slot = count % MOVING_AVERAGE_DAYS;
+            if (window[slot] != null) windowSum = windowSum.subtract(window[slot]);
+            window[slot] = dayRevenue;
+            windowSum = windowSum.add(dayRevenue);
+            double value = dayRevenue.doubleValue();
+            level = count == 0 ? value : SMOOTHING_ALPHA * value + (1 - SMOOTHING_ALPHA) * level;
+            count++;
+        }
+
+        Map<String, Object> forecast() {
+            int n = Math.min(count, MOVING_AVERAGE_DAYS);
+            BigDecimal movingAverage = n > 0
+                    ? windowSum.divide(BigDecimal.valueOf(n), 2, RoundingMode.HALF_UP)
+                    : BigDecimal.ZERO.setScale(2);
+            BigDecimal smoothed = BigDecimal.valueOf(level).setScale(2, RoundingMode.HALF_UP);
+            Map<String, Object> m = new HashMap<>();
+            m.put("horizonDays", HORIZON_DAYS);
+            m.put("movingAverageDays", MOVING_AVERAGE_DAYS);
+            m.put("smoothingAlpha", SMOOTHING_ALPHA);
+            m.put("movingAverageDailyRevenue", movingAverage);
+            m.put("smoothedDailyRevenue", smoothed);
+            m.put("projectedRevenueMovingAverage", movingAverage.multiply(BigDecimal.valueOf(HORIZON_DAYS)));
+            m.put("projectedRevenueSmoothed", smoothed.multiply(BigDecimal.valueOf(HORIZON_DAYS)));
+            return m;
+        }
+    }
+
+    /** Stream the business's delivered order-item rows in [from, toExclusive) into an aggregator. */
+    private InsightsAggregator aggregateDeliveredItems(UUID businessId, Instant from, Instant toExclusive) {
+        InsightsAggregator aggregator = new InsightsAggregator();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(DELIVERED_ITEMS_SQL);
+            ps.setFetchSize(ITEM_FETCH_SIZE);
+            ps.setObject(1, businessId);
+            ps.setTimestamp(2, Timestamp.from(from));
+            ps.setTimestamp(3, Timestamp.from(toExclusive));
+            return ps;
+        }, (RowCallbackHandler) rs -> aggregator.add(
+                rs.getObject(1, UUID.class),
+                rs.getObject(2, UUID.class),
+                rs.getString(3),
+                rs.getString(4),
+                rs.getInt(5),
+                rs.getBigDecimal(6)));
+        return aggregator;
+    }
+
     private List<Map<String, Object>> buildStaffPerformance(UUID businessId, LocalDate from, LocalDate to,
                                                             Instant fromInstant, Instant toInstant) {
         Map<String, Map<String, Object>> byUser = new LinkedHashMap<>();
@@ -233,47 +340,28 @@ public class BusinessInsightsService {
         r.put("categoryPerformance", List.<Map<String, Object>>of());
         r.put("staffPerformance", List.<Map<String, Object>>of());
         r.put("periodBreakdown", List.<Map<String, Object>>of());
+        r.put("comparison", Map.of());
+        r.put("forecast", Map.of());
         r.put("currency", "KES");
         return r;
     }
 
-    private List<Map<String, Object>> buildPeriodBreakdown(UUID businessId, LocalDate from, LocalDate to,
-                                                           Instant fromInstant, Instant toInstant, UUID productId) {
+    /** Daily buckets up to 31 days, weekly up to 93, else monthly; summed from the daily rollup totals. */
+    private List<Map<String, Object>> buildPeriodBreakdown(NavigableMap<LocalDate, SalesRollupService.DailyTotals> daily,
+                                                           LocalDate from, LocalDate to) {
         List<Map<String, Object>> breakdown = new ArrayList<>();
         long days = java.time.temporal.ChronoUnit.DAYS.between(from, to) + 1;
 
         if (days <= 31) {
             for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
-                Instant start = d.atStartOfDay(ZONE).toInstant();
-                Instant end = d.plusDays(1).atStartOfDay(ZONE).toInstant();
-                BigDecimal rev = productId != null
-                        ? orderItemRepository.sumRevenueByBusinessIdAndProductIdAndDateRange(businessId, productId, start, end)
-                        : orderItemRepository.sumRevenueByBusinessIdAndDateRange(businessId, start, end);
-                BigDecimal exp = expenseRepository.sumAmountByBusinessIdAndDateRange(businessId, d, d);
-                breakdown.add(Map.of(
-                        "label", d.toString(),
-                        "revenue", rev != null ? rev.setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO,
-                        "expenses", exp != null ? exp.setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO,
-                        "profitLoss", (rev != null ? rev : BigDecimal.ZERO).subtract(exp != null ? exp : BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP)
-                ));
+                breakdown.add(periodEntry(d.toString(), daily, d, d));
             }
         } else if (days <= 93) {
             LocalDate d = from;
             while (!d.isAfter(to)) {
                 LocalDate weekEnd = d.plusDays(6);
                 if (weekEnd.isAfter(to)) weekEnd = to;
-                Instant start = d.atStartOfDay(ZONE).toInstant();
-                Instant end = weekEnd.plusDays(1).atStartOfDay(ZONE).toInstant();
-                BigDecimal rev = productId != null
-                        ? orderItemRepository.sumRevenueByBusinessIdAndProductIdAndDateRange(businessId, productId, start, end)
-                        : orderItemRepository.sumRevenueByBusinessIdAndDateRange(businessId, start, end);
-                BigDecimal exp = expenseRepository.sumAmountByBusinessIdAndDateRange(businessId, d, weekEnd);
-                breakdown.add(Map.of(
-                        "label", d + " – " + weekEnd,
-                        "revenue", rev != null ? rev.setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO,
-                        "expenses", exp != null ? exp.setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO,
-                        "profitLoss", (rev != null ? rev : BigDecimal.ZERO).subtract(exp != null ? exp : BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP)
-                ));
+                breakdown.add(periodEntry(d + " – " + weekEnd, daily, d, weekEnd));
                 d = weekEnd.plusDays(1);
             }
         } else {
@@ -284,21 +372,26 @@ public class BusinessInsightsService {
                 LocalDate monthEnd = ym.atEndOfMonth();
                 if (monthStart.isBefore(from)) monthStart = from;
                 if (monthEnd.isAfter(to)) monthEnd = to;
-                Instant start = monthStart.atStartOfDay(ZONE).toInstant();
-                Instant end = monthEnd.plusDays(1).atStartOfDay(ZONE).toInstant();
-                BigDecimal rev = productId != null
-                        ? orderItemRepository.sumRevenueByBusinessIdAndProductIdAndDateRange(businessId, productId, start, end)
-                        : orderItemRepository.sumRevenueByBusinessIdAndDateRange(businessId, start, end);
-                BigDecimal exp = expenseRepository.sumAmountByBusinessIdAndDateRange(businessId, monthStart, monthEnd);
-                breakdown.add(Map.of(
-                        "label", ym.toString(),
-                        "revenue", rev != null ? rev.setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO,
-                        "expenses", exp != null ? exp.setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO,
-                        "profitLoss", (rev != null ? rev : BigDecimal.ZERO).subtract(exp != null ? exp : BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP)
-                ));
+                breakdown.add(periodEntry(ym.toString(), daily, monthStart, monthEnd));
                 ym = ym.plusMonths(1);
             }
         }
         return breakdown;
     }
+
+    private Map<String, Object> periodEntry(String label, NavigableMap<LocalDate, SalesRollupService.DailyTotals> daily,
+                                            LocalDate start, LocalDate end) {
+        BigDecimal rev = BigDecimal.ZERO;
+        BigDecimal exp = BigDecimal.ZERO;
+        for (SalesRollupService.DailyTotals day : daily.subMap(start, true, end, true).values()) {
+            rev = rev.add(day.revenue());
+            exp = exp.add(day.expenses());
+        }
+        return Map.of(
+                "label", label,
+                "revenue", rev.setScale(2, RoundingMode.HALF_UP),
+                "expenses", exp.setScale(2, RoundingMode.HALF_UP),
+                "profitLoss", rev.subtract(exp).setScale(2, RoundingMode.HALF_UP)
+        );
+    }
 }
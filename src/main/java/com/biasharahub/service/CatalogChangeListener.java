@@ -0,0 +1,64 @@
+package com.biasharahub.service;
+
+import com.biasharahub.config.TenantContext;
+import com.biasharahub.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on Product and User: a product insert, update or delete, and a user change that alters the shop list
+ * (see {@link ShopDirectory#affectsShops}), mark the current tenant's {@link ShopDirectory} snapshot and
+ * {@link CatalogSearchIndex} stale, now and again after commit (so a rebuild that raced the transaction does not
+ * keep old data). Other user saves (logins, profile edits) leave both alone. Instantiated by Hibernate through
+ * Spring; both are looked up lazily to avoid a cycle with the EntityManagerFactory.
+ */
+public class CatalogChangeListener {
+
+    private final ObjectProvider<ShopDirectory> shopDirectory;
+    private final ObjectProvider<CatalogSearchIndex> searchIndex;
+
+    public CatalogChangeListener(ObjectProvider<ShopDirectory> shopDirectory,
+                                 ObjectProvider<CatalogSearchIndex> searchIndex) {
+        this.shopDirectory = shopDirectory;
+        this.searchIndex = searchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void catalogChanged(Object entity) {
+        String schema = TenantContext.getTenantSchema();
+        if (entity instanceof User user) {
+            ShopDirectory directory = shopDirectory.getIfAvailable();
+            if (directory != null && !directory.affectsShops(schema, user)) return;
+        }
+        invalidateNowAndAfterCommit(schema);
+    }
+
+    @PostRemove
+    public void catalogRemoved(Object entity) {
+        invalidateNowAndAfterCommit(TenantContext.getTenantSchema());
+    }
+
+    private void invalidateNowAndAfterCommit(String schema) {
+        invalidate(schema);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(schema);
+                }
+            });
+        }
+    }
+
+    private void invalidate(String schema) {
+        ShopDirectory directory = shopDirectory.getIfAvailable();
+        if (directory != null) directory.invalidate(schema);
+        CatalogSearchIndex index = searchIndex.getIfAvailable();
+        if (index != null) index.invalidate(schema);
+    }
+}
@@ -0,0 +1,154 @@
+package com.biasharahub.service;
+
+import com.biasharahub.config.TenantContext;
+import com.biasharahub.entity.Product;
+import com.biasharahub.entity.User;
+import com.biasharahub.repository.ProductRepository;
+import com.biasharahub.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Typo-tolerant search over shop names and product names/categories, per tenant, for the WhatsApp chatbot and
+ * GET /products/search. Covers what the storefront shows: verified, active shops and their approved
+ * customer-facing products. Built in memory ({@link TrigramIndex}) from two queries; catalog changes
+ * ({@link CatalogChangeListener}) or {@code app.search.index-ttl-ms} mark it stale and it is rebuilt in the
+ * background, at most once per {@code app.search.min-rebuild-interval-ms}, while the previous index keeps serving
+ * (only the very first search of a tenant waits for a build).
+ */
+@Component
+@Slf4j
+public class CatalogSearchIndex {
+
+    /** Minimum score for a hit: allows a typo or two in a word, rejects unrelated names. */
+    public static final double DEFAULT_MIN_SCORE = 0.5;
+
+    private static final String DEFAULT_TENANT_SCHEMA = "tenant_default";
+
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+    private final long ttlMs;
+    private final long minRebuildIntervalMs;
+    private final ConcurrentHashMap<String, TenantIndex> indexes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicBoolean> rebuilding = new ConcurrentHashMap<>();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "catalog-search-index");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public CatalogSearchIndex(UserRepository userRepository,
+                              ProductRepository productRepository,
+                              @Value("${app.search.index-ttl-ms:300000}") long ttlMs,
+                              @Value("${app.search.min-rebuild-interval-ms:10000}") long minRebuildIntervalMs) {
+        this.userRepository = userRepository;
+        this.productRepository = productRepository;
+        this.ttlMs = ttlMs;
+        this.minRebuildIntervalMs = minRebuildIntervalMs;
+    }
+
+    public List<TrigramIndex.Hit<ShopEntry>> searchShops(String query, int limit) {
+        return current().shops().search(query, limit, DEFAULT_MIN_SCORE);
+    }
+
+    public List<TrigramIndex.Hit<ProductEntry>> searchProducts(String query, int limit) {
+        return current().products().search(query, limit, DEFAULT_MIN_SCORE);
+    }
+
+    /** Mark a tenant's index stale; it is rebuilt in the background on the next search. */
+    public void invalidate(String tenantSchema) {
+        TenantIndex index = indexes.get(tenantSchema != null ? tenantSchema : DEFAULT_TENANT_SCHEMA);
+        if (index != null) index.stale().set(true);
+    }
+
+    private TenantIndex current() {
+        String schema = TenantContext.getTenantSchema() != null ? TenantContext.getTenantSchema() : DEFAULT_TENANT_SCHEMA;
+        TenantIndex index = indexes.get(schema);
+        if (index == null) {
+            synchronized (rebuilding.computeIfAbsent(schema, s -> new AtomicBoolean())) {
+                index = indexes.get(schema);
+                if (index == null) {
+                    index = build();
+                    indexes.put(schema, index);
+                }
+            }
+            return index;
+        }
+        // Stock changes on every order also mark it stale, so rebuilds are spaced by the minimum interval
+        long age = System.currentTimeMillis() - index.builtAtMs();
+        if ((index.stale().get() && age >= minRebuildIntervalMs) || age >= ttlMs) {
+            scheduleRebuild(schema);
+        }
+        return index;
+    }
+
+    private void scheduleRebuild(String schema) {
+        AtomicBoolean running = rebuilding.computeIfAbsent(schema, s -> new AtomicBoolean());
+        if (!running.compareAndSet(false, true)) return;
+        try {
+            rebuilder.execute(() -> {
+                TenantContext.setTenantSchema(schema);
+                try {
+                    indexes.put(schema, build());
+                } catch (Exception e) {
+                    log.warn("Catalog search index rebuild failed for {}: {}", schema, e.getMessage());
+                } finally {
+                    running.set(false);
+                    TenantContext.clear();
+                }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+        }
+    }
+
+    private TenantIndex build() {
+        long start = System.currentTimeMillis();
+        List<ShopEntry> shops = new ArrayList<>();
+        Map<UUID, String> shopNames = new HashMap<>();
+        for (User o : userRepository.findActiveOwnersByRoleAndVerificationStatusAndBusinessIdIsNotNullOrderByBusinessNameAsc("owner", "verified")) {
+            shops.add(new ShopEntry(o.getBusinessId(), o.getBusinessName()));
+            shopNames.put(o.getBusinessId(), o.getBusinessName());
+        }
+        List<ProductEntry> products = new ArrayList<>();
+        for (Product p : productRepository.findCustomerFacingApproved()) {
+            if (p.getBusinessId() == null || !shopNames.containsKey(p.getBusinessId())) continue;
+            products.add(new ProductEntry(p.getProductId(), p.getBusinessId(), p.getName(), p.getCategory(),
+                    shopNames.get(p.getBusinessId()), p.getPrice(), p.getQuantity() != null ? p.getQuantity() : 0));
+        }
+        TenantIndex index = new TenantIndex(
+                TrigramIndex.build(shops, ShopEntry::businessName),
+                TrigramIndex.build(products, p -> p.name() + " " + (p.category() != null ? p.category() : "")),
+                System.currentTimeMillis(), new AtomicBoolean());
+        log.debug("Catalog search index built: {} shops, {} products in {} ms", shops.size(), products.size(),
+                System.currentTimeMillis() - start);
+        return index;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    public record ShopEntry(UUID businessId, String businessName) {}
+
+    /** quantity is as of the last index build; callers needing live stock should reload the product. */
+    public record ProductEntry(UUID productId, UUID businessId, String name, String category, String businessName,
+                               BigDecimal price, int quantity) {}
+
+    private record TenantIndex(TrigramIndex<ShopEntry> shops, TrigramIndex<ProductEntry> products,
+                               long builtAtMs, AtomicBoolean stale) {}
+}
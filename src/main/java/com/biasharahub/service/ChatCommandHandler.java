@@ -0,0 +1,21 @@
+package com.biasharahub.service;
+
+import com.biasharahub.entity.User;
+
+/**
+ * Replies to one WhatsApp chatbot {@link ChatCommandRouter.Command}. Handlers are Spring beans; the router picks the
+ * one registered for the routed command (see {@link ChatCommandRouter#handle}).
+ */
+public interface ChatCommandHandler {
+
+    /** The command this handler replies to. */
+    ChatCommandRouter.Command command();
+
+    /**
+     * Reply to a routed message. Sellers and providers only see and act on their own business
+     * ({@code user.getBusinessId()}).
+     *
+     * @return the reply; null when a {@link ChatCommandRouter.Command#mayPass()} command's arguments don't parse
+     */
+    String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone);
+}
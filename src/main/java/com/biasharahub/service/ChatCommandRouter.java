@@ -0,0 +1,325 @@
+package com.biasharahub.service;
+
+import com.biasharahub.entity.User;
+import com.biasharahub.service.ChatSession.ChatStage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Maps a WhatsApp chatbot message to a {@link Command}. The message is tokenized once (lower-cased text, first word,
+ * all-digits flag); the first word selects the few keyword rules that can apply, merged in priority order with the
+ * rules that look anywhere in the text ("is it in stock?", "track my delivery"). Rules keep the order of the old
+ * if-chain in WhatsAppChatbotService, so the same message gets the same reply. Argument regexes (BOOK, PAY, ORDER)
+ * run in the command's {@link ChatCommandHandler}, only after the command has been picked.
+ * <p>
+ * As a bean, every command must have exactly one handler bean. Stateless and thread-safe.
+ */
+@Component
+public final class ChatCommandRouter {
+
+    public enum Command {
+        MENU,
+        // Sellers and service providers (own business only)
+        SELLER_ORDERS, CONFIRM_ORDER, SHIP_ORDER, MY_PRODUCTS, LOW_STOCK,
+        PROVIDER_APPOINTMENTS, CONFIRM_APPOINTMENT, CANCEL_APPOINTMENT, MY_SERVICES, OWNER_MENU,
+        // Customers: list-screen picks
+        PICK_SHOP, PICK_PROVIDER, BOOK_FROM_LIST,
+        // Customers: products
+        SHOPS, BROWSE_STOCK, STOCK_BY_SHOP, STOCK_QUERY,
+        // Customers: services
+        SERVICE_PROVIDERS, PROVIDER_SERVICES(true), PROVIDER_LOCATION, BOOK(true), MY_BOOKINGS,
+        PAY_SERVICE(true), UNPAID_SERVICE_BOOKINGS,
+        // Customers: orders
+        ORDER(true), ORDER_STATUS, PAY, DELIVERY,
+        UNKNOWN;
+
+        private final boolean mayPass;
+        private final String tag = name().toLowerCase(Locale.ROOT);
+
+        Command() {
+            this(false);
+        }
+
+        Command(boolean mayPass) {
+            this.mayPass = mayPass;
+        }
+
+        /**
+         * True when the handler may return null for "arguments did not parse"; routing then continues with the
+         * next matching rule. For other commands null means "no reply".
+         */
+        public boolean mayPass() {
+            return mayPass;
+        }
+
+        /** Lower-case name for metric tags. */
+        public String tag() {
+            return tag;
+        }
+    }
+
+    /**
+     * A tokenized message.
+     *
+     * @param message  trimmed message text
+     * @param lower    lower-cased message
+     * @param keyword  first word of {@code lower}, "#" when the whole message is digits, "" when blank
+     * @param seller   verified product seller (owner)
+     * @param provider verified service provider (owner)
+     * @param stage    current conversation screen
+     */
+    public record Input(String message, String lower, String keyword, boolean seller, boolean provider, ChatStage stage) {}
+
+    /**
+     * A matched rule.
+     *
+     * @param argument text the handler works on (e.g. the list number or shop name); the message for commands
+     *                 without an argument
+     */
+    public record Route(Command command, String argument, Input input, int ruleIndex) {}
+
+    private static final String NUMERIC_KEYWORD = "#";
+    private static final Pattern LOCATION_PREFIX = Pattern.compile("(?i)^(location|where is|where)\\s+");
+
+    private final List<Rule> rules = new ArrayList<>();
+    /** Keyword -> indexes of rules that can match a message starting with it (keyword rules + anywhere rules). */
+    private final Map<String, int[]> candidatesByKeyword = new HashMap<>();
+    /** Rules that can match whatever the first word (text anywhere, stage-only, catch-all). */
+    private final int[] anywhereCandidates;
+    private final Map<Command, ChatCommandHandler> handlers = new EnumMap<>(Command.class);
+
+    /** Routing only, without handlers (see {@link #handle}). */
+    public ChatCommandRouter() {
+        addRule(Command.MENU, Set.of("", "menu", "hi", "hello"),
+                in -> in.lower().isEmpty() || in.lower().equals("menu") || in.lower().equals("hi") || in.lower().equals("hello")
+                        ? in.message() : null);
+
+        // ===== OWNER (SELLER / PROVIDER) COMMANDS =====
+        exact(Command.SELLER_ORDERS, Input::seller, "orders", "shop orders", "my shop orders");
+        numbered(Command.CONFIRM_ORDER, Input::seller, "confirm order ", "confirm ");
+        numbered(Command.SHIP_ORDER, Input::seller, "ship order ", "ship ");
+        exact(Command.MY_PRODUCTS, Input::seller, "products", "my products", "inventory");
+        exact(Command.LOW_STOCK, Input::seller, "low stock", "stock alert");
+        exact(Command.PROVIDER_APPOINTMENTS, Input::provider, "appointments", "my appointments", "bookings");
+        numbered(Command.CONFIRM_APPOINTMENT, Input::provider, "confirm appointment ", "confirm apt ");
+        numbered(Command.CANCEL_APPOINTMENT, Input::provider, "cancel appointment ", "cancel apt ");
+        exact(Command.MY_SERVICES, Input::provider, "my services", "seller services");
+        // Sellers and providers only get business-related commands; no customer flows
+        addRule(Command.OWNER_MENU, Set.of(), in -> in.seller() || in.provider() ? in.message() : null);
+
+        // ===== CUSTOMER FLOWS =====
+        // Numeric replies on a list screen pick from that list
+        addRule(Command.PICK_SHOP, Set.of(NUMERIC_KEYWORD), in -> in.stage() == ChatStage.SHOP_LIST ? in.lower() : null);
+        addRule(Command.PICK_PROVIDER, Set.of(NUMERIC_KEYWORD), in -> in.stage() == ChatStage.SERVICE_PROVIDER_LIST ? in.lower() : null);
+        addRule(Command.BOOK_FROM_LIST, Set.of(NUMERIC_KEYWORD), in -> in.stage() == ChatStage.SERVICE_LIST ? in.lower() : null);
+        // Main menu shortcuts 1–8
+        menuShortcut("1", Command.SHOPS);
+        menuShortcut("2", Command.BROWSE_STOCK);
+        menuShortcut("3", Command.ORDER_STATUS);
+        menuShortcut("4", Command.PAY);
+        menuShortcut("5", Command.DELIVERY);
+        menuShortcut("6", Command.SERVICE_PROVIDERS);
+        menuShortcut("7", Command.MY_BOOKINGS);
+        menuShortcut("8", Command.UNPAID_SERVICE_BOOKINGS);
+
+        addRule(Command.SHOPS, Set.of(),
+                in -> in.lower().equals("shops") || in.lower().equals("stores") || in.lower().equals("list shops")
+                        || in.lower().contains("browse by shop") ? in.message() : null);
+        // "STOCK 1", "SHOP ABC Store"
+        addRule(Command.STOCK_BY_SHOP, Set.of("stock", "shop"), in -> {
+            if (!in.lower().startsWith("stock ") && !in.lower().startsWith("shop ")) return null;
+            String rest = in.message().substring(5).trim();
+            return rest.isEmpty() ? null : rest;
+        });
+        // "is it in stock?" / "stock" with no shop
+        addRule(Command.STOCK_QUERY, Set.of(),
+                in -> in.lower().contains("stock") || in.lower().contains("availability") ? in.message() : null);
+
+        addRule(Command.SERVICE_PROVIDERS, Set.of(),
+                in -> in.lower().equals("services") || in.lower().equals("providers") || in.lower().equals("service providers")
+                        || in.lower().contains("browse services") || in.lower().equals("categories")
+                        || in.lower().equals("service categories") ? in.message() : null);
+        // "SERVICE 1", "PROVIDER ABC Consulting"
+        addRule(Command.PROVIDER_SERVICES, Set.of("service", "provider"), in -> {
+            if (!in.lower().startsWith("service ") && !in.lower().startsWith("provider ")) return null;
+            String rest = in.message().substring(in.message().indexOf(' ') + 1).trim();
+            return rest.isEmpty() ? null : rest;
+        });
+        // "LOCATION 1", "WHERE 1", "WHERE IS 1"
+        addRule(Command.PROVIDER_LOCATION, Set.of("location", "where"), in -> {
+            if (!in.lower().startsWith("location ") && !in.lower().startsWith("where ")) return null;
+            String rest = LOCATION_PREFIX.matcher(in.message()).replaceFirst("").trim();
+            return rest.isEmpty() ? null : rest;
+        });
+        addRule(Command.BOOK, Set.of("book"), in -> in.lower().startsWith("book ") ? in.message() : null);
+        addRule(Command.MY_BOOKINGS, Set.of(),
+                in -> in.lower().equals("bookings") || in.lower().equals("my bookings") || in.lower().equals("appointments")
+                        || in.lower().contains("my appointment") ? in.message() : null);
+        addRule(Command.PAY_SERVICE, Set.of("pay"), in -> in.lower().startsWith("pay service ") ? in.message() : null);
+        addRule(Command.UNPAID_SERVICE_BOOKINGS, Set.of(),
+                in -> in.lower().contains("unpaid service") || in.lower().contains("service to pay") ? in.message() : null);
+
+        addRule(Command.ORDER, Set.of("order"), in -> in.lower().startsWith("order ") ? in.message() : null);
+        addRule(Command.ORDER_STATUS, Set.of(),
+                in -> in.lower().equals("order") || in.lower().contains("my order") ? in.message() : null);
+        // Unpaid orders: same as PAY
+        addRule(Command.PAY, Set.of(),
+                in -> in.lower().contains("unpaid") || in.lower().contains("orders to pay") || in.lower().contains("pay for order")
+                        ? in.message() : null);
+        // Pay (but not "pay service")
+        addRule(Command.PAY, Set.of(),
+                in -> (in.lower().startsWith("pay") || in.lower().contains("pay now") || in.lower().contains("payment"))
+                        && !in.lower().contains("service") ? in.message() : null);
+        addRule(Command.DELIVERY, Set.of(),
+                in -> in.lower().contains("delivery") || in.lower().contains("shipment") || in.lower().contains("track")
+                        ? in.message() : null);
+        addRule(Command.UNKNOWN, Set.of(), Input::message);
+
+        this.anywhereCandidates = indexesOf(Set.of());
+        Set<String> keywords = new TreeSet<>();
+        for (Rule rule : rules) keywords.addAll(rule.keywords());
+        for (String keyword : keywords) {
+            candidatesByKeyword.put(keyword, indexesOf(Set.of(keyword)));
+        }
+    }
+
+    @Autowired
+    public ChatCommandRouter(List<ChatCommandHandler> handlers) {
+        this();
+        for (ChatCommandHandler handler : handlers) {
+            if (this.handlers.put(handler.command(), handler) != null) {
+                throw new IllegalStateException("More than one chatbot handler for " + handler.command());
+            }
+        }
+        for (Command command : Command.values()) {
+            if (!this.handlers.containsKey(command)) {
+                throw new IllegalStateException("No chatbot handler for " + command);
+            }
+        }
+    }
+
+    /** Tokenize a message for {@link #route}. */
+    public static Input tokenize(String message, boolean seller, boolean provider, ChatStage stage) {
+        String text = message != null ? message.trim() : "";
+        String lower = text.toLowerCase();
+        return new Input(text, lower, keywordOf(lower), seller, provider, stage != null ? stage : ChatStage.MAIN_MENU);
+    }
+
+    /** First matching rule; never null (unmatched messages route to {@link Command#UNKNOWN}). */
+    public Route route(Input input) {
+        return match(input, -1);
+    }
+
+    /** Next matching rule after {@code previous}, for handlers that passed (see {@link Command#mayPass()}). */
+    public Route next(Route previous) {
+        return match(previous.input(), previous.ruleIndex());
+    }
+
+    /** Run the handler registered for the routed command (see {@link ChatCommandHandler#handle}). */
+    public String handle(Route route, User user, ChatSession session, String phone) {
+        ChatCommandHandler handler = handlers.get(route.command());
+        if (handler == null) {
+            throw new IllegalStateException("No chatbot handler for " + route.command());
+        }
+        return handler.handle(route, user, session, phone);
+    }
+
+    private Route match(Input input, int after) {
+        int[] candidates = candidatesByKeyword.getOrDefault(input.keyword(), anywhereCandidates);
+        for (int index : candidates) {
+            if (index <= after) continue;
+            Rule rule = rules.get(index);
+            String argument = rule.matcher().apply(input);
+            if (argument != null) {
+                return new Route(rule.command(), argument, input, index);
+            }
+        }
+        throw new IllegalStateException("No chatbot route for message");
+    }
+
+    private static String keywordOf(String lower) {
+        if (lower.isEmpty()) return "";
+        boolean digits = true;
+        int end = 0;
+        while (end < lower.length() && !Character.isWhitespace(lower.charAt(end))) {
+            char c = lower.charAt(end);
+            if (c < '0' || c > '9') digits = false;
+            end++;
+        }
+        return digits && end == lower.length() ? NUMERIC_KEYWORD : lower.substring(0, end);
+    }
+
+    /** Exact phrases, for the given audience. */
+    private void exact(Command command, Predicate<Input> audience, String... phrases) {
+        Set<String> phraseSet = Set.of(phrases);
+        Set<String> keywords = new TreeSet<>();
+        for (String phrase : phrases) keywords.add(keywordOf(phrase));
+        addRule(command, keywords, in -> audience.test(in) && phraseSet.contains(in.lower()) ? in.message() : null);
+    }
+
+    /** "&lt;prefix&gt;&lt;n&gt;" (e.g. CONFIRM 2); prefixes longest first. Argument is the number. */
+    private void numbered(Command command, Predicate<Input> audience, String... prefixes) {
+        Set<String> keywords = new TreeSet<>();
+        for (String prefix : prefixes) keywords.add(keywordOf(prefix));
+        addRule(command, keywords, in -> {
+            if (!audience.test(in)) return null;
+            for (String prefix : prefixes) {
+                if (in.lower().startsWith(prefix)) {
+                    String number = in.lower().substring(prefix.length()).trim();
+                    return isDigits(number) ? number : null;
+                }
+            }
+            return null;
+        });
+    }
+
+    private void menuShortcut(String digit, Command command) {
+        addRule(command, Set.of(NUMERIC_KEYWORD),
+                in -> in.stage() == ChatStage.MAIN_MENU && in.lower().equals(digit) ? in.message() : null);
+    }
+
+    private void addRule(Command command, Set<String> keywords, Function<Input, String> matcher) {
+        rules.add(new Rule(command, keywords, matcher));
+    }
+
+    /** Rules keyed by any of the keywords, plus rules with no keywords, in rule order. */
+    private int[] indexesOf(Set<String> keywords) {
+        int[] out = new int[rules.size()];
+        int n = 0;
+        for (int i = 0; i < rules.size(); i++) {
+            Set<String> ruleKeywords = rules.get(i).keywords();
+            if (ruleKeywords.isEmpty() || ruleKeywords.stream().anyMatch(keywords::contains)) {
+                out[n++] = i;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static boolean isDigits(String s) {
+        if (s.isEmpty()) return false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param keywords first words (or "#" for numbers) the rule can match; empty = any message
+     * @param matcher  the argument when the rule applies, else null
+     */
+    private record Rule(Command command, Set<String> keywords, Function<Input, String> matcher) {}
+}
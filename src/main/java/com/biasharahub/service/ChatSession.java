@@ -0,0 +1,79 @@
+package com.biasharahub.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * WhatsApp chatbot conversation state for one phone number: the chat stage, the numbered lists last shown (so
+ * "ORDER 1 2", "BOOK 1", "CONFIRM 1" resolve), a shared location waiting for a booking, and the link / sign-up
+ * flow for unknown numbers. Loaded once per incoming message from {@link ChatSessionStore} and saved back after
+ * the reply; plain fields so it serializes to JSON for the Redis store.
+ */
+@Data
+@NoArgsConstructor
+public class ChatSession {
+
+    /** Simple chat stage (for interpreting numeric replies, e.g. shop list, service provider list). */
+    public enum ChatStage { MAIN_MENU, SHOP_LIST, SERVICE_PROVIDER_LIST, SERVICE_LIST }
+
+    private String phone;
+    private ChatStage stage;
+    /** Last product IDs shown to this phone (1-based index maps to list position). Used for "ORDER 1 2". */
+    private List<UUID> lastProductIds;
+    /** Last service provider IDs (owner user IDs) shown. Used for "SERVICE 1". */
+    private List<UUID> lastServiceProviderIds;
+    /** Last service offering IDs shown. Used for "BOOK 1". */
+    private List<UUID> lastServiceIds;
+    /** Last service appointment IDs shown. Used for "PAY SERVICE 1". */
+    private List<UUID> lastBookingIds;
+    /** Last order IDs shown to seller (for CONFIRM 1, SHIP 1). */
+    private List<UUID> lastSellerOrderIds;
+    /** Last appointment IDs shown to provider (for CONFIRM APT 1, CANCEL APT 1). */
+    private List<UUID> lastProviderAppointmentIds;
+    /** Pending customer location for next booking. */
+    private CustomerLocation pendingLocation;
+    /** Pending WhatsApp link: phone not in DB, user is providing email then code to link. */
+    private LinkState linkState;
+
+    public ChatSession(String phone) {
+        this.phone = phone;
+    }
+
+    public ChatStage getStage() {
+        return stage != null ? stage : ChatStage.MAIN_MENU;
+    }
+
+    /** True when nothing worth keeping is left (stores drop empty sessions instead of saving them). */
+    @JsonIgnore
+    public boolean isEmpty() {
+        return (stage == null || stage == ChatStage.MAIN_MENU)
+                && lastProductIds == null && lastServiceProviderIds == null && lastServiceIds == null
+                && lastBookingIds == null && lastSellerOrderIds == null && lastProviderAppointmentIds == null
+                && pendingLocation == null && linkState == null;
+    }
+
+    /** Customer location data for physical service bookings. */
+    public record CustomerLocation(Double lat, Double lng, String description, Instant expiresAt) {
+        @JsonIgnore
+        public boolean isExpired() { return expiresAt != null && expiresAt.isBefore(Instant.now()); }
+    }
+
+    /**
+     * Link / sign-up flow for a phone that is not on any account. name, signupCode (6-digit code sent to email)
+     * and signupCodeExpiresAt are only set during sign-up.
+     */
+    public record LinkState(State state, String email, UUID userId, Instant expiresAt,
+                            String name, String signupCode, Instant signupCodeExpiresAt) {
+
+        public enum State { AWAITING_EMAIL, AWAITING_CODE, AWAITING_SIGNUP_EMAIL, AWAITING_SIGNUP_NAME, AWAITING_SIGNUP_CODE }
+
+        public LinkState(State state, String email, UUID userId, Instant expiresAt) {
+            this(state, email, userId, expiresAt, null, null, null);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.biasharahub.service;
+
+/**
+ * Where WhatsApp chatbot sessions live between messages. The chatbot loads a phone's session once when a message
+ * arrives and saves it once after replying. In-memory by default (single instance); set
+ * app.whatsapp.session-store=redis so every instance behind the load balancer sees the same conversation.
+ */
+public interface ChatSessionStore {
+
+    /** Session for the phone, or a new empty one if none (or it expired). Never null. */
+    ChatSession load(String phone);
+
+    /** Store the session and restart its idle TTL. Empty sessions are removed rather than stored. */
+    void save(ChatSession session);
+}
@@ -2,7 +2,6 @@ package com.biasharahub.service;
 
 import com.biasharahub.entity.Notification;
 import com.biasharahub.entity.Order;
-import com.biasharahub.entity.Payment;
 import com.biasharahub.entity.Product;
 import com.biasharahub.entity.PurchaseOrder;
 import com.biasharahub.entity.ServiceAppointment;
@@ -10,8 +9,9 @@ import com.biasharahub.entity.Shipment;
 import com.biasharahub.entity.SupplierDelivery;
 import com.biasharahub.entity.User;
 import com.biasharahub.entity.OrderItem;
+import com.biasharahub.enums.NotificationChannel;
+import com.biasharahub.enums.NotificationTemplateKey;
 import com.biasharahub.repository.NotificationRepository;
-import com.biasharahub.repository.OrderRepository;
 import com.biasharahub.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,7 +20,6 @@ import org.springframework.stereotype.Service;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Stream;
 
 /**
  * In-app/platform notifications persisted to the tenant database so users can view notifications
@@ -32,24 +31,17 @@ import java.util.stream.Stream;
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class InAppNotificationService {
+public class InAppNotificationService implements NotificationChannelAdapter {
 
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
-    private final OrderRepository orderRepository;
+    private final NotificationTemplateRegistry templates;
 
-    /** Only active accounts (owner/staff) receive seller notifications. */
-    private static boolean isActive(User u) {
-        return u.getAccountStatus() == null || "active".equalsIgnoreCase(u.getAccountStatus());
-    }
-
-    public void notifyOrderCreated(Order order) {
-        User customer = order.getUser();
-        if (customer == null) return;
-        saveNotification(customer, "order",
-                "Order placed",
-                "Your order " + order.getOrderNumber() + " has been placed. Complete payment to confirm.",
-                "/dashboard/orders");
+    /** Active owners and staff of the business who have not switched in-app notifications off. */
+    private List<User> getSellerUsers(UUID businessId) {
+        return userRepository.findActiveSellerUsersByBusinessId(businessId).stream()
+                .filter(channel()::isEnabledFor)
+                .toList();
     }
 
     /**
@@ -66,9 +58,8 @@ public class InAppNotificationService {
         }
         java.util.UUID businessId = firstItem.getProduct().getBusinessId();
 
-        List<User> owners = userRepository.findByRoleIgnoreCaseAndBusinessId("owner", businessId);
-        List<User> staff = userRepository.findByRoleIgnoreCaseAndBusinessId("staff", businessId);
-        if ((owners == null || owners.isEmpty()) && (staff == null || staff.isEmpty())) {
+        List<User> sellers = getSellerUsers(businessId);
+        if (sellers.isEmpty()) {
             return;
         }
 
@@ -76,66 +67,29 @@ public class InAppNotificationService {
                 ? order.getUser().getName()
                 : "a customer";
         String title = "New order received";
-        String message = "You have received a new order " + order.getOrderNumber()
-                + " from " + customerName + ".";
+        String message = templates.render(NotificationTemplateKey.IN_APP_SELLER_ORDER_CREATED, order.getOrderNumber(), customerName);
         String actionUrl = "/dashboard/orders";
 
-        Stream<User> ownerStream = owners != null ? owners.stream() : Stream.empty();
-        Stream<User> staffStream = staff != null ? staff.stream() : Stream.empty();
-        Stream.concat(ownerStream, staffStream).filter(InAppNotificationService::isActive)
-                .forEach(u -> saveNotification(u, "order", title, message, actionUrl));
-    }
-
-    public void notifyPaymentRequested(Order order, Payment payment) {
-        User customer = order.getUser();
-        if (customer == null) return;
-        saveNotification(customer, "payment",
-                "Payment requested",
-                "We sent an M-Pesa prompt for order " + order.getOrderNumber() + ". Complete the payment on your phone.",
-                "/dashboard/orders");
-    }
-
-    public void notifyPaymentCompleted(UUID orderId, UUID paymentId) {
-        orderRepository.findById(orderId).ifPresent(order -> {
-            User customer = order.getUser();
-            if (customer == null) return;
-            saveNotification(customer, "payment",
-                    "Payment received",
-                    "We received your payment for order " + order.getOrderNumber() + ". Your order is now confirmed.",
-                    "/dashboard/orders");
-        });
-    }
-
-    /** Notify seller (owner + staff) when an order is paid so they can fulfill. */
-    public void notifySellerPaymentCompleted(Order order) {
-        if (order == null || order.getItems() == null || order.getItems().isEmpty()) return;
-        OrderItem firstItem = order.getItems().get(0);
-        if (firstItem == null || firstItem.getProduct() == null || firstItem.getProduct().getBusinessId() == null) return;
-        UUID businessId = firstItem.getProduct().getBusinessId();
-        List<User> owners = userRepository.findByRoleIgnoreCaseAndBusinessId("owner", businessId);
-        List<User> staff = userRepository.findByRoleIgnoreCaseAndBusinessId("staff", businessId);
-        String title = "Order paid";
-        String message = "Order " + order.getOrderNumber() + " has been paid. You can now prepare and dispatch.";
-        String actionUrl = "/dashboard/orders";
-        Stream<User> ownerStream = owners != null ? owners.stream() : Stream.empty();
-        Stream<User> staffStream = staff != null ? staff.stream() : Stream.empty();
-        Stream.concat(ownerStream, staffStream).filter(InAppNotificationService::isActive)
-                .forEach(u -> saveNotification(u, "payment", title, message, actionUrl));
+        sellers.forEach(u -> saveNotification(u, "order", title, message, actionUrl));
     }
 
     /** Notify seller when product stock is running low (e.g. <= 10). */
     public void notifySellerLowStock(Product product) {
         if (product == null || product.getBusinessId() == null) return;
         int qty = product.getQuantity() != null ? product.getQuantity() : 0;
-        List<User> owners = userRepository.findByRoleIgnoreCaseAndBusinessId("owner", product.getBusinessId());
-        List<User> staff = userRepository.findByRoleIgnoreCaseAndBusinessId("staff", product.getBusinessId());
+        List<User> sellers = getSellerUsers(product.getBusinessId());
         String title = "Low stock alert";
-        String message = "Product \"" + (product.getName() != null ? product.getName() : "Unknown") + "\" is running low (" + qty + " left). Consider restocking.";
+        String message = templates.render(NotificationTemplateKey.IN_APP_SELLER_LOW_STOCK,
+                product.getName() != null ? product.getName() : "Unknown", qty);
         String actionUrl = "/dashboard/products";
-        Stream<User> ownerStream = owners != null ? owners.stream() : Stream.empty();
-        Stream<User> staffStream = staff != null ? staff.stream() : Stream.empty();
-        Stream.concat(ownerStream, staffStream).filter(InAppNotificationService::isActive)
-                .forEach(u -> saveNotification(u, "stock", title, message, actionUrl));
+        sellers.forEach(u -> saveNotification(u, "stock", title, message, actionUrl));
+    }
+
+    /** Notify seller (owner + staff) with a summary of buffered order/low-stock alerts (see SellerAlertDigestService). */
+    public void notifySellerDigest(UUID businessId, String title, String message) {
+        if (businessId == null) return;
+        List<User> sellers = getSellerUsers(businessId);
+        sellers.forEach(u -> saveNotification(u, "digest", title, message, "/dashboard/orders"));
     }
 
     /** Notify seller when a customer opens a dispute on an order. */
@@ -144,15 +98,12 @@ public class InAppNotificationService {
         OrderItem firstItem = order.getItems().get(0);
         if (firstItem == null || firstItem.getProduct() == null || firstItem.getProduct().getBusinessId() == null) return;
         UUID businessId = firstItem.getProduct().getBusinessId();
-        List<User> owners = userRepository.findByRoleIgnoreCaseAndBusinessId("owner", businessId);
-        List<User> staff = userRepository.findByRoleIgnoreCaseAndBusinessId("staff", businessId);
+        List<User> sellers = getSellerUsers(businessId);
         String title = "Dispute opened";
-        String message = "A customer opened a dispute for order " + order.getOrderNumber() + (disputeType != null && !disputeType.isBlank() ? " (" + disputeType + ")." : ".");
+        String message = templates.render(NotificationTemplateKey.IN_APP_SELLER_DISPUTE_CREATED,
+                order.getOrderNumber(), disputeType != null && !disputeType.isBlank() ? " (" + disputeType + ")" : "");
         String actionUrl = "/dashboard/admin/disputes";
-        Stream<User> ownerStream = owners != null ? owners.stream() : Stream.empty();
-        Stream<User> staffStream = staff != null ? staff.stream() : Stream.empty();
-        Stream.concat(ownerStream, staffStream).filter(InAppNotificationService::isActive)
-                .forEach(u -> saveNotification(u, "dispute", title, message, actionUrl));
+        sellers.forEach(u -> saveNotification(u, "dispute", title, message, actionUrl));
     }
 
     /** Notify seller when an order is cancelled. */
@@ -161,15 +112,11 @@ public class InAppNotificationService {
         OrderItem firstItem = order.getItems().get(0);
         if (firstItem == null || firstItem.getProduct() == null || firstItem.getProduct().getBusinessId() == null) return;
         UUID businessId = firstItem.getProduct().getBusinessId();
-        List<User> owners = userRepository.findByRoleIgnoreCaseAndBusinessId("owner", businessId);
-        List<User> staff = userRepository.findByRoleIgnoreCaseAndBusinessId("staff", businessId);
+        List<User> sellers = getSellerUsers(businessId);
         String title = "Order cancelled";
-        String message = "Order " + order.getOrderNumber() + " was cancelled. Inventory has been restored.";
+        String message = templates.render(NotificationTemplateKey.IN_APP_SELLER_ORDER_CANCELLED, order.getOrderNumber());
         String actionUrl = "/dashboard/orders";
-        Stream<User> ownerStream = owners != null ? owners.stream() : Stream.empty();
-        Stream<User> staffStream = staff != null ? staff.stream() : Stream.empty();
-        Stream.concat(ownerStream, staffStream).filter(InAppNotificationService::isActive)
-                .forEach(u -> saveNotification(u, "order", title, message, actionUrl));
+        sellers.forEach(u -> saveNotification(u, "order", title, message, actionUrl));
     }
 
     /** Notify owner when their account is suspended/disabled by admin. */
@@ -177,7 +124,7 @@ public class InAppNotificationService {
         if (user == null) return;
         saveNotification(user, "account",
                 "Account disabled",
-                "Your account has been disabled. You cannot log in or receive orders. Please contact the admin to resolve.",
+                templates.render(NotificationTemplateKey.IN_APP_ACCOUNT_SUSPENDED),
                 "/dashboard");
     }
 
@@ -186,63 +133,27 @@ public class InAppNotificationService {
         if (user == null) return;
         saveNotification(user, "account",
                 "Account enabled",
-                "Your account has been enabled. You can log in again and receive orders.",
+                templates.render(NotificationTemplateKey.IN_APP_ACCOUNT_ENABLED),
                 "/dashboard");
     }
 
     // ---------- Service bookings (BiasharaHub Services) ----------
 
-    /** Notify customer that their service appointment was booked. */
-    public void notifyServiceBookingCreated(ServiceAppointment appointment) {
-        if (appointment == null || appointment.getUser() == null) return;
-        String serviceName = appointment.getService() != null ? appointment.getService().getName() : "your service";
-        String dateTime = appointment.getRequestedDate() != null ? appointment.getRequestedDate().toString() : "";
-        if (appointment.getRequestedTime() != null) dateTime += " at " + appointment.getRequestedTime();
-        saveNotification(appointment.getUser(), "service_booking",
-                "Appointment booked",
-                "Your appointment for \"" + serviceName + "\" on " + dateTime + " has been booked. Pay to confirm.",
-                "/dashboard/services");
-    }
-
-    /** Notify provider (owner + staff) when a new service appointment is booked. */
-    public void notifyProviderServiceBookingCreated(ServiceAppointment appointment) {
-        if (appointment == null || appointment.getService() == null || appointment.getService().getBusinessId() == null) return;
-        UUID businessId = appointment.getService().getBusinessId();
-        List<User> owners = userRepository.findByRoleIgnoreCaseAndBusinessId("owner", businessId);
-        List<User> staff = userRepository.findByRoleIgnoreCaseAndBusinessId("staff", businessId);
-        String customerName = appointment.getUser() != null && appointment.getUser().getName() != null
-                ? appointment.getUser().getName()
-                : (appointment.getUser() != null ? appointment.getUser().getEmail() : "a customer");
-        String serviceName = appointment.getService().getName() != null ? appointment.getService().getName() : "your service";
-        String dateTime = appointment.getRequestedDate() != null ? appointment.getRequestedDate().toString() : "";
-        if (appointment.getRequestedTime() != null) dateTime += " at " + appointment.getRequestedTime();
-        String title = "New service booking";
-        String message = String.format("%s booked \"%s\" for %s. Confirm in the dashboard.", customerName, serviceName, dateTime);
-        String actionUrl = "/dashboard/services";
-        Stream<User> ownerStream = owners != null ? owners.stream() : Stream.empty();
-        Stream<User> staffStream = staff != null ? staff.stream() : Stream.empty();
-        Stream.concat(ownerStream, staffStream).filter(InAppNotificationService::isActive)
-                .forEach(u -> saveNotification(u, "service_booking", title, message, actionUrl));
-    }
-
     /** Notify customer and provider that meeting link was sent (virtual service, booking confirmed). */
     public void notifyServiceMeetingLinkSent(ServiceAppointment appointment, String meetingLink, String meetingDetails) {
         if (appointment == null || meetingLink == null || meetingLink.isBlank()) return;
         String serviceName = appointment.getService() != null ? appointment.getService().getName() : "your service";
-        String msg = "Your meeting link for \"" + serviceName + "\": " + meetingLink;
-        if (meetingDetails != null && !meetingDetails.isBlank()) msg += " " + meetingDetails;
+        String msg = templates.render(NotificationTemplateKey.IN_APP_SERVICE_MEETING_LINK, serviceName, meetingLink,
+                meetingDetails != null && !meetingDetails.isBlank() ? " " + meetingDetails : "");
         if (appointment.getUser() != null) {
             saveNotification(appointment.getUser(), "service_booking", "Meeting link", msg, "/dashboard/services");
         }
         if (appointment.getService() != null && appointment.getService().getBusinessId() != null) {
             UUID businessId = appointment.getService().getBusinessId();
-            List<User> owners = userRepository.findByRoleIgnoreCaseAndBusinessId("owner", businessId);
-            List<User> staff = userRepository.findByRoleIgnoreCaseAndBusinessId("staff", businessId);
             String title = "Meeting link sent";
-            String providerMsg = "Meeting link for \"" + serviceName + "\" with " + (appointment.getUser() != null && appointment.getUser().getName() != null ? appointment.getUser().getName() : "customer") + ": " + meetingLink;
-            Stream<User> ownerStream = owners != null ? owners.stream() : Stream.empty();
-            Stream<User> staffStream = staff != null ? staff.stream() : Stream.empty();
-            Stream.concat(ownerStream, staffStream).filter(InAppNotificationService::isActive)
+            String providerMsg = templates.render(NotificationTemplateKey.IN_APP_PROVIDER_MEETING_LINK, serviceName,
+                    appointment.getUser() != null && appointment.getUser().getName() != null ? appointment.getUser().getName() : "customer", meetingLink);
+            getSellerUsers(businessId)
                     .forEach(u -> saveNotification(u, "service_booking", title, providerMsg, "/dashboard/services"));
         }
     }
@@ -253,39 +164,10 @@ public class InAppNotificationService {
         String serviceName = appointment.getService() != null ? appointment.getService().getName() : "your service";
         String status = appointment.getStatus() != null ? appointment.getStatus() : "";
         String title = "Appointment update";
-        String message = "Your appointment for \"" + serviceName + "\" is now " + status + ".";
+        String message = templates.render(NotificationTemplateKey.IN_APP_SERVICE_BOOKING_STATUS, serviceName, status);
         saveNotification(appointment.getUser(), "service_booking", title, message, "/dashboard/services");
     }
 
-    /** Notify customer that their booking payment was received. */
-    public void notifyServiceBookingPaymentCompletedCustomer(ServiceAppointment appointment) {
-        if (appointment == null || appointment.getUser() == null) return;
-        String serviceName = appointment.getService() != null ? appointment.getService().getName() : "your service";
-        saveNotification(appointment.getUser(), "payment",
-                "Payment received",
-                "We received your payment for \"" + serviceName + "\". Your booking is confirmed.",
-                "/dashboard/services");
-    }
-
-    /** Notify provider (owner + staff) when a service booking is paid. */
-    public void notifyServiceBookingPaymentCompletedProvider(ServiceAppointment appointment) {
-        if (appointment == null || appointment.getService() == null || appointment.getService().getBusinessId() == null) return;
-        UUID businessId = appointment.getService().getBusinessId();
-        List<User> owners = userRepository.findByRoleIgnoreCaseAndBusinessId("owner", businessId);
-        List<User> staff = userRepository.findByRoleIgnoreCaseAndBusinessId("staff", businessId);
-        String serviceName = appointment.getService().getName() != null ? appointment.getService().getName() : "service";
-        String customerName = appointment.getUser() != null && appointment.getUser().getName() != null
-                ? appointment.getUser().getName()
-                : "a customer";
-        String title = "Booking payment received";
-        String message = String.format("Payment received for \"%s\" from %s. See appointment in dashboard.", serviceName, customerName);
-        String actionUrl = "/dashboard/services";
-        Stream<User> ownerStream = owners != null ? owners.stream() : Stream.empty();
-        Stream<User> staffStream = staff != null ? staff.stream() : Stream.empty();
-        Stream.concat(ownerStream, staffStream).filter(InAppNotificationService::isActive)
-                .forEach(u -> saveNotification(u, "payment", title, message, actionUrl));
-    }
-
     /** Notify supplier user that a new purchase order has been created for them. */
     public void notifySupplierPurchaseOrderCreated(PurchaseOrder po) {
         if (po == null || po.getSupplier() == null) return;
@@ -294,7 +176,7 @@ public class InAppNotificationService {
         userRepository.findByEmail(email.trim().toLowerCase()).ifPresent(u -> {
             String poNumber = po.getPoNumber() != null ? po.getPoNumber() : "PO";
             saveNotification(u, "purchase_order", "New purchase order",
-                    "Purchase order " + poNumber + " has been created for you. Log in to view and submit your dispatch.",
+                    templates.render(NotificationTemplateKey.IN_APP_SUPPLIER_PO_CREATED, poNumber),
                     "/dashboard/supplier-dispatches");
         });
     }
@@ -302,17 +184,14 @@ public class InAppNotificationService {
     /** Notify seller (owner + staff) that a supplier has submitted a dispatch. */
     public void notifySellerSupplierDispatched(SupplierDelivery d) {
         if (d == null || d.getBusinessId() == null) return;
-        List<User> owners = userRepository.findByRoleIgnoreCaseAndBusinessId("owner", d.getBusinessId());
-        List<User> staff = userRepository.findByRoleIgnoreCaseAndBusinessId("staff", d.getBusinessId());
+        List<User> sellers = getSellerUsers(d.getBusinessId());
         String poNumber = d.getPurchaseOrder() != null ? d.getPurchaseOrder().getPoNumber() : null;
         String supplierName = d.getSupplier() != null ? d.getSupplier().getName() : null;
-        String message = "A supplier" + (supplierName != null && !supplierName.isBlank() ? " (" + supplierName + ")" : "") + " has submitted a dispatch"
-                + (poNumber != null && !poNumber.isBlank() ? " for " + poNumber : "") + ". Confirm receipt in Deliveries.";
+        String message = templates.render(NotificationTemplateKey.IN_APP_SELLER_SUPPLIER_DISPATCHED,
+                supplierName != null && !supplierName.isBlank() ? " (" + supplierName + ")" : "",
+                poNumber != null && !poNumber.isBlank() ? " for " + poNumber : "");
         String actionUrl = "/dashboard/deliveries";
-        Stream<User> ownerStream = owners != null ? owners.stream() : Stream.empty();
-        Stream<User> staffStream = staff != null ? staff.stream() : Stream.empty();
-        Stream.concat(ownerStream, staffStream).filter(InAppNotificationService::isActive)
-                .forEach(u -> saveNotification(u, "supplier_dispatch", "Supplier dispatch received", message, actionUrl));
+        sellers.forEach(u -> saveNotification(u, "supplier_dispatch", "Supplier dispatch received", message, actionUrl));
     }
 
     /** Notify supplier user that the seller has confirmed receipt of their dispatch. */
@@ -322,7 +201,8 @@ public class InAppNotificationService {
         if (email == null || email.isBlank()) return;
         userRepository.findByEmail(email.trim().toLowerCase()).ifPresent(u -> {
             String poNumber = d.getPurchaseOrder() != null ? d.getPurchaseOrder().getPoNumber() : null;
-            String msg = "The seller has confirmed receipt of your dispatch" + (poNumber != null && !poNumber.isBlank() ? " for " + poNumber : "") + ".";
+            String msg = templates.render(NotificationTemplateKey.IN_APP_SUPPLIER_RECEIPT_CONFIRMED,
+                    poNumber != null && !poNumber.isBlank() ? " for " + poNumber : "");
             saveNotification(u, "dispatch_receipt", "Dispatch receipt confirmed", msg, "/dashboard/supplier-dispatches");
         });
     }
@@ -336,7 +216,7 @@ public class InAppNotificationService {
         String message;
         if ("DELIVERED".equalsIgnoreCase(status) || "COLLECTED".equalsIgnoreCase(status)) {
             title = "Delivery completed";
-            message = "Your order " + order.getOrderNumber() + " has been delivered. Thank you for shopping with us.";
+            message = templates.render(NotificationTemplateKey.IN_APP_SHIPMENT_DELIVERED, order.getOrderNumber());
         } else if ("IN_TRANSIT".equalsIgnoreCase(status) || "SHIPPED".equalsIgnoreCase(status) || "OUT_FOR_DELIVERY".equalsIgnoreCase(status)) {
             title = "Order dispatched";
             message = buildDispatchMessage(order.getOrderNumber(), shipment);
@@ -344,7 +224,7 @@ public class InAppNotificationService {
             return;
         } else {
             title = "Shipment update";
-            message = "Your order " + order.getOrderNumber() + " shipment status is now: " + status + ".";
+            message = templates.render(NotificationTemplateKey.IN_APP_SHIPMENT_STATUS, order.getOrderNumber(), status);
         }
         saveNotification(customer, "shipment", title, message, "/dashboard/orders");
     }
@@ -375,9 +255,23 @@ public class InAppNotificationService {
         return sb.toString();
     }
 
+    @Override
+    public NotificationChannel channel() {
+        return NotificationChannel.IN_APP;
+    }
+
+    @Override
+    public void deliver(NotificationRecipient recipient, NotificationMessage message) {
+        saveNotification(recipient.userId(), message.getType(), message.getTitle(), message.getInAppBody(), message.getActionUrl());
+    }
+
     private void saveNotification(User user, String type, String title, String message, String actionUrl) {
-        if (user == null || user.getUserId() == null) return;
-        UUID userId = user.getUserId();
+        if (user == null) return;
+        saveNotification(user.getUserId(), type, title, message, actionUrl);
+    }
+
+    private void saveNotification(UUID userId, String type, String title, String message, String actionUrl) {
+        if (userId == null) return;
         try {
             // Use getReferenceById so the reference is always in the current persistence context (avoids detached entity issues)
             User ref = userRepository.getReferenceById(userId);
@@ -0,0 +1,93 @@
+package com.biasharahub.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-instance chat sessions with an idle TTL and a size bound (least recently used phone evicted first).
+ * Default store; fine for a single instance. Expired sessions are dropped on read and by a periodic sweep.
+ */
+@Component
+@ConditionalOnProperty(name = "app.whatsapp.session-store", havingValue = "memory", matchIfMissing = true)
+@Slf4j
+public class InMemoryChatSessionStore implements ChatSessionStore {
+
+    private final long ttlMs;
+    private final int maxEntries;
+    /** Access-ordered, so the eldest entry is the least recently used phone. Guarded by itself. */
+    private final LinkedHashMap<String, Entry> sessions;
+
+    public InMemoryChatSessionStore(
+            @Value("${app.whatsapp.session-ttl-ms:3600000}") long ttlMs,
+            @Value("${app.whatsapp.session-max-entries:50000}") int maxEntries,
+            MeterRegistry meterRegistry) {
+        this.ttlMs = ttlMs;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.sessions = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > InMemoryChatSessionStore.this.maxEntries;
+            }
+        };
+        meterRegistry.gauge("whatsapp.chat.sessions", sessions, s -> {
+            synchronized (s) {
+                return s.size();
+            }
+        });
+    }
+
+    @Override
+    public ChatSession load(String phone) {
+        long now = System.currentTimeMillis();
+        synchronized (sessions) {
+            Entry entry = sessions.get(phone);
+            if (entry != null && now - entry.savedAtMs() < ttlMs) {
+                return entry.session();
+            }
+            if (entry != null) {
+                sessions.remove(phone);
+            }
+        }
+        return new ChatSession(phone);
+    }
+
+    @Override
+    public void save(ChatSession session) {
+        if (session == null || session.getPhone() == null) return;
+        synchronized (sessions) {
+            if (session.isEmpty()) {
+                sessions.remove(session.getPhone());
+            } else {
+                sessions.put(session.getPhone(), new Entry(session, System.currentTimeMillis()));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - ttlMs;
+        int removed = 0;
+        synchronized (sessions) {
+            Iterator<Entry> it = sessions.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().savedAtMs() < cutoff) {
+                    it.remove();
+                    removed++;
+                }
+            }
+        }
+        if (removed > 0) {
+            log.debug("Evicted {} idle WhatsApp chat sessions", removed);
+        }
+    }
+
+    private record Entry(ChatSession session, long savedAtMs) {}
+}
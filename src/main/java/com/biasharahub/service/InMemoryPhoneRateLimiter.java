@@ -0,0 +1,69 @@
+package com.biasharahub.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per-instance token buckets. Each bucket is an immutable state swapped by compare-and-set, so concurrent messages
+ * from one phone never block each other. Buckets that have refilled completely are swept every minute.
+ */
+@Component
+@ConditionalOnProperty(name = "app.whatsapp.rate-limit.mode", havingValue = "memory", matchIfMissing = true)
+public class InMemoryPhoneRateLimiter implements PhoneRateLimiter {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final ConcurrentHashMap<String, AtomicReference<Bucket>> buckets = new ConcurrentHashMap<>();
+
+    public InMemoryPhoneRateLimiter(
+            @Value("${app.whatsapp.rate-limit.capacity:10}") int capacity,
+            @Value("${app.whatsapp.rate-limit.refill-per-minute:20}") int refillPerMinute,
+            MeterRegistry meterRegistry) {
+        this.capacity = Math.max(1, capacity);
+        this.refillPerNano = Math.max(1, refillPerMinute) / (double) TimeUnit.MINUTES.toNanos(1);
+        meterRegistry.gaugeMapSize("whatsapp.rate_limit.buckets", Tags.empty(), buckets);
+    }
+
+    @Override
+    public Decision tryAcquire(String phone) {
+        AtomicReference<Bucket> ref = buckets.computeIfAbsent(phone,
+                p -> new AtomicReference<>(new Bucket(capacity, System.nanoTime(), false)));
+        while (true) {
+            Bucket current = ref.get();
+            long now = System.nanoTime();
+            double tokens = refilled(current, now);
+            Bucket next;
+            Decision decision;
+            if (tokens >= 1) {
+                next = new Bucket(tokens - 1, now, false);
+                decision = Decision.ALLOWED;
+            } else {
+                next = new Bucket(tokens, now, true);
+                decision = current.warned() ? Decision.DROP : Decision.WARN;
+            }
+            if (ref.compareAndSet(current, next)) {
+                return decision;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictFullBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(ref -> refilled(ref.get(), now) >= capacity);
+    }
+
+    private double refilled(Bucket bucket, long now) {
+        return Math.min(capacity, bucket.tokens() + (now - bucket.updatedNanos()) * refillPerNano);
+    }
+
+    private record Bucket(double tokens, long updatedNanos, boolean warned) {}
+}
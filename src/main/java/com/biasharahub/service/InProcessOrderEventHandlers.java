@@ -25,9 +25,8 @@ public class InProcessOrderEventHandlers {
 
     private final OrderRepository orderRepository;
     private final ShipmentRepository shipmentRepository;
-    private final WhatsAppNotificationService whatsAppNotificationService;
-    private final InAppNotificationService inAppNotificationService;
-    private final SmsNotificationService smsNotificationService;
+    private final NotificationDispatcher notificationDispatcher;
+    private final SellerAlertDigestService sellerAlertDigestService;
 
     @Async
     @Transactional
@@ -37,32 +36,10 @@ public class InProcessOrderEventHandlers {
                     orderId, orderNumber, customerId, total);
             // Load order with items and products so seller notification can resolve businessId
             orderRepository.findByIdWithItems(orderId).ifPresent(order -> {
-                try {
-                    whatsAppNotificationService.notifyOrderCreated(order);
-                } catch (Exception e) {
-                    log.warn("Failed to send WhatsApp order-created notification for {}: {}", orderId, e.getMessage());
-                }
-                try {
-                    inAppNotificationService.notifyOrderCreated(order);
-                } catch (Exception e) {
-                    log.warn("Failed to create in-app order-created notification for {}: {}", orderId, e.getMessage());
-                }
-                // Notify active sellers (owner + staff) – in-app, WhatsApp, SMS
-                try {
-                    inAppNotificationService.notifySellerOrderCreated(order);
-                } catch (Exception e) {
-                    log.warn("Failed to notify seller order-created (in-app) for {}: {}", orderId, e.getMessage());
-                }
-                try {
-                    whatsAppNotificationService.notifySellerOrderCreated(order);
-                } catch (Exception e) {
-                    log.warn("Failed to notify seller order-created (WhatsApp) for {}: {}", orderId, e.getMessage());
-                }
-                try {
-                    smsNotificationService.notifySellerOrderCreated(order);
-                } catch (Exception e) {
-                    log.warn("Failed to notify seller order-created (SMS) for {}: {}", orderId, e.getMessage());
-                }
+                // Customer: in-app + WhatsApp (skipped if already sent from the request path)
+                notificationDispatcher.orderCreated(order);
+                // Notify active sellers (owner + staff) – digested per channel; duplicates of the request-time alert are ignored
+                sellerAlertDigestService.orderCreated(order);
             });
         } catch (Exception e) {
             log.warn("In-process order.created handler failed for order {}: {}", orderId, e.getMessage());
@@ -108,34 +85,8 @@ public class InProcessOrderEventHandlers {
                 orderRepository.save(order);
             });
 
-            try {
-                whatsAppNotificationService.notifyPaymentCompleted(orderId, paymentId);
-            } catch (Exception e) {
-                log.warn("Failed to send WhatsApp payment-completed notification for order {}: {}", orderId, e.getMessage());
-            }
-            try {
-                inAppNotificationService.notifyPaymentCompleted(orderId, paymentId);
-            } catch (Exception e) {
-                log.warn("Failed to create in-app payment-completed notification for order {}: {}", orderId, e.getMessage());
-            }
-            // Notify active sellers (owner + staff) when payment is completed (load with items so businessId resolves)
-            orderRepository.findByIdWithItems(orderId).ifPresent(order -> {
-                try {
-                    inAppNotificationService.notifySellerPaymentCompleted(order);
-                } catch (Exception e) {
-                    log.warn("Failed to notify seller payment-completed (in-app) for order {}: {}", orderId, e.getMessage());
-                }
-                try {
-                    whatsAppNotificationService.notifySellerPaymentCompleted(order);
-                } catch (Exception e) {
-                    log.warn("Failed to notify seller payment-completed (WhatsApp) for order {}: {}", orderId, e.getMessage());
-                }
-                try {
-                    smsNotificationService.notifySellerPaymentCompleted(order);
-                } catch (Exception e) {
-                    log.warn("Failed to notify seller payment-completed (SMS) for order {}: {}", orderId, e.getMessage());
-                }
-            });
+            // Notify customer and active sellers (owner + staff); load with items so businessId resolves
+            orderRepository.findByIdWithItems(orderId).ifPresent(notificationDispatcher::orderPaid);
         } catch (Exception e) {
             log.warn("In-process payment.completed handler failed for order {}: {}", orderId, e.getMessage());
         }
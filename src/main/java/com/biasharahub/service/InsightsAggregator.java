@@ -0,0 +1,88 @@
+package com.biasharahub.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Single pass over a business's delivered order-item rows for an insights range: distinct order count, product
+ * performance and category performance are accumulated together, so the rows are read once instead of once per
+ * aggregate. Output maps match what getInsights returned from the separate queries (product and category lists
+ * ordered by revenue, highest first). Not thread-safe; one instance per request.
+ */
+final class InsightsAggregator {
+
+    private final Set<UUID> orderIds = new HashSet<>();
+    private final Map<UUID, ProductTotals> products = new LinkedHashMap<>();
+    /** Keyed by raw category (null allowed), as the category query grouped by it. */
+    private final Map<String, BigDecimal> categories = new HashMap<>();
+
+    /** Add one order-item row. */
+    void add(UUID orderId, UUID productId, String productName, String category, int quantity, BigDecimal priceAtOrder) {
+        BigDecimal lineRevenue = priceAtOrder.multiply(BigDecimal.valueOf(quantity));
+        orderIds.add(orderId);
+        ProductTotals p = products.computeIfAbsent(productId, id -> new ProductTotals(id, productName, category));
+        p.quantity += quantity;
+        p.revenue = p.revenue.add(lineRevenue);
+        categories.merge(category, lineRevenue, BigDecimal::add);
+    }
+
+    /** Distinct delivered orders with at least one item of the business. */
+    long orderCount() {
+        return orderIds.size();
+    }
+
+    /** Product performance rows, optionally only the given product. */
+    List<Map<String, Object>> productPerformance(UUID onlyProductId) {
+        List<ProductTotals> sorted = new ArrayList<>(products.values());
+        sorted.sort(Comparator.comparing((ProductTotals p) -> p.revenue).reversed());
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (ProductTotals p : sorted) {
+            if (onlyProductId != null && !onlyProductId.equals(p.productId)) continue;
+            out.add(Map.<String, Object>of(
+                    "productId", p.productId != null ? p.productId.toString() : "",
+                    "productName", p.name != null ? p.name : "Unknown",
+                    "category", p.category != null ? p.category : "Uncategorized",
+                    "quantitySold", p.quantity,
+                    "revenue", p.revenue.setScale(2, RoundingMode.HALF_UP)
+            ));
+        }
+        return out;
+    }
+
+    /** Category performance rows; products without a category count as "Uncategorized". */
+    List<Map<String, Object>> categoryPerformance() {
+        List<Map.Entry<String, BigDecimal>> sorted = new ArrayList<>(categories.entrySet());
+        sorted.sort(Map.Entry.<String, BigDecimal>comparingByValue().reversed());
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (Map.Entry<String, BigDecimal> e : sorted) {
+            out.add(Map.of(
+                    "category", e.getKey() != null ? e.getKey() : "Uncategorized",
+                    "revenue", e.getValue().setScale(2, RoundingMode.HALF_UP)
+            ));
+        }
+        return out;
+    }
+
+    private static final class ProductTotals {
+        private final UUID productId;
+        private final String name;
+        private final String category;
+        private long quantity;
+        private BigDecimal revenue = BigDecimal.ZERO;
+
+        private ProductTotals(UUID productId, String name, String category) {
+            this.productId = productId;
+            this.name = name;
+            this.category = category;
+        }
+    }
+}
@@ -12,7 +12,8 @@ import java.util.List;
 
 /**
  * Production-ready email service: 2FA codes and transactional mail via Gmail OAuth (or fallback).
- * Uses multi-tenant EmailSender; tenant context is set by TenantFilter.
+ * Uses multi-tenant EmailSender; tenant context is set by TenantFilter. Sends are queued and delivered
+ * asynchronously, so auth flows do not wait on the mail provider.
  */
 @Service
 @RequiredArgsConstructor
@@ -0,0 +1,18 @@
+package com.biasharahub.service;
+
+import com.biasharahub.enums.NotificationChannel;
+
+/**
+ * Sends one rendered notification to one recipient on a single channel. Implemented by the in-app, WhatsApp and
+ * SMS notification services; {@link NotificationDispatcher} decides who receives what.
+ */
+public interface NotificationChannelAdapter {
+
+    NotificationChannel channel();
+
+    /**
+     * Deliver {@code message.bodyFor(channel())} to the recipient. Called on a dispatcher worker thread with the
+     * caller's tenant already set; may throw, failures are logged and counted by the dispatcher.
+     */
+    void deliver(NotificationRecipient recipient, NotificationMessage message);
+}
@@ -0,0 +1,326 @@
+package com.biasharahub.service;
+
+import com.biasharahub.config.TenantContext;
+import com.biasharahub.entity.Order;
+import com.biasharahub.entity.OrderItem;
+import com.biasharahub.entity.Payment;
+import com.biasharahub.entity.ServiceAppointment;
+import com.biasharahub.entity.User;
+import com.biasharahub.enums.NotificationChannel;
+import com.biasharahub.enums.NotificationTemplateKey;
+import com.biasharahub.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single entry point for customer + seller notifications of an event. Recipients are loaded once per event
+ * (sellers with one query per business), each user's channel preferences (users.notify_*) are applied, and the
+ * per-channel sends run in parallel on a small worker pool so the caller does not wait on Twilio or the inbox write.
+ * <p>
+ * Bodies are rendered on the calling thread (tenant templates, lazy entity access); workers only see plain values.
+ * Event methods that can be raised from several places for the same entity (request path and async handler) are
+ * de-duplicated for {@code app.notifications.dispatch.dedupe-window-ms}.
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+
+    private static final String DEFAULT_TENANT_SCHEMA = "tenant_default";
+
+    private final Map<NotificationChannel, NotificationChannelAdapter> adapters = new EnumMap<>(NotificationChannel.class);
+    private final UserRepository userRepository;
+    private final NotificationTemplateRegistry templates;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor workers;
+    private final long dedupeWindowMs;
+    private final ConcurrentHashMap<String, Instant> recentEvents = new ConcurrentHashMap<>();
+
+    public NotificationDispatcher(
+            List<NotificationChannelAdapter> channelAdapters,
+            UserRepository userRepository,
+            NotificationTemplateRegistry templates,
+            MeterRegistry meterRegistry,
+            @Value("${app.notifications.dispatch.pool-size:4}") int poolSize,
+            @Value("${app.notifications.dispatch.queue-capacity:500}") int queueCapacity,
+            @Value("${app.notifications.dispatch.dedupe-window-ms:600000}") long dedupeWindowMs) {
+        for (NotificationChannelAdapter adapter : channelAdapters) {
+            adapters.put(adapter.channel(), adapter);
+        }
+        this.userRepository = userRepository;
+        this.templates = templates;
+        this.meterRegistry = meterRegistry;
+        this.dedupeWindowMs = dedupeWindowMs;
+        int threads = Math.max(1, poolSize);
+        AtomicInteger n = new AtomicInteger();
+        // CallerRunsPolicy: when the queue is full the caller sends itself rather than dropping notifications
+        this.workers = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), r -> {
+                    Thread t = new Thread(r, "notify-dispatch-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.workers.allowCoreThreadTimeOut(true);
+    }
+
+    // ---------- Events ----------
+
+    /** Customer: order placed (in-app + WhatsApp). Seller alerts go through SellerAlertDigestService. */
+    public void orderCreated(Order order) {
+        if (order == null || order.getUser() == null) return;
+        dispatchOnce("order-created:" + order.getOrderId(), List.of(NotificationMessage.builder()
+                .recipient(order.getUser())
+                .type("order").title("Order placed").actionUrl("/dashboard/orders")
+                .inAppBody(templates.render(NotificationTemplateKey.IN_APP_ORDER_CREATED, order.getOrderNumber()))
+                .whatsAppBody(templates.render(NotificationTemplateKey.WHATSAPP_ORDER_CREATED, order.getOrderNumber(), order.getTotalAmount()))
+                .build()));
+    }
+
+    /** Customer: M-Pesa prompt sent (in-app + WhatsApp). */
+    public void paymentRequested(Order order, Payment payment) {
+        if (order == null || order.getUser() == null) return;
+        dispatch(List.of(NotificationMessage.builder()
+                .recipient(order.getUser())
+                .type("payment").title("Payment requested").actionUrl("/dashboard/orders")
+                .inAppBody(templates.render(NotificationTemplateKey.IN_APP_PAYMENT_REQUESTED, order.getOrderNumber()))
+                .whatsAppBody(templates.render(NotificationTemplateKey.WHATSAPP_PAYMENT_REQUESTED, payment.getAmount(), order.getOrderNumber()))
+                .build()));
+    }
+
+    /** Customer and seller (owner + staff): order paid. Order must be loaded with items so the business resolves. */
+    public void orderPaid(Order order) {
+        if (order == null) return;
+        List<NotificationMessage> messages = new ArrayList<>(2);
+        if (order.getUser() != null) {
+            messages.add(NotificationMessage.builder()
+                    .recipient(order.getUser())
+                    .type("payment").title("Payment received").actionUrl("/dashboard/orders")
+                    .inAppBody(templates.render(NotificationTemplateKey.IN_APP_PAYMENT_COMPLETED, order.getOrderNumber()))
+                    .whatsAppBody(templates.render(NotificationTemplateKey.WHATSAPP_PAYMENT_COMPLETED, order.getOrderNumber()))
+                    .build());
+        }
+        UUID businessId = businessIdOf(order);
+        if (businessId != null) {
+            messages.add(NotificationMessage.builder()
+                    .businessId(businessId)
+                    .type("payment").title("Order paid").actionUrl("/dashboard/orders")
+                    .inAppBody(templates.render(NotificationTemplateKey.IN_APP_SELLER_PAYMENT_COMPLETED, order.getOrderNumber()))
+                    .whatsAppBody(templates.render(NotificationTemplateKey.WHATSAPP_SELLER_PAYMENT_COMPLETED, order.getOrderNumber()))
+                    .smsBody(templates.render(NotificationTemplateKey.SMS_SELLER_PAYMENT_COMPLETED, order.getOrderNumber()))
+                    .build());
+        }
+        dispatchOnce("order-paid:" + order.getOrderId(), messages);
+    }
+
+    /** Customer and provider (owner + staff): service appointment booked. */
+    public void serviceBookingCreated(ServiceAppointment appointment) {
+        if (appointment == null) return;
+        String dateTime = appointment.getRequestedDate() != null ? appointment.getRequestedDate().toString() : "";
+        if (appointment.getRequestedTime() != null) dateTime += " at " + appointment.getRequestedTime();
+        List<NotificationMessage> messages = new ArrayList<>(2);
+        if (appointment.getUser() != null) {
+            String serviceName = appointment.getService() != null ? appointment.getService().getName() : "your service";
+            messages.add(NotificationMessage.builder()
+                    .recipient(appointment.getUser())
+                    .type("service_booking").title("Appointment booked").actionUrl("/dashboard/services")
+                    .inAppBody(templates.render(NotificationTemplateKey.IN_APP_SERVICE_BOOKING_CREATED, serviceName, dateTime))
+                    .whatsAppBody(templates.render(NotificationTemplateKey.WHATSAPP_SERVICE_BOOKING_CREATED, serviceName, dateTime))
+                    .build());
+        }
+        if (appointment.getService() != null && appointment.getService().getBusinessId() != null) {
+            String customerName = appointment.getUser() != null && appointment.getUser().getName() != null
+                    ? appointment.getUser().getName()
+                    : (appointment.getUser() != null ? appointment.getUser().getEmail() : "a customer");
+            String serviceName = appointment.getService().getName() != null ? appointment.getService().getName() : "your service";
+            messages.add(NotificationMessage.builder()
+                    .businessId(appointment.getService().getBusinessId())
+                    .type("service_booking").title("New service booking").actionUrl("/dashboard/services")
+                    .inAppBody(templates.render(NotificationTemplateKey.IN_APP_PROVIDER_BOOKING_CREATED, customerName, serviceName, dateTime))
+                    .whatsAppBody(templates.render(NotificationTemplateKey.WHATSAPP_PROVIDER_BOOKING_CREATED,
+                            serviceName, customerName, dateTime, customerLocationDetail(appointment)))
+                    .smsBody(templates.render(NotificationTemplateKey.SMS_PROVIDER_BOOKING_CREATED, serviceName, customerName, dateTime))
+                    .build());
+        }
+        dispatchOnce("booking-created:" + appointment.getAppointmentId(), messages);
+    }
+
+    /** Customer and provider (owner + staff): service booking paid. */
+    public void serviceBookingPaid(ServiceAppointment appointment) {
+        if (appointment == null) return;
+        List<NotificationMessage> messages = new ArrayList<>(2);
+        if (appointment.getUser() != null) {
+            String serviceName = appointment.getService() != null ? appointment.getService().getName() : "your service";
+            messages.add(NotificationMessage.builder()
+                    .recipient(appointment.getUser())
+                    .type("payment").title("Payment received").actionUrl("/dashboard/services")
+                    .inAppBody(templates.render(NotificationTemplateKey.IN_APP_SERVICE_PAYMENT_CUSTOMER, serviceName))
+                    .whatsAppBody(templates.render(NotificationTemplateKey.WHATSAPP_SERVICE_PAYMENT_CUSTOMER, serviceName))
+                    .build());
+        }
+        if (appointment.getService() != null && appointment.getService().getBusinessId() != null) {
+            String serviceName = appointment.getService().getName() != null ? appointment.getService().getName() : "service";
+            String customerName = appointment.getUser() != null && appointment.getUser().getName() != null
+                    ? appointment.getUser().getName() : "a customer";
+            messages.add(NotificationMessage.builder()
+                    .businessId(appointment.getService().getBusinessId())
+                    .type("payment").title("Booking payment received").actionUrl("/dashboard/services")
+                    .inAppBody(templates.render(NotificationTemplateKey.IN_APP_SERVICE_PAYMENT_PROVIDER, serviceName, customerName))
+                    .whatsAppBody(templates.render(NotificationTemplateKey.WHATSAPP_SERVICE_PAYMENT_PROVIDER, serviceName, customerName))
+                    .smsBody(templates.render(NotificationTemplateKey.SMS_SERVICE_PAYMENT_PROVIDER, serviceName, customerName))
+                    .build());
+        }
+        dispatchOnce("booking-paid:" + appointment.getAppointmentId(), messages);
+    }
+
+    // ---------- Dispatch ----------
+
+    /**
+     * Dispatch unless the same event key was dispatched for this tenant within the de-duplication window.
+     */
+    public void dispatchOnce(String eventKey, List<NotificationMessage> messages) {
+        String key = currentSchema() + ":" + eventKey;
+        Instant now = Instant.now();
+        Instant cutoff = now.minusMillis(dedupeWindowMs);
+        boolean[] fresh = {false};
+        recentEvents.compute(key, (k, at) -> {
+            if (at == null || at.isBefore(cutoff)) {
+                fresh[0] = true;
+                return now;
+            }
+            return at;
+        });
+        if (!fresh[0]) {
+            meterRegistry.counter("notifications.dispatch.duplicates").increment();
+            return;
+        }
+        dispatch(messages);
+    }
+
+    /**
+     * Resolve recipients, apply channel preferences and hand each channel's sends to a worker. Never throws.
+     */
+    public void dispatch(List<NotificationMessage> messages) {
+        if (messages == null || messages.isEmpty()) return;
+        Map<NotificationChannel, List<Delivery>> byChannel = new EnumMap<>(NotificationChannel.class);
+        try {
+            Map<UUID, List<User>> sellersByBusiness = new HashMap<>();
+            for (NotificationMessage message : messages) {
+                List<User> users = recipientsOf(message, sellersByBusiness);
+                for (NotificationChannel channel : NotificationChannel.values()) {
+                    if (message.bodyFor(channel) == null || !adapters.containsKey(channel)) continue;
+                    for (User u : users) {
+                        if (!channel.isEnabledFor(u)) {
+                            count(channel, "opted_out");
+                            continue;
+                        }
+                        if (channel.requiresPhone() && (u.getPhone() == null || u.getPhone().isBlank())) {
+                            count(channel, "no_address");
+                            continue;
+                        }
+                        byChannel.computeIfAbsent(channel, c -> new ArrayList<>())
+                                .add(new Delivery(new NotificationRecipient(u.getUserId(), u.getPhone()), message));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to resolve notification recipients: {}", e.getMessage());
+            return;
+        }
+        String tenantSchema = TenantContext.getTenantSchema();
+        byChannel.forEach((channel, deliveries) -> workers.execute(() -> send(tenantSchema, adapters.get(channel), deliveries)));
+    }
+
+    private void send(String tenantSchema, NotificationChannelAdapter adapter, List<Delivery> deliveries) {
+        // May run on the caller's thread (CallerRunsPolicy), so restore whatever tenant was set before
+        String previous = TenantContext.getTenantSchema();
+        if (tenantSchema != null) TenantContext.setTenantSchema(tenantSchema);
+        try {
+            for (Delivery d : deliveries) {
+                try {
+                    adapter.deliver(d.recipient(), d.message());
+                    count(adapter.channel(), "sent");
+                } catch (Exception e) {
+                    count(adapter.channel(), "failed");
+                    log.warn("Failed to send {} notification to user {}: {}", adapter.channel(), d.recipient().userId(), e.getMessage());
+                }
+            }
+        } finally {
+            if (previous != null) {
+                TenantContext.setTenantSchema(previous);
+            } else {
+                TenantContext.clear();
+            }
+        }
+    }
+
+    private List<User> recipientsOf(NotificationMessage message, Map<UUID, List<User>> sellersByBusiness) {
+        if (message.getBusinessId() != null) {
+            return sellersByBusiness.computeIfAbsent(message.getBusinessId(), userRepository::findActiveSellerUsersByBusinessId);
+        }
+        return message.getRecipient() != null ? List.of(message.getRecipient()) : List.of();
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void pruneRecentEvents() {
+        Instant cutoff = Instant.now().minusMillis(dedupeWindowMs);
+        recentEvents.values().removeIf(at -> at.isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void count(NotificationChannel channel, String outcome) {
+        meterRegistry.counter("notifications.dispatch", "channel", channel.name().toLowerCase(), "outcome", outcome).increment();
+    }
+
+    private static String currentSchema() {
+        return TenantContext.getTenantSchema() != null ? TenantContext.getTenantSchema() : DEFAULT_TENANT_SCHEMA;
+    }
+
+    private static UUID businessIdOf(Order order) {
+        if (order.getItems() == null || order.getItems().isEmpty()) return null;
+        OrderItem first = order.getItems().get(0);
+        if (first == null || first.getProduct() == null) return null;
+        return first.getProduct().getBusinessId();
+    }
+
+    /** Customer location line for physical service bookings (WhatsApp provider alert). */
+    private static String customerLocationDetail(ServiceAppointment appointment) {
+        if (appointment.getCustomerLocationDescription() != null && !appointment.getCustomerLocationDescription().isBlank()) {
+            return "\n📍 Customer location: " + appointment.getCustomerLocationDescription();
+        }
+        if (appointment.getCustomerLocationLat() != null && appointment.getCustomerLocationLng() != null) {
+            return "\n📍 Customer location: https://www.google.com/maps?q="
+                    + appointment.getCustomerLocationLat() + "," + appointment.getCustomerLocationLng();
+        }
+        return "";
+    }
+
+    private record Delivery(NotificationRecipient recipient, NotificationMessage message) {}
+}
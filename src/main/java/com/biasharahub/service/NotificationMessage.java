@@ -0,0 +1,40 @@
+package com.biasharahub.service;
+
+import com.biasharahub.entity.User;
+import com.biasharahub.enums.NotificationChannel;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * One notification for {@link NotificationDispatcher}: who receives it and the pre-rendered body per channel.
+ * A channel with no body is not sent. Set either {@code recipient} (a single user, e.g. the customer) or
+ * {@code businessId} (all active owner and staff accounts of that business).
+ */
+@Getter
+@Builder
+public class NotificationMessage {
+
+    private final User recipient;
+    private final UUID businessId;
+
+    /** In-app notification type: order, payment, service_booking, ... */
+    private final String type;
+    /** In-app notification title. */
+    private final String title;
+    /** In-app deep link, e.g. /dashboard/orders. */
+    private final String actionUrl;
+
+    private final String inAppBody;
+    private final String whatsAppBody;
+    private final String smsBody;
+
+    public String bodyFor(NotificationChannel channel) {
+        return switch (channel) {
+            case IN_APP -> inAppBody;
+            case WHATSAPP -> whatsAppBody;
+            case SMS -> smsBody;
+        };
+    }
+}
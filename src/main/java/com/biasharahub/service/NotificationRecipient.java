@@ -0,0 +1,9 @@
+package com.biasharahub.service;
+
+import java.util.UUID;
+
+/**
+ * Recipient resolved by {@link NotificationDispatcher}; plain values so channel adapters can run on other threads.
+ */
+public record NotificationRecipient(UUID userId, String phone) {
+}
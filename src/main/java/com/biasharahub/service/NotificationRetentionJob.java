@@ -0,0 +1,165 @@
+package com.biasharahub.service;
+
+import com.biasharahub.config.NotificationRetentionProperties;
+import com.biasharahub.config.TenantContext;
+import com.biasharahub.entity.Tenant;
+import com.biasharahub.repository.TenantRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compacts the per-tenant notifications table: read notifications older than the tenant's retention age are
+ * moved to the monthly-partitioned notifications_archive table (or deleted). Runs in small batches, each its own
+ * auto-committed statement with FOR UPDATE SKIP LOCKED, so inbox reads/writes are never blocked for long and
+ * several app instances can run the job at once without contending on the same rows.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationRetentionJob {
+
+    static final String MODE_ARCHIVE = "ARCHIVE";
+    static final String MODE_DELETE = "DELETE";
+    static final String MODE_NONE = "NONE";
+
+    private static final String ARCHIVE_BATCH_SQL = """
+            WITH moved AS (
+                DELETE FROM notifications n
+                WHERE n.notification_id IN (
+                    SELECT notification_id FROM notifications
+                    WHERE read = true AND created_at < ?
+                    ORDER BY created_at
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED)
+                RETURNING n.*)
+            INSERT INTO notifications_archive (notification_id, user_id, type, title, message, action_url, data, read, created_at, read_at, archived_at)
+            SELECT notification_id, user_id, type, title, message, action_url, data, read, created_at, read_at, CURRENT_TIMESTAMP FROM moved
+            """;
+
+    private static final String DELETE_BATCH_SQL = """
+            DELETE FROM notifications n
+            WHERE n.notification_id IN (
+                SELECT notification_id FROM notifications
+                WHERE read = true AND created_at < ?
+                ORDER BY created_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            """;
+
+    private final TenantRepository tenantRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationRetentionProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Scheduled(cron = "${app.notifications.retention.cron:0 30 2 * * *}") // 02:30 daily by default
+    public void run() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long total = 0;
+        for (Tenant tenant : tenantRepository.findAll()) {
+            if (tenant.getSchemaName() == null || Boolean.FALSE.equals(tenant.getIsActive())) {
+                continue;
+            }
+            try {
+                total += compactTenant(tenant);
+            } catch (Exception e) {
+                log.warn("Notification compaction failed for tenant {}: {}", tenant.getSchemaName(), e.getMessage());
+            }
+        }
+        long nanos = sample.stop(Timer.builder("notifications.retention.duration")
+                .description("Duration of one notification compaction run across all tenants")
+                .register(meterRegistry));
+        log.info("Notification compaction finished: {} rows in {} ms", total, TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    /**
+     * Compact one tenant according to its policy. Returns the number of rows archived or deleted.
+     */
+    long compactTenant(Tenant tenant) {
+        String mode = resolveMode(tenant);
+        int days = resolveDays(tenant);
+        if (MODE_NONE.equals(mode) || days <= 0) {
+            return 0;
+        }
+        String schema = tenant.getSchemaName();
+        Instant cutoff = Instant.now().minus(days, ChronoUnit.DAYS);
+        int batchSize = Math.max(1, properties.getBatchSize());
+        String sql = MODE_DELETE.equals(mode) ? DELETE_BATCH_SQL : ARCHIVE_BATCH_SQL;
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long moved = 0;
+        TenantContext.setTenantSchema(schema);
+        try {
+            if (MODE_ARCHIVE.equals(mode)) {
+                ensureArchivePartitions();
+            }
+            for (int batch = 0; batch < properties.getMaxBatchesPerTenant(); batch++) {
+                int n = jdbcTemplate.update(sql, Timestamp.from(cutoff), batchSize);
+                moved += n;
+                if (n < batchSize) {
+                    break;
+                }
+            }
+        } finally {
+            TenantContext.clear();
+        }
+        sample.stop(Timer.builder("notifications.retention.tenant.duration")
+                .description("Duration of notification compaction for one tenant")
+                .tag("tenant", schema)
+                .register(meterRegistry));
+        Counter.builder("notifications.retention.rows")
+                .description("Notifications archived or deleted by the compaction job")
+                .tag("tenant", schema)
+                .tag("mode", mode.toLowerCase())
+                .register(meterRegistry)
+                .increment(moved);
+        if (moved > 0) {
+            log.debug("Compacted {} notifications in {} (mode={}, olderThanDays={})", moved, schema, mode, days);
+        }
+        return moved;
+    }
+
+    /** Archive is partitioned monthly by archived_at; make sure this month's and next month's partitions exist. */
+    private void ensureArchivePartitions() {
+        YearMonth current = YearMonth.now();
+        for (YearMonth month : new YearMonth[]{current, current.plusMonths(1)}) {
+            LocalDate from = month.atDay(1);
+            LocalDate to = month.plusMonths(1).atDay(1);
+            String partition = String.format("notifications_archive_p%04d%02d", month.getYear(), month.getMonthValue());
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition
+                    + " PARTITION OF notifications_archive FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        }
+    }
+
+    private String resolveMode(Tenant tenant) {
+        String mode = tenant.getNotificationRetentionMode();
+        if (mode == null || mode.isBlank()) {
+            mode = properties.getDefaultMode();
+        }
+        mode = mode == null ? MODE_NONE : mode.trim().toUpperCase();
+        return switch (mode) {
+            case MODE_ARCHIVE, MODE_DELETE -> mode;
+            default -> MODE_NONE;
+        };
+    }
+
+    private int resolveDays(Tenant tenant) {
+        Integer days = tenant.getNotificationRetentionDays();
+        return days != null ? days : properties.getDefaultDays();
+    }
+}
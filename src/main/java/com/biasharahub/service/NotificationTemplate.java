@@ -0,0 +1,108 @@
+package com.biasharahub.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A notification template parsed once into literal segments and argument slots, so rendering is a single
+ * StringBuilder pass with no format-string parsing or regex. Syntax: {name} is a placeholder (name must be one
+ * of the declared parameters), {{ is a literal brace; any other brace is kept as-is.
+ */
+public final class NotificationTemplate {
+
+    private final String source;
+    /** Literal text around the slots; always slots.length + 1 entries. */
+    private final String[] literals;
+    /** Argument index for each placeholder, in order of appearance. */
+    private final int[] slots;
+    private final int literalLength;
+
+    private NotificationTemplate(String source, String[] literals, int[] slots) {
+        this.source = source;
+        this.literals = literals;
+        this.slots = slots;
+        int len = 0;
+        for (String l : literals) len += l.length();
+        this.literalLength = len;
+    }
+
+    /**
+     * Parse a template.
+     *
+     * @param source     template text
+     * @param parameters placeholder names in argument order
+     * @throws IllegalArgumentException if the template uses a placeholder that is not a declared parameter
+     */
+    public static NotificationTemplate compile(String source, List<String> parameters) {
+        if (source == null) {
+            throw new IllegalArgumentException("Template text is required");
+        }
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        int n = source.length();
+        while (i < n) {
+            char c = source.charAt(i);
+            if (c == '{' && i + 1 < n && source.charAt(i + 1) == '{') {
+                literal.append('{');
+                i += 2;
+                continue;
+            }
+            int end = c == '{' ? placeholderEnd(source, i + 1) : -1;
+            if (end < 0) {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            String name = source.substring(i + 1, end);
+            int index = parameters.indexOf(name);
+            if (index < 0) {
+                throw new IllegalArgumentException("Unknown placeholder {" + name + "}; allowed: " + parameters);
+            }
+            literals.add(literal.toString());
+            literal.setLength(0);
+            slots.add(index);
+            i = end + 1;
+        }
+        literals.add(literal.toString());
+        int[] slotArray = new int[slots.size()];
+        for (int s = 0; s < slotArray.length; s++) slotArray[s] = slots.get(s);
+        return new NotificationTemplate(source, literals.toArray(new String[0]), slotArray);
+    }
+
+    /** Index of the closing brace if source[from..] is an identifier followed by '}', else -1. */
+    private static int placeholderEnd(String source, int from) {
+        int i = from;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '}') return i > from ? i : -1;
+            if (!Character.isLetterOrDigit(c) && c != '_') return -1;
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * Render with positional arguments (same order as the parameters given to compile).
+     * Null arguments render as "null" (as String.format did); missing trailing arguments render as empty.
+     */
+    public String render(Object... args) {
+        if (slots.length == 0) {
+            return literals[0];
+        }
+        StringBuilder sb = new StringBuilder(literalLength + slots.length * 16);
+        for (int i = 0; i < slots.length; i++) {
+            sb.append(literals[i]);
+            int index = slots[i];
+            if (args != null && index < args.length) {
+                sb.append(args[index]);
+            }
+        }
+        return sb.append(literals[slots.length]).toString();
+    }
+
+    public String getSource() {
+        return source;
+    }
+}
@@ -0,0 +1,111 @@
+package com.biasharahub.service;
+
+import com.biasharahub.config.TenantContext;
+import com.biasharahub.entity.NotificationTemplateOverride;
+import com.biasharahub.enums.NotificationTemplateKey;
+import com.biasharahub.repository.NotificationTemplateOverrideRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled notification templates. Built-in defaults ({@link NotificationTemplateKey}) are parsed once at startup
+ * (a broken default fails startup). Tenant overrides from the notification_templates table are loaded on first use
+ * per tenant schema, compiled, and cached for {@code app.notifications.templates.override-ttl-ms}; an override that
+ * does not compile is logged and ignored so the default is used instead.
+ */
+@Component
+@Slf4j
+public class NotificationTemplateRegistry {
+
+    private static final String DEFAULT_TENANT_SCHEMA = "tenant_default";
+
+    private final NotificationTemplateOverrideRepository overrideRepository;
+    private final TransactionTemplate overrideTx;
+    private final long overrideTtlMs;
+    private final Map<NotificationTemplateKey, NotificationTemplate> defaults = new EnumMap<>(NotificationTemplateKey.class);
+    private final ConcurrentHashMap<String, TenantTemplates> tenantTemplates = new ConcurrentHashMap<>();
+
+    public NotificationTemplateRegistry(
+            NotificationTemplateOverrideRepository overrideRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.notifications.templates.override-ttl-ms:300000}") long overrideTtlMs) {
+        this.overrideRepository = overrideRepository;
+        this.overrideTtlMs = overrideTtlMs;
+        // Own read-only transaction: a missing table in one tenant must not abort the caller's transaction.
+        this.overrideTx = new TransactionTemplate(transactionManager);
+        this.overrideTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.overrideTx.setReadOnly(true);
+        for (NotificationTemplateKey key : NotificationTemplateKey.values()) {
+            defaults.put(key, NotificationTemplate.compile(key.getDefaultTemplate(), key.getParameters()));
+        }
+    }
+
+    /**
+     * Render a template for the current tenant. Arguments follow {@link NotificationTemplateKey#getParameters()}.
+     */
+    public String render(NotificationTemplateKey key, Object... args) {
+        return resolve(key).render(args);
+    }
+
+    /** The template in effect for the current tenant (override if present, else the built-in default). */
+    public NotificationTemplate resolve(NotificationTemplateKey key) {
+        NotificationTemplate override = overridesForCurrentTenant().get(key);
+        return override != null ? override : defaults.get(key);
+    }
+
+    /** Drop cached overrides for a tenant schema so the next render reloads them (e.g. after editing rows). */
+    public void evict(String tenantSchema) {
+        if (tenantSchema != null) tenantTemplates.remove(tenantSchema);
+    }
+
+    private Map<NotificationTemplateKey, NotificationTemplate> overridesForCurrentTenant() {
+        String schema = TenantContext.getTenantSchema() != null ? TenantContext.getTenantSchema() : DEFAULT_TENANT_SCHEMA;
+        long now = System.currentTimeMillis();
+        TenantTemplates cached = tenantTemplates.get(schema);
+        if (cached != null && now - cached.loadedAtMs() < overrideTtlMs) {
+            return cached.overrides();
+        }
+        Map<NotificationTemplateKey, NotificationTemplate> loaded = loadOverrides(schema);
+        tenantTemplates.put(schema, new TenantTemplates(loaded, now));
+        return loaded;
+    }
+
+    private Map<NotificationTemplateKey, NotificationTemplate> loadOverrides(String schema) {
+        List<NotificationTemplateOverride> rows;
+        try {
+            rows = overrideTx.execute(status -> overrideRepository.findAll());
+        } catch (Exception e) {
+            log.debug("No notification template overrides for {}: {}", schema, e.getMessage());
+            return Collections.emptyMap();
+        }
+        if (rows == null || rows.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<NotificationTemplateKey, NotificationTemplate> out = new EnumMap<>(NotificationTemplateKey.class);
+        for (NotificationTemplateOverride row : rows) {
+            NotificationTemplateKey key = NotificationTemplateKey.fromKey(row.getTemplateKey());
+            if (key == null) {
+                log.warn("Ignoring notification template override with unknown key '{}' in {}", row.getTemplateKey(), schema);
+                continue;
+            }
+            try {
+                out.put(key, NotificationTemplate.compile(row.getBody(), key.getParameters()));
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring notification template override '{}' in {}: {}", key.getKey(), schema, e.getMessage());
+            }
+        }
+        return out;
+    }
+
+    private record TenantTemplates(Map<NotificationTemplateKey, NotificationTemplate> overrides, long loadedAtMs) {}
+}
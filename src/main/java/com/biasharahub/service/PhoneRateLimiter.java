@@ -0,0 +1,21 @@
+package com.biasharahub.service;
+
+/**
+ * Token bucket per sender phone in front of the WhatsApp chatbot, so one number (or a looping auto-responder)
+ * cannot drive unlimited chatbot transactions and Twilio sends. In-memory by default; set
+ * app.whatsapp.rate-limit.mode=redis to share buckets across instances.
+ */
+public interface PhoneRateLimiter {
+
+    enum Decision {
+        /** Within the limit: handle the message. */
+        ALLOWED,
+        /** First message over the limit: send the "slow down" reply once. */
+        WARN,
+        /** Over the limit and already warned: drop silently. */
+        DROP
+    }
+
+    /** Take one token for the phone (E.164). Never throws; when the backing store is unavailable, allows. */
+    Decision tryAcquire(String phone);
+}
@@ -0,0 +1,86 @@
+package com.biasharahub.service;
+
+import com.biasharahub.config.TenantContext;
+import com.biasharahub.entity.User;
+import com.biasharahub.repository.UserRepository;
+import com.biasharahub.util.PhoneNumbers;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Resolves the account behind a phone number for the WhatsApp chatbot: owner first (so sellers/providers can use
+ * WhatsApp), then customer. A small LRU of (tenant, E.164 phone) -&gt; user id sits in front of the indexed
+ * users.phone_e164 lookup, so a message costs one primary-key read on a hit and one indexed query on a miss.
+ * Cached entries are checked against the loaded user, so a changed phone or role is picked up without explicit
+ * eviction; misses are not cached (a newly linked number resolves immediately).
+ */
+@Component
+public class PhoneUserLookup {
+
+    private static final String DEFAULT_TENANT_SCHEMA = "tenant_default";
+    private static final List<String> CHATBOT_ROLES = List.of("owner", "customer");
+
+    private final UserRepository userRepository;
+    /** Access-ordered LRU; guarded by itself. */
+    private final LinkedHashMap<String, UUID> userIdByPhone;
+
+    public PhoneUserLookup(UserRepository userRepository,
+                           @Value("${app.whatsapp.phone-cache-size:10000}") int cacheSize) {
+        this.userRepository = userRepository;
+        int maxEntries = Math.max(1, cacheSize);
+        this.userIdByPhone = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UUID> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /** Owner or customer whose phone normalizes to the same E.164 number, or empty. */
+    public Optional<User> findByPhone(String phone) {
+        String e164 = PhoneNumbers.toE164(phone);
+        if (e164 == null) return Optional.empty();
+        String key = cacheKey(e164);
+        UUID cachedId;
+        synchronized (userIdByPhone) {
+            cachedId = userIdByPhone.get(key);
+        }
+        if (cachedId != null) {
+            Optional<User> cached = userRepository.findById(cachedId)
+                    .filter(u -> e164.equals(PhoneNumbers.toE164(u.getPhone())) && chatbotRoleRank(u) >= 0);
+            if (cached.isPresent()) return cached;
+            evict(key);
+        }
+        Optional<User> found = userRepository.findByPhoneE164(e164).stream()
+                .filter(u -> chatbotRoleRank(u) >= 0)
+                .min((a, b) -> Integer.compare(chatbotRoleRank(a), chatbotRoleRank(b)));
+        found.ifPresent(u -> {
+            synchronized (userIdByPhone) {
+                userIdByPhone.put(key, u.getUserId());
+            }
+        });
+        return found;
+    }
+
+    private void evict(String key) {
+        synchronized (userIdByPhone) {
+            userIdByPhone.remove(key);
+        }
+    }
+
+    /** 0 for owner, 1 for customer, -1 for roles the chatbot does not serve. */
+    private static int chatbotRoleRank(User u) {
+        return u.getRole() != null ? CHATBOT_ROLES.indexOf(u.getRole().toLowerCase()) : -1;
+    }
+
+    private static String cacheKey(String e164) {
+        String schema = TenantContext.getTenantSchema() != null ? TenantContext.getTenantSchema() : DEFAULT_TENANT_SCHEMA;
+        return schema + "|" + e164;
+    }
+}
@@ -0,0 +1,175 @@
+package com.biasharahub.service;
+
+import com.biasharahub.config.TenantContext;
+import com.biasharahub.entity.Tenant;
+import com.biasharahub.repository.TenantRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Platform-wide order totals across every active tenant schema. The per-tenant aggregate runs on a bounded pool,
+ * each task with its tenant set (so its connection's search_path is that schema), and the results are merged.
+ * Per-tenant results live in {@link AnalyticsResultCache} under the tenant-wide scope, so only tenants with order,
+ * payment or expense writes since the last load are recomputed (stale ones in the background); a tenant that fails
+ * or misses the deadline is reported rather than failing the whole view.
+ */
+@Slf4j
+@Service
+public class PlatformAnalyticsService {
+
+    static final String KIND_TENANT_TOTALS = "tenant-totals";
+
+    private static final String TENANT_TOTALS_SQL = """
+            SELECT COALESCE(SUM(total_amount) FILTER (WHERE order_status = 'delivered'), 0),
+                   COUNT(*),
+                   COUNT(*) FILTER (WHERE order_status = 'pending'),
+                   COUNT(*) FILTER (WHERE order_status = 'delivered')
+            FROM orders
+            """;
+
+    private final TenantRepository tenantRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final AnalyticsResultCache resultCache;
+    private final Timer aggregateTimer;
+    private final ExecutorService executor;
+    private final long deadlineMs;
+
+    public PlatformAnalyticsService(TenantRepository tenantRepository,
+                                    JdbcTemplate jdbcTemplate,
+                                    AnalyticsResultCache resultCache,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.analytics.platform.parallelism:8}") int parallelism,
+                                    @Value("${app.analytics.platform.deadline-ms:15000}") long deadlineMs) {
+        this.tenantRepository = tenantRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.resultCache = resultCache;
+        this.aggregateTimer = meterRegistry.timer("analytics.platform.aggregate");
+        this.deadlineMs = deadlineMs;
+        int threads = Math.max(1, parallelism);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "platform-analytics-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Totals over all active tenants (revenue of delivered orders, order counts), with a per-tenant breakdown
+     * ordered by revenue and the schemas that could not be read in time. averageOrderValue divides revenue by all
+     * orders, as on an owner's dashboard; averageDeliveredOrderValue divides it by delivered orders.
+     */
+    public Map<String, Object> getPlatformTotals() {
+        return aggregateTimer.record(this::aggregate);
+    }
+
+    private Map<String, Object> aggregate() {
+        List<String> schemas = new ArrayList<>();
+        for (Tenant tenant : tenantRepository.findAll()) {
+            if (tenant.getSchemaName() != null && !Boolean.FALSE.equals(tenant.getIsActive())) {
+                schemas.add(tenant.getSchemaName());
+            }
+        }
+        List<Callable<Map<String, Object>>> tasks = new ArrayList<>(schemas.size());
+        for (String schema : schemas) {
+            tasks.add(() -> tenantTotals(schema));
+        }
+        List<Future<Map<String, Object>>> futures;
+        try {
+            futures = executor.invokeAll(tasks, deadlineMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while aggregating tenants", e);
+        }
+
+        BigDecimal revenue = BigDecimal.ZERO;
+        long orders = 0;
+        long pending = 0;
+        long delivered = 0;
+        List<Map<String, Object>> byTenant = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            String schema = schemas.get(i);
+            Map<String, Object> t;
+            try {
+                t = futures.get(i).get();
+            } catch (CancellationException | ExecutionException e) {
+                log.warn("Platform analytics skipped {}: {}", schema, e instanceof ExecutionException ? e.getCause().getMessage() : "deadline");
+                failed.add(schema);
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while aggregating tenants", e);
+            }
+            revenue = revenue.add((BigDecimal) t.get("revenue"));
+            orders += (Long) t.get("totalOrders");
+            pending += (Long) t.get("pendingOrders");
+            delivered += (Long) t.get("deliveredOrders");
+            Map<String, Object> row = new LinkedHashMap<>(t);
+            row.put("tenant", schema);
+            byTenant.add(row);
+        }
+        byTenant.sort(Comparator.comparing((Map<String, Object> m) -> (BigDecimal) m.get("revenue")).reversed());
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("tenantCount", schemas.size());
+        result.put("totalRevenue", revenue.setScale(2, RoundingMode.HALF_UP));
+        result.put("totalOrders", orders);
+        result.put("pendingOrders", pending);
+        result.put("deliveredOrders", delivered);
+        // Same basis as an owner's dashboard (delivered revenue over all orders); per delivered order alongside
+        result.put("averageOrderValue", orders > 0
+                ? revenue.divide(BigDecimal.valueOf(orders), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO);
+        result.put("averageDeliveredOrderValue", delivered > 0
+                ? revenue.divide(BigDecimal.valueOf(delivered), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO);
+        result.put("tenants", byTenant);
+        result.put("failedTenants", failed);
+        result.put("currency", "KES");
+        return result;
+    }
+
+    /** One tenant's totals, from the cache when its orders have not changed; runs on a pool thread. */
+    private Map<String, Object> tenantTotals(String schema) {
+        TenantContext.setTenantSchema(schema);
+        try {
+            return resultCache.get(new AnalyticsResultCache.Key(schema, KIND_TENANT_TOTALS, null, null, null, null, null),
+                    () -> jdbcTemplate.queryForObject(TENANT_TOTALS_SQL, (rs, n) -> Map.<String, Object>of(
+                            "revenue", rs.getBigDecimal(1),
+                            "totalOrders", rs.getLong(2),
+                            "pendingOrders", rs.getLong(3),
+                            "deliveredOrders", rs.getLong(4))));
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
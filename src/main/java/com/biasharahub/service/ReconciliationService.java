@@ -25,9 +25,7 @@ public class ReconciliationService {
     private final OrderRepository orderRepository;
     private final TenantWalletService tenantWalletService;
     private final OrderEventPublisher orderEventPublisher;
-    private final InAppNotificationService inAppNotificationService;
-    private final WhatsAppNotificationService whatsAppNotificationService;
-    private final SmsNotificationService smsNotificationService;
+    private final NotificationDispatcher notificationDispatcher;
 
     /**
      * List pending payments (awaiting M-Pesa callback or manual confirmation).
@@ -72,16 +70,8 @@ public class ReconciliationService {
                     tenantWalletService.recordIncomingPaymentForCurrentTenant(
                             payment.getAmount(), order.getOrderId().toString(), payment.getPaymentId().toString());
                     orderEventPublisher.paymentCompleted(order.getOrderId(), payment.getPaymentId());
-                    // Notify sellers synchronously so they receive payment-completed notifications
-                    orderRepository.findByIdWithItems(order.getOrderId()).ifPresent(o -> {
-                        try {
-                            inAppNotificationService.notifySellerPaymentCompleted(o);
-                            whatsAppNotificationService.notifySellerPaymentCompleted(o);
-                            smsNotificationService.notifySellerPaymentCompleted(o);
-                        } catch (Exception e) {
-                            log.warn("Failed to send payment-completed notifications to seller for order {}: {}", o.getOrderId(), e.getMessage());
-                        }
-                    });
+                    // Notify customer and sellers now (in this tenant); the async handler's repeat is ignored
+                    orderRepository.findByIdWithItems(order.getOrderId()).ifPresent(notificationDispatcher::orderPaid);
                     return payment;
                 })
                 .orElse(null);
@@ -0,0 +1,65 @@
+package com.biasharahub.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Chat sessions shared by all instances: one JSON value per phone under whatsapp:session:&lt;phone&gt;, expiring
+ * after the idle TTL. Active when app.whatsapp.session-store=redis. If Redis is unreachable the message is
+ * handled with a fresh session rather than failing.
+ */
+@Component
+@ConditionalOnProperty(name = "app.whatsapp.session-store", havingValue = "redis")
+@Slf4j
+public class RedisChatSessionStore implements ChatSessionStore {
+
+    private static final String KEY_PREFIX = "whatsapp:session:";
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+
+    public RedisChatSessionStore(StringRedisTemplate redis,
+                                 ObjectMapper objectMapper,
+                                 @Value("${app.whatsapp.session-ttl-ms:3600000}") long ttlMs) {
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofMillis(ttlMs);
+    }
+
+    @Override
+    public ChatSession load(String phone) {
+        try {
+            String json = redis.opsForValue().get(KEY_PREFIX + phone);
+            if (json != null) {
+                ChatSession session = objectMapper.readValue(json, ChatSession.class);
+                session.setPhone(phone);
+                return session;
+            }
+        } catch (Exception e) {
+            log.warn("Could not load WhatsApp chat session for {}: {}", phone, e.getMessage());
+        }
+        return new ChatSession(phone);
+    }
+
+    @Override
+    public void save(ChatSession session) {
+        if (session == null || session.getPhone() == null) return;
+        String key = KEY_PREFIX + session.getPhone();
+        try {
+            if (session.isEmpty()) {
+                redis.delete(key);
+            } else {
+                redis.opsForValue().set(key, objectMapper.writeValueAsString(session), ttl);
+            }
+        } catch (Exception e) {
+            log.warn("Could not save WhatsApp chat session for {}: {}", session.getPhone(), e.getMessage());
+        }
+    }
+}
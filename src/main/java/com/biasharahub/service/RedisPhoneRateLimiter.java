@@ -0,0 +1,77 @@
+package com.biasharahub.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Token buckets shared by all instances: one Redis hash per phone (tokens, last refill, warned), updated atomically
+ * by a Lua script and expired once it would have refilled. Active when app.whatsapp.rate-limit.mode=redis.
+ * If Redis is unreachable, messages are allowed rather than lost.
+ */
+@Component
+@ConditionalOnProperty(name = "app.whatsapp.rate-limit.mode", havingValue = "redis")
+@Slf4j
+public class RedisPhoneRateLimiter implements PhoneRateLimiter {
+
+    private static final String KEY_PREFIX = "whatsapp:ratelimit:";
+
+    /** Returns 0 = allowed, 1 = warn, 2 = drop. ARGV: capacity, refill per ms, now ms, ttl ms. */
+    private static final DefaultRedisScript<Long> TOKEN_BUCKET = new DefaultRedisScript<>("""
+            local b = redis.call('HMGET', KEYS[1], 't', 'ts', 'w')
+            local cap = tonumber(ARGV[1])
+            local now = tonumber(ARGV[3])
+            local tokens = tonumber(b[1]) or cap
+            local ts = tonumber(b[2]) or now
+            local warned = b[3] == '1'
+            tokens = math.min(cap, tokens + math.max(0, now - ts) * tonumber(ARGV[2]))
+            local result = 0
+            if tokens >= 1 then
+              tokens = tokens - 1
+              warned = false
+            elseif warned then
+              result = 2
+            else
+              warned = true
+              result = 1
+            end
+            redis.call('HSET', KEYS[1], 't', tostring(tokens), 'ts', tostring(now), 'w', warned and '1' or '0')
+            redis.call('PEXPIRE', KEYS[1], ARGV[4])
+            return result
+            """, Long.class);
+
+    private final StringRedisTemplate redis;
+    private final String capacity;
+    private final String refillPerMs;
+    private final String ttlMs;
+
+    public RedisPhoneRateLimiter(StringRedisTemplate redis,
+                                 @Value("${app.whatsapp.rate-limit.capacity:10}") int capacity,
+                                 @Value("${app.whatsapp.rate-limit.refill-per-minute:20}") int refillPerMinute) {
+        this.redis = redis;
+        int cap = Math.max(1, capacity);
+        double perMs = Math.max(1, refillPerMinute) / 60_000.0;
+        this.capacity = String.valueOf(cap);
+        this.refillPerMs = String.valueOf(perMs);
+        // Time for an empty bucket to refill; after that the key carries no information
+        this.ttlMs = String.valueOf((long) Math.ceil(cap / perMs) + 1_000);
+    }
+
+    @Override
+    public Decision tryAcquire(String phone) {
+        try {
+            Long result = redis.execute(TOKEN_BUCKET, List.of(KEY_PREFIX + phone),
+                    capacity, refillPerMs, String.valueOf(System.currentTimeMillis()), ttlMs);
+            if (result == null || result == 0L) return Decision.ALLOWED;
+            return result == 1L ? Decision.WARN : Decision.DROP;
+        } catch (Exception e) {
+            log.debug("Rate limiter unavailable for {}: {}", phone, e.getMessage());
+            return Decision.ALLOWED;
+        }
+    }
+}
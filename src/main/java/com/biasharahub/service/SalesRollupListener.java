@@ -0,0 +1,75 @@
+package com.biasharahub.service;
+
+import com.biasharahub.entity.Expense;
+import com.biasharahub.entity.Order;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * JPA listener on Order and Expense that keeps the {@link SalesRollupService} rollups current: an order entering or
+ * leaving "delivered" refreshes its sales days, and any expense write refreshes that expense day. Refreshes run
+ * after commit (they read the committed rows) in the writer's tenant; a failure is logged and left to the next
+ * refresh of that day or a backfill. Instantiated by Hibernate through Spring; the service is looked up lazily to
+ * avoid a cycle with the EntityManagerFactory.
+ */
+public class SalesRollupListener {
+
+    private static final String DELIVERED = "delivered";
+
+    private final ObjectProvider<SalesRollupService> rollupService;
+
+    public SalesRollupListener(ObjectProvider<SalesRollupService> rollupService) {
+        this.rollupService = rollupService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void written(Object entity) {
+        if (entity instanceof Order order) {
+            orderWritten(order);
+        } else if (entity instanceof Expense expense) {
+            expenseWritten(expense);
+        }
+    }
+
+    @PostRemove
+    public void removed(Object entity) {
+        if (entity instanceof Expense expense) {
+            expenseWritten(expense);
+        }
+    }
+
+    private void orderWritten(Order order) {
+        String previous = order.getPersistedOrderStatus();
+        String current = order.getOrderStatus();
+        // Rollups count delivered orders only; other transitions don't change them
+        if (DELIVERED.equals(previous) == DELIVERED.equals(current) || order.getOrderId() == null) {
+            return;
+        }
+        UUID orderId = order.getOrderId();
+        afterCommit(service -> service.refreshOrder(orderId));
+    }
+
+    private void expenseWritten(Expense expense) {
+        if (expense.getCreatedBy() == null || expense.getExpenseDate() == null) {
+            return;
+        }
+        // getUserId() on a lazy proxy does not initialize it
+        UUID userId = expense.getCreatedBy().getUserId();
+        LocalDate day = expense.getExpenseDate();
+        afterCommit(service -> service.refreshExpensesForUser(userId, day));
+    }
+
+    private void afterCommit(Consumer<SalesRollupService> refresh) {
+        TenantAfterCommit.run("Insights rollup refresh", () -> {
+            SalesRollupService service = rollupService.getIfAvailable();
+            if (service != null) refresh.accept(service);
+        });
+    }
+}
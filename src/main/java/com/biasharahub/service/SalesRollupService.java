@@ -0,0 +1,297 @@
+package com.biasharahub.service;
+
+import com.biasharahub.config.TenantContext;
+import com.biasharahub.entity.Tenant;
+import com.biasharahub.repository.TenantRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Maintains the per-tenant daily rollups behind business insights:
+ * <ul>
+ *   <li>daily_business_sales – delivered-order quantity and revenue per business, product and day (day of
+ *       orders.ordered_at in the server zone, as the insights queries count it)</li>
+ *   <li>daily_business_expenses – expense total and count per business and day</li>
+ * </ul>
+ * A changed day is recomputed from the source rows rather than adjusted by deltas, so a refresh is idempotent and
+ * a missed one is repaired by the next change on that day or by {@link #backfill}. {@link SalesRollupListener}
+ * triggers refreshes after commit; a tenant whose rollups have never been built is backfilled on startup.
+ */
+@Service
+@Slf4j
+public class SalesRollupService {
+
+    static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final LocalDate EARLIEST = LocalDate.of(2000, 1, 1);
+
+    private static final String SALES_SELECT = """
+            SELECT p.business_id, %s, i.product_id, SUM(i.quantity), SUM(i.quantity * i.price_at_order), CURRENT_TIMESTAMP
+            FROM order_items i
+            JOIN orders o ON o.order_id = i.order_id
+            JOIN products p ON p.product_id = i.product_id
+            WHERE o.order_status = 'delivered' AND p.business_id IS NOT NULL
+              AND o.ordered_at >= ? AND o.ordered_at < ? %s
+            GROUP BY 1, 2, 3
+            """;
+    private static final String SALES_INSERT =
+            "INSERT INTO daily_business_sales (business_id, sales_date, product_id, quantity_sold, revenue, updated_at) ";
+    private static final String SALES_UPSERT = """
+             ON CONFLICT (business_id, sales_date, product_id) DO UPDATE
+             SET quantity_sold = EXCLUDED.quantity_sold, revenue = EXCLUDED.revenue, updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final String EXPENSES_SELECT = """
+            SELECT u.business_id, e.expense_date, SUM(e.amount), COUNT(*), CURRENT_TIMESTAMP
+            FROM expenses e
+            JOIN users u ON u.user_id = e.created_by_user_id
+            WHERE u.business_id IS NOT NULL AND e.expense_date BETWEEN ? AND ? %s
+            GROUP BY 1, 2
+            """;
+    private static final String EXPENSES_INSERT =
+            "INSERT INTO daily_business_expenses (business_id, expense_date, amount, expense_count, updated_at) ";
+    private static final String EXPENSES_UPSERT = """
+             ON CONFLICT (business_id, expense_date) DO UPDATE
+             SET amount = EXCLUDED.amount, expense_count = EXCLUDED.expense_count, updated_at = EXCLUDED.updated_at
+            """;
+
+    /** Revenue and expenses per day in one pass over both rollups (full join on the day). */
+    private static final String DAILY_TOTALS_SQL = """
+            SELECT COALESCE(s.day, x.day) AS day, COALESCE(s.revenue, 0), COALESCE(x.amount, 0)
+            FROM (SELECT sales_date AS day, SUM(revenue) AS revenue FROM daily_business_sales
+                  WHERE business_id = ? AND sales_date BETWEEN ? AND ? %s
+                  GROUP BY sales_date) s
+            FULL JOIN (SELECT expense_date AS day, amount FROM daily_business_expenses
+                       WHERE business_id = ? AND expense_date BETWEEN ? AND ?) x ON x.day = s.day
+            """;
+
+    /** Best sellers in a day range from the sales rollup; %s = business filter, %s = ranking column. */
+    private static final String TOP_PRODUCTS_SQL = """
+            SELECT s.product_id, p.name, p.quantity, p.price, SUM(s.quantity_sold) AS units, SUM(s.revenue) AS revenue
+            FROM daily_business_sales s
+            JOIN products p ON p.product_id = s.product_id
+            WHERE s.sales_date BETWEEN ? AND ? %s
+            GROUP BY s.product_id, p.name, p.quantity, p.price
+            ORDER BY %s DESC, s.product_id
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TenantRepository tenantRepository;
+    private final TransactionTemplate refreshTx;
+    private final AnalyticsResultCache resultCache;
+    private final boolean backfillOnStartup;
+
+    public SalesRollupService(JdbcTemplate jdbcTemplate,
+                              TenantRepository tenantRepository,
+                              AnalyticsResultCache resultCache,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.insights.rollup.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tenantRepository = tenantRepository;
+        this.resultCache = resultCache;
+        this.backfillOnStartup = backfillOnStartup;
+        // Own transaction: refreshes run after the caller's commit, and delete + insert of a day must be atomic.
+        this.refreshTx = new TransactionTemplate(transactionManager);
+        this.refreshTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** Revenue and expenses for one day of a business. */
+    public record DailyTotals(LocalDate day, BigDecimal revenue, BigDecimal expenses) {}
+
+    /**
+     * Daily revenue and expenses for a business in [from, to] (current tenant), optionally revenue of one product
+     * only. Days with neither are absent.
+     */
+    public NavigableMap<LocalDate, DailyTotals> dailyTotals(UUID businessId, LocalDate from, LocalDate to, UUID productId) {
+        NavigableMap<LocalDate, DailyTotals> out = new TreeMap<>();
+        String sql = String.format(DAILY_TOTALS_SQL, productId != null ? "AND product_id = ?" : "");
+        Object[] args = productId != null
+                ? new Object[]{businessId, Date.valueOf(from), Date.valueOf(to), productId, businessId, Date.valueOf(from), Date.valueOf(to)}
+                : new Object[]{businessId, Date.valueOf(from), Date.valueOf(to), businessId, Date.valueOf(from), Date.valueOf(to)};
+        jdbcTemplate.query(sql, rs -> {
+            LocalDate day = rs.getDate(1).toLocalDate();
+            out.put(day, new DailyTotals(day, rs.getBigDecimal(2), rs.getBigDecimal(3)));
+        }, args);
+        return out;
+    }
+
+    /** Units and revenue of one product over a day range, with its current stock and price. */
+    public record ProductSales(UUID productId, String name, int stock, BigDecimal price, long unitsSold, BigDecimal revenue) {}
+
+    /**
+     * Top {@code limit} products by units sold ({@code byUnits}) or by revenue in [from, to] (current tenant), for
+     * one business or, with businessId null, the whole tenant. Ties break on the other measure, then product id.
+     */
+    public List<ProductSales> topProducts(UUID businessId, LocalDate from, LocalDate to, boolean byUnits, int limit) {
+        String sql = String.format(TOP_PRODUCTS_SQL,
+                businessId != null ? "AND s.business_id = ?" : "",
+                byUnits ? "units DESC, revenue" : "revenue DESC, units");
+        Object[] args = businessId != null
+                ? new Object[]{Date.valueOf(from), Date.valueOf(to), businessId, limit}
+                : new Object[]{Date.valueOf(from), Date.valueOf(to), limit};
+        return jdbcTemplate.query(sql, (rs, i) -> new ProductSales(
+                rs.getObject(1, UUID.class),
+                rs.getString(2),
+                rs.getInt(3),
+                rs.getBigDecimal(4),
+                rs.getLong(5),
+                rs.getBigDecimal(6)), args);
+    }
+
+    /** Recompute the sales days touched by an order (each business it sold from, on its order day). */
+    public void refreshOrder(UUID orderId) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("""
+                SELECT DISTINCT p.business_id, o.ordered_at FROM orders o
+                JOIN order_items i ON i.order_id = o.order_id
+                JOIN products p ON p.product_id = i.product_id
+                WHERE o.order_id = ? AND p.business_id IS NOT NULL AND o.ordered_at IS NOT NULL
+                """, orderId);
+        for (Map<String, Object> row : rows) {
+            UUID businessId = (UUID) row.get("business_id");
+            LocalDate day = ((Timestamp) row.get("ordered_at")).toInstant().atZone(ZONE).toLocalDate();
+            refreshSalesDay(businessId, day);
+        }
+    }
+
+    /** Recompute one business's sales rows for one day, then mark its cached analytics stale. */
+    public void refreshSalesDay(UUID businessId, LocalDate day) {
+        Instant start = day.atStartOfDay(ZONE).toInstant();
+        Instant end = day.plusDays(1).atStartOfDay(ZONE).toInstant();
+        refreshTx.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM daily_business_sales WHERE business_id = ? AND sales_date = ?",
+                    businessId, Date.valueOf(day));
+            jdbcTemplate.update(SALES_INSERT + String.format(SALES_SELECT, "CAST(? AS date)", "AND p.business_id = ?") + SALES_UPSERT,
+                    Date.valueOf(day), Timestamp.from(start), Timestamp.from(end), businessId);
+        });
+        // AnalyticsCacheListener bumped the cache at commit, before this refresh; a result computed in between
+        // read the old rollup, so bump again now that the rollup is current
+        resultCache.invalidateBusiness(businessId);
+    }
+
+    /** Recompute the expense row for the business of the user who logged an expense, for one day. */
+    public void refreshExpensesForUser(UUID userId, LocalDate day) {
+        List<UUID> businessIds = jdbcTemplate.queryForList(
+                "SELECT business_id FROM users WHERE user_id = ? AND business_id IS NOT NULL", UUID.class, userId);
+        for (UUID businessId : businessIds) {
+            refreshExpenseDay(businessId, day);
+        }
+    }
+
+    /** Recompute one business's expense row for one day, then mark its cached analytics stale. */
+    public void refreshExpenseDay(UUID businessId, LocalDate day) {
+        refreshTx.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM daily_business_expenses WHERE business_id = ? AND expense_date = ?",
+                    businessId, Date.valueOf(day));
+            jdbcTemplate.update(EXPENSES_INSERT + String.format(EXPENSES_SELECT, "AND u.business_id = ?") + EXPENSES_UPSERT,
+                    Date.valueOf(day), Date.valueOf(day), businessId);
+        });
+        resultCache.invalidateBusiness(businessId);
+    }
+
+    /**
+     * Rebuild both rollups of the current tenant for [from, to] (null = all history) in one transaction.
+     *
+     * @return number of rollup rows written
+     */
+    public int backfill(LocalDate from, LocalDate to) {
+        LocalDate start = from != null ? from : EARLIEST;
+        LocalDate end = to != null ? to : LocalDate.now(ZONE).plusDays(1);
+        Integer rows = refreshTx.execute(status -> {
+            jdbcTemplate.update("DELETE FROM daily_business_sales WHERE sales_date BETWEEN ? AND ?",
+                    Date.valueOf(start), Date.valueOf(end));
+            int sales = jdbcTemplate.update(SALES_INSERT + String.format(SALES_SELECT, "CAST(o.ordered_at AT TIME ZONE ? AS date)", "") + SALES_UPSERT,
+                    ZONE.getId(), Timestamp.from(start.atStartOfDay(ZONE).toInstant()),
+                    Timestamp.from(end.plusDays(1).atStartOfDay(ZONE).toInstant()));
+            jdbcTemplate.update("DELETE FROM daily_business_expenses WHERE expense_date BETWEEN ? AND ?",
+                    Date.valueOf(start), Date.valueOf(end));
+            int expenses = jdbcTemplate.update(EXPENSES_INSERT + String.format(EXPENSES_SELECT, "") + EXPENSES_UPSERT,
+                    Date.valueOf(start), Date.valueOf(end));
+            return sales + expenses;
+        });
+        return rows != null ? rows : 0;
+    }
+
+    /**
+     * Rebuild the rollups of every active tenant for [from, to] (null = all history).
+     *
+     * @return rows written per tenant schema (-1 where the tenant failed)
+     */
+    public Map<String, Integer> backfillAllTenants(LocalDate from, LocalDate to) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (Tenant tenant : tenantRepository.findAll()) {
+            if (tenant.getSchemaName() == null || Boolean.FALSE.equals(tenant.getIsActive())) {
+                continue;
+            }
+            result.put(tenant.getSchemaName(), backfillTenant(tenant.getSchemaName(), from, to));
+        }
+        return result;
+    }
+
+    /** First start after the rollups were introduced (or a restored tenant): build them for tenants that have data but no rollup rows. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillUnbuiltTenantsOnStartup() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            for (Tenant tenant : tenantRepository.findAll()) {
+                String schema = tenant.getSchemaName();
+                if (schema == null || Boolean.FALSE.equals(tenant.getIsActive()) || !needsBackfill(schema)) {
+                    continue;
+                }
+                int rows = backfillTenant(schema, null, null);
+                log.info("Built insights rollups for {}: {} rows", schema, rows);
+            }
+        }, "insights-rollup-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private boolean needsBackfill(String schema) {
+        TenantContext.setTenantSchema(schema);
+        try {
+            Boolean needed = jdbcTemplate.queryForObject("""
+                    SELECT NOT EXISTS (SELECT 1 FROM daily_business_sales) AND NOT EXISTS (SELECT 1 FROM daily_business_expenses)
+                       AND (EXISTS (SELECT 1 FROM orders WHERE order_status = 'delivered') OR EXISTS (SELECT 1 FROM expenses))
+                    """, Boolean.class);
+            return Boolean.TRUE.equals(needed);
+        } catch (Exception e) {
+            log.debug("Skipping insights rollup check for {}: {}", schema, e.getMessage());
+            return false;
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private int backfillTenant(String schema, LocalDate from, LocalDate to) {
+        TenantContext.setTenantSchema(schema);
+        try {
+            return backfill(from, to);
+        } catch (Exception e) {
+            log.warn("Insights rollup backfill failed for {}: {}", schema, e.getMessage());
+            return -1;
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
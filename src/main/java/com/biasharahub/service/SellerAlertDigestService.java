@@ -0,0 +1,234 @@
+package com.biasharahub.service;
+
+import com.biasharahub.config.NotificationDigestProperties;
+import com.biasharahub.config.TenantContext;
+import com.biasharahub.entity.Order;
+import com.biasharahub.entity.OrderItem;
+import com.biasharahub.entity.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Entry point for seller new-order and low-stock alerts. Instead of one in-app + WhatsApp + SMS message per event,
+ * alerts on digest channels are buffered in memory per seller (tenant + business) and coalesced into one summary
+ * per channel on each flush. Urgency rules decide what still goes out immediately:
+ * <ul>
+ *   <li>a product that is now out of stock (quantity 0)</li>
+ *   <li>an order whose total is at or above {@code app.notifications.digest.immediate-order-total}</li>
+ * </ul>
+ * Channels not listed in {@code app.notifications.digest.channels} are always sent immediately.
+ * Buffered alerts are in-memory only: a restart before the next flush drops that window's summary
+ * (the in-app inbox and dashboard still show the orders).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SellerAlertDigestService {
+
+    static final String CHANNEL_IN_APP = "in_app";
+    static final String CHANNEL_WHATSAPP = "whatsapp";
+    static final String CHANNEL_SMS = "sms";
+    private static final String DEFAULT_TENANT_SCHEMA = "tenant_default";
+
+    private final InAppNotificationService inAppNotificationService;
+    private final WhatsAppNotificationService whatsAppNotificationService;
+    private final SmsNotificationService smsNotificationService;
+    private final NotificationDigestProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<BucketKey, Bucket> buckets = new ConcurrentHashMap<>();
+    /** Orders already alerted (order-created is raised from both the request and the async handler). */
+    private final ConcurrentHashMap<UUID, Instant> recentOrders = new ConcurrentHashMap<>();
+
+    /** Seller alert for a newly placed order. Safe to call more than once for the same order. */
+    public void orderCreated(Order order) {
+        UUID businessId = businessIdOf(order);
+        if (businessId == null) return;
+        if (order.getOrderId() != null && recentOrders.putIfAbsent(order.getOrderId(), Instant.now()) != null) {
+            return;
+        }
+        boolean urgent = isUrgent(order);
+        boolean buffered = false;
+        for (String channel : List.of(CHANNEL_IN_APP, CHANNEL_WHATSAPP, CHANNEL_SMS)) {
+            if (!urgent && properties.isDigestChannel(channel)) {
+                buffered = true;
+                continue;
+            }
+            sendOrderNow(channel, order);
+        }
+        if (buffered) {
+            String customerName = order.getUser() != null && order.getUser().getName() != null
+                    ? order.getUser().getName() : "a customer";
+            bucketFor(businessId, b -> b.orders.put(order.getOrderId(),
+                    new OrderLine(order.getOrderNumber(), customerName, order.getTotalAmount())));
+        }
+        countEvent("order", buffered ? "buffered" : "immediate");
+    }
+
+    /** Seller alert for a product at or below the low-stock threshold. Repeated alerts for a product keep the latest quantity. */
+    public void lowStock(Product product) {
+        if (product == null || product.getBusinessId() == null) return;
+        int qty = product.getQuantity() != null ? product.getQuantity() : 0;
+        boolean urgent = qty <= 0;
+        boolean buffered = false;
+        for (String channel : List.of(CHANNEL_IN_APP, CHANNEL_WHATSAPP, CHANNEL_SMS)) {
+            if (!urgent && properties.isDigestChannel(channel)) {
+                buffered = true;
+                continue;
+            }
+            sendLowStockNow(channel, product);
+        }
+        if (buffered) {
+            String name = product.getName() != null ? product.getName() : "Unknown";
+            bucketFor(product.getBusinessId(), b -> b.lowStock.put(product.getProductId(), new StockLine(name, qty)));
+        }
+        countEvent("low_stock", buffered ? "buffered" : "immediate");
+    }
+
+    /** Send one summary per seller per digest channel for everything buffered since the last flush. */
+    @Scheduled(fixedDelayString = "${app.notifications.digest.interval-ms:900000}") // 15 min default
+    public void flush() {
+        Instant cutoff = Instant.now().minus(1, ChronoUnit.HOURS);
+        recentOrders.values().removeIf(at -> at.isBefore(cutoff));
+        for (BucketKey key : new ArrayList<>(buckets.keySet())) {
+            Bucket bucket = buckets.remove(key);
+            if (bucket == null || bucket.isEmpty()) continue;
+            String body = buildSummary(bucket);
+            TenantContext.setTenantSchema(key.tenantSchema());
+            try {
+                for (String channel : List.of(CHANNEL_IN_APP, CHANNEL_WHATSAPP, CHANNEL_SMS)) {
+                    if (!properties.isDigestChannel(channel)) continue;
+                    try {
+                        switch (channel) {
+                            case CHANNEL_IN_APP -> inAppNotificationService.notifySellerDigest(key.businessId(), "Alert summary", body);
+                            case CHANNEL_WHATSAPP -> whatsAppNotificationService.notifySellerDigest(key.businessId(), body);
+                            default -> smsNotificationService.notifySellerDigest(key.businessId(), body);
+                        }
+                        meterRegistry.counter("notifications.digest.sent", "channel", channel).increment();
+                    } catch (Exception e) {
+                        log.warn("Failed to send {} digest to business {}: {}", channel, key.businessId(), e.getMessage());
+                    }
+                }
+            } finally {
+                TenantContext.clear();
+            }
+        }
+    }
+
+    String buildSummary(Bucket bucket) {
+        int maxLines = Math.max(1, properties.getMaxLines());
+        StringBuilder sb = new StringBuilder();
+        if (!bucket.orders.isEmpty()) {
+            BigDecimal total = BigDecimal.ZERO;
+            for (OrderLine line : bucket.orders.values()) {
+                if (line.total() != null) total = total.add(line.total());
+            }
+            int n = bucket.orders.size();
+            sb.append(n).append(n == 1 ? " new order" : " new orders").append(" (KES ").append(total).append("): ");
+            int listed = 0;
+            for (OrderLine line : bucket.orders.values()) {
+                if (listed == maxLines) break;
+                if (listed > 0) sb.append(", ");
+                sb.append('#').append(line.orderNumber()).append(" from ").append(line.customerName());
+                listed++;
+            }
+            if (n > listed) sb.append(" and ").append(n - listed).append(" more");
+            sb.append('.');
+        }
+        if (!bucket.lowStock.isEmpty()) {
+            if (sb.length() > 0) sb.append(' ');
+            sb.append("Low stock: ");
+            int listed = 0;
+            for (StockLine line : bucket.lowStock.values()) {
+                if (listed == maxLines) break;
+                if (listed > 0) sb.append(", ");
+                sb.append('"').append(line.productName()).append("\" (").append(line.quantity()).append(" left)");
+                listed++;
+            }
+            int n = bucket.lowStock.size();
+            if (n > listed) sb.append(" and ").append(n - listed).append(" more");
+            sb.append(". Consider restocking.");
+        }
+        sb.append(" Log in to view details.");
+        return sb.toString();
+    }
+
+    private boolean isUrgent(Order order) {
+        BigDecimal threshold = properties.getImmediateOrderTotal();
+        return threshold != null && order.getTotalAmount() != null && order.getTotalAmount().compareTo(threshold) >= 0;
+    }
+
+    private void sendOrderNow(String channel, Order order) {
+        try {
+            switch (channel) {
+                case CHANNEL_IN_APP -> inAppNotificationService.notifySellerOrderCreated(order);
+                case CHANNEL_WHATSAPP -> whatsAppNotificationService.notifySellerOrderCreated(order);
+                default -> smsNotificationService.notifySellerOrderCreated(order);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to notify seller order-created ({}) for order {}: {}", channel, order.getOrderId(), e.getMessage());
+        }
+    }
+
+    private void sendLowStockNow(String channel, Product product) {
+        try {
+            switch (channel) {
+                case CHANNEL_IN_APP -> inAppNotificationService.notifySellerLowStock(product);
+                case CHANNEL_WHATSAPP -> whatsAppNotificationService.notifySellerLowStock(product);
+                default -> smsNotificationService.notifySellerLowStock(product);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to notify seller low-stock ({}) for product {}: {}", channel, product.getProductId(), e.getMessage());
+        }
+    }
+
+    private void bucketFor(UUID businessId, java.util.function.Consumer<Bucket> update) {
+        String schema = TenantContext.getTenantSchema() != null ? TenantContext.getTenantSchema() : DEFAULT_TENANT_SCHEMA;
+        // compute() is atomic per key, so an update never lands in a bucket that flush() has already removed
+        buckets.compute(new BucketKey(schema, businessId), (k, b) -> {
+            Bucket bucket = b != null ? b : new Bucket();
+            update.accept(bucket);
+            return bucket;
+        });
+    }
+
+    private void countEvent(String kind, String disposition) {
+        meterRegistry.counter("notifications.digest.events", "kind", kind, "disposition", disposition).increment();
+    }
+
+    private static UUID businessIdOf(Order order) {
+        if (order == null || order.getItems() == null || order.getItems().isEmpty()) return null;
+        OrderItem first = order.getItems().get(0);
+        if (first == null || first.getProduct() == null) return null;
+        return first.getProduct().getBusinessId();
+    }
+
+    private record BucketKey(String tenantSchema, UUID businessId) {}
+
+    private record OrderLine(String orderNumber, String customerName, BigDecimal total) {}
+
+    private record StockLine(String productName, int quantity) {}
+
+    /** Alerts buffered for one seller; guarded by ConcurrentHashMap.compute on the owning key. */
+    static final class Bucket {
+        private final Map<UUID, OrderLine> orders = new LinkedHashMap<>();
+        private final Map<UUID, StockLine> lowStock = new LinkedHashMap<>();
+
+        boolean isEmpty() {
+            return orders.isEmpty() && lowStock.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.biasharahub.service;
+
+import com.biasharahub.config.TenantContext;
+import com.biasharahub.entity.Product;
+import com.biasharahub.entity.User;
+import com.biasharahub.repository.ProductRepository;
+import com.biasharahub.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory shop directory and stock snapshot per tenant for the WhatsApp chatbot, so SHOPS / STOCK replies are a
+ * map lookup plus string building. A snapshot holds the verified, active shops (by name) and, for each shop and
+ * for all shops together, the first {@link #TOP_PRODUCTS} approved customer-facing products with their total count.
+ * Product changes and user changes that alter the shop list mark the tenant's snapshot stale
+ * ({@link CatalogChangeListener}); the TTL {@code app.whatsapp.catalog-snapshot-ttl-ms} is a backstop. A stale snapshot
+ * keeps serving while it is rebuilt in the background with two queries, at most once per
+ * {@code app.whatsapp.catalog-snapshot-min-rebuild-interval-ms} (stock changes on every order); only the very first
+ * read of a tenant waits for a build.
+ */
+@Component
+@Slf4j
+public class ShopDirectory {
+
+    /** Products kept per list; matches what one chatbot reply shows. */
+    public static final int TOP_PRODUCTS = 12;
+
+    private static final String DEFAULT_TENANT_SCHEMA = "tenant_default";
+
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+    private final long ttlMs;
+    private final long minRebuildIntervalMs;
+    private final ConcurrentHashMap<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    /** Per-tenant change counter; a snapshot built before the latest change is stale (also covers in-flight rebuilds). */
+    private final ConcurrentHashMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicBoolean> rebuilding = new ConcurrentHashMap<>();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "shop-directory");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ShopDirectory(UserRepository userRepository,
+                         ProductRepository productRepository,
+                         @Value("${app.whatsapp.catalog-snapshot-ttl-ms:60000}") long ttlMs,
+                         @Value("${app.whatsapp.catalog-snapshot-min-rebuild-interval-ms:5000}") long minRebuildIntervalMs) {
+        this.userRepository = userRepository;
+        this.productRepository = productRepository;
+        this.ttlMs = ttlMs;
+        this.minRebuildIntervalMs = minRebuildIntervalMs;
+    }
+
+    /** Verified, active shops ordered by business name. */
+    public List<Shop> shops() {
+        return current().shops();
+    }
+
+    /** Top products of one shop (empty listing if the shop has none). */
+    public StockListing stockForShop(UUID businessId) {
+        return current().stockByBusiness().getOrDefault(businessId, StockListing.EMPTY);
+    }
+
+    /** Top products across all shops. */
+    public StockListing allStock() {
+        return current().allStock();
+    }
+
+    /** Mark a tenant's snapshot stale; it is rebuilt in the background on the next read. */
+    public void invalidate(String tenantSchema) {
+        version(tenantSchema != null ? tenantSchema : DEFAULT_TENANT_SCHEMA).incrementAndGet();
+    }
+
+    /**
+     * Whether saving this user changes the tenant's shop list: the user is (or was, as of the snapshot) a listed
+     * shop owner and the listing differs. Logins and profile edits of customers, staff and unchanged owners do not.
+     * Without a snapshot any owner counts, since there is nothing to compare with.
+     */
+    public boolean affectsShops(String tenantSchema, User user) {
+        Shop listed = isListed(user) ? new Shop(user.getBusinessId(), user.getBusinessName()) : null;
+        Snapshot snapshot = snapshots.get(tenantSchema != null ? tenantSchema : DEFAULT_TENANT_SCHEMA);
+        if (snapshot == null) {
+            return listed != null || "owner".equalsIgnoreCase(user.getRole());
+        }
+        return !Objects.equals(listed, snapshot.shopsByOwner().get(user.getUserId()));
+    }
+
+    private Snapshot current() {
+        String schema = TenantContext.getTenantSchema() != null ? TenantContext.getTenantSchema() : DEFAULT_TENANT_SCHEMA;
+        Snapshot snapshot = snapshots.get(schema);
+        if (snapshot == null) {
+            synchronized (rebuilding.computeIfAbsent(schema, s -> new AtomicBoolean())) {
+                snapshot = snapshots.get(schema);
+                if (snapshot == null) {
+                    snapshot = build(schema);
+                    snapshots.put(schema, snapshot);
+                }
+            }
+            return snapshot;
+        }
+        long age = System.currentTimeMillis() - snapshot.builtAtMs();
+        boolean stale = snapshot.version() != version(schema).get();
+        if ((stale && age >= minRebuildIntervalMs) || age >= ttlMs) {
+            scheduleRebuild(schema);
+        }
+        return snapshot;
+    }
+
+    private void scheduleRebuild(String schema) {
+        AtomicBoolean running = rebuilding.computeIfAbsent(schema, s -> new AtomicBoolean());
+        if (!running.compareAndSet(false, true)) return;
+        try {
+            rebuilder.execute(() -> {
+                TenantContext.setTenantSchema(schema);
+                try {
+                    snapshots.put(schema, build(schema));
+                } catch (Exception e) {
+                    log.warn("Shop directory rebuild failed for {}: {}", schema, e.getMessage());
+                } finally {
+                    running.set(false);
+                    TenantContext.clear();
+                }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+        }
+    }
+
+    /** Same rule as findActiveOwnersByRoleAndVerificationStatusAndBusinessIdIsNotNullOrderByBusinessNameAsc. */
+    private static boolean isListed(User u) {
+        return "owner".equalsIgnoreCase(u.getRole())
+                && "verified".equalsIgnoreCase(u.getVerificationStatus())
+                && u.getBusinessId() != null
+                && (u.getAccountStatus() == null || "active".equalsIgnoreCase(u.getAccountStatus()));
+    }
+
+    private AtomicLong version(String schema) {
+        return versions.computeIfAbsent(schema, s -> new AtomicLong());
+    }
+
+    private Snapshot build(String schema) {
+        long version = version(schema).get();
+        long builtAt = System.currentTimeMillis();
+        List<Shop> shops = new ArrayList<>();
+        Map<UUID, Shop> shopsByOwner = new HashMap<>();
+        for (User o : userRepository.findActiveOwnersByRoleAndVerificationStatusAndBusinessIdIsNotNullOrderByBusinessNameAsc("owner", "verified")) {
+            Shop shop = new Shop(o.getBusinessId(), o.getBusinessName());
+            shops.add(shop);
+            shopsByOwner.put(o.getUserId(), shop);
+        }
+        Map<UUID, ListingBuilder> byBusiness = new HashMap<>();
+        ListingBuilder all = new ListingBuilder();
+        for (Product p : productRepository.findCustomerFacingApproved()) {
+            StockLine line = new StockLine(p.getProductId(), p.getName(), p.getQuantity() != null ? p.getQuantity() : 0, p.getPrice());
+            all.add(line);
+            if (p.getBusinessId() != null) {
+                byBusiness.computeIfAbsent(p.getBusinessId(), b -> new ListingBuilder()).add(line);
+            }
+        }
+        Map<UUID, StockListing> stockByBusiness = new HashMap<>(byBusiness.size() * 2);
+        byBusiness.forEach((businessId, b) -> stockByBusiness.put(businessId, b.build()));
+        return new Snapshot(List.copyOf(shops), Map.copyOf(shopsByOwner), Collections.unmodifiableMap(stockByBusiness),
+                all.build(), builtAt, version);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    public record Shop(UUID businessId, String businessName) {}
+
+    public record StockLine(UUID productId, String name, int quantity, BigDecimal price) {}
+
+    /** Up to {@link #TOP_PRODUCTS} lines plus how many products there are in total. */
+    public record StockListing(List<StockLine> top, int total) {
+        static final StockListing EMPTY = new StockListing(List.of(), 0);
+    }
+
+    private record Snapshot(List<Shop> shops, Map<UUID, Shop> shopsByOwner, Map<UUID, StockListing> stockByBusiness,
+                            StockListing allStock, long builtAtMs, long version) {}
+
+    private static final class ListingBuilder {
+        private final List<StockLine> top = new ArrayList<>(TOP_PRODUCTS);
+        private int total;
+
+        void add(StockLine line) {
+            if (top.size() < TOP_PRODUCTS) top.add(line);
+            total++;
+        }
+
+        StockListing build() {
+            return new StockListing(List.copyOf(top), total);
+        }
+    }
+}
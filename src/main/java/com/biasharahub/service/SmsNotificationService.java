@@ -3,14 +3,14 @@ package com.biasharahub.service;
 import com.biasharahub.entity.Order;
 import com.biasharahub.entity.OrderItem;
 import com.biasharahub.entity.Product;
-import com.biasharahub.entity.ServiceAppointment;
 import com.biasharahub.entity.User;
+import com.biasharahub.enums.NotificationChannel;
+import com.biasharahub.enums.NotificationTemplateKey;
 import com.biasharahub.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,10 +20,11 @@ import java.util.UUID;
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class SmsNotificationService {
+public class SmsNotificationService implements NotificationChannelAdapter {
 
     private final SmsClient smsClient;
     private final UserRepository userRepository;
+    private final NotificationTemplateRegistry templates;
 
     /**
      * Notify seller (owner + staff) via SMS when a new order is placed for their business.
@@ -34,8 +35,7 @@ public class SmsNotificationService {
         String customerName = order.getUser() != null && order.getUser().getName() != null
                 ? order.getUser().getName()
                 : "a customer";
-        String body = String.format(
-                "BiasharaHub: New order #%s from %s. Total: %s. Log in to process the order.",
+        String body = templates.render(NotificationTemplateKey.SMS_SELLER_ORDER_CREATED,
                 order.getOrderNumber(),
                 customerName,
                 order.getTotalAmount());
@@ -46,6 +46,16 @@ public class SmsNotificationService {
         }
     }
 
+    @Override
+    public NotificationChannel channel() {
+        return NotificationChannel.SMS;
+    }
+
+    @Override
+    public void deliver(NotificationRecipient recipient, NotificationMessage message) {
+        smsClient.send(recipient.phone(), message.getSmsBody());
+    }
+
     private UUID getBusinessIdFromOrder(Order order) {
         if (order == null || order.getItems() == null || order.getItems().isEmpty()) return null;
         OrderItem first = order.getItems().get(0);
@@ -53,38 +63,18 @@ public class SmsNotificationService {
         return first.getProduct().getBusinessId();
     }
 
-    /** Returns owners and staff for the business who have an active account (receive notifications). */
+    /** Returns owners and staff for the business who have an active account and have not switched this channel off. */
     private List<User> getSellerUsers(UUID businessId) {
-        List<User> out = new ArrayList<>();
-        List<User> owners = userRepository.findByRoleIgnoreCaseAndBusinessId("owner", businessId);
-        List<User> staff = userRepository.findByRoleIgnoreCaseAndBusinessId("staff", businessId);
-        if (owners != null) out.addAll(owners);
-        if (staff != null) out.addAll(staff);
-        return out.stream()
-                .filter(u -> u.getAccountStatus() == null || "active".equalsIgnoreCase(u.getAccountStatus()))
-                .collect(java.util.stream.Collectors.toList());
-    }
-
-    /** Notify seller (owner + staff) via SMS when an order is paid. */
-    public void notifySellerPaymentCompleted(Order order) {
-        UUID businessId = getBusinessIdFromOrder(order);
-        if (businessId == null) return;
-        String body = String.format(
-                "BiasharaHub: Order #%s has been paid. You can now prepare and dispatch.",
-                order.getOrderNumber());
-        for (User u : getSellerUsers(businessId)) {
-            if (u.getPhone() != null && !u.getPhone().isBlank()) {
-                smsClient.send(u.getPhone(), body);
-            }
-        }
+        return userRepository.findActiveSellerUsersByBusinessId(businessId).stream()
+                .filter(channel()::isEnabledFor)
+                .toList();
     }
 
     /** Notify seller when product stock is running low. */
     public void notifySellerLowStock(Product product) {
         if (product == null || product.getBusinessId() == null) return;
         int qty = product.getQuantity() != null ? product.getQuantity() : 0;
-        String body = String.format(
-                "BiasharaHub: Low stock – \"%s\" has %d left. Consider restocking.",
+        String body = templates.render(NotificationTemplateKey.SMS_SELLER_LOW_STOCK,
                 product.getName() != null ? product.getName() : "Unknown",
                 qty);
         for (User u : getSellerUsers(product.getBusinessId())) {
@@ -94,12 +84,22 @@ public class SmsNotificationService {
         }
     }
 
+    /** Notify seller (owner + staff) with a summary of buffered order/low-stock alerts (see SellerAlertDigestService). */
+    public void notifySellerDigest(UUID businessId, String summary) {
+        if (businessId == null || summary == null || summary.isBlank()) return;
+        String body = templates.render(NotificationTemplateKey.SMS_SELLER_DIGEST, summary);
+        for (User u : getSellerUsers(businessId)) {
+            if (u.getPhone() != null && !u.getPhone().isBlank()) {
+                smsClient.send(u.getPhone(), body);
+            }
+        }
+    }
+
     /** Notify seller when a customer opens a dispute. */
     public void notifySellerDisputeCreated(Order order, String disputeType) {
         UUID businessId = getBusinessIdFromOrder(order);
         if (businessId == null) return;
-        String body = String.format(
-                "BiasharaHub: A customer opened a dispute for order #%s%s. Please respond in the dashboard.",
+        String body = templates.render(NotificationTemplateKey.SMS_SELLER_DISPUTE_CREATED,
                 order.getOrderNumber(),
                 disputeType != null && !disputeType.isBlank() ? " (" + disputeType + ")" : "");
         for (User u : getSellerUsers(businessId)) {
@@ -113,9 +113,7 @@ public class SmsNotificationService {
     public void notifySellerOrderCancelled(Order order) {
         UUID businessId = getBusinessIdFromOrder(order);
         if (businessId == null) return;
-        String body = String.format(
-                "BiasharaHub: Order #%s was cancelled. Inventory has been restored.",
-                order.getOrderNumber());
+        String body = templates.render(NotificationTemplateKey.SMS_SELLER_ORDER_CANCELLED, order.getOrderNumber());
         for (User u : getSellerUsers(businessId)) {
             if (u.getPhone() != null && !u.getPhone().isBlank()) {
                 smsClient.send(u.getPhone(), body);
@@ -128,7 +126,7 @@ public class SmsNotificationService {
         if (user == null) return;
         String phone = user.getPhone();
         if (phone == null || phone.isBlank()) return;
-        String body = "BiasharaHub: Your account has been disabled. You cannot log in or receive orders. Please contact the admin to resolve.";
+        String body = templates.render(NotificationTemplateKey.SMS_ACCOUNT_SUSPENDED);
         smsClient.send(phone, body);
     }
 
@@ -137,42 +135,7 @@ public class SmsNotificationService {
         if (user == null) return;
         String phone = user.getPhone();
         if (phone == null || phone.isBlank()) return;
-        String body = "BiasharaHub: Your account has been enabled. You can log in again and receive orders.";
+        String body = templates.render(NotificationTemplateKey.SMS_ACCOUNT_ENABLED);
         smsClient.send(phone, body);
     }
-
-    // ---------- Service bookings (BiasharaHub Services) ----------
-
-    /** Notify provider (owner + staff) when a new service appointment is booked. */
-    public void notifyProviderServiceBookingCreated(ServiceAppointment appointment) {
-        if (appointment == null || appointment.getService() == null || appointment.getService().getBusinessId() == null) return;
-        UUID businessId = appointment.getService().getBusinessId();
-        String customerName = appointment.getUser() != null && appointment.getUser().getName() != null
-                ? appointment.getUser().getName()
-                : (appointment.getUser() != null ? appointment.getUser().getEmail() : "a customer");
-        String serviceName = appointment.getService().getName() != null ? appointment.getService().getName() : "your service";
-        String dateTime = appointment.getRequestedDate() != null ? appointment.getRequestedDate().toString() : "";
-        if (appointment.getRequestedTime() != null) dateTime += " at " + appointment.getRequestedTime();
-        String body = String.format(
-                "BiasharaHub: New booking for \"%s\" from %s on %s. Log in to confirm.",
-                serviceName, customerName, dateTime);
-        for (User u : getSellerUsers(businessId)) {
-            if (u.getPhone() != null && !u.getPhone().isBlank()) smsClient.send(u.getPhone(), body);
-        }
-    }
-
-    /** Notify provider when a service booking is paid. */
-    public void notifyProviderServiceBookingPaymentCompleted(ServiceAppointment appointment) {
-        if (appointment == null || appointment.getService() == null || appointment.getService().getBusinessId() == null) return;
-        UUID businessId = appointment.getService().getBusinessId();
-        String serviceName = appointment.getService().getName() != null ? appointment.getService().getName() : "service";
-        String customerName = appointment.getUser() != null && appointment.getUser().getName() != null
-                ? appointment.getUser().getName() : "a customer";
-        String body = String.format(
-                "BiasharaHub: Payment received for \"%s\" from %s. See dashboard.",
-                serviceName, customerName);
-        for (User u : getSellerUsers(businessId)) {
-            if (u.getPhone() != null && !u.getPhone().isBlank()) smsClient.send(u.getPhone(), body);
-        }
-    }
 }
@@ -0,0 +1,47 @@
+package com.biasharahub.service;
+
+import com.biasharahub.config.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Work that JPA listeners defer until the writer's transaction commits (immediately when there is none), run in the
+ * writer's tenant. A failure is logged, never thrown back into the commit.
+ */
+@Slf4j
+final class TenantAfterCommit {
+
+    private TenantAfterCommit() {
+    }
+
+    /**
+     * @param what  short description for the failure log, e.g. "Insights rollup refresh"
+     * @param task  the work; runs with the tenant schema that is current now
+     */
+    static void run(String what, Runnable task) {
+        String schema = TenantContext.getTenantSchema();
+        Runnable inTenant = () -> {
+            String callerSchema = TenantContext.getTenantSchema();
+            TenantContext.setTenantSchema(schema);
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.warn("{} failed in {}: {}", what, schema, e.getMessage());
+            } finally {
+                if (callerSchema != null) TenantContext.setTenantSchema(callerSchema);
+                else TenantContext.clear();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    inTenant.run();
+                }
+            });
+        } else {
+            inTenant.run();
+        }
+    }
+}
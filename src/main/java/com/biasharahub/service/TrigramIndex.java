@@ -0,0 +1,130 @@
+package com.biasharahub.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Immutable trigram inverted index for typo-tolerant name search (same idea as Postgres pg_trgm). Text is
+ * lower-cased, punctuation becomes spaces, and each word is padded ("  sugar ") before cutting into trigrams.
+ * A query scores each candidate that shares at least one trigram by the share of the query's trigrams it contains
+ * (like pg_trgm word_similarity, so "avacado" finds "Avocado 1kg"), a little Jaccard similarity to prefer closer
+ * texts, and a bonus when the text starts with (+1) or contains (+0.5) the query, so exact substrings rank above
+ * fuzzy hits. Only posting lists of the query's trigrams are visited; no full scan.
+ */
+public final class TrigramIndex<T> {
+
+    private final List<T> items;
+    private final String[] texts;
+    private final int[] gramCounts;
+    private final Map<Long, int[]> postings;
+
+    private TrigramIndex(List<T> items, String[] texts, int[] gramCounts, Map<Long, int[]> postings) {
+        this.items = items;
+        this.texts = texts;
+        this.gramCounts = gramCounts;
+        this.postings = postings;
+    }
+
+    public static <T> TrigramIndex<T> build(List<T> items, Function<T, String> text) {
+        int n = items.size();
+        String[] texts = new String[n];
+        int[] gramCounts = new int[n];
+        Map<Long, List<Integer>> lists = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            texts[i] = normalize(text.apply(items.get(i)));
+            Set<Long> grams = trigrams(texts[i]);
+            gramCounts[i] = grams.size();
+            for (Long g : grams) {
+                lists.computeIfAbsent(g, k -> new ArrayList<>()).add(i);
+            }
+        }
+        Map<Long, int[]> postings = new HashMap<>(lists.size() * 2);
+        lists.forEach((g, ids) -> postings.put(g, ids.stream().mapToInt(Integer::intValue).toArray()));
+        return new TrigramIndex<>(List.copyOf(items), texts, gramCounts, postings);
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Best matches for the query, highest score first.
+     *
+     * @param minScore minimum score (0..2.1); around 0.5 tolerates a typo or two in a word
+     */
+    public List<Hit<T>> search(String query, int limit, double minScore) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0 || items.isEmpty()) return List.of();
+        Set<Long> queryGrams = trigrams(q);
+        int[] shared = new int[items.size()];
+        List<Integer> candidates = new ArrayList<>();
+        for (Long g : queryGrams) {
+            int[] ids = postings.get(g);
+            if (ids == null) continue;
+            for (int id : ids) {
+                if (shared[id]++ == 0) candidates.add(id);
+            }
+        }
+        PriorityQueue<Hit<T>> best = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Hit::score));
+        for (int id : candidates) {
+            int common = shared[id];
+            double score = (double) common / queryGrams.size()
+                    + 0.1 * common / (queryGrams.size() + gramCounts[id] - common);
+            if (texts[id].startsWith(q)) {
+                score += 1.0;
+            } else if (texts[id].contains(q)) {
+                score += 0.5;
+            }
+            if (score < minScore) continue;
+            if (best.size() < limit) {
+                best.add(new Hit<>(items.get(id), score));
+            } else if (score > best.peek().score()) {
+                best.poll();
+                best.add(new Hit<>(items.get(id), score));
+            }
+        }
+        List<Hit<T>> out = new ArrayList<>(best);
+        out.sort(Comparator.comparingDouble(Hit<T>::score).reversed());
+        return out;
+    }
+
+    static String normalize(String s) {
+        if (s == null) return "";
+        StringBuilder sb = new StringBuilder(s.length());
+        boolean space = true;
+        for (int i = 0; i < s.length(); i++) {
+            char c = Character.toLowerCase(s.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(c);
+                space = false;
+            } else if (!space) {
+                sb.append(' ');
+                space = true;
+            }
+        }
+        int len = sb.length();
+        if (len > 0 && sb.charAt(len - 1) == ' ') sb.setLength(len - 1);
+        return sb.toString();
+    }
+
+    private static Set<Long> trigrams(String normalized) {
+        Set<Long> grams = new HashSet<>();
+        for (String word : normalized.split(" ")) {
+            if (word.isEmpty()) continue;
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2));
+            }
+        }
+        return grams;
+    }
+
+    public record Hit<T>(T item, double score) {}
+}
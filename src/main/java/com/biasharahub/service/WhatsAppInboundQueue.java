@@ -0,0 +1,154 @@
+package com.biasharahub.service;
+
+import com.biasharahub.config.TenantContext;
+import com.biasharahub.util.PhoneNumbers;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inbound WhatsApp messages, handled off the webhook thread so Twilio gets its 200 straight away.
+ * Each sender is pinned to one single-threaded lane (by hash of the From number): one user's messages are
+ * processed in arrival order, different users run in parallel across lanes. Twilio redelivers a message with the
+ * same MessageSid when a webhook is slow; those repeats are dropped for {@code app.whatsapp.inbound.dedupe-window-ms}.
+ * Senders over their {@link PhoneRateLimiter} budget get one "slow down" reply, then are dropped until the bucket refills.
+ */
+@Component
+@Slf4j
+public class WhatsAppInboundQueue {
+
+    static final String SLOW_DOWN_REPLY =
+            "You're sending messages too quickly. Please wait a minute, then try again. Reply MENU when you're ready.";
+
+    private final WhatsAppChatbotService chatbotService;
+    private final PhoneRateLimiter rateLimiter;
+    private final WhatsAppClient whatsAppClient;
+    private final MeterRegistry meterRegistry;
+    private final Timer handleTimer;
+    private final ThreadPoolExecutor[] lanes;
+    private final long dedupeWindowMs;
+    /** MessageSid -> time first seen (ms). */
+    private final ConcurrentHashMap<String, Long> seenMessageSids = new ConcurrentHashMap<>();
+
+    public WhatsAppInboundQueue(
+            WhatsAppChatbotService chatbotService,
+            PhoneRateLimiter rateLimiter,
+            WhatsAppClient whatsAppClient,
+            MeterRegistry meterRegistry,
+            @Value("${app.whatsapp.inbound.lanes:8}") int laneCount,
+            @Value("${app.whatsapp.inbound.queue-capacity:200}") int queueCapacity,
+            @Value("${app.whatsapp.inbound.dedupe-window-ms:3600000}") long dedupeWindowMs) {
+        this.chatbotService = chatbotService;
+        this.rateLimiter = rateLimiter;
+        this.whatsAppClient = whatsAppClient;
+        this.meterRegistry = meterRegistry;
+        this.handleTimer = meterRegistry.timer("whatsapp.inbound.handle");
+        this.dedupeWindowMs = dedupeWindowMs;
+        this.lanes = new ThreadPoolExecutor[Math.max(1, laneCount)];
+        for (int i = 0; i < lanes.length; i++) {
+            String name = "whatsapp-inbound-" + (i + 1);
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), r -> {
+                        Thread t = new Thread(r, name);
+                        t.setDaemon(true);
+                        return t;
+                    }, new ThreadPoolExecutor.AbortPolicy());
+        }
+    }
+
+    /**
+     * Queue a message for the chatbot.
+     *
+     * @return false only when the sender's lane is full (caller should answer 503 so Twilio retries);
+     * duplicates and rate-limited messages are accepted and dropped
+     */
+    public boolean submit(String messageSid, String from, String body, String latitude, String longitude) {
+        long now = System.currentTimeMillis();
+        if (messageSid != null && !messageSid.isBlank() && seenMessageSids.putIfAbsent(messageSid, now) != null) {
+            count("duplicate");
+            return true;
+        }
+        String phone = PhoneNumbers.toE164(from);
+        Runnable task;
+        switch (rateLimiter.tryAcquire(phone != null ? phone : from)) {
+            case DROP -> {
+                countRateLimit("dropped");
+                return true;
+            }
+            case WARN -> {
+                countRateLimit("warned");
+                log.info("WhatsApp sender {} is over the rate limit; replying once, then dropping", from);
+                task = () -> whatsAppClient.sendMessage(phone != null ? phone : from, SLOW_DOWN_REPLY);
+            }
+            default -> {
+                countRateLimit("allowed");
+                String tenantSchema = TenantContext.getTenantSchema();
+                task = () -> handle(tenantSchema, from, body, latitude, longitude);
+            }
+        }
+        try {
+            laneFor(from).execute(task);
+        } catch (RejectedExecutionException e) {
+            // Forget the sid so Twilio's retry is processed
+            if (messageSid != null) seenMessageSids.remove(messageSid);
+            count("rejected");
+            log.warn("WhatsApp inbound lane full; rejecting message {} from {}", messageSid, from);
+            return false;
+        }
+        count("queued");
+        return true;
+    }
+
+    private void handle(String tenantSchema, String from, String body, String latitude, String longitude) {
+        TenantContext.setTenantSchema(tenantSchema);
+        try {
+            handleTimer.record(() -> chatbotService.handleIncomingMessage(from, body, latitude, longitude));
+        } catch (Exception e) {
+            log.warn("WhatsApp message from {} failed: {}", from, e.getMessage());
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private ThreadPoolExecutor laneFor(String from) {
+        return lanes[Math.floorMod(from.hashCode(), lanes.length)];
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("whatsapp.inbound", "outcome", outcome).increment();
+    }
+
+    private void countRateLimit(String outcome) {
+        meterRegistry.counter("whatsapp.rate_limit", "outcome", outcome).increment();
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void pruneSeenMessageSids() {
+        long cutoff = System.currentTimeMillis() - dedupeWindowMs;
+        seenMessageSids.values().removeIf(seenAt -> seenAt < cutoff);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        try {
+            for (ThreadPoolExecutor lane : lanes) {
+                lane.awaitTermination(10, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,13 +2,14 @@ package com.biasharahub.service;
 
 import com.biasharahub.entity.Order;
 import com.biasharahub.entity.OrderItem;
-import com.biasharahub.entity.Payment;
 import com.biasharahub.entity.Product;
 import com.biasharahub.entity.PurchaseOrder;
 import com.biasharahub.entity.ServiceAppointment;
 import com.biasharahub.entity.Shipment;
 import com.biasharahub.entity.SupplierDelivery;
 import com.biasharahub.entity.User;
+import com.biasharahub.enums.NotificationChannel;
+import com.biasharahub.enums.NotificationTemplateKey;
 import com.biasharahub.repository.OrderRepository;
 import com.biasharahub.repository.ShipmentRepository;
 import com.biasharahub.repository.UserRepository;
@@ -16,7 +17,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -27,23 +27,13 @@ import java.util.UUID;
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class WhatsAppNotificationService {
+public class WhatsAppNotificationService implements NotificationChannelAdapter {
 
     private final WhatsAppClient client;
     private final OrderRepository orderRepository;
     private final ShipmentRepository shipmentRepository;
     private final UserRepository userRepository;
-
-    public void notifyOrderCreated(Order order) {
-        orderRepository.findCustomerPhoneByOrderId(order.getOrderId()).filter(p -> p != null && !p.isBlank())
-                .ifPresent(phone -> {
-                    String body = String.format(
-                            "BiasharaHub: Your order #%s has been placed. Total: %s. Complete payment to confirm.",
-                            order.getOrderNumber(),
-                            order.getTotalAmount());
-                    client.sendMessage(phone, body);
-                });
-    }
+    private final NotificationTemplateRegistry templates;
 
     /**
      * Notify seller (owner + staff) via WhatsApp when a new order is placed for their business.
@@ -54,8 +44,7 @@ public class WhatsAppNotificationService {
         String customerName = order.getUser() != null && order.getUser().getName() != null
                 ? order.getUser().getName()
                 : "a customer";
-        String body = String.format(
-                "BiasharaHub: New order #%s from %s. Total: %s. Log in to process the order.",
+        String body = templates.render(NotificationTemplateKey.WHATSAPP_SELLER_ORDER_CREATED,
                 order.getOrderNumber(),
                 customerName,
                 order.getTotalAmount());
@@ -66,6 +55,16 @@ public class WhatsAppNotificationService {
         }
     }
 
+    @Override
+    public NotificationChannel channel() {
+        return NotificationChannel.WHATSAPP;
+    }
+
+    @Override
+    public void deliver(NotificationRecipient recipient, NotificationMessage message) {
+        client.sendMessage(recipient.phone(), message.getWhatsAppBody());
+    }
+
     private UUID getBusinessIdFromOrder(Order order) {
         if (order == null || order.getItems() == null || order.getItems().isEmpty()) return null;
         OrderItem first = order.getItems().get(0);
@@ -73,60 +72,18 @@ public class WhatsAppNotificationService {
         return first.getProduct().getBusinessId();
     }
 
-    /** Returns owners and staff for the business who have an active account (receive notifications). */
+    /** Returns owners and staff for the business who have an active account and have not switched this channel off. */
     private List<User> getSellerUsers(UUID businessId) {
-        List<User> out = new ArrayList<>();
-        List<User> owners = userRepository.findByRoleIgnoreCaseAndBusinessId("owner", businessId);
-        List<User> staff = userRepository.findByRoleIgnoreCaseAndBusinessId("staff", businessId);
-        if (owners != null) out.addAll(owners);
-        if (staff != null) out.addAll(staff);
-        return out.stream()
-                .filter(u -> u.getAccountStatus() == null || "active".equalsIgnoreCase(u.getAccountStatus()))
-                .collect(java.util.stream.Collectors.toList());
-    }
-
-    public void notifyPaymentRequested(Order order, Payment payment) {
-        orderRepository.findCustomerPhoneByOrderId(order.getOrderId()).filter(p -> p != null && !p.isBlank())
-                .ifPresent(phone -> {
-                    String body = String.format(
-                            "BiasharaHub: Pay KES %s for order #%s via M-Pesa to confirm. Check your phone for the prompt.",
-                            payment.getAmount(),
-                            order.getOrderNumber());
-                    client.sendMessage(phone, body);
-                });
-    }
-
-    public void notifyPaymentCompleted(UUID orderId, UUID paymentId) {
-        orderRepository.findById(orderId).flatMap(o -> orderRepository.findCustomerPhoneByOrderId(o.getOrderId()))
-                .filter(p -> p != null && !p.isBlank())
-                .ifPresent(phone -> orderRepository.findById(orderId).ifPresent(order -> {
-                    String body = String.format(
-                            "BiasharaHub: Payment received for order #%s. Your order is confirmed. We'll notify you when it ships.",
-                            order.getOrderNumber());
-                    client.sendMessage(phone, body);
-                }));
-    }
-
-    /** Notify seller (owner + staff) via WhatsApp when an order is paid. */
-    public void notifySellerPaymentCompleted(Order order) {
-        UUID businessId = getBusinessIdFromOrder(order);
-        if (businessId == null) return;
-        String body = String.format(
-                "BiasharaHub: Order #%s has been paid. You can now prepare and dispatch.",
-                order.getOrderNumber());
-        for (User u : getSellerUsers(businessId)) {
-            if (u.getPhone() != null && !u.getPhone().isBlank()) {
-                client.sendMessage(u.getPhone(), body);
-            }
-        }
+        return userRepository.findActiveSellerUsersByBusinessId(businessId).stream()
+                .filter(channel()::isEnabledFor)
+                .toList();
     }
 
     /** Notify seller when product stock is running low. */
     public void notifySellerLowStock(Product product) {
         if (product == null || product.getBusinessId() == null) return;
         int qty = product.getQuantity() != null ? product.getQuantity() : 0;
-        String body = String.format(
-                "BiasharaHub: Low stock – \"%s\" has %d left. Consider restocking.",
+        String body = templates.render(NotificationTemplateKey.WHATSAPP_SELLER_LOW_STOCK,
                 product.getName() != null ? product.getName() : "Unknown",
                 qty);
         for (User u : getSellerUsers(product.getBusinessId())) {
@@ -136,12 +93,22 @@ public class WhatsAppNotificationService {
         }
     }
 
+    /** Notify seller (owner + staff) with a summary of buffered order/low-stock alerts (see SellerAlertDigestService). */
+    public void notifySellerDigest(UUID businessId, String summary) {
+        if (businessId == null || summary == null || summary.isBlank()) return;
+        String body = templates.render(NotificationTemplateKey.WHATSAPP_SELLER_DIGEST, summary);
+        for (User u : getSellerUsers(businessId)) {
+            if (u.getPhone() != null && !u.getPhone().isBlank()) {
+                client.sendMessage(u.getPhone(), body);
+            }
+        }
+    }
+
     /** Notify seller when a customer opens a dispute. */
     public void notifySellerDisputeCreated(Order order, String disputeType) {
         UUID businessId = getBusinessIdFromOrder(order);
         if (businessId == null) return;
-        String body = String.format(
-                "BiasharaHub: A customer opened a dispute for order #%s%s. Please respond in the dashboard.",
+        String body = templates.render(NotificationTemplateKey.WHATSAPP_SELLER_DISPUTE_CREATED,
                 order.getOrderNumber(),
                 disputeType != null && !disputeType.isBlank() ? " (" + disputeType + ")" : "");
         for (User u : getSellerUsers(businessId)) {
@@ -153,61 +120,18 @@ public class WhatsAppNotificationService {
 
     // ---------- Service bookings (BiasharaHub Services) ----------
 
-    /** Notify customer that their service appointment was booked. */
-    public void notifyServiceBookingCreated(ServiceAppointment appointment) {
-        if (appointment == null || appointment.getUser() == null) return;
-        String phone = appointment.getUser().getPhone();
-        if (phone == null || phone.isBlank()) return;
-        String serviceName = appointment.getService() != null ? appointment.getService().getName() : "your service";
-        String dateTime = appointment.getRequestedDate() != null ? appointment.getRequestedDate().toString() : "";
-        if (appointment.getRequestedTime() != null) dateTime += " at " + appointment.getRequestedTime();
-        String body = String.format(
-                "BiasharaHub: Your appointment for \"%s\" on %s has been booked. Pay in the app to confirm.",
-                serviceName, dateTime);
-        client.sendMessage(phone, body);
-    }
-
-    /** Notify provider (owner + staff) when a new service appointment is booked. */
-    public void notifyProviderServiceBookingCreated(ServiceAppointment appointment) {
-        if (appointment == null || appointment.getService() == null || appointment.getService().getBusinessId() == null) return;
-        String customerName = appointment.getUser() != null && appointment.getUser().getName() != null
-                ? appointment.getUser().getName()
-                : (appointment.getUser() != null ? appointment.getUser().getEmail() : "a customer");
-        String serviceName = appointment.getService().getName() != null ? appointment.getService().getName() : "your service";
-        String dateTime = appointment.getRequestedDate() != null ? appointment.getRequestedDate().toString() : "";
-        if (appointment.getRequestedTime() != null) dateTime += " at " + appointment.getRequestedTime();
-
-        StringBuilder body = new StringBuilder();
-        body.append("BiasharaHub: New booking for \"").append(serviceName).append("\" from ").append(customerName);
-        body.append(" on ").append(dateTime).append(".");
-
-        // Include customer location for physical services
-        if (appointment.getCustomerLocationDescription() != null && !appointment.getCustomerLocationDescription().isBlank()) {
-            body.append("\n📍 Customer location: ").append(appointment.getCustomerLocationDescription());
-        } else if (appointment.getCustomerLocationLat() != null && appointment.getCustomerLocationLng() != null) {
-            body.append("\n📍 Customer location: https://www.google.com/maps?q=")
-                    .append(appointment.getCustomerLocationLat()).append(",").append(appointment.getCustomerLocationLng());
-        }
-
-        body.append("\nLog in to confirm.");
-
-        for (User u : getSellerUsers(appointment.getService().getBusinessId())) {
-            if (u.getPhone() != null && !u.getPhone().isBlank()) client.sendMessage(u.getPhone(), body.toString());
-        }
-    }
-
     /** Notify customer and provider with meeting link (virtual, booking confirmed). */
     public void notifyServiceMeetingLinkSent(ServiceAppointment appointment, String meetingLink) {
         if (appointment == null || meetingLink == null || meetingLink.isBlank()) return;
         String serviceName = appointment.getService() != null ? appointment.getService().getName() : "your service";
+        String body = templates.render(NotificationTemplateKey.WHATSAPP_SERVICE_MEETING_LINK, serviceName, meetingLink);
         if (appointment.getUser() != null) {
             String phone = appointment.getUser().getPhone();
             if (phone != null && !phone.isBlank()) {
-                client.sendMessage(phone, "BiasharaHub: Meeting link for \"" + serviceName + "\": " + meetingLink);
+                client.sendMessage(phone, body);
             }
         }
         if (appointment.getService() != null && appointment.getService().getBusinessId() != null) {
-            String body = "BiasharaHub: Meeting link for \"" + serviceName + "\": " + meetingLink;
             for (User u : getSellerUsers(appointment.getService().getBusinessId())) {
                 if (u.getPhone() != null && !u.getPhone().isBlank()) client.sendMessage(u.getPhone(), body);
             }
@@ -221,39 +145,15 @@ public class WhatsAppNotificationService {
         if (phone == null || phone.isBlank()) return;
         String serviceName = appointment.getService() != null ? appointment.getService().getName() : "your service";
         String status = appointment.getStatus() != null ? appointment.getStatus() : "";
-        String body = String.format("BiasharaHub: Your appointment for \"%s\" is now %s.", serviceName, status);
-        client.sendMessage(phone, body);
-    }
-
-    /** Notify customer that their booking payment was received. */
-    public void notifyServiceBookingPaymentCompletedCustomer(ServiceAppointment appointment) {
-        if (appointment == null || appointment.getUser() == null) return;
-        String phone = appointment.getUser().getPhone();
-        if (phone == null || phone.isBlank()) return;
-        String serviceName = appointment.getService() != null ? appointment.getService().getName() : "your service";
-        String body = String.format("BiasharaHub: Payment received for \"%s\". Your booking is confirmed.", serviceName);
+        String body = templates.render(NotificationTemplateKey.WHATSAPP_SERVICE_BOOKING_STATUS, serviceName, status);
         client.sendMessage(phone, body);
     }
 
-    /** Notify provider when a service booking is paid. */
-    public void notifyServiceBookingPaymentCompletedProvider(ServiceAppointment appointment) {
-        if (appointment == null || appointment.getService() == null || appointment.getService().getBusinessId() == null) return;
-        String serviceName = appointment.getService().getName() != null ? appointment.getService().getName() : "service";
-        String customerName = appointment.getUser() != null && appointment.getUser().getName() != null
-                ? appointment.getUser().getName() : "a customer";
-        String body = String.format("BiasharaHub: Payment received for \"%s\" from %s. See dashboard.", serviceName, customerName);
-        for (User u : getSellerUsers(appointment.getService().getBusinessId())) {
-            if (u.getPhone() != null && !u.getPhone().isBlank()) client.sendMessage(u.getPhone(), body);
-        }
-    }
-
     /** Notify seller when an order is cancelled. */
     public void notifySellerOrderCancelled(Order order) {
         UUID businessId = getBusinessIdFromOrder(order);
         if (businessId == null) return;
-        String body = String.format(
-                "BiasharaHub: Order #%s was cancelled. Inventory has been restored.",
-                order.getOrderNumber());
+        String body = templates.render(NotificationTemplateKey.WHATSAPP_SELLER_ORDER_CANCELLED, order.getOrderNumber());
         for (User u : getSellerUsers(businessId)) {
             if (u.getPhone() != null && !u.getPhone().isBlank()) {
                 client.sendMessage(u.getPhone(), body);
@@ -266,7 +166,7 @@ public class WhatsAppNotificationService {
         if (user == null) return;
         String phone = user.getPhone();
         if (phone == null || phone.isBlank()) return;
-        String body = "BiasharaHub: Your account has been disabled. You cannot log in or receive orders. Please contact the admin to resolve.";
+        String body = templates.render(NotificationTemplateKey.WHATSAPP_ACCOUNT_SUSPENDED);
         client.sendMessage(phone, body);
     }
 
@@ -275,7 +175,7 @@ public class WhatsAppNotificationService {
         if (user == null) return;
         String phone = user.getPhone();
         if (phone == null || phone.isBlank()) return;
-        String body = "BiasharaHub: Your account has been enabled. You can log in again and receive orders.";
+        String body = templates.render(NotificationTemplateKey.WHATSAPP_ACCOUNT_ENABLED);
         client.sendMessage(phone, body);
     }
 
@@ -287,7 +187,7 @@ public class WhatsAppNotificationService {
         userRepository.findByEmail(email.trim().toLowerCase()).ifPresent(u -> {
             if (u.getPhone() != null && !u.getPhone().isBlank()) {
                 String poNumber = po.getPoNumber() != null ? po.getPoNumber() : "PO";
-                String body = String.format("BiasharaHub: New purchase order %s has been created for you. Log in to view and submit your dispatch.", poNumber);
+                String body = templates.render(NotificationTemplateKey.WHATSAPP_SUPPLIER_PO_CREATED, poNumber);
                 client.sendMessage(u.getPhone(), body);
             }
         });
@@ -299,7 +199,7 @@ public class WhatsAppNotificationService {
         String poNumber = d.getPurchaseOrder() != null ? d.getPurchaseOrder().getPoNumber() : null;
         String supplierName = d.getSupplier() != null ? d.getSupplier().getName() : null;
         String detail = (supplierName != null && !supplierName.isBlank() ? supplierName + " " : "") + (poNumber != null && !poNumber.isBlank() ? "for " + poNumber : "");
-        String body = String.format("BiasharaHub: A supplier has submitted a dispatch%s. Log in to confirm receipt.", detail.isEmpty() ? "" : " " + detail);
+        String body = templates.render(NotificationTemplateKey.WHATSAPP_SELLER_SUPPLIER_DISPATCHED, detail.isEmpty() ? "" : " " + detail);
         for (User u : getSellerUsers(d.getBusinessId())) {
             if (u.getPhone() != null && !u.getPhone().isBlank()) client.sendMessage(u.getPhone(), body);
         }
@@ -313,7 +213,7 @@ public class WhatsAppNotificationService {
         userRepository.findByEmail(email.trim().toLowerCase()).ifPresent(u -> {
             if (u.getPhone() != null && !u.getPhone().isBlank()) {
                 String poNumber = d.getPurchaseOrder() != null ? d.getPurchaseOrder().getPoNumber() : null;
-                String body = String.format("BiasharaHub: The seller has confirmed receipt of your dispatch%s. Thank you.", poNumber != null && !poNumber.isBlank() ? " for " + poNumber : "");
+                String body = templates.render(NotificationTemplateKey.WHATSAPP_SUPPLIER_RECEIPT_CONFIRMED, poNumber != null && !poNumber.isBlank() ? " for " + poNumber : "");
                 client.sendMessage(u.getPhone(), body);
             }
         });
@@ -327,24 +227,20 @@ public class WhatsAppNotificationService {
                     String status = shipment.getStatus() != null ? shipment.getStatus() : "";
                     String body;
                     if ("DELIVERED".equalsIgnoreCase(status) || "COLLECTED".equalsIgnoreCase(status)) {
-                        body = String.format(
-                                "BiasharaHub: Delivered! Your order #%s has been delivered. Thank you for shopping with us!",
-                                order.getOrderNumber());
+                        body = templates.render(NotificationTemplateKey.WHATSAPP_SHIPMENT_DELIVERED, order.getOrderNumber());
                     } else if ("IN_TRANSIT".equalsIgnoreCase(status) || "OUT_FOR_DELIVERY".equalsIgnoreCase(status) || "SHIPPED".equalsIgnoreCase(status)) {
                         String details = buildDispatchDetails(shipment);
                         String otpInfo = (shipment.getOtpCode() != null && !shipment.getOtpCode().isBlank())
                                 ? " Delivery OTP: " + shipment.getOtpCode() + " (for confirmation on receipt)."
                                 : "";
-                        body = String.format(
-                                "BiasharaHub: Your order #%s has been dispatched.%s%s",
+                        body = templates.render(NotificationTemplateKey.WHATSAPP_SHIPMENT_DISPATCHED,
                                 order.getOrderNumber(),
                                 details.isEmpty() ? "" : " " + details,
                                 otpInfo);
                     } else if ("CREATED".equalsIgnoreCase(status)) {
                         return;
                     } else {
-                        body = String.format(
-                                "BiasharaHub: Order #%s – %s.",
+                        body = templates.render(NotificationTemplateKey.WHATSAPP_SHIPMENT_STATUS,
                                 order.getOrderNumber(),
                                 status);
                     }
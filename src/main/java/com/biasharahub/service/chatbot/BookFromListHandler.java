@@ -0,0 +1,28 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.User;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * A number on the service list: book that service.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookFromListHandler implements ChatCommandHandler {
+
+    private final ChatServiceReplies serviceReplies;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.BOOK_FROM_LIST;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        return serviceReplies.book(user, session, Integer.parseInt(route.argument()), null, null, null, null, null);
+    }
+}
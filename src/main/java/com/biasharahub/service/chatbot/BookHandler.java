@@ -0,0 +1,51 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.User;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Pattern;
+
+/**
+ * "BOOK 1", "BOOK 1 2026-02-25", "BOOK 1 2026-02-25 10:00", "BOOK 1 at Westlands"; passes when none of these parse.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookHandler implements ChatCommandHandler {
+
+    /** Book a service by list number: "BOOK 1" or "BOOK 2 2026-02-25" or "BOOK 1 at Westlands" */
+    private static final Pattern BOOK_SERVICE = Pattern.compile("(?i)^book\\s+(\\d+)(?:\\s+(\\d{4}-\\d{2}-\\d{2}))?(?:\\s+(\\d{1,2}:\\d{2}))?(?:\\s+at\\s+(.+))?\\s*$");
+    /** Book with location only: "BOOK 1 at Westlands Mall" (no date) */
+    private static final Pattern BOOK_SERVICE_LOCATION = Pattern.compile("(?i)^book\\s+(\\d+)\\s+at\\s+(.+)$");
+
+    private final ChatServiceReplies serviceReplies;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.BOOK;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        // Try location-only pattern first: "BOOK 1 at Westlands Mall"
+        var locationMatcher = BOOK_SERVICE_LOCATION.matcher(route.input().message());
+        if (locationMatcher.matches()) {
+            int listNum = Integer.parseInt(locationMatcher.group(1));
+            String locationDesc = locationMatcher.group(2).trim();
+            return serviceReplies.book(user, session, listNum, null, null, null, null, locationDesc);
+        }
+        // Full pattern: "BOOK 1 2026-02-25 10:00 at Westlands"
+        var bookMatcher = BOOK_SERVICE.matcher(route.input().message());
+        if (bookMatcher.matches()) {
+            int listNum = Integer.parseInt(bookMatcher.group(1));
+            String dateStr = bookMatcher.group(2);
+            String timeStr = bookMatcher.group(3);
+            String locationDesc = bookMatcher.group(4) != null ? bookMatcher.group(4).trim() : null;
+            return serviceReplies.book(user, session, listNum, dateStr, timeStr, null, null, locationDesc);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.User;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import com.biasharahub.service.ChatSession.ChatStage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 2 on the main menu: the shop list, to pick a shop's stock.
+ */
+@Component
+@RequiredArgsConstructor
+public class BrowseStockHandler implements ChatCommandHandler {
+
+    private final ChatCatalogReplies catalogReplies;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.BROWSE_STOCK;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        session.setStage(ChatStage.SHOP_LIST);
+        return catalogReplies.shops();
+    }
+}
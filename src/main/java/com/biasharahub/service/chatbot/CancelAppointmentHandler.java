@@ -0,0 +1,48 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.User;
+import com.biasharahub.repository.ServiceAppointmentRepository;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Provider CANCEL APT &lt;n&gt;: cancel an appointment from the last APPOINTMENTS list.
+ */
+@Component
+@RequiredArgsConstructor
+public class CancelAppointmentHandler implements ChatCommandHandler {
+
+    private final ServiceAppointmentRepository serviceAppointmentRepository;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.CANCEL_APPOINTMENT;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        return cancelAppointment(user, session, Integer.parseInt(route.argument()));
+    }
+
+    private String cancelAppointment(User owner, ChatSession session, int listNum) {
+        List<UUID> ids = session.getLastProviderAppointmentIds();
+        if (ids == null || listNum < 1 || listNum > ids.size()) {
+            return "Reply APPOINTMENTS first, then CANCEL APT <number> (e.g. CANCEL APT 1).";
+        }
+        UUID aptId = ids.get(listNum - 1);
+        return serviceAppointmentRepository.findById(aptId)
+                .filter(apt -> apt.getService() != null && owner.getBusinessId().equals(apt.getService().getBusinessId()))
+                .map(apt -> {
+                    apt.setStatus("CANCELLED");
+                    serviceAppointmentRepository.save(apt);
+                    return "Appointment " + listNum + " cancelled.";
+                })
+                .orElse("Appointment not found. Reply APPOINTMENTS to refresh the list.");
+    }
+}
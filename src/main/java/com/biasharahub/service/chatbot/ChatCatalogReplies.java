@@ -0,0 +1,159 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.service.CatalogSearchIndex;
+import com.biasharahub.service.ChatSession;
+import com.biasharahub.service.ShopDirectory;
+import com.biasharahub.service.TrigramIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.biasharahub.service.chatbot.ChatReplies.MAX_PRODUCTS_IN_REPLY;
+import static com.biasharahub.service.chatbot.ChatReplies.MAX_SHOPS_IN_REPLY;
+
+/**
+ * Shop and stock replies shared by the chatbot's product commands (SHOPS, STOCK, list picks). Product lists are
+ * stored on the session for "ORDER 1 2". Customer-facing only (subdivisions, not originals).
+ */
+@Component
+@RequiredArgsConstructor
+public class ChatCatalogReplies {
+
+    private final ShopDirectory shopDirectory;
+    private final CatalogSearchIndex catalogSearchIndex;
+
+    @Value("${app.storefront-url:https://biasharahub-app.sysnovatechnologies.com}")
+    private String storefrontUrl;
+
+    /** List all shops (verified stores). */
+    public String shops() {
+        List<ShopDirectory.Shop> owners = shopDirectory.shops();
+        if (owners.isEmpty()) {
+            return "No shops available at the moment. Visit " + storefrontUrl + " to check back later.";
+        }
+        int limit = Math.min(owners.size(), MAX_SHOPS_IN_REPLY);
+        StringBuilder sb = new StringBuilder();
+        sb.append("Shops on BiasharaHub:\n\n");
+        for (int i = 0; i < limit; i++) {
+            ShopDirectory.Shop o = owners.get(i);
+            String name = o.businessName() != null ? o.businessName() : "Shop " + (i + 1);
+            sb.append(i + 1).append(". ").append(name).append("\n");
+        }
+        if (owners.size() > limit) {
+            sb.append("\n... and ").append(owners.size() - limit).append(" more.");
+        }
+        String firstName = owners.get(0).businessName() != null ? owners.get(0).businessName() : "1";
+        sb.append("\n\nReply 1, 2, 3, ... or STOCK 1 / STOCK ")
+                .append(firstName)
+                .append(" to see products from a shop. Reply STOCK ALL for all products.");
+        return sb.toString();
+    }
+
+    /** Resolve shop by number (1-based), name, or "all"; return products from that shop or all. */
+    public String stockByShop(ChatSession session, String shopArg) {
+        if (shopArg != null && shopArg.trim().equalsIgnoreCase("all")) {
+            return allStock(session);
+        }
+        List<ShopDirectory.Shop> owners = shopDirectory.shops();
+        if (owners.isEmpty()) return "No shops available.";
+
+        UUID businessId = null;
+        String shopName = null;
+        try {
+            int num = Integer.parseInt(shopArg.trim());
+            if (num >= 1 && num <= owners.size()) {
+                ShopDirectory.Shop o = owners.get(num - 1);
+                businessId = o.businessId();
+                shopName = o.businessName();
+            }
+        } catch (NumberFormatException ignored) {
+            // Search by name (typo-tolerant, best match)
+            List<TrigramIndex.Hit<CatalogSearchIndex.ShopEntry>> shops = catalogSearchIndex.searchShops(shopArg.trim(), 1);
+            if (!shops.isEmpty()) {
+                businessId = shops.get(0).item().businessId();
+                shopName = shops.get(0).item().businessName();
+            } else {
+                // Not a shop name: maybe a product ("STOCK sugar")
+                String byProduct = productSearch(session, shopArg.trim());
+                if (byProduct != null) return byProduct;
+            }
+        }
+        if (businessId == null) {
+            return "Shop not found. Reply SHOPS to see all shops, or try STOCK <shop name>.";
+        }
+        return stockForShop(session, businessId, shopName);
+    }
+
+    /** Products matching a search term across shops, or null if none. */
+    private String productSearch(ChatSession session, String term) {
+        List<TrigramIndex.Hit<CatalogSearchIndex.ProductEntry>> hits = catalogSearchIndex.searchProducts(term, MAX_PRODUCTS_IN_REPLY);
+        if (hits.isEmpty()) return null;
+        List<UUID> ids = new ArrayList<>(hits.size());
+        StringBuilder sb = new StringBuilder();
+        sb.append("Products matching \"").append(term).append("\" (prices per item):\n\n");
+        for (int i = 0; i < hits.size(); i++) {
+            CatalogSearchIndex.ProductEntry p = hits.get(i).item();
+            ids.add(p.productId());
+            sb.append(i + 1).append(". ").append(p.name() != null ? p.name() : "Product");
+            if (p.businessName() != null) sb.append(" (").append(p.businessName()).append(")");
+            sb.append(" – KES ").append(p.price()).append(" each\n");
+        }
+        session.setLastProductIds(ids);
+        sb.append("\nReply ORDER <number> <qty> to order (e.g. ORDER 1 2). Reply SHOPS to browse by shop, MENU for main menu.");
+        return sb.toString();
+    }
+
+    /** Products from one shop. Prices are per item. */
+    private String stockForShop(ChatSession session, UUID businessId, String shopName) {
+        ShopDirectory.StockListing products = shopDirectory.stockForShop(businessId);
+        if (products.total() == 0) {
+            return (shopName != null ? shopName + ": " : "") + "No products in stock right now. Reply SHOPS to see other shops, or MENU for main menu.";
+        }
+        int limit = Math.min(products.top().size(), MAX_PRODUCTS_IN_REPLY);
+        List<UUID> ids = new ArrayList<>(limit);
+        StringBuilder sb = new StringBuilder();
+        sb.append(shopName != null ? shopName : "Shop").append(" – product stock (prices per item):\n\n");
+        for (int i = 0; i < limit; i++) {
+            ShopDirectory.StockLine p = products.top().get(i);
+            ids.add(p.productId());
+            String name = p.name() != null ? p.name() : "Product";
+            sb.append(i + 1).append(". ").append(name)
+                    .append(" – ").append(p.quantity()).append(" in stock. KES ").append(p.price()).append(" each\n");
+        }
+        session.setLastProductIds(ids);
+        if (products.total() > limit) {
+            sb.append("\n... and ").append(products.total() - limit).append(" more. Visit ").append(storefrontUrl).append(" to see all.");
+        }
+        sb.append("\n\nReply ORDER <number> <qty> to order (e.g. ORDER 1 2). Reply SHOPS for another shop, MENU for main menu.");
+        return sb.toString();
+    }
+
+    /** All products (all shops). Prices per item. */
+    private String allStock(ChatSession session) {
+        ShopDirectory.StockListing products = shopDirectory.allStock();
+        if (products.total() == 0) {
+            return "We don't have any products in stock right now. Reply SHOPS to see shops, or MENU for main menu, or visit " + storefrontUrl;
+        }
+        int limit = Math.min(products.top().size(), MAX_PRODUCTS_IN_REPLY);
+        List<UUID> ids = new ArrayList<>(limit);
+        StringBuilder sb = new StringBuilder();
+        sb.append("Product stock (all shops, prices per item):\n\n");
+        for (int i = 0; i < limit; i++) {
+            ShopDirectory.StockLine p = products.top().get(i);
+            ids.add(p.productId());
+            String name = p.name() != null ? p.name() : "Product";
+            sb.append(i + 1).append(". ").append(name)
+                    .append(" – ").append(p.quantity()).append(" in stock. KES ").append(p.price()).append(" each\n");
+        }
+        session.setLastProductIds(ids);
+        if (products.total() > limit) {
+            sb.append("\n... and ").append(products.total() - limit).append(" more. Visit ").append(storefrontUrl).append(" to see all.");
+        }
+        sb.append("\n\nReply ORDER <number> <qty> to order (e.g. ORDER 1 2). Reply SHOPS to browse by shop, MENU for main menu.");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,80 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * The chatbot main menu: business options for verified sellers and service providers, shop and service options
+ * for customers and unlinked numbers.
+ */
+@Component
+public class ChatMenu {
+
+    @Value("${app.storefront-url:https://biasharahub-app.sysnovatechnologies.com}")
+    private String storefrontUrl;
+
+    /** Owner with a business that is a verified (or tiered) product seller. */
+    public static boolean isProductSeller(User user) {
+        boolean isOwner = user != null && "owner".equalsIgnoreCase(user.getRole());
+        UUID businessId = user != null ? user.getBusinessId() : null;
+        return isOwner && businessId != null && ("verified".equalsIgnoreCase(user.getVerificationStatus()) || user.getSellerTier() != null);
+    }
+
+    /** Owner with a business that is a verified service provider. */
+    public static boolean isServiceProvider(User user) {
+        boolean isOwner = user != null && "owner".equalsIgnoreCase(user.getRole());
+        UUID businessId = user != null ? user.getBusinessId() : null;
+        return isOwner && businessId != null && "verified".equalsIgnoreCase(user.getServiceProviderStatus());
+    }
+
+    public String menu(User user) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("BiasharaHub 24/7 Assistant\n\n");
+        boolean isProductSeller = isProductSeller(user);
+        boolean isServiceProvider = isServiceProvider(user);
+        boolean ownerOnlyMenu = isProductSeller || isServiceProvider;
+
+        if (ownerOnlyMenu) {
+            // Sellers and providers see only their business options; no customer (shops, order, book) options
+            if (isProductSeller) {
+                sb.append("*YOUR SHOP*\n");
+                sb.append("1. Shop orders – reply ORDERS\n");
+                sb.append("2. Confirm order – CONFIRM <n> (e.g. CONFIRM 1)\n");
+                sb.append("3. Mark shipped – SHIP <n> (e.g. SHIP 1)\n");
+                sb.append("4. My products – reply PRODUCTS\n");
+                sb.append("5. Low stock – reply LOW STOCK\n\n");
+            }
+            if (isServiceProvider) {
+                sb.append("*YOUR SERVICES*\n");
+                sb.append("6. Appointments – reply APPOINTMENTS\n");
+                sb.append("7. Confirm/Cancel – CONFIRM APT <n> / CANCEL APT <n>\n");
+                sb.append("8. My services – reply MY SERVICES\n\n");
+            }
+            sb.append("You can only manage your own business here. Reply MENU anytime.");
+        } else {
+            // Customer menu (or unlinked user)
+            sb.append("*PRODUCTS (shops)*\n");
+            sb.append("1. Browse shops – reply SHOPS\n");
+            sb.append("2. Check stock – reply STOCK or STOCK <shop>\n");
+            sb.append("3. My orders – reply ORDER\n");
+            sb.append("4. Pay for order – reply PAY\n");
+            sb.append("5. Delivery status – reply DELIVERY\n\n");
+            sb.append("*SERVICES (expertise, skills, talents)*\n");
+            sb.append("6. Service providers – reply SERVICES\n");
+            sb.append("   • Verified professionals (online or in-person)\n");
+            sb.append("   • Reply LOCATION <number> to see provider address/map before booking\n");
+            sb.append("   • For in-person: share your location or type BOOK 1 at <your address>\n");
+            sb.append("7. My bookings – reply MY BOOKINGS\n");
+            sb.append("8. Pay for booking – reply PAY SERVICE\n\n");
+            if (user == null) {
+                sb.append("Register at ").append(storefrontUrl).append(" to order products or book services.");
+            } else {
+                sb.append("Browse: ").append(storefrontUrl).append(" (shops & services). Reply MENU anytime.");
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,32 @@
+package com.biasharahub.service.chatbot;
+
+/**
+ * Reply size limits and small helpers shared by the WhatsApp chatbot command handlers.
+ */
+final class ChatReplies {
+
+    static final int MAX_SHOPS_IN_REPLY = 20;
+    static final int MAX_PRODUCTS_IN_REPLY = 12;
+    static final int MAX_ORDERS_IN_REPLY = 5;
+    static final int MAX_SERVICE_PROVIDERS_IN_REPLY = 15;
+    static final int MAX_SERVICES_IN_REPLY = 10;
+    static final int MAX_BOOKINGS_IN_REPLY = 5;
+
+    static final String NO_MPESA_NUMBER =
+            "We need your M-Pesa number to send the payment request. Please ensure your profile has a valid phone number.";
+
+    private ChatReplies() {
+    }
+
+    /** The chat phone as an M-Pesa number (2547XXXXXXXX), or null when it is too short. */
+    static String mpesaPhone(String phone) {
+        String digits = phone.replaceAll("\\D", "");
+        if (digits.startsWith("254")) {
+            return digits;
+        }
+        if (digits.length() >= 9) {
+            return "254" + (digits.length() == 9 ? digits : digits.substring(digits.length() - 9));
+        }
+        return null;
+    }
+}
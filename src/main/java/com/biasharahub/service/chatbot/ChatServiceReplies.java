@@ -0,0 +1,349 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.ServiceAppointment;
+import com.biasharahub.entity.ServiceBookingPayment;
+import com.biasharahub.entity.ServiceOffering;
+import com.biasharahub.entity.User;
+import com.biasharahub.repository.ServiceAppointmentRepository;
+import com.biasharahub.repository.ServiceBookingPaymentRepository;
+import com.biasharahub.repository.ServiceOfferingRepository;
+import com.biasharahub.repository.UserRepository;
+import com.biasharahub.service.ChatSession;
+import com.biasharahub.service.ChatSession.CustomerLocation;
+import com.biasharahub.service.NotificationDispatcher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.biasharahub.service.chatbot.ChatReplies.MAX_BOOKINGS_IN_REPLY;
+import static com.biasharahub.service.chatbot.ChatReplies.MAX_SERVICES_IN_REPLY;
+
+/**
+ * Service replies shared by the chatbot's customer service commands: a provider's services (picked from the
+ * provider list or by SERVICE &lt;n|name&gt;), booking from the service list, and unpaid bookings. Service and
+ * booking lists are stored on the session for BOOK &lt;n&gt; and PAY SERVICE &lt;n&gt;.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatServiceReplies {
+
+    private final UserRepository userRepository;
+    private final ServiceOfferingRepository serviceOfferingRepository;
+    private final ServiceAppointmentRepository serviceAppointmentRepository;
+    private final ServiceBookingPaymentRepository serviceBookingPaymentRepository;
+    private final NotificationDispatcher notificationDispatcher;
+
+    @Value("${app.storefront-url:https://biasharahub-app.sysnovatechnologies.com}")
+    private String storefrontUrl;
+
+    /** List services from a provider by number or name. */
+    public String servicesByProvider(ChatSession session, String providerArg) {
+        List<UUID> providerIds = session.getLastServiceProviderIds();
+        UUID providerId = null;
+        String providerName = null;
+
+        try {
+            int num = Integer.parseInt(providerArg.trim());
+            if (providerIds != null && num >= 1 && num <= providerIds.size()) {
+                providerId = providerIds.get(num - 1);
+            }
+        } catch (NumberFormatException ignored) {
+            // Search by name
+            List<User> providers = userRepository
+                    .findActiveOwnersByRoleAndServiceProviderStatusAndBusinessIdIsNotNullOrderByBusinessNameAsc("owner", "verified");
+            String search = providerArg.trim().toLowerCase();
+            for (User p : providers) {
+                String name = p.getBusinessName() != null ? p.getBusinessName() : p.getName();
+                if (name != null && name.toLowerCase().contains(search)) {
+                    providerId = p.getUserId();
+                    providerName = name;
+                    break;
+                }
+            }
+        }
+
+        if (providerId == null) {
+            return "Provider not found. Reply SERVICES to see all service providers, or try SERVICE <name>.";
+        }
+
+        User provider = userRepository.findById(providerId).orElse(null);
+        if (provider == null || provider.getBusinessId() == null) {
+            return "Provider not found. Reply SERVICES to see all.";
+        }
+
+        if (providerName == null) {
+            providerName = provider.getBusinessName() != null ? provider.getBusinessName() : provider.getName();
+        }
+
+        return servicesForProvider(session, provider.getBusinessId(), providerName, provider);
+    }
+
+    /** List services from a specific provider/business. */
+    private String servicesForProvider(ChatSession session, UUID businessId, String providerName, User provider) {
+        Set<UUID> businessIds = Set.of(businessId);
+        List<ServiceOffering> services = serviceOfferingRepository.findByBusinessIdIn(businessIds, false);
+        if (services.isEmpty()) {
+            return (providerName != null ? providerName + ": " : "") + "No services available. Reply SERVICES for other providers, or MENU for main menu.";
+        }
+
+        // Determine if provider offers physical services
+        boolean hasPhysicalServices = services.stream()
+                .anyMatch(s -> "PHYSICAL".equalsIgnoreCase(s.getDeliveryType()) || "BOTH".equalsIgnoreCase(s.getDeliveryType()));
+        String providerDeliveryType = provider != null ? provider.getServiceDeliveryType() : null;
+        boolean isPhysicalProvider = "PHYSICAL".equalsIgnoreCase(providerDeliveryType) || "BOTH".equalsIgnoreCase(providerDeliveryType);
+
+        int limit = Math.min(services.size(), MAX_SERVICES_IN_REPLY);
+        List<UUID> ids = new ArrayList<>(limit);
+        StringBuilder sb = new StringBuilder();
+        sb.append("━━━━━━━━━━━━━━━━━━━━━━\n");
+        sb.append("📋 ").append(providerName != null ? providerName : "Services").append("\n");
+        sb.append("━━━━━━━━━━━━━━━━━━━━━━\n\n");
+
+        // Show provider location prominently for physical services
+        if (isPhysicalProvider || hasPhysicalServices) {
+            if (provider != null && provider.getServiceLocationDescription() != null && !provider.getServiceLocationDescription().isBlank()) {
+                sb.append("📍 *Provider Location:*\n");
+                sb.append(provider.getServiceLocationDescription()).append("\n");
+                if (provider.getServiceLocationLat() != null && provider.getServiceLocationLng() != null) {
+                    sb.append("🗺️ View on map: https://www.google.com/maps?q=")
+                            .append(provider.getServiceLocationLat()).append(",").append(provider.getServiceLocationLng()).append("\n");
+                }
+                sb.append("\n");
+            } else if (provider != null && provider.getServiceLocationLat() != null && provider.getServiceLocationLng() != null) {
+                sb.append("📍 *Provider Location:*\n");
+                sb.append("🗺️ https://www.google.com/maps?q=")
+                        .append(provider.getServiceLocationLat()).append(",").append(provider.getServiceLocationLng()).append("\n\n");
+            }
+        }
+
+        // Show contact info if available
+        if (provider != null && provider.getPhone() != null && !provider.getPhone().isBlank()) {
+            sb.append("📞 Contact: ").append(provider.getPhone()).append("\n\n");
+        }
+
+        sb.append("*Available services:*\n\n");
+        for (int i = 0; i < limit; i++) {
+            ServiceOffering s = services.get(i);
+            ids.add(s.getServiceId());
+            String deliveryType = s.getDeliveryType();
+            String typeLabel = "PHYSICAL".equalsIgnoreCase(deliveryType) ? "📍 In-person" : "🌐 Online";
+            String duration = s.getDurationMinutes() != null ? " (~" + s.getDurationMinutes() + " min)" : "";
+            String categoryLine = (s.getCategory() != null && !s.getCategory().isBlank()) ? " [" + s.getCategory() + "]" : "";
+            sb.append(i + 1).append(". ").append(s.getName()).append(categoryLine).append("\n");
+            sb.append("   💰 KES ").append(s.getPrice()).append(" | ").append(typeLabel).append(duration).append("\n");
+            if (s.getDescription() != null && !s.getDescription().isBlank()) {
+                String desc = s.getDescription().length() > 55 ? s.getDescription().substring(0, 52) + "..." : s.getDescription();
+                sb.append("   ").append(desc).append("\n");
+            }
+            // Show online delivery methods for virtual/online services
+            if ("VIRTUAL".equalsIgnoreCase(deliveryType) && s.getOnlineDeliveryMethods() != null && !s.getOnlineDeliveryMethods().isBlank()) {
+                sb.append("   ✨ Via: ").append(formatOnlineDeliveryMethods(s.getOnlineDeliveryMethods())).append("\n");
+            }
+        }
+        session.setLastServiceIds(ids);
+        if (services.size() > limit) {
+            sb.append("\n... and ").append(services.size() - limit).append(" more.");
+        }
+
+        sb.append("\n━━━━━━━━━━━━━━━━━━━━━━\n");
+        sb.append("📝 *To book:*\n");
+        sb.append("• BOOK <number> (e.g. BOOK 1)\n");
+        sb.append("• With date: BOOK 1 2026-02-25\n");
+        if (hasPhysicalServices) {
+            sb.append("• In-person: share your location (📎) or type BOOK 1 at <your address>\n");
+        }
+        sb.append("\nReply SERVICES for other providers, LOCATION for this provider's address.");
+        return sb.toString();
+    }
+
+    /** Format online delivery methods for WhatsApp display. */
+    private static String formatOnlineDeliveryMethods(String methods) {
+        if (methods == null || methods.isBlank()) return "Online";
+        String[] parts = methods.split(",");
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            String m = parts[i].trim().toUpperCase();
+            String label = switch (m) {
+                case "VIDEO_CALL" -> "Video Call";
+                case "PHONE_CALL" -> "Phone Call";
+                case "WHATSAPP" -> "WhatsApp";
+                case "LIVE_CHAT" -> "Live Chat";
+                case "EMAIL" -> "Email";
+                case "SCREEN_SHARE" -> "Screen Share";
+                case "FILE_DELIVERY" -> "File Delivery";
+                case "RECORDED_CONTENT" -> "Recorded Content";
+                case "SOCIAL_MEDIA" -> "Social Media";
+                default -> m.replace("_", " ");
+            };
+            if (i > 0) sb.append(", ");
+            sb.append(label);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Book service {@code listNum} from the last service list, with optional date, time and location. In-person
+     * services without a location use the one shared earlier, or ask for it.
+     */
+    @Transactional
+    public String book(User customer, ChatSession session, int listNum, String dateStr, String timeStr,
+                       Double locationLat, Double locationLng, String locationDescription) {
+        List<UUID> serviceIds = session.getLastServiceIds();
+        if (serviceIds == null || listNum < 1 || listNum > serviceIds.size()) {
+            return "Reply SERVICES to see providers → pick one → then BOOK <number> (e.g. BOOK 1). Reply MENU for main menu.";
+        }
+        UUID serviceId = serviceIds.get(listNum - 1);
+        ServiceOffering service = serviceOfferingRepository.findByServiceIdWithCategory(serviceId).orElse(null);
+        if (service == null || service.getIsActive() == null || !service.getIsActive()) {
+            return "That service isn't available. Reply SERVICES to browse and pick another.";
+        }
+
+        LocalDate requestedDate;
+        if (dateStr != null && !dateStr.isBlank()) {
+            try {
+                requestedDate = LocalDate.parse(dateStr);
+                if (requestedDate.isBefore(LocalDate.now())) {
+                    return "Date must be today or in the future. Reply BOOK " + listNum + " <date> (e.g. BOOK " + listNum + " 2026-02-25).";
+                }
+            } catch (Exception e) {
+                return "Invalid date format. Use YYYY-MM-DD (e.g. BOOK " + listNum + " 2026-02-25).";
+            }
+        } else {
+            requestedDate = LocalDate.now().plusDays(1); // Default to tomorrow
+        }
+
+        LocalTime requestedTime = null;
+        if (timeStr != null && !timeStr.isBlank()) {
+            try {
+                requestedTime = LocalTime.parse(timeStr);
+            } catch (Exception e) {
+                // Ignore invalid time
+            }
+        }
+
+        // Check if location is needed for physical services
+        boolean isPhysical = "PHYSICAL".equalsIgnoreCase(service.getDeliveryType()) || "BOTH".equalsIgnoreCase(service.getDeliveryType());
+
+        // Use provided location or check for pending shared location
+        Double finalLat = locationLat;
+        Double finalLng = locationLng;
+        String finalLocationDesc = locationDescription;
+
+        if (isPhysical && (finalLat == null || finalLng == null)) {
+            CustomerLocation pending = session.getPendingLocation();
+            if (pending != null && !pending.isExpired()) {
+                finalLat = pending.lat();
+                finalLng = pending.lng();
+                if (finalLocationDesc == null && pending.description() != null) {
+                    finalLocationDesc = pending.description();
+                }
+                // Clear the pending location after use
+                session.setPendingLocation(null);
+            }
+        }
+
+        // For physical services, prompt for location if not provided
+        if (isPhysical && finalLat == null && finalLng == null && (finalLocationDesc == null || finalLocationDesc.isBlank())) {
+            return "📍 In-person service – we need your location:\n\n"
+                    + "• Share location: tap 📎 → Location → Send\n"
+                    + "• Or type: BOOK " + listNum + " at <your address>\n"
+                    + "  (e.g. BOOK " + listNum + " at Westlands Mall, Nairobi)\n\n"
+                    + "Reply with your location or address to continue.";
+        }
+
+        try {
+            ServiceAppointment appointment = ServiceAppointment.builder()
+                    .service(service)
+                    .user(customer)
+                    .requestedDate(requestedDate)
+                    .requestedTime(requestedTime)
+                    .status("PENDING")
+                    .notes("Booked via WhatsApp")
+                    .customerLocationLat(finalLat)
+                    .customerLocationLng(finalLng)
+                    .customerLocationDescription(finalLocationDesc)
+                    .build();
+            appointment = serviceAppointmentRepository.save(appointment);
+
+            ServiceBookingPayment payment = ServiceBookingPayment.builder()
+                    .appointment(appointment)
+                    .user(customer)
+                    .amount(service.getPrice())
+                    .paymentStatus("pending")
+                    .paymentMethod("M-Pesa")
+                    .build();
+            serviceBookingPaymentRepository.save(payment);
+
+            // Send notifications (customer + provider: in-app, WhatsApp, SMS)
+            notificationDispatcher.serviceBookingCreated(appointment);
+
+            String dateDisplay = requestedDate.toString();
+            String timeDisplay = requestedTime != null ? " at " + requestedTime : "";
+            String deliveryInfo = isPhysical ? " (In-person)" : " (Online – meeting link will be sent)";
+
+            StringBuilder response = new StringBuilder();
+            response.append("✅ Booking Confirmed!\n\n");
+            response.append("\"").append(service.getName()).append("\"\n");
+            response.append("📅 ").append(dateDisplay).append(timeDisplay).append("\n");
+            response.append("💰 KES ").append(service.getPrice()).append("\n");
+            response.append(deliveryInfo).append("\n");
+
+            if (isPhysical && finalLocationDesc != null && !finalLocationDesc.isBlank()) {
+                response.append("📍 Location: ").append(finalLocationDesc).append("\n");
+            } else if (isPhysical && finalLat != null && finalLng != null) {
+                response.append("📍 Location: ").append(String.format("%.4f, %.4f", finalLat, finalLng)).append("\n");
+            }
+
+            response.append("\nReply PAY SERVICE ").append(appointment.getAppointmentId()).append(" to pay now with M-Pesa.\n");
+            response.append("Or reply BOOKINGS to see your bookings.");
+
+            return response.toString();
+        } catch (Exception e) {
+            log.warn("WhatsApp service booking failed: {}", e.getMessage());
+            return "Could not book service. Please try again or visit " + storefrontUrl + "/services";
+        }
+    }
+
+    /** List unpaid service bookings. */
+    public String unpaidBookings(User customer, ChatSession session) {
+        List<ServiceAppointment> bookings = serviceAppointmentRepository.findByUserIdOrderByRequestedDateDesc(customer.getUserId());
+        List<ServiceAppointment> unpaidBookings = bookings.stream()
+                .filter(a -> "PENDING".equalsIgnoreCase(a.getStatus()) || "CONFIRMED".equalsIgnoreCase(a.getStatus()))
+                .filter(a -> serviceBookingPaymentRepository.findByAppointmentAndPaymentStatus(a, "pending").isPresent())
+                .collect(Collectors.toList());
+
+        if (unpaidBookings.isEmpty()) {
+            return "You have no unpaid service bookings. Reply BOOKINGS to see all, or SERVICES to browse and book.";
+        }
+        int limit = Math.min(unpaidBookings.size(), MAX_BOOKINGS_IN_REPLY);
+        List<UUID> ids = new ArrayList<>(limit);
+        StringBuilder sb = new StringBuilder();
+        sb.append("Unpaid service bookings:\n\n");
+        for (int i = 0; i < limit; i++) {
+            ServiceAppointment a = unpaidBookings.get(i);
+            ids.add(a.getAppointmentId());
+            String serviceName = a.getService() != null ? a.getService().getName() : "Service";
+            BigDecimal price = a.getService() != null ? a.getService().getPrice() : BigDecimal.ZERO;
+            sb.append(i + 1).append(". ").append(serviceName).append(" – KES ").append(price).append("\n");
+        }
+        session.setLastBookingIds(ids);
+        if (unpaidBookings.size() > limit) {
+            sb.append("\n... and ").append(unpaidBookings.size() - limit).append(" more.");
+        }
+        sb.append("\n\nReply PAY SERVICE <number> (e.g. PAY SERVICE 1) to pay with M-Pesa.\n");
+        sb.append("Reply BOOKINGS for all, MENU for main menu.");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,48 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.User;
+import com.biasharahub.repository.ServiceAppointmentRepository;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Provider CONFIRM APT &lt;n&gt;: confirm an appointment from the last APPOINTMENTS list.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConfirmAppointmentHandler implements ChatCommandHandler {
+
+    private final ServiceAppointmentRepository serviceAppointmentRepository;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.CONFIRM_APPOINTMENT;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        return confirmAppointment(user, session, Integer.parseInt(route.argument()));
+    }
+
+    private String confirmAppointment(User owner, ChatSession session, int listNum) {
+        List<UUID> ids = session.getLastProviderAppointmentIds();
+        if (ids == null || listNum < 1 || listNum > ids.size()) {
+            return "Reply APPOINTMENTS first, then CONFIRM APT <number> (e.g. CONFIRM APT 1).";
+        }
+        UUID aptId = ids.get(listNum - 1);
+        return serviceAppointmentRepository.findById(aptId)
+                .filter(apt -> apt.getService() != null && owner.getBusinessId().equals(apt.getService().getBusinessId()))
+                .map(apt -> {
+                    apt.setStatus("CONFIRMED");
+                    serviceAppointmentRepository.save(apt);
+                    return "Appointment " + listNum + " confirmed. Customer will be notified.";
+                })
+                .orElse("Appointment not found. Reply APPOINTMENTS to refresh the list.");
+    }
+}
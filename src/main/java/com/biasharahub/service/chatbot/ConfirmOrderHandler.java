@@ -0,0 +1,64 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.Shipment;
+import com.biasharahub.entity.User;
+import com.biasharahub.repository.OrderRepository;
+import com.biasharahub.repository.ShipmentRepository;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Seller CONFIRM &lt;n&gt;: confirm an order from the last ORDERS list; creates its shipment if there is none.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConfirmOrderHandler implements ChatCommandHandler {
+
+    private final OrderRepository orderRepository;
+    private final ShipmentRepository shipmentRepository;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.CONFIRM_ORDER;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        return confirmOrder(user, session, Integer.parseInt(route.argument()));
+    }
+
+    private String confirmOrder(User owner, ChatSession session, int listNum) {
+        List<UUID> orderIds = session.getLastSellerOrderIds();
+        if (orderIds == null || listNum < 1 || listNum > orderIds.size()) {
+            return "Reply ORDERS first to see your shop orders, then CONFIRM <number> (e.g. CONFIRM 1).";
+        }
+        UUID orderId = orderIds.get(listNum - 1);
+        return orderRepository.findById(orderId)
+                .filter(o -> SellerOrdersHandler.orderBelongsToBusiness(o, owner.getBusinessId()))
+                .map(order -> {
+                    order.setOrderStatus("confirmed");
+                    orderRepository.save(order);
+                    List<Shipment> shipments = shipmentRepository.findByOrder(order);
+                    if (shipments.isEmpty()) {
+                        String mode = order.getDeliveryMode() != null ? order.getDeliveryMode() : "SELLER_SELF";
+                        String otp = ("SELLER_SELF".equalsIgnoreCase(mode) || "CUSTOMER_PICKUP".equalsIgnoreCase(mode))
+                                ? String.format("%06d", (int) (Math.random() * 1_000_000)) : null;
+                        Shipment shipment = Shipment.builder()
+                                .order(order)
+                                .deliveryMode(mode)
+                                .status("CREATED")
+                                .otpCode(otp)
+                                .build();
+                        shipmentRepository.save(shipment);
+                    }
+                    return "Order #" + order.getOrderNumber() + " confirmed. Reply SHIP " + listNum + " when you dispatch.";
+                })
+                .orElse("Order not found. Reply ORDERS to refresh the list.");
+    }
+}
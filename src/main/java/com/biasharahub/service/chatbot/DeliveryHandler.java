@@ -0,0 +1,92 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.Order;
+import com.biasharahub.entity.Shipment;
+import com.biasharahub.entity.User;
+import com.biasharahub.repository.OrderRepository;
+import com.biasharahub.repository.ShipmentRepository;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.biasharahub.service.chatbot.ChatReplies.MAX_ORDERS_IN_REPLY;
+
+/**
+ * DELIVERY / "track" (or 5 on the main menu): shipment status of the customer's recent orders.
+ */
+@Component
+@RequiredArgsConstructor
+public class DeliveryHandler implements ChatCommandHandler {
+
+    private final OrderRepository orderRepository;
+    private final ShipmentRepository shipmentRepository;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.DELIVERY;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        return deliveryStatus(user);
+    }
+
+    private String deliveryStatus(User customer) {
+        List<Order> orders = orderRepository.findByUserIdOrderByOrderedAtDesc(customer.getUserId());
+        List<String> lines = new ArrayList<>();
+        int count = 0;
+        for (Order order : orders) {
+            if (count >= MAX_ORDERS_IN_REPLY) break;
+            List<Shipment> shipments = shipmentRepository.findByOrder(order);
+            if (shipments.isEmpty()) {
+                if ("pending".equalsIgnoreCase(order.getOrderStatus()) || "confirmed".equalsIgnoreCase(order.getOrderStatus())) {
+                    lines.add("Order #" + order.getOrderNumber() + " – Payment confirmed. Delivery will be arranged.");
+                    count++;
+                }
+                continue;
+            }
+            for (Shipment s : shipments) {
+                String status = s.getStatus() != null ? s.getStatus() : "CREATED";
+                String line = "Order #" + order.getOrderNumber() + " – " + formatShipmentStatus(status);
+                String details = formatShipmentDetails(s);
+                if (!details.isEmpty()) line += " (" + details + ")";
+                lines.add(line);
+                count++;
+                if (count >= MAX_ORDERS_IN_REPLY) break;
+            }
+        }
+        if (lines.isEmpty()) {
+            return "No delivery updates yet. Reply ORDER to see your orders, or PAY to see pending orders and choose one to pay.";
+        }
+        return "Delivery status:\n\n" + String.join("\n", lines) + "\n\nWe'll send you updates: Order Shipped → Out for Delivery → Delivered!";
+    }
+
+    private static String formatShipmentStatus(String status) {
+        if ("CREATED".equalsIgnoreCase(status)) return "Dispatched";
+        if ("IN_TRANSIT".equalsIgnoreCase(status) || "OUT_FOR_DELIVERY".equalsIgnoreCase(status) || "SHIPPED".equalsIgnoreCase(status)) return "Out for Delivery";
+        if ("DELIVERED".equalsIgnoreCase(status) || "COLLECTED".equalsIgnoreCase(status)) return "Delivered!";
+        return status;
+    }
+
+    private static String formatShipmentDetails(Shipment s) {
+        StringBuilder sb = new StringBuilder();
+        if (s.getCourierService() != null && !s.getCourierService().isBlank()) {
+            sb.append(s.getCourierService());
+            if (s.getTrackingNumber() != null && !s.getTrackingNumber().isBlank()) sb.append(" ").append(s.getTrackingNumber());
+        }
+        if (s.getRiderVehicle() != null && !s.getRiderVehicle().isBlank()) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append("Reg: ").append(s.getRiderVehicle());
+        }
+        if (s.getRiderName() != null && !s.getRiderName().isBlank()) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(s.getRiderName());
+        }
+        return sb.toString();
+    }
+}
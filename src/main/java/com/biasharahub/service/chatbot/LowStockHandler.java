@@ -0,0 +1,55 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.Product;
+import com.biasharahub.entity.User;
+import com.biasharahub.repository.ProductRepository;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.biasharahub.service.chatbot.ChatReplies.MAX_PRODUCTS_IN_REPLY;
+
+/**
+ * Seller LOW STOCK: the business's products at or below {@link #LOW_STOCK_THRESHOLD} units.
+ */
+@Component
+@RequiredArgsConstructor
+public class LowStockHandler implements ChatCommandHandler {
+
+    private static final int LOW_STOCK_THRESHOLD = 30;
+
+    private final ProductRepository productRepository;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.LOW_STOCK;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        return lowStock(user);
+    }
+
+    private String lowStock(User owner) {
+        UUID businessId = owner.getBusinessId();
+        if (businessId == null) return "No business linked.";
+        List<Product> products = productRepository.findByBusinessId(businessId);
+        List<Product> low = products.stream()
+                .filter(p -> (p.getQuantity() != null && p.getQuantity() <= LOW_STOCK_THRESHOLD))
+                .toList();
+        if (low.isEmpty()) return "No low-stock items (all above " + LOW_STOCK_THRESHOLD + " units). Reply PRODUCTS to see all.";
+        StringBuilder sb = new StringBuilder();
+        sb.append("Low stock (≤ ").append(LOW_STOCK_THRESHOLD).append("):\n\n");
+        for (int i = 0; i < Math.min(low.size(), MAX_PRODUCTS_IN_REPLY); i++) {
+            Product p = low.get(i);
+            int qty = p.getQuantity() != null ? p.getQuantity() : 0;
+            sb.append("• ").append(p.getName() != null ? p.getName() : "Product").append(" – ").append(qty).append(" left. KES ").append(p.getPrice()).append("\n");
+        }
+        return sb.toString();
+    }
+}
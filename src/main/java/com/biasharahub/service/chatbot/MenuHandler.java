@@ -0,0 +1,28 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.User;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * MENU, HI, HELLO or an empty message: the main menu.
+ */
+@Component
+@RequiredArgsConstructor
+public class MenuHandler implements ChatCommandHandler {
+
+    private final ChatMenu chatMenu;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.MENU;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        return chatMenu.menu(user);
+    }
+}
@@ -0,0 +1,73 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.ServiceAppointment;
+import com.biasharahub.entity.User;
+import com.biasharahub.repository.ServiceAppointmentRepository;
+import com.biasharahub.repository.ServiceBookingPaymentRepository;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.biasharahub.service.chatbot.ChatReplies.MAX_BOOKINGS_IN_REPLY;
+
+/**
+ * MY BOOKINGS (or 7 on the main menu): the customer's service bookings, stored for PAY SERVICE &lt;n&gt;.
+ */
+@Component
+@RequiredArgsConstructor
+public class MyBookingsHandler implements ChatCommandHandler {
+
+    private final ServiceAppointmentRepository serviceAppointmentRepository;
+    private final ServiceBookingPaymentRepository serviceBookingPaymentRepository;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.MY_BOOKINGS;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        return myBookings(user, session);
+    }
+
+    private String myBookings(User customer, ChatSession session) {
+        List<ServiceAppointment> bookings = serviceAppointmentRepository.findByUserIdOrderByRequestedDateDesc(customer.getUserId());
+        if (bookings.isEmpty()) {
+            return "You have no service bookings yet. Reply SERVICES to browse verified providers and book, or ORDER to see your product orders.";
+        }
+        int limit = Math.min(bookings.size(), MAX_BOOKINGS_IN_REPLY);
+        List<UUID> ids = new ArrayList<>(limit);
+        StringBuilder sb = new StringBuilder();
+        sb.append("Your service bookings:\n\n");
+        for (int i = 0; i < limit; i++) {
+            ServiceAppointment a = bookings.get(i);
+            ids.add(a.getAppointmentId());
+            String serviceName = a.getService() != null ? a.getService().getName() : "Service";
+            String dateStr = a.getRequestedDate() != null ? a.getRequestedDate().toString() : "";
+            String timeStr = a.getRequestedTime() != null ? " at " + a.getRequestedTime() : "";
+            String status = a.getStatus() != null ? a.getStatus() : "PENDING";
+            BigDecimal price = a.getService() != null ? a.getService().getPrice() : BigDecimal.ZERO;
+
+            boolean unpaid = serviceBookingPaymentRepository.findByAppointmentAndPaymentStatus(a, "pending").isPresent();
+
+            sb.append(i + 1).append(". ").append(serviceName).append(" – ").append(dateStr).append(timeStr).append("\n");
+            sb.append("   Status: ").append(status);
+            if (unpaid) sb.append(" (unpaid – KES ").append(price).append(")");
+            sb.append("\n");
+        }
+        session.setLastBookingIds(ids);
+        if (bookings.size() > limit) {
+            sb.append("\n... and ").append(bookings.size() - limit).append(" more.");
+        }
+        sb.append("\n\nReply PAY SERVICE <number> to pay (e.g. PAY SERVICE 1).\n");
+        sb.append("Reply SERVICES to book more, MENU for main menu.");
+        return sb.toString();
+    }
+}
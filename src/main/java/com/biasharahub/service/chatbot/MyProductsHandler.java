@@ -0,0 +1,57 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.Product;
+import com.biasharahub.entity.User;
+import com.biasharahub.repository.ProductRepository;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.biasharahub.service.chatbot.ChatReplies.MAX_PRODUCTS_IN_REPLY;
+
+/**
+ * Seller PRODUCTS: the business's products with price and quantity.
+ */
+@Component
+@RequiredArgsConstructor
+public class MyProductsHandler implements ChatCommandHandler {
+
+    private final ProductRepository productRepository;
+
+    @Value("${app.storefront-url:https://biasharahub-app.sysnovatechnologies.com}")
+    private String storefrontUrl;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.MY_PRODUCTS;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        return myProducts(user);
+    }
+
+    private String myProducts(User owner) {
+        UUID businessId = owner.getBusinessId();
+        if (businessId == null) return "No business linked.";
+        List<Product> products = productRepository.findByBusinessId(businessId);
+        if (products.isEmpty()) return "No products yet. Add products at " + storefrontUrl;
+        int limit = Math.min(products.size(), MAX_PRODUCTS_IN_REPLY);
+        StringBuilder sb = new StringBuilder();
+        sb.append("Your products:\n\n");
+        for (int i = 0; i < limit; i++) {
+            Product p = products.get(i);
+            int qty = p.getQuantity() != null ? p.getQuantity() : 0;
+            sb.append(i + 1).append(". ").append(p.getName() != null ? p.getName() : "Product")
+                    .append(" – KES ").append(p.getPrice()).append(" – qty ").append(qty).append("\n");
+        }
+        if (products.size() > limit) sb.append("\n... and ").append(products.size() - limit).append(" more.");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,59 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.ServiceOffering;
+import com.biasharahub.entity.User;
+import com.biasharahub.repository.ServiceOfferingRepository;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.biasharahub.service.chatbot.ChatReplies.MAX_SERVICES_IN_REPLY;
+
+/**
+ * Provider MY SERVICES: the business's service offerings.
+ */
+@Component
+@RequiredArgsConstructor
+public class MyServicesHandler implements ChatCommandHandler {
+
+    private final ServiceOfferingRepository serviceOfferingRepository;
+
+    @Value("${app.storefront-url:https://biasharahub-app.sysnovatechnologies.com}")
+    private String storefrontUrl;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.MY_SERVICES;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        return myServices(user);
+    }
+
+    private String myServices(User owner) {
+        UUID businessId = owner.getBusinessId();
+        if (businessId == null) return "No business linked.";
+        List<ServiceOffering> services = serviceOfferingRepository.findByBusinessIdWithCategory(businessId);
+        if (services.isEmpty()) return "No services yet. Add services at " + storefrontUrl;
+        int limit = Math.min(services.size(), MAX_SERVICES_IN_REPLY);
+        StringBuilder sb = new StringBuilder();
+        sb.append("Your services:\n\n");
+        for (int i = 0; i < limit; i++) {
+            ServiceOffering s = services.get(i);
+            String title = s.getName() != null ? s.getName() : "Service";
+            sb.append(i + 1).append(". ").append(title)
+                    .append(" – KES ").append(s.getPrice())
+                    .append(" – ").append(s.getDeliveryType() != null ? s.getDeliveryType() : "N/A")
+                    .append(s.getIsActive() != null && s.getIsActive() ? " (active)" : " (inactive)").append("\n");
+        }
+        if (services.size() > limit) sb.append("\n... and ").append(services.size() - limit).append(" more.");
+        return sb.toString();
+    }
+}
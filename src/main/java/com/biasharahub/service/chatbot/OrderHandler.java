@@ -0,0 +1,153 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.InventoryImage;
+import com.biasharahub.entity.Order;
+import com.biasharahub.entity.OrderItem;
+import com.biasharahub.entity.Payment;
+import com.biasharahub.entity.Product;
+import com.biasharahub.entity.User;
+import com.biasharahub.repository.OrderRepository;
+import com.biasharahub.repository.PaymentRepository;
+import com.biasharahub.repository.ProductRepository;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import com.biasharahub.service.NotificationDispatcher;
+import com.biasharahub.service.OrderEventPublisher;
+import com.biasharahub.service.SellerAlertDigestService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * ORDER &lt;n&gt; &lt;qty&gt; [CASH] from the last product list, or ORDER &lt;product id&gt; &lt;qty&gt;; passes when neither parses.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderHandler implements ChatCommandHandler {
+
+    private static final Pattern ORDER_CMD = Pattern.compile("(?i)^order\\s+([a-f0-9-]{36})\\s+(\\d+)\\s*$");
+    /** Order by list number: "ORDER 1 2" = product #1, qty 2 */
+    private static final Pattern ORDER_INDEX = Pattern.compile("(?i)^order\\s+(\\d+)\\s+(\\d+)\\s*$");
+
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+    private final PaymentRepository paymentRepository;
+    private final OrderEventPublisher orderEventPublisher;
+    private final NotificationDispatcher notificationDispatcher;
+    private final SellerAlertDigestService sellerAlertDigestService;
+
+    @Value("${app.storefront-url:https://biasharahub-app.sysnovatechnologies.com}")
+    private String storefrontUrl;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.ORDER;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        String message = route.input().message();
+        boolean payCash = message.toLowerCase().endsWith(" cash");
+        var indexMatcher = ORDER_INDEX.matcher(message);
+        if (indexMatcher.matches()) {
+            int listNum = Integer.parseInt(indexMatcher.group(1));
+            int qty = Integer.parseInt(indexMatcher.group(2));
+            List<UUID> productIds = session.getLastProductIds();
+            if (productIds != null && listNum >= 1 && listNum <= productIds.size()) {
+                UUID productId = productIds.get(listNum - 1);
+                return createOrderAndReply(user, productId, qty, payCash ? "Cash" : "M-Pesa");
+            }
+            return "View a product list first: reply 1 for Shops, pick a shop, then reply ORDER <number> <qty> (e.g. ORDER 1 2). Or reply MENU for main menu.";
+        }
+        var matcher = ORDER_CMD.matcher(message);
+        if (matcher.matches()) {
+            try {
+                UUID productId = UUID.fromString(matcher.group(1));
+                int qty = Integer.parseInt(matcher.group(2));
+                return createOrderAndReply(user, productId, qty, payCash ? "Cash" : "M-Pesa");
+            } catch (Exception e) {
+                log.warn("WhatsApp order parse failed: {}", e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    @Transactional
+    public String createOrderAndReply(User customer, UUID productId, int qty, String paymentMethod) {
+        Product product = productRepository.findByProductIdWithImages(productId).orElse(null);
+        if (product == null) {
+            return "Product not found. Reply STOCK to see available products.";
+        }
+        int available = product.getQuantity() != null ? product.getQuantity() : 0;
+        if (qty <= 0) qty = 1;
+        if (available < qty) {
+            return "Insufficient stock for " + product.getName() + ". Available: " + available + ". Reply STOCK to see all.";
+        }
+        try {
+            Order order = createOrderForCustomer(customer, product, qty, paymentMethod != null && "Cash".equalsIgnoreCase(paymentMethod) ? "Cash" : "M-Pesa");
+            orderEventPublisher.orderCreated(order);
+            // Customer: "order placed" notification (so it appears in-app when order is via WhatsApp too)
+            notificationDispatcher.orderCreated(order);
+            // Notify sellers synchronously (same as app flow) so they receive order-created notifications when order is placed via WhatsApp
+            sellerAlertDigestService.orderCreated(order);
+            // Low-stock alert if product is now at or below threshold
+            if (product.getQuantity() != null && product.getQuantity() <= 10) {
+                sellerAlertDigestService.lowStock(product);
+            }
+            if ("Cash".equalsIgnoreCase(paymentMethod)) {
+                return "Order Confirmed! Order #" + order.getOrderNumber() + " – KES " + order.getTotalAmount()
+                        + ". Pay in cash when you receive. The seller will confirm payment in the system. Reply ORDER to see your orders.";
+            }
+            return "Order Confirmed! Order #" + order.getOrderNumber() + " – KES " + order.getTotalAmount() + ". Reply PAY "
+                    + order.getOrderNumber() + " to pay now with M-Pesa.";
+        } catch (Exception e) {
+            log.warn("WhatsApp order creation failed: {}", e.getMessage());
+            return "Could not create order. Please try again or visit " + storefrontUrl;
+        }
+    }
+
+    private Order createOrderForCustomer(User customer, Product product, int qty, String paymentMethod) {
+        String orderNumber = "ORD-WA-" + System.currentTimeMillis();
+        BigDecimal price = product.getPrice();
+        BigDecimal total = price.multiply(BigDecimal.valueOf(qty));
+        Order order = Order.builder()
+                .user(customer)
+                .orderNumber(orderNumber)
+                .totalAmount(total)
+                .orderStatus("pending")
+                .deliveryMode("SELLER_SELF")
+                .shippingFee(BigDecimal.ZERO)
+                .build();
+        InventoryImage img = product.getImages().isEmpty() ? null : product.getImages().get(0);
+        OrderItem item = OrderItem.builder()
+                .order(order)
+                .product(product)
+                .inventoryImage(img)
+                .quantity(qty)
+                .priceAtOrder(price)
+                .build();
+        order.getItems().add(item);
+        order = orderRepository.save(order);
+        product.setQuantity(product.getQuantity() - qty);
+        productRepository.save(product);
+        String method = "Cash".equalsIgnoreCase(paymentMethod) ? "Cash" : "M-Pesa";
+        Payment payment = Payment.builder()
+                .order(order)
+                .user(customer)
+                .amount(total)
+                .paymentStatus("pending")
+                .paymentMethod(method)
+                .build();
+        paymentRepository.save(payment);
+        return order;
+    }
+}
@@ -0,0 +1,61 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.Order;
+import com.biasharahub.entity.User;
+import com.biasharahub.repository.OrderRepository;
+import com.biasharahub.repository.PaymentRepository;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static com.biasharahub.service.chatbot.ChatReplies.MAX_ORDERS_IN_REPLY;
+
+/**
+ * ORDER / "my order" (or 3 on the main menu): the customer's orders, marking unpaid ones.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderStatusHandler implements ChatCommandHandler {
+
+    private final OrderRepository orderRepository;
+    private final PaymentRepository paymentRepository;
+
+    @Value("${app.storefront-url:https://biasharahub-app.sysnovatechnologies.com}")
+    private String storefrontUrl;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.ORDER_STATUS;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        return orderStatus(user);
+    }
+
+    private String orderStatus(User customer) {
+        List<Order> orders = orderRepository.findByUserIdOrderByOrderedAtDesc(customer.getUserId());
+        if (orders.isEmpty()) {
+            return "You have no orders yet. Reply STOCK to see products, SHOPS to browse shops, MENU for main menu, or visit " + storefrontUrl + " to browse and order.";
+        }
+        int limit = Math.min(orders.size(), MAX_ORDERS_IN_REPLY);
+        StringBuilder sb = new StringBuilder();
+        sb.append("Your orders:\n\n");
+        for (int i = 0; i < limit; i++) {
+            Order o = orders.get(i);
+            boolean hasUnpaid = paymentRepository.findByOrderAndPaymentStatus(o, "pending").isPresent();
+            sb.append("• #").append(o.getOrderNumber()).append(" – ").append(o.getOrderStatus());
+            if (hasUnpaid) sb.append(" (unpaid)");
+            sb.append(" – KES ").append(o.getTotalAmount()).append("\n");
+        }
+        sb.append("\nTo pay for an unpaid order: reply PAY to see unpaid orders, then PAY <order number> (e.g. PAY ")
+                .append(orders.get(0).getOrderNumber())
+                .append("). Reply DELIVERY for shipment status, or MENU for main menu.");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,28 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.User;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sellers and providers: any message that is not a business command gets their menu (no customer flows).
+ */
+@Component
+@RequiredArgsConstructor
+public class OwnerMenuHandler implements ChatCommandHandler {
+
+    private final ChatMenu chatMenu;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.OWNER_MENU;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        return chatMenu.menu(user);
+    }
+}
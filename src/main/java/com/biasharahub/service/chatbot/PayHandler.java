@@ -0,0 +1,110 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.Order;
+import com.biasharahub.entity.Payment;
+import com.biasharahub.entity.User;
+import com.biasharahub.repository.OrderRepository;
+import com.biasharahub.repository.PaymentRepository;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import com.biasharahub.service.MpesaClient;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static com.biasharahub.service.chatbot.ChatReplies.MAX_ORDERS_IN_REPLY;
+
+/**
+ * PAY (or 4 on the main menu): unpaid orders; PAY &lt;order number&gt;: M-Pesa STK push for that order.
+ */
+@Component
+@RequiredArgsConstructor
+public class PayHandler implements ChatCommandHandler {
+
+    /** Pay for specific order: "PAY ORD-WA-123" or "PAY #ORD-WA-123" */
+    private static final Pattern PAY_ORDER = Pattern.compile("(?i)^pay\\s+#?(\\S+)\\s*$");
+
+    private final OrderRepository orderRepository;
+    private final PaymentRepository paymentRepository;
+    private final MpesaClient mpesaClient;
+
+    @Value("${app.storefront-url:https://biasharahub-app.sysnovatechnologies.com}")
+    private String storefrontUrl;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.PAY;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        var payMatcher = PAY_ORDER.matcher(route.input().message());
+        return payMatcher.matches() ? payForOrder(user, phone, payMatcher.group(1)) : unpaidOrders(user);
+    }
+
+    private String unpaidOrders(User customer) {
+        List<Order> orders = orderRepository.findByUserIdOrderByOrderedAtDesc(customer.getUserId());
+        List<Order> unpaidOrders = orders.stream()
+                .filter(o -> "pending".equalsIgnoreCase(o.getOrderStatus()))
+                .filter(o -> paymentRepository.findByOrderAndPaymentStatus(o, "pending").isPresent())
+                .collect(Collectors.toList());
+        if (unpaidOrders.isEmpty()) {
+            return "You have no unpaid orders. Reply ORDER to see your orders, or place one via STOCK/SHOPS or at " + storefrontUrl + ".";
+        }
+        int limit = Math.min(unpaidOrders.size(), MAX_ORDERS_IN_REPLY);
+        StringBuilder sb = new StringBuilder();
+        sb.append("Unpaid orders:\n\n");
+        for (int i = 0; i < limit; i++) {
+            Order o = unpaidOrders.get(i);
+            sb.append("• #").append(o.getOrderNumber()).append(" – KES ").append(o.getTotalAmount()).append("\n");
+        }
+        if (unpaidOrders.size() > limit) {
+            sb.append("\n... and ").append(unpaidOrders.size() - limit).append(" more unpaid orders.\n");
+        }
+        sb.append("\nReply PAY <order number> to pay (e.g. PAY ")
+                .append(unpaidOrders.get(0).getOrderNumber())
+                .append("). Reply ORDER to see all orders, or MENU for main menu.");
+        return sb.toString();
+    }
+
+    /** Initiate payment for a specific order number (e.g. PAY ORD-WA-123). */
+    private String payForOrder(User customer, String phone, String orderToken) {
+        if (orderToken == null || orderToken.isBlank()) {
+            return unpaidOrders(customer);
+        }
+        String orderNumber = orderToken.startsWith("#") ? orderToken.substring(1) : orderToken;
+        Optional<Order> optOrder = orderRepository.findByOrderNumber(orderNumber);
+        if (optOrder.isEmpty()) {
+            return "We couldn't find order #" + orderNumber + ". Reply ORDER to see your orders, then reply PAY <order number> (e.g. PAY ORD-WA-123...).";
+        }
+        Order order = optOrder.get();
+        if (order.getUser() == null || !order.getUser().getUserId().equals(customer.getUserId())) {
+            return "That order does not belong to your account. Reply ORDER to see your own orders.";
+        }
+        if (!"pending".equalsIgnoreCase(order.getOrderStatus())) {
+            return "Order #" + order.getOrderNumber() + " is not pending payment (status: " + order.getOrderStatus() + "). Reply ORDER to see your orders.";
+        }
+        Payment payment = paymentRepository.findByOrderAndPaymentStatus(order, "pending").orElse(null);
+        if (payment == null) {
+            return "Order #" + order.getOrderNumber() + " has no pending payment. Reply ORDER for other orders.";
+        }
+        if ("Cash".equalsIgnoreCase(payment.getPaymentMethod())) {
+            return "Order #" + order.getOrderNumber() + " is pay-by-cash. Pay the seller when you receive. They will confirm payment in the system. Reply ORDER to see your orders.";
+        }
+        String phoneForMpesa = ChatReplies.mpesaPhone(phone);
+        if (phoneForMpesa == null) {
+            return ChatReplies.NO_MPESA_NUMBER;
+        }
+        String checkoutRequestId = mpesaClient.initiateStkPush(phoneForMpesa, order.getTotalAmount(),
+                order.getOrderNumber(), "BiasharaHub order payment");
+        payment.setTransactionId(checkoutRequestId);
+        paymentRepository.save(payment);
+        return "Please Pay Now. Check your phone for the M-Pesa prompt to complete payment for order #" + order.getOrderNumber() + ".";
+    }
+}
@@ -0,0 +1,102 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.ServiceAppointment;
+import com.biasharahub.entity.ServiceBookingPayment;
+import com.biasharahub.entity.User;
+import com.biasharahub.repository.ServiceAppointmentRepository;
+import com.biasharahub.repository.ServiceBookingPaymentRepository;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import com.biasharahub.service.MpesaClient;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * PAY SERVICE &lt;n|booking id&gt;: M-Pesa STK push for a service booking; passes when there is no booking reference.
+ */
+@Component
+@RequiredArgsConstructor
+public class PayServiceHandler implements ChatCommandHandler {
+
+    /** Pay for service booking: "PAY SERVICE <booking-id>" or "PAY SERVICE 1" */
+    private static final Pattern PAY_SERVICE = Pattern.compile("(?i)^pay\\s+service\\s+#?(\\S+)\\s*$");
+
+    private final ServiceAppointmentRepository serviceAppointmentRepository;
+    private final ServiceBookingPaymentRepository serviceBookingPaymentRepository;
+    private final ChatServiceReplies serviceReplies;
+    private final MpesaClient mpesaClient;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.PAY_SERVICE;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        var payServiceMatcher = PAY_SERVICE.matcher(route.input().message());
+        return payServiceMatcher.matches() ? payForBooking(user, session, phone, payServiceMatcher.group(1)) : null;
+    }
+
+    private String payForBooking(User customer, ChatSession session, String phone, String bookingToken) {
+        if (bookingToken == null || bookingToken.isBlank()) {
+            return serviceReplies.unpaidBookings(customer, session);
+        }
+
+        UUID appointmentId = null;
+
+        // Try by list number first
+        try {
+            int num = Integer.parseInt(bookingToken.trim());
+            List<UUID> bookingIds = session.getLastBookingIds();
+            if (bookingIds != null && num >= 1 && num <= bookingIds.size()) {
+                appointmentId = bookingIds.get(num - 1);
+            }
+        } catch (NumberFormatException ignored) {
+            // Try by UUID
+            try {
+                appointmentId = UUID.fromString(bookingToken.trim());
+            } catch (Exception e) {
+                return "Invalid booking reference. Reply BOOKINGS to see your bookings, then PAY SERVICE <number>.";
+            }
+        }
+
+        if (appointmentId == null) {
+            return "Booking not found. Reply BOOKINGS to see your bookings.";
+        }
+
+        Optional<ServiceAppointment> optAppt = serviceAppointmentRepository.findByAppointmentIdWithDetails(appointmentId);
+        if (optAppt.isEmpty()) {
+            return "Booking not found. Reply BOOKINGS to see your bookings.";
+        }
+
+        ServiceAppointment appointment = optAppt.get();
+        if (appointment.getUser() == null || !appointment.getUser().getUserId().equals(customer.getUserId())) {
+            return "That booking does not belong to your account. Reply BOOKINGS to see your bookings.";
+        }
+
+        ServiceBookingPayment payment = serviceBookingPaymentRepository.findByAppointmentAndPaymentStatus(appointment, "pending").orElse(null);
+        if (payment == null) {
+            return "Booking \"" + (appointment.getService() != null ? appointment.getService().getName() : "Service")
+                    + "\" has no pending payment. Reply BOOKINGS for your bookings.";
+        }
+
+        String phoneForMpesa = ChatReplies.mpesaPhone(phone);
+        if (phoneForMpesa == null) {
+            return ChatReplies.NO_MPESA_NUMBER;
+        }
+
+        String serviceName = appointment.getService() != null ? appointment.getService().getName() : "Service";
+        String checkoutRequestId = mpesaClient.initiateStkPush(phoneForMpesa, payment.getAmount(),
+                "SVC-" + appointment.getAppointmentId(), "BiasharaHub service: " + serviceName);
+        payment.setTransactionId(checkoutRequestId);
+        serviceBookingPaymentRepository.save(payment);
+
+        return "Please Pay Now. Check your phone for the M-Pesa prompt to complete payment for \"" + serviceName + "\" (KES " + payment.getAmount() + ").";
+    }
+}
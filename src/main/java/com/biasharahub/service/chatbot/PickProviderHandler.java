@@ -0,0 +1,31 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.User;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import com.biasharahub.service.ChatSession.ChatStage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * A number on the provider list: that provider's services.
+ */
+@Component
+@RequiredArgsConstructor
+public class PickProviderHandler implements ChatCommandHandler {
+
+    private final ChatServiceReplies serviceReplies;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.PICK_PROVIDER;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        String byProvider = serviceReplies.servicesByProvider(session, route.argument());
+        session.setStage(ChatStage.SERVICE_LIST);
+        return byProvider;
+    }
+}
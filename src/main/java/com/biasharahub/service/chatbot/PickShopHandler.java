@@ -0,0 +1,31 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.User;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import com.biasharahub.service.ChatSession.ChatStage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * A number on the shop list: that shop's products.
+ */
+@Component
+@RequiredArgsConstructor
+public class PickShopHandler implements ChatCommandHandler {
+
+    private final ChatCatalogReplies catalogReplies;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.PICK_SHOP;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        String byShop = catalogReplies.stockByShop(session, route.argument());
+        session.setStage(ChatStage.MAIN_MENU);
+        return byShop;
+    }
+}
@@ -0,0 +1,62 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.ServiceAppointment;
+import com.biasharahub.entity.User;
+import com.biasharahub.repository.ServiceAppointmentRepository;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.biasharahub.service.chatbot.ChatReplies.MAX_BOOKINGS_IN_REPLY;
+
+/**
+ * Provider APPOINTMENTS: appointments for the business's services, stored for CONFIRM APT / CANCEL APT &lt;n&gt;.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProviderAppointmentsHandler implements ChatCommandHandler {
+
+    private final ServiceAppointmentRepository serviceAppointmentRepository;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.PROVIDER_APPOINTMENTS;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        return appointments(user, session);
+    }
+
+    private String appointments(User owner, ChatSession session) {
+        UUID businessId = owner.getBusinessId();
+        if (businessId == null) return "No business linked. Use the dashboard to set up your services.";
+        List<ServiceAppointment> appointments = serviceAppointmentRepository.findByService_BusinessIdOrderByRequestedDateDesc(businessId);
+        if (appointments.isEmpty()) {
+            return "No appointments yet. Reply MY SERVICES to see your services, or MENU for main menu.";
+        }
+        int limit = Math.min(appointments.size(), MAX_BOOKINGS_IN_REPLY * 2);
+        List<UUID> ids = new ArrayList<>(limit);
+        StringBuilder sb = new StringBuilder();
+        sb.append("Your appointments:\n\n");
+        for (int i = 0; i < limit; i++) {
+            ServiceAppointment apt = appointments.get(i);
+            ids.add(apt.getAppointmentId());
+            String serviceName = apt.getService() != null && apt.getService().getName() != null ? apt.getService().getName() : "Service";
+            String customerName = apt.getUser() != null && apt.getUser().getName() != null ? apt.getUser().getName() : "Customer";
+            sb.append(i + 1).append(". ").append(serviceName).append(" – ").append(customerName)
+                    .append(" – ").append(apt.getRequestedDate()).append(apt.getRequestedTime() != null ? " " + apt.getRequestedTime() : "")
+                    .append(" – ").append(apt.getStatus()).append("\n");
+        }
+        session.setLastProviderAppointmentIds(ids);
+        if (appointments.size() > limit) sb.append("\n... and ").append(appointments.size() - limit).append(" more.");
+        sb.append("\n\nReply CONFIRM APT <n> or CANCEL APT <n> (e.g. CONFIRM APT 1).");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,104 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.User;
+import com.biasharahub.repository.UserRepository;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * LOCATION &lt;n|name&gt;: a provider's address, map link and contact.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProviderLocationHandler implements ChatCommandHandler {
+
+    private final UserRepository userRepository;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.PROVIDER_LOCATION;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        return providerLocation(session, route.argument());
+    }
+
+    /** Get provider location by number or name. */
+    private String providerLocation(ChatSession session, String providerArg) {
+        List<UUID> providerIds = session.getLastServiceProviderIds();
+        User provider = null;
+
+        try {
+            int num = Integer.parseInt(providerArg.trim());
+            if (providerIds != null && num >= 1 && num <= providerIds.size()) {
+                UUID providerId = providerIds.get(num - 1);
+                provider = userRepository.findById(providerId).orElse(null);
+            }
+        } catch (NumberFormatException ignored) {
+            // Search by name
+            List<User> providers = userRepository
+                    .findActiveOwnersByRoleAndServiceProviderStatusAndBusinessIdIsNotNullOrderByBusinessNameAsc("owner", "verified");
+            String search = providerArg.trim().toLowerCase();
+            for (User p : providers) {
+                String name = p.getBusinessName() != null ? p.getBusinessName() : p.getName();
+                if (name != null && name.toLowerCase().contains(search)) {
+                    provider = p;
+                    break;
+                }
+            }
+        }
+
+        if (provider == null) {
+            return "Provider not found. Reply SERVICES to see all service providers.";
+        }
+
+        String name = provider.getBusinessName() != null ? provider.getBusinessName() : provider.getName();
+        String deliveryType = provider.getServiceDeliveryType();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("📍 *").append(name).append(" - Location*\n\n");
+
+        if ("ONLINE".equalsIgnoreCase(deliveryType)) {
+            sb.append("🌐 This provider offers *online/remote services only*.\n\n");
+            sb.append("*Delivery may include:* Video call, phone call, WhatsApp, live chat, email, screen share, file delivery, recorded content.\n\n");
+            sb.append("Each service shows how it's delivered. Reply SERVICE ").append(providerArg).append(" to see services and book.");
+            return sb.toString();
+        }
+
+        boolean hasLocation = false;
+
+        if (provider.getServiceLocationDescription() != null && !provider.getServiceLocationDescription().isBlank()) {
+            sb.append("📌 *Address:*\n").append(provider.getServiceLocationDescription()).append("\n\n");
+            hasLocation = true;
+        }
+
+        if (provider.getServiceLocationLat() != null && provider.getServiceLocationLng() != null) {
+            sb.append("🗺️ *View on Google Maps:*\n");
+            sb.append("https://www.google.com/maps?q=")
+                    .append(provider.getServiceLocationLat()).append(",").append(provider.getServiceLocationLng()).append("\n\n");
+            hasLocation = true;
+        }
+
+        if (!hasLocation) {
+            sb.append("Location details not available for this provider.\n");
+            sb.append("Contact them directly for service location.\n\n");
+        }
+
+        if (provider.getPhone() != null && !provider.getPhone().isBlank()) {
+            sb.append("📞 *Contact:* ").append(provider.getPhone()).append("\n\n");
+        }
+
+        String typeLabel = "BOTH".equalsIgnoreCase(deliveryType) ? "Online & In-person" : "In-person only";
+        sb.append("🏷️ *Service type:* ").append(typeLabel).append("\n\n");
+
+        sb.append("Reply SERVICE ").append(providerArg).append(" to see their services and book.");
+        return sb.toString();
+    }
+}
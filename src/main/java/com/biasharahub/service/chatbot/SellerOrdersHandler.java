@@ -0,0 +1,71 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.Order;
+import com.biasharahub.entity.User;
+import com.biasharahub.repository.OrderRepository;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.biasharahub.service.chatbot.ChatReplies.MAX_ORDERS_IN_REPLY;
+
+/**
+ * Seller ORDERS: orders containing this business's products, stored for CONFIRM &lt;n&gt; and SHIP &lt;n&gt;.
+ */
+@Component
+@RequiredArgsConstructor
+public class SellerOrdersHandler implements ChatCommandHandler {
+
+    private final OrderRepository orderRepository;
+
+    @Value("${app.storefront-url:https://biasharahub-app.sysnovatechnologies.com}")
+    private String storefrontUrl;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.SELLER_ORDERS;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        return sellerOrders(user, session);
+    }
+
+    private String sellerOrders(User owner, ChatSession session) {
+        UUID businessId = owner.getBusinessId();
+        if (businessId == null) return "No business linked. Use the dashboard to set up your shop.";
+        List<Order> orders = orderRepository.findOrdersContainingProductsByBusinessId(businessId);
+        if (orders.isEmpty()) {
+            return "No orders for your shop yet. Reply PRODUCTS to see your products, or MENU for main menu.";
+        }
+        int limit = Math.min(orders.size(), MAX_ORDERS_IN_REPLY);
+        List<UUID> orderIds = new ArrayList<>(limit);
+        StringBuilder sb = new StringBuilder();
+        sb.append("Your shop orders:\n\n");
+        for (int i = 0; i < limit; i++) {
+            Order o = orders.get(i);
+            orderIds.add(o.getOrderId());
+            String customerName = o.getUser() != null && o.getUser().getName() != null ? o.getUser().getName() : "Customer";
+            sb.append(i + 1).append(". #").append(o.getOrderNumber()).append(" – ").append(customerName)
+                    .append(" – KES ").append(o.getTotalAmount()).append(" – ").append(o.getOrderStatus()).append("\n");
+        }
+        session.setLastSellerOrderIds(orderIds);
+        if (orders.size() > limit) sb.append("\n... and ").append(orders.size() - limit).append(" more. Visit ").append(storefrontUrl).append(" for full list.");
+        sb.append("\n\nReply CONFIRM <n> to confirm, SHIP <n> to mark shipped (e.g. CONFIRM 1, SHIP 1).");
+        return sb.toString();
+    }
+
+    /** Whether the order contains any of the business's products. */
+    static boolean orderBelongsToBusiness(Order order, UUID businessId) {
+        if (order.getItems() == null || businessId == null) return false;
+        return order.getItems().stream()
+                .anyMatch(item -> item.getProduct() != null && businessId.equals(item.getProduct().getBusinessId()));
+    }
+}
@@ -0,0 +1,85 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.User;
+import com.biasharahub.repository.UserRepository;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import com.biasharahub.service.ChatSession.ChatStage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.biasharahub.service.chatbot.ChatReplies.MAX_SERVICE_PROVIDERS_IN_REPLY;
+
+/**
+ * SERVICES (or 6 on the main menu): verified service providers, stored for picks, SERVICE and LOCATION &lt;n&gt;.
+ */
+@Component
+@RequiredArgsConstructor
+public class ServiceProvidersHandler implements ChatCommandHandler {
+
+    private final UserRepository userRepository;
+
+    @Value("${app.storefront-url:https://biasharahub-app.sysnovatechnologies.com}")
+    private String storefrontUrl;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.SERVICE_PROVIDERS;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        session.setStage(ChatStage.SERVICE_PROVIDER_LIST);
+        return serviceProviders(session);
+    }
+
+    /** List verified service providers (service_provider_status = verified). */
+    private String serviceProviders(ChatSession session) {
+        List<User> providers = userRepository
+                .findActiveOwnersByRoleAndServiceProviderStatusAndBusinessIdIsNotNullOrderByBusinessNameAsc("owner", "verified");
+        if (providers.isEmpty()) {
+            return "No verified service providers at the moment. Visit " + storefrontUrl + "/services to check back later.\n\nReply SHOPS to browse product shops, or MENU for main menu.";
+        }
+        int limit = Math.min(providers.size(), MAX_SERVICE_PROVIDERS_IN_REPLY);
+        List<UUID> ids = new ArrayList<>(limit);
+        StringBuilder sb = new StringBuilder();
+        sb.append("Verified service providers (expertise, skills, talents):\n\n");
+        for (int i = 0; i < limit; i++) {
+            User p = providers.get(i);
+            ids.add(p.getUserId());
+            String name = p.getBusinessName() != null ? p.getBusinessName() : (p.getName() != null ? p.getName() : "Provider " + (i + 1));
+            String deliveryType = p.getServiceDeliveryType();
+            String typeLabel = "BOTH".equalsIgnoreCase(deliveryType) ? "Online & In-person" :
+                    "PHYSICAL".equalsIgnoreCase(deliveryType) ? "📍 In-person" : "🌐 Online";
+            sb.append(i + 1).append(". ").append(name).append(" (").append(typeLabel).append(")");
+
+            // Show location for physical/both delivery types
+            if (("PHYSICAL".equalsIgnoreCase(deliveryType) || "BOTH".equalsIgnoreCase(deliveryType))) {
+                if (p.getServiceLocationDescription() != null && !p.getServiceLocationDescription().isBlank()) {
+                    String locDesc = p.getServiceLocationDescription();
+                    if (locDesc.length() > 40) locDesc = locDesc.substring(0, 37) + "...";
+                    sb.append("\n   📍 ").append(locDesc);
+                } else if (p.getServiceLocationLat() != null && p.getServiceLocationLng() != null) {
+                    sb.append("\n   📍 Location available");
+                }
+            }
+            sb.append("\n");
+        }
+        session.setLastServiceProviderIds(ids);
+        if (providers.size() > limit) {
+            sb.append("\n... and ").append(providers.size() - limit).append(" more.");
+        }
+        sb.append("\n━━━━━━━━━━━━━━━━━━━━━━\n");
+        sb.append("• Reply 1, 2, 3... to see their services and book\n");
+        sb.append("• Reply LOCATION <number> to see address & map (e.g. LOCATION 1)\n");
+        sb.append("• Online = video/phone/WhatsApp/email – see each service for details\n");
+        sb.append("• Browse on web: ").append(storefrontUrl).append("/services");
+        return sb.toString();
+    }
+}
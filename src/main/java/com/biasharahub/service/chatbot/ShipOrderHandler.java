@@ -0,0 +1,78 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.Shipment;
+import com.biasharahub.entity.User;
+import com.biasharahub.repository.OrderRepository;
+import com.biasharahub.repository.ShipmentRepository;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import com.biasharahub.service.InAppNotificationService;
+import com.biasharahub.service.WhatsAppNotificationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Seller SHIP &lt;n&gt;: mark an order from the last ORDERS list as shipped and notify the customer.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShipOrderHandler implements ChatCommandHandler {
+
+    private final OrderRepository orderRepository;
+    private final ShipmentRepository shipmentRepository;
+    private final WhatsAppNotificationService whatsAppNotificationService;
+    private final InAppNotificationService inAppNotificationService;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.SHIP_ORDER;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        return shipOrder(user, session, Integer.parseInt(route.argument()));
+    }
+
+    private String shipOrder(User owner, ChatSession session, int listNum) {
+        List<UUID> orderIds = session.getLastSellerOrderIds();
+        if (orderIds == null || listNum < 1 || listNum > orderIds.size()) {
+            return "Reply ORDERS first, then SHIP <number> (e.g. SHIP 1).";
+        }
+        UUID orderId = orderIds.get(listNum - 1);
+        return orderRepository.findById(orderId)
+                .filter(o -> SellerOrdersHandler.orderBelongsToBusiness(o, owner.getBusinessId()))
+                .map(order -> {
+                    List<Shipment> shipments = shipmentRepository.findByOrder(order);
+                    Shipment shipment;
+                    if (shipments.isEmpty()) {
+                        String mode = order.getDeliveryMode() != null ? order.getDeliveryMode() : "SELLER_SELF";
+                        String otp = ("SELLER_SELF".equalsIgnoreCase(mode) || "CUSTOMER_PICKUP".equalsIgnoreCase(mode))
+                                ? String.format("%06d", (int) (Math.random() * 1_000_000)) : null;
+                        shipment = Shipment.builder()
+                                .order(order)
+                                .deliveryMode(mode)
+                                .status("IN_TRANSIT")
+                                .shippedAt(Instant.now())
+                                .otpCode(otp)
+                                .build();
+                        shipment = shipmentRepository.save(shipment);
+                    } else {
+                        shipment = shipments.get(0);
+                        shipment.setStatus("IN_TRANSIT");
+                        shipment.setShippedAt(Instant.now());
+                        shipment = shipmentRepository.save(shipment);
+                    }
+                    try { whatsAppNotificationService.notifyShipmentUpdated(shipment); } catch (Exception e) { log.warn("WhatsApp notify failed: {}", e.getMessage()); }
+                    try { inAppNotificationService.notifyShipmentUpdated(shipment); } catch (Exception e) { log.warn("In-app notify failed: {}", e.getMessage()); }
+                    return "Order #" + order.getOrderNumber() + " marked as shipped. Customer will be notified.";
+                })
+                .orElse("Order not found. Reply ORDERS to refresh the list.");
+    }
+}
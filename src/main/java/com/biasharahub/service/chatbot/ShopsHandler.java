@@ -0,0 +1,30 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.User;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import com.biasharahub.service.ChatSession.ChatStage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * SHOPS (or 1 on the main menu): the shop list.
+ */
+@Component
+@RequiredArgsConstructor
+public class ShopsHandler implements ChatCommandHandler {
+
+    private final ChatCatalogReplies catalogReplies;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.SHOPS;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        session.setStage(ChatStage.SHOP_LIST);
+        return catalogReplies.shops();
+    }
+}
@@ -0,0 +1,28 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.User;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * STOCK &lt;n|shop|product|ALL&gt;: products from a shop, matching products, or all products.
+ */
+@Component
+@RequiredArgsConstructor
+public class StockByShopHandler implements ChatCommandHandler {
+
+    private final ChatCatalogReplies catalogReplies;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.STOCK_BY_SHOP;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        return catalogReplies.stockByShop(session, route.argument());
+    }
+}
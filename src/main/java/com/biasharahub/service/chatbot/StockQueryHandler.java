@@ -0,0 +1,28 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.User;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * "Is it in stock?" with no shop: the shop list, so the customer can search by shop.
+ */
+@Component
+@RequiredArgsConstructor
+public class StockQueryHandler implements ChatCommandHandler {
+
+    private final ChatCatalogReplies catalogReplies;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.STOCK_QUERY;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        return catalogReplies.shops();
+    }
+}
@@ -0,0 +1,28 @@
+package com.biasharahub.service.chatbot;
+
+import com.biasharahub.entity.User;
+import com.biasharahub.service.ChatCommandHandler;
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * "Unpaid service" (or 8 on the main menu): service bookings awaiting payment.
+ */
+@Component
+@RequiredArgsConstructor
+public class UnpaidServiceBookingsHandler implements ChatCommandHandler {
+
+    private final ChatServiceReplies serviceReplies;
+
+    @Override
+    public ChatCommandRouter.Command command() {
+        return ChatCommandRouter.Command.UNPAID_SERVICE_BOOKINGS;
+    }
+
+    @Override
+    public String handle(ChatCommandRouter.Route route, User user, ChatSession session, String phone) {
+        return serviceReplies.unpaidBookings(user, session);
+    }
+}
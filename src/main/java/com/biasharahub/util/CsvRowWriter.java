@@ -0,0 +1,41 @@
+package com.biasharahub.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/** {@link RowWriter} for CSV: every non-numeric cell quoted, quotes doubled, CRLF line endings. */
+final class CsvRowWriter implements RowWriter {
+
+    private final BufferedWriter writer;
+
+    CsvRowWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void row(Object... cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) writer.write(',');
+            Object cell = cells[i];
+            if (cell instanceof BigDecimal d) {
+                writer.write(d.toPlainString());
+            } else if (cell instanceof Number n) {
+                writer.write(n.toString());
+            } else if (cell != null) {
+                writer.write('"');
+                writer.write(cell.toString().replace("\"", "\"\""));
+                writer.write('"');
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+}
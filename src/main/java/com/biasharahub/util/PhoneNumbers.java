@@ -0,0 +1,30 @@
+package com.biasharahub.util;
+
+/**
+ * Phone number normalization shared by entities and lookups. Kenyan rules, matching how the WhatsApp chatbot
+ * reads Twilio's From: 2547..., 07... and 7... (9 digits) all become +2547....
+ */
+public final class PhoneNumbers {
+
+    private PhoneNumbers() {
+    }
+
+    /**
+     * E.164 form of a phone (e.g. "0712 345 678" -> "+254712345678"), or null when blank or too short to be a
+     * phone number. Non-digits (spaces, dashes, "whatsapp:" prefix) are ignored.
+     */
+    public static String toE164(String phone) {
+        if (phone == null || phone.isBlank()) return null;
+        String digits = phone.replaceAll("\\D", "");
+        if (digits.startsWith("254") && digits.length() >= 12) {
+            return "+" + digits;
+        }
+        if (digits.startsWith("0") && digits.length() >= 9) {
+            return "+254" + digits.substring(1);
+        }
+        if (digits.length() >= 9) {
+            return "+254" + digits;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.biasharahub.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes a table row by row straight to an output stream (nothing is buffered beyond the current row), for
+ * exports that may be larger than memory. Cells are Strings or Numbers; null is an empty cell.
+ * {@link #close()} finishes the document but leaves the underlying stream open.
+ */
+public interface RowWriter extends Closeable {
+
+    void row(Object... cells) throws IOException;
+
+    /** RFC 4180 CSV in UTF-8. */
+    static RowWriter csv(OutputStream out) {
+        return new CsvRowWriter(out);
+    }
+
+    /** Single-sheet Office Open XML workbook (.xlsx) with inline strings. */
+    static RowWriter xlsx(OutputStream out, String sheetName) throws IOException {
+        return new XlsxRowWriter(out, sheetName);
+    }
+}
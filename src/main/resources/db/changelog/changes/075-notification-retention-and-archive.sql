@@ -0,0 +1,31 @@
+-- Notification retention: per-tenant policy on public.tenants, partitioned archive table and
+-- a partial index so the compaction job can find old read notifications without scanning the inbox.
+ALTER TABLE public.tenants ADD COLUMN IF NOT EXISTS notification_retention_days INTEGER;
+ALTER TABLE public.tenants ADD COLUMN IF NOT EXISTS notification_retention_mode VARCHAR(16);
+
+DO $$
+DECLARE
+    r RECORD;
+BEGIN
+    FOR r IN SELECT schema_name FROM public.tenants WHERE schema_name IS NOT NULL
+    LOOP
+        EXECUTE format('CREATE INDEX IF NOT EXISTS idx_notifications_read_created ON %I.notifications(created_at) WHERE read = true', r.schema_name);
+        -- Partitioned by archived_at (monthly); partitions are created on demand by NotificationRetentionJob.
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I.notifications_archive (
+            notification_id UUID NOT NULL,
+            user_id UUID NOT NULL,
+            type VARCHAR(32) NOT NULL,
+            title TEXT NOT NULL,
+            message TEXT NOT NULL,
+            action_url VARCHAR(255),
+            data TEXT,
+            read BOOLEAN NOT NULL DEFAULT true,
+            created_at TIMESTAMP WITH TIME ZONE,
+            read_at TIMESTAMP WITH TIME ZONE,
+            archived_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+            PRIMARY KEY (notification_id, archived_at)
+        ) PARTITION BY RANGE (archived_at)', r.schema_name);
+        EXECUTE format('CREATE INDEX IF NOT EXISTS idx_notifications_archive_user_created ON %I.notifications_archive(user_id, created_at DESC)', r.schema_name);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
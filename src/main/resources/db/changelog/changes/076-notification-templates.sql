@@ -0,0 +1,16 @@
+-- Per-tenant overrides for notification message templates (WhatsApp, SMS, in-app).
+-- A row replaces the built-in default for its template_key; see NotificationTemplateKey for keys and placeholders.
+DO $$
+DECLARE
+    r RECORD;
+BEGIN
+    FOR r IN SELECT schema_name FROM public.tenants WHERE schema_name IS NOT NULL
+    LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I.notification_templates (
+            template_key VARCHAR(64) PRIMARY KEY,
+            body TEXT NOT NULL,
+            updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+        )', r.schema_name);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
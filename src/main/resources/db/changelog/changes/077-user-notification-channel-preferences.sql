@@ -0,0 +1,14 @@
+-- Per-user notification channel preferences (NULL/true = enabled). Used by NotificationDispatcher.
+DO $$
+DECLARE
+    r RECORD;
+BEGIN
+    FOR r IN SELECT schema_name FROM public.tenants WHERE schema_name IS NOT NULL
+    LOOP
+        EXECUTE format('ALTER TABLE IF EXISTS %I.users ADD COLUMN IF NOT EXISTS notify_in_app BOOLEAN DEFAULT true', r.schema_name);
+        EXECUTE format('ALTER TABLE IF EXISTS %I.users ADD COLUMN IF NOT EXISTS notify_whatsapp BOOLEAN DEFAULT true', r.schema_name);
+        EXECUTE format('ALTER TABLE IF EXISTS %I.users ADD COLUMN IF NOT EXISTS notify_sms BOOLEAN DEFAULT true', r.schema_name);
+        EXECUTE format('CREATE INDEX IF NOT EXISTS idx_users_business_id ON %I.users(business_id)', r.schema_name);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,22 @@
+-- users.phone_e164: phone normalized to E.164 (+2547...) at write time, indexed for the WhatsApp chatbot's
+-- single-query user lookup. Backfilled here with the same rules as PhoneNumbers.toE164.
+DO $$
+DECLARE
+    r RECORD;
+BEGIN
+    FOR r IN SELECT schema_name FROM public.tenants WHERE schema_name IS NOT NULL
+    LOOP
+        EXECUTE format('ALTER TABLE IF EXISTS %I.users ADD COLUMN IF NOT EXISTS phone_e164 VARCHAR(20)', r.schema_name);
+        EXECUTE format($sql$
+            UPDATE %I.users u SET phone_e164 = CASE
+                    WHEN p.digits LIKE '254%%' AND length(p.digits) >= 12 THEN '+' || p.digits
+                    WHEN p.digits LIKE '0%%' AND length(p.digits) >= 9 THEN '+254' || substr(p.digits, 2)
+                    WHEN length(p.digits) >= 9 THEN '+254' || p.digits
+                END
+            FROM (SELECT user_id, regexp_replace(phone, '\D', '', 'g') AS digits FROM %I.users WHERE phone IS NOT NULL) p
+            WHERE u.user_id = p.user_id AND u.phone_e164 IS NULL
+        $sql$, r.schema_name, r.schema_name);
+        EXECUTE format('CREATE INDEX IF NOT EXISTS idx_users_phone_e164 ON %I.users(phone_e164) WHERE phone_e164 IS NOT NULL', r.schema_name);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
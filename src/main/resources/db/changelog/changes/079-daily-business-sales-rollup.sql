@@ -0,0 +1,27 @@
+-- Daily rollups behind business insights: delivered-order sales per business, product and day, and expenses per
+-- business and day. Kept current by SalesRollupService as orders are delivered (or leave delivered) and expenses
+-- are written; filled for existing data by its backfill on first startup or via POST /admin/insights/rollups/backfill.
+DO $$
+DECLARE
+    r RECORD;
+BEGIN
+    FOR r IN SELECT schema_name FROM public.tenants WHERE schema_name IS NOT NULL
+    LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I.daily_business_sales (
+            business_id UUID NOT NULL,
+            sales_date DATE NOT NULL,
+            product_id UUID NOT NULL,
+            quantity_sold BIGINT NOT NULL DEFAULT 0,
+            revenue DECIMAL(19, 2) NOT NULL DEFAULT 0,
+            updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+            PRIMARY KEY (business_id, sales_date, product_id))', r.schema_name);
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I.daily_business_expenses (
+            business_id UUID NOT NULL,
+            expense_date DATE NOT NULL,
+            amount DECIMAL(19, 2) NOT NULL DEFAULT 0,
+            expense_count INTEGER NOT NULL DEFAULT 0,
+            updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+            PRIMARY KEY (business_id, expense_date))', r.schema_name);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
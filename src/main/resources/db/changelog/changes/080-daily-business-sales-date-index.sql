@@ -0,0 +1,12 @@
+-- Tenant-wide top-products ranking (admin analytics) reads daily_business_sales by day across businesses; the
+-- primary key leads with business_id, so give the date range its own index.
+DO $$
+DECLARE
+    r RECORD;
+BEGIN
+    FOR r IN SELECT schema_name FROM public.tenants WHERE schema_name IS NOT NULL
+    LOOP
+        EXECUTE format('CREATE INDEX IF NOT EXISTS idx_daily_business_sales_date ON %I.daily_business_sales (sales_date)', r.schema_name);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,13 @@
+-- Paged shipment listing (GET /shipments): newest-first pages read shipments by created_at, and the seller's view
+-- finds its shipments through order_items by product, so both get an index.
+DO $$
+DECLARE
+    r RECORD;
+BEGIN
+    FOR r IN SELECT schema_name FROM public.tenants WHERE schema_name IS NOT NULL
+    LOOP
+        EXECUTE format('CREATE INDEX IF NOT EXISTS idx_shipments_created_at ON %I.shipments(created_at DESC)', r.schema_name);
+        EXECUTE format('CREATE INDEX IF NOT EXISTS idx_order_items_product ON %I.order_items(product_id, order_id)', r.schema_name);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
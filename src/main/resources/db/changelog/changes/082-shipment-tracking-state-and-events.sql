@@ -0,0 +1,33 @@
+-- Courier tracking served from our database: latest tracking state per shipment (refreshed by the background
+-- tracking poller) and the deduplicated event log. Kept out of shipments so JPA saves of a shipment never
+-- overwrite a concurrent tracking update.
+DO $$
+DECLARE
+    r RECORD;
+BEGIN
+    FOR r IN SELECT schema_name FROM public.tenants WHERE schema_name IS NOT NULL
+    LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I.shipment_tracking (
+            shipment_id UUID PRIMARY KEY REFERENCES %I.shipments(shipment_id) ON DELETE CASCADE,
+            tracking_status VARCHAR(64),
+            status_description TEXT,
+            estimated_delivery TIMESTAMP WITH TIME ZONE,
+            checked_at TIMESTAMP WITH TIME ZONE,
+            updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP)', r.schema_name, r.schema_name);
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I.shipment_tracking_events (
+            event_id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+            shipment_id UUID NOT NULL REFERENCES %I.shipments(shipment_id) ON DELETE CASCADE,
+            event_time TIMESTAMP WITH TIME ZONE,
+            status VARCHAR(64),
+            description TEXT,
+            location VARCHAR(255),
+            source VARCHAR(16) NOT NULL,
+            dedupe_key VARCHAR(64) NOT NULL,
+            received_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+            UNIQUE (shipment_id, dedupe_key))', r.schema_name, r.schema_name);
+        EXECUTE format('CREATE INDEX IF NOT EXISTS idx_shipment_tracking_events_shipment ON %I.shipment_tracking_events(shipment_id, event_time)', r.schema_name);
+        EXECUTE format('CREATE INDEX IF NOT EXISTS idx_shipments_courier_active ON %I.shipments(shipment_id)
+            WHERE delivery_mode = ''COURIER'' AND tracking_number IS NOT NULL AND status NOT IN (''DELIVERED'', ''COLLECTED'', ''CANCELLED'')', r.schema_name);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,11 @@
+-- Courier tracking webhooks find their shipments by tracking number in each tenant schema.
+DO $$
+DECLARE
+    r RECORD;
+BEGIN
+    FOR r IN SELECT schema_name FROM public.tenants WHERE schema_name IS NOT NULL
+    LOOP
+        EXECUTE format('CREATE INDEX IF NOT EXISTS idx_shipments_tracking_number ON %I.shipments(tracking_number) WHERE tracking_number IS NOT NULL', r.schema_name);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
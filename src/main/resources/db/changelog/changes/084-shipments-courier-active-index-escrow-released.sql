@@ -0,0 +1,14 @@
+-- Shipments whose escrow was released are finished too: leave them out of idx_shipments_courier_active, as the
+-- tracking poller's due query does.
+DO $$
+DECLARE
+    r RECORD;
+BEGIN
+    FOR r IN SELECT schema_name FROM public.tenants WHERE schema_name IS NOT NULL
+    LOOP
+        EXECUTE format('DROP INDEX IF EXISTS %I.idx_shipments_courier_active', r.schema_name);
+        EXECUTE format('CREATE INDEX IF NOT EXISTS idx_shipments_courier_active ON %I.shipments(shipment_id)
+            WHERE delivery_mode = ''COURIER'' AND tracking_number IS NOT NULL AND status NOT IN (''DELIVERED'', ''COLLECTED'', ''ESCROW_RELEASED'', ''CANCELLED'')', r.schema_name);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,12 @@
+-- Courier tracking webhooks as received (public schema): the webhook is answered once its updates are stored here,
+-- and CourierWebhookIngestor later finds their shipments' tenants, applies them and deletes the row. A claimed row
+-- that is never deleted (the instance died mid-batch) is claimed again once its claim is old enough.
+CREATE TABLE IF NOT EXISTS public.courier_webhook_inbox (
+    inbox_id BIGSERIAL PRIMARY KEY,
+    courier_code VARCHAR(64) NOT NULL,
+    courier_name VARCHAR(255),
+    updates TEXT NOT NULL,
+    received_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    claimed_at TIMESTAMP WITH TIME ZONE
+);
+CREATE INDEX IF NOT EXISTS idx_courier_webhook_inbox_claimed ON public.courier_webhook_inbox(claimed_at, inbox_id);
@@ -0,0 +1,144 @@
+package com.biasharahub.benchmark;
+
+import com.biasharahub.service.ChatCommandRouter;
+import com.biasharahub.service.ChatCommandRouter.Command;
+import com.biasharahub.service.ChatSession.ChatStage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routing throughput of {@link ChatCommandRouter} vs the if-chain it replaced, over a corpus of customer and seller
+ * message shapes seen on the WhatsApp webhook (menu digits, list picks, STOCK/BOOK/ORDER/PAY commands, free text).
+ * Each invocation routes the whole corpus. Not run by surefire; run the main method from the IDE or with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.biasharahub.benchmark.ChatCommandRouterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatCommandRouterBenchmark {
+
+    private static final String[] CUSTOMER_MESSAGES = {
+            "hi", "MENU", "1", "2", "3", "4", "6", "7", "shops", "STOCK 2", "stock Mama Mboga Groceries", "stock all",
+            "Is the sugar in stock?", "services", "SERVICE 1", "provider Wanjiku Salon", "LOCATION 2", "where is 3",
+            "BOOK 1", "BOOK 2 2026-02-25 10:00", "BOOK 1 at Westlands Mall", "my bookings", "PAY SERVICE 1",
+            "ORDER 1 2", "order 3b1f0c52-8a2e-4c9e-9d7a-2f6f5c1e9a10 1", "my order", "PAY", "pay ORD-WA-1042",
+            "I want to pay now", "where is my delivery?", "track", "Habari, mnauza unga?", "thanks!", "ok"
+    };
+    private static final String[] SELLER_MESSAGES = {
+            "orders", "CONFIRM 1", "confirm order 2", "SHIP 1", "products", "low stock", "appointments",
+            "CONFIRM APT 1", "cancel appointment 2", "my services", "1", "hello", "how do I add a product?"
+    };
+
+    private final ChatCommandRouter router = new ChatCommandRouter();
+    private final ChatCommandRouter.Input[] inputs = new ChatCommandRouter.Input[CUSTOMER_MESSAGES.length + SELLER_MESSAGES.length];
+
+    public ChatCommandRouterBenchmark() {
+        int i = 0;
+        for (String m : CUSTOMER_MESSAGES) inputs[i++] = ChatCommandRouter.tokenize(m, false, false, ChatStage.MAIN_MENU);
+        for (String m : SELLER_MESSAGES) inputs[i++] = ChatCommandRouter.tokenize(m, true, true, ChatStage.MAIN_MENU);
+    }
+
+    @Benchmark
+    public void router(Blackhole bh) {
+        for (ChatCommandRouter.Input input : inputs) {
+            bh.consume(router.route(ChatCommandRouter.tokenize(input.message(), input.seller(), input.provider(), input.stage())));
+        }
+    }
+
+    @Benchmark
+    public void ifChain(Blackhole bh) {
+        for (ChatCommandRouter.Input input : inputs) {
+            bh.consume(ifChain(input.message(), input.seller(), input.provider(), input.stage()));
+        }
+    }
+
+    /** The routing decisions of the old WhatsAppChatbotService.buildReply, without the handlers. */
+    private static Command ifChain(String message, boolean seller, boolean provider, ChatStage stage) {
+        if (message.equalsIgnoreCase("menu") || message.equalsIgnoreCase("hi") || message.equalsIgnoreCase("hello") || message.isBlank()) {
+            return Command.MENU;
+        }
+        String lower = message.toLowerCase().trim();
+        if (seller && (lower.equals("orders") || lower.equals("shop orders") || lower.equals("my shop orders"))) return Command.SELLER_ORDERS;
+        if (seller && (lower.startsWith("confirm ") || lower.startsWith("confirm order "))) {
+            String numPart = lower.replaceFirst("confirm order ", "").replaceFirst("confirm ", "").trim();
+            if (numPart.matches("\\d+")) return Command.CONFIRM_ORDER;
+        }
+        if (seller && (lower.startsWith("ship ") || lower.startsWith("ship order "))) {
+            String numPart = lower.replaceFirst("ship order ", "").replaceFirst("ship ", "").trim();
+            if (numPart.matches("\\d+")) return Command.SHIP_ORDER;
+        }
+        if (seller && (lower.equals("products") || lower.equals("my products") || lower.equals("inventory"))) return Command.MY_PRODUCTS;
+        if (seller && (lower.equals("low stock") || lower.equals("stock alert"))) return Command.LOW_STOCK;
+        if (provider && (lower.equals("appointments") || lower.equals("my appointments") || lower.equals("bookings"))) return Command.PROVIDER_APPOINTMENTS;
+        if (provider && (lower.startsWith("confirm apt ") || lower.startsWith("confirm appointment "))) {
+            String numPart = lower.replaceFirst("confirm appointment ", "").replaceFirst("confirm apt ", "").trim();
+            if (numPart.matches("\\d+")) return Command.CONFIRM_APPOINTMENT;
+        }
+        if (provider && (lower.startsWith("cancel apt ") || lower.startsWith("cancel appointment "))) {
+            String numPart = lower.replaceFirst("cancel appointment ", "").replaceFirst("cancel apt ", "").trim();
+            if (numPart.matches("\\d+")) return Command.CANCEL_APPOINTMENT;
+        }
+        if (provider && (lower.equals("my services") || lower.equals("seller services"))) return Command.MY_SERVICES;
+        if (seller || provider) return Command.OWNER_MENU;
+        if (stage == ChatStage.SHOP_LIST && lower.matches("^\\d+$")) return Command.PICK_SHOP;
+        if (stage == ChatStage.SERVICE_PROVIDER_LIST && lower.matches("^\\d+$")) return Command.PICK_PROVIDER;
+        if (stage == ChatStage.SERVICE_LIST && lower.matches("^\\d+$")) return Command.BOOK_FROM_LIST;
+        if (stage == ChatStage.MAIN_MENU) {
+            switch (lower) {
+                case "1": return Command.SHOPS;
+                case "2": return Command.BROWSE_STOCK;
+                case "3": return Command.ORDER_STATUS;
+                case "4": return Command.PAY;
+                case "5": return Command.DELIVERY;
+                case "6": return Command.SERVICE_PROVIDERS;
+                case "7": return Command.MY_BOOKINGS;
+                case "8": return Command.UNPAID_SERVICE_BOOKINGS;
+                default: break;
+            }
+        }
+        if (lower.equals("shops") || lower.equals("stores") || lower.equals("list shops") || lower.contains("browse by shop")) return Command.SHOPS;
+        if ((lower.startsWith("stock ") || lower.startsWith("shop ")) && !message.substring(5).trim().isEmpty()) return Command.STOCK_BY_SHOP;
+        if (lower.contains("stock") || lower.contains("in stock") || lower.contains("availability")) return Command.STOCK_QUERY;
+        if (lower.equals("services") || lower.equals("providers") || lower.equals("service providers") || lower.contains("browse services")
+                || lower.equals("categories") || lower.equals("service categories")) return Command.SERVICE_PROVIDERS;
+        if ((lower.startsWith("service ") || lower.startsWith("provider ")) && !message.substring(message.indexOf(' ') + 1).trim().isEmpty()) {
+            return Command.PROVIDER_SERVICES;
+        }
+        if ((lower.startsWith("location ") || lower.startsWith("where ") || lower.startsWith("where is "))
+                && !message.replaceFirst("(?i)^(location|where is|where)\\s+", "").trim().isEmpty()) {
+            return Command.PROVIDER_LOCATION;
+        }
+        if (lower.startsWith("book ")) return Command.BOOK;
+        if (lower.equals("bookings") || lower.equals("my bookings") || lower.equals("appointments") || lower.contains("my appointment")) return Command.MY_BOOKINGS;
+        if (lower.startsWith("pay service ")) return Command.PAY_SERVICE;
+        if (lower.contains("unpaid service") || lower.contains("service to pay")) return Command.UNPAID_SERVICE_BOOKINGS;
+        if (lower.startsWith("order ")) return Command.ORDER;
+        if (lower.equals("order") || lower.contains("my order")) return Command.ORDER_STATUS;
+        if (lower.contains("unpaid") || lower.contains("orders to pay") || lower.contains("pay for order")) return Command.PAY;
+        if ((lower.startsWith("pay") || lower.contains("pay now") || lower.contains("payment")) && !lower.contains("service")) return Command.PAY;
+        if (lower.contains("delivery") || lower.contains("shipment") || lower.contains("track")) return Command.DELIVERY;
+        return Command.UNKNOWN;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ChatCommandRouterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,58 @@
+package com.biasharahub.benchmark;
+
+import com.biasharahub.enums.NotificationTemplateKey;
+import com.biasharahub.service.NotificationTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering throughput of a compiled {@link NotificationTemplate} vs the String.format path it replaced
+ * (seller new-order WhatsApp message). Not run by surefire; run the main method from the IDE or with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.biasharahub.benchmark.NotificationTemplateBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationTemplateBenchmark {
+
+    private static final String FORMAT = "BiasharaHub: New order #%s from %s. Total: %s. Log in to process the order.";
+
+    private final NotificationTemplate compiled = NotificationTemplate.compile(
+            NotificationTemplateKey.WHATSAPP_SELLER_ORDER_CREATED.getDefaultTemplate(),
+            NotificationTemplateKey.WHATSAPP_SELLER_ORDER_CREATED.getParameters());
+    private final String orderNumber = "ORD-2024-000123";
+    private final String customerName = "Wanjiku Kamau";
+    private final BigDecimal total = new BigDecimal("4599.00");
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format(FORMAT, orderNumber, customerName, total);
+    }
+
+    @Benchmark
+    public String compiledTemplate() {
+        return compiled.render(orderNumber, customerName, total);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NotificationTemplateBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
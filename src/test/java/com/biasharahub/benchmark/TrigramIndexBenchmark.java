@@ -0,0 +1,78 @@
+package com.biasharahub.benchmark;
+
+import com.biasharahub.service.TrigramIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency of {@link TrigramIndex} over a 100k-item synthetic catalog (the size /products/search must handle
+ * in well under 10 ms): an exact word, a typo, and a two-word query. Not run by surefire; run the main method from
+ * the IDE or with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.biasharahub.benchmark.TrigramIndexBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrigramIndexBenchmark {
+
+    private static final String[] WORDS = {
+            "sugar", "maize", "flour", "unga", "rice", "beans", "milk", "bread", "soap", "oil", "salt", "tea",
+            "coffee", "juice", "water", "chapati", "sukuma", "tomato", "onion", "potato", "cabbage", "banana",
+            "mango", "avocado", "charger", "phone", "cable", "earphones", "shirt", "dress", "shoes", "kitenge",
+            "basket", "jiko", "sufuria", "blanket", "mattress", "pen", "exercise", "book", "paint", "cement"
+    };
+    private static final String[] CATEGORIES = {"Groceries", "Electronics", "Fashion", "Household", "Stationery", "Hardware"};
+
+    private TrigramIndex<String> index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<String> names = new ArrayList<>(100_000);
+        for (int i = 0; i < 100_000; i++) {
+            names.add(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " "
+                    + (random.nextInt(900) + 100) + "g " + CATEGORIES[random.nextInt(CATEGORIES.length)]);
+        }
+        index = TrigramIndex.build(names, s -> s);
+    }
+
+    @Benchmark
+    public Object exactWord() {
+        return index.search("avocado", 20, 0.5);
+    }
+
+    @Benchmark
+    public Object typo() {
+        return index.search("avacado", 20, 0.5);
+    }
+
+    @Benchmark
+    public Object twoWords() {
+        return index.search("maize flour", 20, 0.5);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TrigramIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
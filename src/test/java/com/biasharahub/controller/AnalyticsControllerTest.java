@@ -0,0 +1,99 @@
+package com.biasharahub.controller;
+
+import com.biasharahub.entity.User;
+import com.biasharahub.repository.OrderRepository;
+import com.biasharahub.repository.UserRepository;
+import com.biasharahub.security.AuthenticatedUser;
+import com.biasharahub.service.AnalyticsResultCache;
+import com.biasharahub.service.BusinessInsightsService;
+import com.biasharahub.service.PlatformAnalyticsService;
+import com.biasharahub.service.SalesRollupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Dashboard summary scoping: an owner only ever sees their own business's top products, and nothing (not the
+ * tenant's best sellers) before they have a business.
+ */
+class AnalyticsControllerTest {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 9, 1);
+    private static final LocalDate TO = LocalDate.of(2026, 10, 1);
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final BusinessInsightsService businessInsightsService = mock(BusinessInsightsService.class);
+    private final SalesRollupService salesRollupService = mock(SalesRollupService.class);
+    private final PlatformAnalyticsService platformAnalyticsService = mock(PlatformAnalyticsService.class);
+    private final AnalyticsResultCache analyticsResultCache = mock(AnalyticsResultCache.class);
+    private final AnalyticsController controller = new AnalyticsController(orderRepository, userRepository,
+            businessInsightsService, salesRollupService, platformAnalyticsService, analyticsResultCache);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void stubRangeAndCache() {
+        when(businessInsightsService.resolveDateRange(any(), any(), any())).thenReturn(new LocalDate[]{FROM, TO});
+        when(analyticsResultCache.get(any(), any())).thenAnswer(inv -> ((Supplier<Map<String, Object>>) inv.getArgument(1)).get());
+    }
+
+    @Test
+    void ownerWithoutBusinessGetsZeroTotalsAndNoTopProducts() {
+        AuthenticatedUser owner = owner(null);
+
+        ResponseEntity<Map<String, Object>> response = controller.getAnalytics(owner, "MONTH", null, null);
+
+        Map<String, Object> body = response.getBody();
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(0L, body.get("totalOrders"));
+        assertEquals(BigDecimal.ZERO, body.get("totalRevenue"));
+        assertEquals(List.of(), body.get("topProducts"));
+        assertEquals(List.of(), body.get("topProductsByUnits"));
+        assertEquals(FROM.toString(), body.get("topProductsFrom"));
+        verifyNoInteractions(salesRollupService, analyticsResultCache, platformAnalyticsService, orderRepository);
+    }
+
+    @Test
+    void ownerTopProductsAreScopedToTheirBusiness() {
+        UUID businessId = UUID.randomUUID();
+        AuthenticatedUser owner = owner(businessId);
+        when(orderRepository.sumRevenueByBusinessId(businessId)).thenReturn(new BigDecimal("300.00"));
+        when(orderRepository.countOrdersContainingProductsByBusinessId(businessId)).thenReturn(3L);
+        SalesRollupService.ProductSales own = new SalesRollupService.ProductSales(UUID.randomUUID(), "Maize flour", 4,
+                new BigDecimal("100.00"), 3, new BigDecimal("300.00"));
+        when(salesRollupService.topProducts(eq(businessId), eq(FROM), eq(TO), anyBoolean(), anyInt())).thenReturn(List.of(own));
+
+        Map<String, Object> body = controller.getAnalytics(owner, "MONTH", null, null).getBody();
+
+        assertEquals(1, ((List<?>) body.get("topProducts")).size());
+        assertEquals(new BigDecimal("100.00"), body.get("averageOrderValue"));
+        verify(salesRollupService, never()).topProducts(isNull(), any(), any(), anyBoolean(), anyInt());
+        verifyNoInteractions(platformAnalyticsService);
+    }
+
+    private AuthenticatedUser owner(UUID businessId) {
+        UUID userId = UUID.randomUUID();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(User.builder().userId(userId).businessId(businessId).build()));
+        return new AuthenticatedUser(userId, "owner@example.com", "OWNER");
+    }
+}
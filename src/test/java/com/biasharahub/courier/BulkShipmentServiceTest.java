@@ -0,0 +1,342 @@
+package com.biasharahub.courier;
+
+import com.biasharahub.entity.CourierService;
+import com.biasharahub.entity.Order;
+import com.biasharahub.entity.Shipment;
+import com.biasharahub.entity.User;
+import com.biasharahub.repository.CourierServiceRepository;
+import com.biasharahub.repository.ShipmentRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link BulkShipmentService} with the generic REST provider against a local stub courier: batch and per-shipment
+ * creation save each tracking number, unusable shipments are skipped before the provider is called, owners only
+ * dispatch their own business's shipments, provider failures and tracking numbers set meanwhile are reported per
+ * shipment, and a shipment still being dispatched by one run is skipped by an overlapping one.
+ */
+class BulkShipmentServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StubCourierServer stub;
+    /** Shipment ids the stub received, in arrival order (batch and single endpoints). */
+    private final List<UUID> providerCalls = new CopyOnWriteArrayList<>();
+    private final Set<UUID> failing = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> omitted = ConcurrentHashMap.newKeySet();
+    private volatile UUID held;
+
+    private final Map<UUID, Shipment> shipments = new HashMap<>();
+    private final Map<UUID, UUID> businessOf = new HashMap<>();
+    private final Map<UUID, String> saved = new ConcurrentHashMap<>();
+    private final Set<UUID> trackedMeanwhile = ConcurrentHashMap.newKeySet();
+    private final Map<String, String> properties = new HashMap<>();
+    private final CourierServiceRepository courierServiceRepository = mock(CourierServiceRepository.class);
+    private final ShipmentRepository shipmentRepository = mock(ShipmentRepository.class);
+    private BulkShipmentService service;
+
+    @BeforeEach
+    void startStub() throws Exception {
+        stub = new StubCourierServer();
+        stub.handle("/batch/shipments/batch", exchange -> {
+            StringBuilder results = new StringBuilder("{\"results\":[{\"shipmentId\":\"not-a-uuid\",\"trackingNumber\":\"BAD\"}");
+            for (JsonNode s : objectMapper.readTree(exchange.getRequestBody()).path("shipments")) {
+                UUID id = UUID.fromString(s.get("shipmentId").asText());
+                providerCalls.add(id);
+                if (!omitted.contains(id)) {
+                    results.append(",{\"shipmentId\":\"").append(id).append("\",\"trackingNumber\":\"BT-").append(id).append("\"}");
+                }
+            }
+            StubCourierServer.respond(exchange, 200, results.append("]}").toString());
+        });
+        stub.handle("/single/shipments", exchange -> {
+            UUID id = UUID.fromString(objectMapper.readTree(exchange.getRequestBody()).get("shipmentId").asText());
+            providerCalls.add(id);
+            if (id.equals(held)) {
+                stub.awaitRelease();
+            }
+            if (failing.contains(id)) {
+                StubCourierServer.respond(exchange, 500, "{\"error\":\"rejected\"}");
+            } else {
+                StubCourierServer.respond(exchange, 200, "{\"trackingNumber\":\"ST-" + id + "\",\"labelUrl\":\"https://labels.example/" + id + "\"}");
+            }
+        });
+        stub.handle("/down/shipments/batch", exchange -> {
+            for (JsonNode s : objectMapper.readTree(exchange.getRequestBody()).path("shipments")) {
+                providerCalls.add(UUID.fromString(s.get("shipmentId").asText()));
+            }
+            StubCourierServer.respond(exchange, 503, "");
+        });
+        properties.put("app.courier.http.timeout-ms", "10000");
+        properties.put("app.courier.http.failure-threshold", "100");
+
+        CourierProviderConfig providerConfig = new CourierProviderConfig();
+        for (String code : List.of("batch", "single", "down")) {
+            providerConfig.setApiKeyForCode(code, "test-key");
+            when(courierServiceRepository.findByCode(code)).thenReturn(Optional.of(CourierService.builder()
+                    .code(code)
+                    .name("Stub " + code)
+                    .providerType("REST")
+                    .apiBaseUrl(stub.url("/" + code))
+                    .configJson("single".equals(code) ? null : "{\"batchCreate\": true}")
+                    .build()));
+        }
+        when(courierServiceRepository.findByCode("manual")).thenReturn(Optional.of(CourierService.builder()
+                .code("manual")
+                .name("Manual")
+                .providerType("MANUAL")
+                .build()));
+        when(shipmentRepository.findWithOrderAndRecipientByShipmentIdIn(anyCollection()))
+                .thenAnswer(inv -> find(inv.getArgument(0), null));
+        CourierHttpClient httpClient = new CourierHttpClient(new SimpleMeterRegistry(), properties::get);
+        CourierIntegrationService courierIntegrationService = new CourierIntegrationService(courierServiceRepository,
+                shipmentRepository, List.of(new RestGenericCourierProvider(providerConfig, objectMapper, httpClient),
+                new ManualCourierProvider()), null);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+            @Override
+            public int update(String sql, Object... args) {
+                UUID id = (UUID) args[2];
+                if (trackedMeanwhile.contains(id)) return 0;
+                saved.put(id, (String) args[1]);
+                return 1;
+            }
+        };
+        service = new BulkShipmentService(courierIntegrationService, courierServiceRepository, shipmentRepository,
+                jdbcTemplate, new SimpleMeterRegistry(), 4, 500, 2, 2, 3_600_000);
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.release();
+        service.shutdown();
+        stub.close();
+    }
+
+    @Test
+    void batchCreateSavesTrackingNumbersAndSkipsUnusableShipments() throws Exception {
+        UUID a = courierShipment(null), b = courierShipment(null), c = courierShipment(null);
+        UUID selfDelivery = shipment("SELLER_SELF", null);
+        UUID tracked = courierShipment("EXISTING-1");
+        UUID missing = UUID.randomUUID();
+
+        BulkShipmentJob job = awaitDone(service.start(UUID.randomUUID(), null,
+                List.of(a, selfDelivery, b, tracked, missing, c, a), "batch"));
+
+        Map<UUID, BulkShipmentJob.Outcome> outcomes = outcomes(job);
+        assertEquals(6, outcomes.size(), "duplicate ids are dispatched once");
+        for (UUID id : List.of(a, b, c)) {
+            assertEquals(BulkShipmentJob.CREATED, outcomes.get(id).status());
+            assertEquals("BT-" + id, saved.get(id));
+        }
+        assertEquals(BulkShipmentJob.SKIPPED, outcomes.get(selfDelivery).status());
+        assertEquals(BulkShipmentJob.SKIPPED, outcomes.get(tracked).status());
+        assertEquals("EXISTING-1", outcomes.get(tracked).trackingNumber());
+        assertEquals(BulkShipmentJob.SKIPPED, outcomes.get(missing).status());
+        assertEquals(Set.of(a, b, c), Set.copyOf(providerCalls), "skipped shipments never reach the provider");
+        assertEquals(3, providerCalls.size());
+        assertEquals(3, job.snapshot().get("succeeded"));
+        assertEquals(3, job.snapshot().get("skipped"));
+    }
+
+    @Test
+    void batchResultWithoutTrackingNumberFailsOnlyThatShipment() throws Exception {
+        UUID a = courierShipment(null), b = courierShipment(null);
+        omitted.add(b);
+
+        BulkShipmentJob job = awaitDone(service.start(UUID.randomUUID(), null, List.of(a, b), "batch"));
+
+        Map<UUID, BulkShipmentJob.Outcome> outcomes = outcomes(job);
+        assertEquals(BulkShipmentJob.CREATED, outcomes.get(a).status(), "an unreadable row must not fail the chunk");
+        assertEquals(BulkShipmentJob.FAILED, outcomes.get(b).status());
+        assertFalse(saved.containsKey(b));
+    }
+
+    @Test
+    void perShipmentCreateReportsProviderFailuresPerShipment() throws Exception {
+        UUID a = courierShipment(null), rejected = courierShipment(null);
+        failing.add(rejected);
+
+        BulkShipmentJob job = awaitDone(service.start(UUID.randomUUID(), null, List.of(a, rejected), "single"));
+
+        Map<UUID, BulkShipmentJob.Outcome> outcomes = outcomes(job);
+        assertEquals(BulkShipmentJob.CREATED, outcomes.get(a).status());
+        assertEquals("https://labels.example/" + a, outcomes.get(a).labelUrl());
+        assertEquals("ST-" + a, saved.get(a));
+        assertEquals(BulkShipmentJob.FAILED, outcomes.get(rejected).status());
+        assertTrue(outcomes.get(rejected).error() != null && !outcomes.get(rejected).error().isBlank());
+        assertFalse(saved.containsKey(rejected));
+        assertEquals(2, providerCalls.size());
+    }
+
+    @Test
+    void providerOutageFailsEveryShipmentOfTheChunk() throws Exception {
+        UUID a = courierShipment(null), b = courierShipment(null);
+
+        BulkShipmentJob job = awaitDone(service.start(UUID.randomUUID(), null, List.of(a, b), "down"));
+
+        outcomes(job).values().forEach(o -> assertEquals(BulkShipmentJob.FAILED, o.status()));
+        assertEquals(2, job.snapshot().get("failed"));
+        assertTrue(saved.isEmpty());
+    }
+
+    @Test
+    void manualCourierReportsManualWithoutCallingAProvider() throws Exception {
+        UUID a = courierShipment(null);
+
+        BulkShipmentJob job = awaitDone(service.start(UUID.randomUUID(), null, List.of(a), "manual"));
+
+        assertEquals(BulkShipmentJob.MANUAL, outcomes(job).get(a).status());
+        assertTrue(providerCalls.isEmpty());
+    }
+
+    @Test
+    void ownerOnlyDispatchesOwnBusinessShipments() throws Exception {
+        UUID business = UUID.randomUUID();
+        UUID own = courierShipment(null), foreign = courierShipment(null);
+        businessOf.put(own, business);
+        businessOf.put(foreign, UUID.randomUUID());
+        when(shipmentRepository.findWithOrderAndRecipientByShipmentIdInAndBusinessId(anyCollection(), eq(business)))
+                .thenAnswer(inv -> find(inv.getArgument(0), business));
+
+        BulkShipmentJob job = awaitDone(service.start(UUID.randomUUID(), business, List.of(own, foreign), "single"));
+
+        Map<UUID, BulkShipmentJob.Outcome> outcomes = outcomes(job);
+        assertEquals(BulkShipmentJob.CREATED, outcomes.get(own).status());
+        assertEquals(BulkShipmentJob.SKIPPED, outcomes.get(foreign).status());
+        assertEquals(List.of(own), providerCalls);
+        verify(shipmentRepository, never()).findWithOrderAndRecipientByShipmentIdIn(anyCollection());
+    }
+
+    @Test
+    void trackingNumberSetMeanwhileIsReportedAsConflict() throws Exception {
+        UUID a = courierShipment(null);
+        trackedMeanwhile.add(a);
+
+        BulkShipmentJob job = awaitDone(service.start(UUID.randomUUID(), null, List.of(a), "single"));
+
+        BulkShipmentJob.Outcome outcome = outcomes(job).get(a);
+        assertEquals(BulkShipmentJob.CONFLICT, outcome.status());
+        assertEquals("ST-" + a, outcome.trackingNumber(), "the duplicate's tracking number is reported for cancelling");
+        assertEquals(1, job.snapshot().get("failed"));
+    }
+
+    @Test
+    void overlappingRunSkipsShipmentsStillBeingDispatched() throws Exception {
+        UUID a = courierShipment(null), b = courierShipment(null);
+        held = a;
+        BulkShipmentJob first = service.start(UUID.randomUUID(), null, List.of(a), "single");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (providerCalls.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        BulkShipmentJob second = awaitDone(service.start(UUID.randomUUID(), null, List.of(a, b), "single"));
+        stub.release();
+        awaitDone(first);
+
+        assertEquals(BulkShipmentJob.SKIPPED, outcomes(second).get(a).status());
+        assertEquals(BulkShipmentJob.CREATED, outcomes(second).get(b).status());
+        assertEquals(BulkShipmentJob.CREATED, outcomes(first).get(a).status());
+        assertEquals(1, providerCalls.stream().filter(a::equals).count(), "the shipment reaches the provider once");
+    }
+
+    @Test
+    void failedLookupDoesNotLeaveARunOrClaimBehind() throws Exception {
+        UUID a = courierShipment(null);
+        when(shipmentRepository.findWithOrderAndRecipientByShipmentIdIn(anyCollection()))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenAnswer(inv -> find(inv.getArgument(0), null));
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(IllegalStateException.class, () -> service.start(UUID.randomUUID(), null, List.of(a), "single"));
+        }
+        // Two failed starts would otherwise fill both active-run slots and keep the shipment claimed
+        BulkShipmentJob job = awaitDone(service.start(UUID.randomUUID(), null, List.of(a), "single"));
+
+        assertEquals(BulkShipmentJob.CREATED, outcomes(job).get(a).status());
+    }
+
+    @Test
+    void unknownCourierIsRejectedBeforeAnyWork() {
+        when(courierServiceRepository.findByCode(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(CourierIntegrationException.class,
+                () -> service.start(UUID.randomUUID(), null, List.of(UUID.randomUUID()), "nope"));
+        verify(shipmentRepository, never()).findWithOrderAndRecipientByShipmentIdIn(anyCollection());
+    }
+
+    private List<Shipment> find(Collection<UUID> ids, UUID businessId) {
+        List<Shipment> found = new ArrayList<>();
+        for (UUID id : ids) {
+            Shipment s = shipments.get(id);
+            if (s != null && (businessId == null || businessId.equals(businessOf.get(id)))) {
+                found.add(s);
+            }
+        }
+        return found;
+    }
+
+    private UUID courierShipment(String trackingNumber) {
+        return shipment("COURIER", trackingNumber);
+    }
+
+    private UUID shipment(String deliveryMode, String trackingNumber) {
+        UUID id = UUID.randomUUID();
+        User buyer = User.builder().userId(UUID.randomUUID()).name("Buyer").phone("+254700000001").build();
+        Order order = Order.builder().orderId(UUID.randomUUID()).user(buyer).shippingAddress("Moi Avenue, Nairobi").build();
+        shipments.put(id, Shipment.builder()
+                .shipmentId(id)
+                .order(order)
+                .deliveryMode(deliveryMode)
+                .trackingNumber(trackingNumber)
+                .build());
+        return id;
+    }
+
+    private static BulkShipmentJob awaitDone(BulkShipmentJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!job.isDone() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.isDone(), "bulk run did not finish: " + job.snapshot());
+        return job;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<UUID, BulkShipmentJob.Outcome> outcomes(BulkShipmentJob job) {
+        Map<UUID, BulkShipmentJob.Outcome> byId = new HashMap<>();
+        for (BulkShipmentJob.Outcome o : (List<BulkShipmentJob.Outcome>) job.snapshot().get("results")) {
+            byId.put(o.shipmentId(), o);
+        }
+        return byId;
+    }
+}
@@ -0,0 +1,143 @@
+package com.biasharahub.courier;
+
+import com.biasharahub.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link CourierHttpClient} against a local stub courier: hung calls are cut off at the provider timeout, repeated
+ * failures open the breaker (later calls fail without reaching the server), a half-open trial that fails before
+ * sending still reports back, and the bulkhead refuses calls beyond the per-provider limit.
+ */
+class CourierHttpClientTest {
+
+    private StubCourierServer stub;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final Map<String, String> properties = new HashMap<>();
+
+    @BeforeEach
+    void startStub() throws Exception {
+        stub = new StubCourierServer()
+                .handle("/ok", exchange -> {
+                    hits.incrementAndGet();
+                    StubCourierServer.respond(exchange, 200, "{\"status\":\"IN_TRANSIT\"}");
+                })
+                .handle("/fail", exchange -> {
+                    hits.incrementAndGet();
+                    StubCourierServer.respond(exchange, 503, "");
+                })
+                .handle("/hang", exchange -> {
+                    hits.incrementAndGet();
+                    stub.awaitRelease();
+                    StubCourierServer.respond(exchange, 200, "");
+                });
+        properties.put("app.courier.http.timeout-ms", "300");
+        properties.put("app.courier.http.failure-threshold", "3");
+        properties.put("app.courier.http.open-duration-ms", "60000");
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.close();
+    }
+
+    @Test
+    void returnsResponseOfHealthyProvider() throws Exception {
+        CourierHttpClient client = new CourierHttpClient(new SimpleMeterRegistry(), properties::get);
+
+        CourierHttpClient.Response response = client.send("stub", get("/ok"));
+
+        assertEquals(200, response.status());
+        assertTrue(response.body().contains("IN_TRANSIT"));
+        assertEquals(CircuitBreaker.State.CLOSED, client.circuitState("stub"));
+    }
+
+    @Test
+    void hungProviderTimesOutAtProviderTimeout() {
+        CourierHttpClient client = new CourierHttpClient(new SimpleMeterRegistry(), properties::get);
+
+        long start = System.nanoTime();
+        assertThrows(CourierIntegrationException.class, () -> client.send("stub", get("/hang")));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMs < 2000, "call should be cut off near the 300 ms timeout, took " + elapsedMs + " ms");
+    }
+
+    @Test
+    void failingProviderOpensCircuitAndFailsFast() throws Exception {
+        CourierHttpClient client = new CourierHttpClient(new SimpleMeterRegistry(), properties::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(503, client.send("stub", get("/fail")).status());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, client.circuitState("stub"));
+
+        assertThrows(CourierIntegrationException.class, () -> client.send("stub", get("/ok")));
+        assertEquals(3, hits.get(), "open circuit must not reach the provider");
+        // Other providers are unaffected
+        assertEquals(200, client.send("other", get("/ok")).status());
+    }
+
+    @Test
+    void requestThatFailsToBuildEndsHalfOpenTrial() throws Exception {
+        properties.put("app.courier.http.open-duration-ms", "100");
+        CourierHttpClient client = new CourierHttpClient(new SimpleMeterRegistry(), properties::get);
+        for (int i = 0; i < 3; i++) {
+            client.send("stub", get("/fail"));
+        }
+        Thread.sleep(150);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, client.circuitState("stub"));
+
+        // No URI: build() throws after the breaker has handed out the half-open trial
+        assertThrows(IllegalStateException.class, () -> client.send("stub", HttpRequest.newBuilder().GET()));
+        assertEquals(CircuitBreaker.State.OPEN, client.circuitState("stub"));
+
+        Thread.sleep(150);
+        assertEquals(200, client.send("stub", get("/ok")).status());
+        assertEquals(CircuitBreaker.State.CLOSED, client.circuitState("stub"));
+    }
+
+    @Test
+    void bulkheadRefusesCallsBeyondLimit() throws Exception {
+        properties.put("app.courier.http.providers.stub.max-concurrent", "1");
+        properties.put("app.courier.http.providers.stub.timeout-ms", "5000");
+        CourierHttpClient client = new CourierHttpClient(new SimpleMeterRegistry(), properties::get);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<CourierHttpClient.Response> inFlight = caller.submit(() -> client.send("stub", get("/hang")));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (hits.get() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertThrows(CourierIntegrationException.class, () -> client.send("stub", get("/ok")));
+            assertEquals(1, hits.get(), "refused call must not reach the provider");
+
+            stub.release();
+            assertEquals(200, inFlight.get(5, TimeUnit.SECONDS).status());
+            assertEquals(200, client.send("stub", get("/ok")).status());
+        } finally {
+            caller.shutdownNow();
+        }
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(stub.url(path))).GET();
+    }
+}
@@ -0,0 +1,143 @@
+package com.biasharahub.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Parity of the single-pass {@link InsightsAggregator} with the separate aggregates getInsights used to run
+ * (order count, product revenue and category revenue queries, then the same map building), over the same rows.
+ */
+class InsightsAggregatorTest {
+
+    private record Item(UUID orderId, UUID productId, String name, String category, int quantity, BigDecimal price) {}
+
+    @Test
+    void matchesSeparateAggregates() {
+        List<Item> items = sampleItems(new Random(42), 40, 300);
+        InsightsAggregator aggregator = aggregate(items);
+
+        assertEquals(legacyOrderCount(items), aggregator.orderCount());
+        assertEquals(legacyProductPerformance(items, null), aggregator.productPerformance(null));
+        assertEquals(legacyCategoryPerformance(items), aggregator.categoryPerformance());
+    }
+
+    @Test
+    void productFilterKeepsOnlyThatProduct() {
+        List<Item> items = sampleItems(new Random(7), 10, 80);
+        UUID productId = items.get(3).productId();
+        InsightsAggregator aggregator = aggregate(items);
+
+        List<Map<String, Object>> filtered = aggregator.productPerformance(productId);
+        assertEquals(legacyProductPerformance(items, productId), filtered);
+        assertEquals(1, filtered.size());
+        // Order count stays the business total, as before
+        assertEquals(legacyOrderCount(items), aggregator.orderCount());
+    }
+
+    @Test
+    void emptyRange() {
+        InsightsAggregator aggregator = new InsightsAggregator();
+        assertEquals(0, aggregator.orderCount());
+        assertEquals(List.of(), aggregator.productPerformance(null));
+        assertEquals(List.of(), aggregator.categoryPerformance());
+    }
+
+    private static InsightsAggregator aggregate(List<Item> items) {
+        InsightsAggregator aggregator = new InsightsAggregator();
+        for (Item i : items) {
+            aggregator.add(i.orderId(), i.productId(), i.name(), i.category(), i.quantity(), i.price());
+        }
+        return aggregator;
+    }
+
+    /** Products with fixed name/category (some missing), spread over orders with several items each. */
+    private static List<Item> sampleItems(Random random, int productCount, int itemCount) {
+        String[] categories = {"Groceries", "Electronics", "Clothing", null, "Uncategorized"};
+        List<Item> products = new ArrayList<>();
+        for (int p = 0; p < productCount; p++) {
+            products.add(new Item(null, UUID.randomUUID(), p % 9 == 0 ? null : "Product " + p,
+                    categories[p % categories.length], 0, BigDecimal.valueOf(50 + random.nextInt(5000), 2)));
+        }
+        List<Item> items = new ArrayList<>();
+        UUID orderId = UUID.randomUUID();
+        for (int n = 0; n < itemCount; n++) {
+            if (random.nextInt(3) == 0) orderId = UUID.randomUUID();
+            Item product = products.get(n < productCount ? n : random.nextInt(productCount));
+            // Price at order varies per line (discounts), with cents
+            BigDecimal price = product.price().add(BigDecimal.valueOf(random.nextInt(100), 2));
+            items.add(new Item(orderId, product.productId(), product.name(), product.category(), 1 + random.nextInt(5), price));
+        }
+        return items;
+    }
+
+    // ----- the previous implementation: three queries + map building in BusinessInsightsService -----
+
+    private static long legacyOrderCount(List<Item> items) {
+        Set<UUID> orders = new HashSet<>();
+        for (Item i : items) orders.add(i.orderId());
+        return orders.size();
+    }
+
+    /** GROUP BY productId, name, category ORDER BY SUM(quantity * price) DESC; then the old row-to-map code. */
+    private static List<Map<String, Object>> legacyProductPerformance(List<Item> items, UUID productId) {
+        Map<List<Object>, Object[]> groups = new LinkedHashMap<>();
+        for (Item i : items) {
+            Object[] row = groups.computeIfAbsent(java.util.Arrays.asList(i.productId(), i.name(), i.category()),
+                    k -> new Object[]{i.productId(), i.name(), i.category(), 0L, BigDecimal.ZERO});
+            row[3] = (Long) row[3] + i.quantity();
+            row[4] = ((BigDecimal) row[4]).add(i.price().multiply(BigDecimal.valueOf(i.quantity())));
+        }
+        List<Object[]> rows = new ArrayList<>(groups.values());
+        rows.sort(Comparator.comparing((Object[] r) -> (BigDecimal) r[4]).reversed());
+
+        List<Map<String, Object>> productPerformance = new ArrayList<>();
+        for (Object[] row : rows) {
+            UUID rowProductId = row[0] != null ? (UUID) row[0] : null;
+            if (productId != null && !productId.equals(rowProductId)) continue;
+            productPerformance.add(Map.<String, Object>of(
+                    "productId", row[0] != null ? row[0].toString() : "",
+                    "productName", row[1] != null ? row[1].toString() : "Unknown",
+                    "category", row[2] != null ? row[2].toString() : "Uncategorized",
+                    "quantitySold", row[3] != null ? ((Number) row[3]).longValue() : 0,
+                    "revenue", row[4] != null ? ((BigDecimal) row[4]).setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO
+            ));
+        }
+        return productPerformance;
+    }
+
+    /** SELECT COALESCE(category, 'Uncategorized'), SUM(...) GROUP BY category ORDER BY SUM(...) DESC. */
+    private static List<Map<String, Object>> legacyCategoryPerformance(List<Item> items) {
+        Map<String, BigDecimal> byCategory = new LinkedHashMap<>();
+        for (Item i : items) {
+            byCategory.merge(Objects.requireNonNullElse(i.category(), "\u0000null"),
+                    i.price().multiply(BigDecimal.valueOf(i.quantity())), BigDecimal::add);
+        }
+        List<Object[]> rows = new ArrayList<>();
+        byCategory.forEach((category, revenue) ->
+                rows.add(new Object[]{"\u0000null".equals(category) ? "Uncategorized" : category, revenue}));
+        rows.sort(Comparator.comparing((Object[] r) -> (BigDecimal) r[1]).reversed());
+
+        List<Map<String, Object>> categoryPerformance = new ArrayList<>();
+        for (Object[] row : rows) {
+            categoryPerformance.add(Map.of(
+                    "category", row[0] != null ? row[0].toString() : "Uncategorized",
+                    "revenue", row[1] != null ? ((BigDecimal) row[1]).setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO
+            ));
+        }
+        return categoryPerformance;
+    }
+}